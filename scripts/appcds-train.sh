@@ -0,0 +1,58 @@
+#!/usr/bin/env bash
+# Builds an AppCDS archive for the JVM build from a warmed-up training run.
+#
+#   mvn -DskipTests package
+#   scripts/appcds-train.sh
+#   java -XX:SharedArchiveFile=target/cds/payment-gateway.jsa -jar target/cds/payment-gateway-0.0.1-SNAPSHOT.jar
+#
+# Class data sharing needs plain jars on the class path, so the fat jar is extracted first into
+# target/cds. The training run is started with -XX:ArchiveClassesAtExit and stopped with SIGTERM
+# once /actuator/health/readiness is UP, i.e. after the warm-up has loaded the request paths;
+# the JVM writes the archive as it exits. Spring Boot's -Dspring.context.exit=onRefresh would stop
+# before the warm-up and miss those classes.
+#
+# The archive is only valid for the same JDK and the same extracted jars: train again after every
+# build. Redis has to be reachable and the gateway should be, so the token path is loaded too;
+# extra application arguments go in APP_ARGS.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+JAR=${JAR:-target/payment-gateway-0.0.1-SNAPSHOT.jar}
+JAVA=${JAVA:-java}
+DEST=${DEST:-target/cds}
+PORT=${PORT:-8090}
+TIMEOUT=${TIMEOUT:-120}
+APP_ARGS=${APP_ARGS:-}
+
+archive=$DEST/payment-gateway.jsa
+
+rm -rf "$DEST"
+"$JAVA" -Djarmode=tools -jar "$JAR" extract --destination "$DEST"
+extracted=$DEST/$(basename "$JAR")
+
+# shellcheck disable=SC2086
+"$JAVA" -XX:ArchiveClassesAtExit="$archive" -jar "$extracted" --server.port="$PORT" $APP_ARGS \
+    >"$DEST/training.log" 2>&1 &
+pid=$!
+
+for _ in $(seq 1 $((TIMEOUT * 10))); do
+    if curl -sf "http://localhost:$PORT/actuator/health/readiness" | grep -q '"UP"'; then
+        break
+    fi
+    if ! kill -0 "$pid" 2>/dev/null; then
+        echo "Training run exited early, see $DEST/training.log" >&2
+        exit 1
+    fi
+    sleep 0.1
+done
+
+kill -TERM "$pid"
+wait "$pid" || true
+
+if [[ ! -f $archive ]]; then
+    echo "No archive written, see $DEST/training.log" >&2
+    exit 1
+fi
+echo "Wrote $archive ($(du -h "$archive" | cut -f1)). Start with:"
+echo "  $JAVA -XX:SharedArchiveFile=$archive -jar $extracted"
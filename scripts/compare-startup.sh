@@ -0,0 +1,104 @@
+#!/usr/bin/env bash
+# Compares startup time and resident memory of the JVM jar, its fast-start variants and the
+# native executable.
+#
+#   mvn -DskipTests package                      # target/payment-gateway-0.0.1-SNAPSHOT.jar
+#   scripts/appcds-train.sh                      # target/cds, AppCDS archive
+#   scripts/crac-checkpoint.sh                   # target/crac, needs a CRaC JDK as JAVA
+#   mvn -Pnative -DskipTests native:compile      # target/payment-gateway (GraalVM JDK 21)
+#   scripts/compare-startup.sh
+#
+# Each build is started RUNS times. Startup is the wall time from launch until
+# /actuator/health/readiness reports UP, so it includes the warm-up. RSS is VmRSS at that point
+# and peak is VmHWM, both from /proc. A build that has not been produced is skipped. A CRaC
+# restore keeps the port and arguments of the checkpointed run.
+#
+# Redis has to be reachable. Extra application arguments go in APP_ARGS, for example
+# APP_ARGS="--payment.gateway.base-url=http://127.0.0.1:9099".
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+JAR=${JAR:-target/payment-gateway-0.0.1-SNAPSHOT.jar}
+NATIVE=${NATIVE:-target/payment-gateway}
+CDS=${CDS:-target/cds}
+CRAC=${CRAC:-target/crac}
+JAVA=${JAVA:-java}
+PORT=${PORT:-8090}
+RUNS=${RUNS:-5}
+TIMEOUT=${TIMEOUT:-120}
+APP_ARGS=${APP_ARGS:-}
+
+now_ms() {
+    date +%s%3N
+}
+
+kb() {
+    awk -v key="$1:" '$1 == key { print $2 }' "/proc/$2/status"
+}
+
+measure() {
+    local label=$1
+    shift
+    local total_ms=0 total_rss=0 total_hwm=0
+    for run in $(seq 1 "$RUNS"); do
+        local start pid ready=""
+        start=$(now_ms)
+        if [[ $label == crac ]]; then
+            "$@" >"target/compare-startup-$label.log" 2>&1 &
+        else
+            # shellcheck disable=SC2086
+            "$@" --server.port="$PORT" $APP_ARGS >"target/compare-startup-$label.log" 2>&1 &
+        fi
+        pid=$!
+        while (( $(now_ms) - start < TIMEOUT * 1000 )); do
+            if curl -sf "http://localhost:$PORT/actuator/health/readiness" | grep -q '"UP"'; then
+                ready=$(now_ms)
+                break
+            fi
+            kill -0 "$pid" 2>/dev/null || break
+            sleep 0.05
+        done
+        if [[ -z $ready ]]; then
+            kill "$pid" 2>/dev/null || true
+            echo "$label: not ready after run $run, see target/compare-startup-$label.log" >&2
+            return 1
+        fi
+        local rss hwm
+        rss=$(kb VmRSS "$pid")
+        hwm=$(kb VmHWM "$pid")
+        kill "$pid"
+        wait "$pid" 2>/dev/null || true
+        printf '%-6s run %d: ready in %5d ms, rss %6d MB, peak %6d MB\n' \
+            "$label" "$run" $((ready - start)) $((rss / 1024)) $((hwm / 1024))
+        total_ms=$((total_ms + ready - start))
+        total_rss=$((total_rss + rss))
+        total_hwm=$((total_hwm + hwm))
+    done
+    printf '%-6s mean : ready in %5d ms, rss %6d MB, peak %6d MB\n' \
+        "$label" $((total_ms / RUNS)) $((total_rss / RUNS / 1024)) $((total_hwm / RUNS / 1024))
+}
+
+if [[ -f $JAR ]]; then
+    measure jvm "$JAVA" -jar "$JAR"
+else
+    echo "jvm: $JAR not found, skipped"
+fi
+
+if [[ -f $CDS/payment-gateway.jsa ]]; then
+    measure cds "$JAVA" -XX:SharedArchiveFile="$CDS/payment-gateway.jsa" -jar "$CDS/$(basename "$JAR")"
+else
+    echo "cds: $CDS/payment-gateway.jsa not found, skipped"
+fi
+
+if [[ -d $CRAC ]] && ls "$CRAC"/*.img >/dev/null 2>&1; then
+    measure crac "$JAVA" -XX:CRaCRestoreFrom="$CRAC"
+else
+    echo "crac: no checkpoint in $CRAC, skipped"
+fi
+
+if [[ -x $NATIVE ]]; then
+    measure native "$NATIVE"
+else
+    echo "native: $NATIVE not found, skipped"
+fi
@@ -0,0 +1,53 @@
+#!/usr/bin/env bash
+# Takes a CRaC checkpoint of the JVM build after its warm-up.
+#
+#   mvn -Pcrac -DskipTests package
+#   JAVA=/opt/zulu21-crac/bin/java scripts/crac-checkpoint.sh
+#   java -XX:CRaCRestoreFrom=target/crac
+#
+# Needs a JDK with CRaC support, and jcmd from the same JDK. The jar is started with
+# -XX:CRaCCheckpointTo and the checkpoint is requested once /actuator/health/readiness is UP, so the
+# image holds the warmed-up heap and compiled code. Before the checkpoint Spring stops Tomcat,
+# Redis, Hikari and the scheduler, and the gateway token is dropped; after restore they are
+# restarted and the token is fetched again before Tomcat accepts requests. The journal, the traffic
+# capture and the webhook client close their files and connections too, and reopen them on restore.
+#
+# The checkpoint fails on any other file or socket left open, such as a log file: log to the
+# console only. Configuration is fixed in the image; restore it on a host with the same Redis and gateway endpoints. Extra
+# application arguments for the checkpointed run go in APP_ARGS.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+JAR=${JAR:-target/payment-gateway-0.0.1-SNAPSHOT.jar}
+JAVA=${JAVA:-java}
+JCMD=${JCMD:-$(dirname "$(command -v "$JAVA")")/jcmd}
+DEST=${DEST:-target/crac}
+PORT=${PORT:-8090}
+TIMEOUT=${TIMEOUT:-120}
+APP_ARGS=${APP_ARGS:-}
+
+rm -rf "$DEST"
+mkdir -p "$DEST"
+
+# shellcheck disable=SC2086
+"$JAVA" -XX:CRaCCheckpointTo="$DEST" -jar "$JAR" --server.port="$PORT" $APP_ARGS \
+    >"$DEST/checkpoint.log" 2>&1 &
+pid=$!
+
+for _ in $(seq 1 $((TIMEOUT * 10))); do
+    if curl -sf "http://localhost:$PORT/actuator/health/readiness" | grep -q '"UP"'; then
+        break
+    fi
+    if ! kill -0 "$pid" 2>/dev/null; then
+        echo "Application exited early, see $DEST/checkpoint.log" >&2
+        exit 1
+    fi
+    sleep 0.1
+done
+
+"$JCMD" "$pid" JDK.checkpoint
+wait "$pid" || true
+
+echo "Checkpoint written to $DEST. Restore with:"
+echo "  $JAVA -XX:CRaCRestoreFrom=$DEST"
@@ -0,0 +1,58 @@
+package co.zw.telone.paymentgateway.config;
+
+import feign.RequestInterceptor;
+import feign.RequestTemplate;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The Feign authorization interceptor with a valid cached token, which is what every
+ * upstream call pays. {@code contended} runs it from eight threads at once to show the cost
+ * of the synchronized token check; {@code uncontended} is the single-thread baseline.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TokenInterceptorBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Interceptor {
+        RequestInterceptor interceptor;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            InterceptorTokenRefreshHandler handler = new InterceptorTokenRefreshHandler(
+                    request -> Map.of("data", Map.of("token", "3f1c2d9a", "expires_in", 3600)),
+                    new SimpleMeterRegistry());
+            interceptor = handler.authorizationInterceptor();
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public RequestTemplate uncontended(Interceptor state) {
+        return apply(state);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public RequestTemplate contended(Interceptor state) {
+        return apply(state);
+    }
+
+    private static RequestTemplate apply(Interceptor state) {
+        RequestTemplate template = new RequestTemplate();
+        state.interceptor.apply(template);
+        return template;
+    }
+}
@@ -0,0 +1,76 @@
+package co.zw.telone.paymentgateway.reconciliation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reconciles a generated settlement file against a matching issued set. About 0.1% of the
+ * issued transactions are missing from the file, and the same share is mismatched or extra.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SettlementReconcilerBenchmark {
+
+    @Param({"1000000"})
+    public int rows;
+
+    @Param({"1", "0"})
+    public int parallelism;
+
+    private Path settlementFile;
+    private IssuedTransactions issued;
+    private SettlementReconciler reconciler;
+    private ForkJoinPool pool;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        settlementFile = Files.createTempFile("settlement", ".csv");
+        IssuedTransactions.Builder builder = IssuedTransactions.builder();
+        try (BufferedWriter out = Files.newBufferedWriter(settlementFile)) {
+            out.write("settledAt,merchantTransactionId,amountInCents,currency\n");
+            for (int i = 0; i < rows; i++) {
+                String id = "TEL" + (20261019000000L + i);
+                long amount = 1_000 + i % 50_000;
+                builder.add(id, amount);
+                if (i % 1000 == 1) {
+                    continue;
+                }
+                long settled = i % 1000 == 2 ? amount + 1 : amount;
+                out.write("2026-10-19T10:15:30Z," + id + "," + settled + ",USD\n");
+                if (i % 1000 == 3) {
+                    out.write("2026-10-19T10:15:30Z,EXTRA" + i + "," + settled + ",USD\n");
+                }
+            }
+        }
+        issued = builder.build();
+        pool = new ForkJoinPool(parallelism == 0 ? Runtime.getRuntime().availableProcessors() : parallelism);
+        reconciler = new SettlementReconciler(pool, 4 * 1024 * 1024, "merchantTransactionId", "amountInCents");
+    }
+
+    @Benchmark
+    public ReconciliationResult reconcile() throws IOException {
+        return reconciler.reconcile(settlementFile, issued);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        pool.shutdown();
+        Files.deleteIfExists(settlementFile);
+    }
+}
@@ -0,0 +1,125 @@
+package co.zw.telone.paymentgateway.serialization;
+
+import co.zw.telone.paymentgateway.model.CurrencyCode;
+import co.zw.telone.paymentgateway.model.Money;
+import co.zw.telone.paymentgateway.response.ApiResponse;
+import co.zw.telone.paymentgateway.response.PaymentSessionRequest;
+import co.zw.telone.paymentgateway.response.PaymentSessionResponse;
+import co.zw.telone.paymentgateway.response.SessionRequest;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.HttpStatus;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode and decode throughput of the DTOs on the hot path: the session request a client
+ * posts, the request sent upstream, the upstream response and the response returned to the
+ * client.
+ * <p>
+ * {@code plain} is what the application did before: the shared mapper with a
+ * {@code writeValueAsBytes}/{@code readValue} call per message. {@code accelerated} is the
+ * {@code payment.serialization.accelerated} path: Blackbird registered and a cached reader or
+ * writer per type from {@link JsonCodecs}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SerializationBenchmark {
+
+    private static final Type UPSTREAM_RESPONSE = new TypeReference<Map<String, Object>>() { }.getType();
+
+    @Param({"plain", "accelerated"})
+    public String codec;
+
+    private ObjectMapper objectMapper;
+    private JsonCodecs codecs;
+
+    private ApiResponse<PaymentSessionResponse> clientResponse;
+    private SessionRequest upstreamRequest;
+    private byte[] clientRequestJson;
+    private byte[] upstreamResponseJson;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        objectMapper = new ObjectMapper();
+        if ("accelerated".equals(codec)) {
+            objectMapper.registerModule(new BlackbirdModule());
+        }
+        codecs = new JsonCodecs(objectMapper);
+
+        Money amount = Money.of(12_550, CurrencyCode.USD);
+        clientResponse = new ApiResponse<>(HttpStatus.OK, "Payment session created", PaymentSessionResponse.builder()
+                .sessionId("8f14e45fceea167a5a36dedd4bea2543")
+                .paymentUrl("https://pay.example.com/checkout/8f14e45fceea167a5a36dedd4bea2543")
+                .status("PENDING")
+                .merchantTransactionId("TEL20261019101530000001")
+                .amount(PaymentSessionResponse.PaymentAmount.of(amount))
+                .build());
+        upstreamRequest = SessionRequest.builder()
+                .amount(SessionRequest.Amount.of(amount))
+                .merchant(SessionRequest.Merchant.builder().name("TELONE").build())
+                .paymentType("CARD")
+                .merchantTransactionId("TEL20261019101530000001")
+                .description("Broadband top-up")
+                .returnUrl("https://shop.example.com/return")
+                .build();
+        clientRequestJson = objectMapper.writeValueAsBytes(PaymentSessionRequest.builder()
+                .amountInCents(12_550L)
+                .currency(CurrencyCode.USD)
+                .merchantName("TELONE")
+                .merchantTransactionId("TEL20261019101530000001")
+                .description("Broadband top-up")
+                .returnUrl("https://shop.example.com/return")
+                .build());
+        upstreamResponseJson = objectMapper.writeValueAsBytes(Map.of("data", Map.of(
+                "id", "8f14e45fceea167a5a36dedd4bea2543",
+                "token", "3f1c2d9a",
+                "sessionInfo", objectMapper.convertValue(upstreamRequest, Map.class))));
+    }
+
+    @Benchmark
+    public byte[] encodeClientResponse() throws IOException {
+        return isPlain()
+                ? objectMapper.writeValueAsBytes(clientResponse)
+                : codecs.writer(clientResponse.getClass()).writeValueAsBytes(clientResponse);
+    }
+
+    @Benchmark
+    public byte[] encodeUpstreamRequest() throws IOException {
+        return isPlain()
+                ? objectMapper.writeValueAsBytes(upstreamRequest)
+                : codecs.writer(SessionRequest.class).writeValueAsBytes(upstreamRequest);
+    }
+
+    @Benchmark
+    public PaymentSessionRequest decodeClientRequest() throws IOException {
+        return isPlain()
+                ? objectMapper.readValue(clientRequestJson, PaymentSessionRequest.class)
+                : codecs.reader(PaymentSessionRequest.class).readValue(clientRequestJson);
+    }
+
+    @Benchmark
+    public Map<String, Object> decodeUpstreamResponse() throws IOException {
+        return isPlain()
+                ? objectMapper.readValue(upstreamResponseJson, objectMapper.constructType(UPSTREAM_RESPONSE))
+                : codecs.reader(UPSTREAM_RESPONSE).readValue(upstreamResponseJson);
+    }
+
+    private boolean isPlain() {
+        return "plain".equals(codec);
+    }
+}
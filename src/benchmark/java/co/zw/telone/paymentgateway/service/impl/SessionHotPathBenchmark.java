@@ -0,0 +1,69 @@
+package co.zw.telone.paymentgateway.service.impl;
+
+import co.zw.telone.paymentgateway.model.CurrencyCode;
+import co.zw.telone.paymentgateway.model.Money;
+import co.zw.telone.paymentgateway.response.PaymentSessionRequest;
+import co.zw.telone.paymentgateway.response.SessionRequest;
+import co.zw.telone.paymentgateway.response.SessionResponse;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The pure mapping steps of {@link PaymentGatewayServiceImpl#createPaymentSession}: building the
+ * upstream request and converting the upstream response map. Collaborators the two methods do
+ * not touch are left null.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SessionHotPathBenchmark {
+
+    private PaymentGatewayServiceImpl service;
+    private PaymentSessionRequest request;
+    private Money amount;
+    private Map<String, Object> upstreamResponse;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        service = new PaymentGatewayServiceImpl(null, null, null, null, null, objectMapper, null, null);
+        request = PaymentSessionRequest.builder()
+                .amountInCents(12_550L)
+                .currency(CurrencyCode.USD)
+                .merchantName("TELONE")
+                .merchantTransactionId("T2026101901")
+                .description("Broadband top-up")
+                .returnUrl("https://shop.example.com/return")
+                .build();
+        amount = request.getAmount();
+        upstreamResponse = objectMapper.readValue("""
+                {"data":{"id":"8f14e45fceea167a5a36dedd4bea2543","token":"3f1c2d9a","sessionInfo":{
+                  "amount":{"amountInCents":"12550","currency":"USD"},"merchant":{"name":"TELONE"},
+                  "paymentType":"PURCHASE","merchantTransactionId":"T2026101901",
+                  "description":"Broadband top-up","status":"PENDING",
+                  "returnUrl":"https://shop.example.com/return"}}}
+                """, new TypeReference<>() { });
+    }
+
+    @Benchmark
+    public SessionRequest mapToSessionRequest() {
+        return service.mapToSessionRequest(request, amount, request.getMerchantTransactionId());
+    }
+
+    @Benchmark
+    public SessionResponse parseGatewayResponse() {
+        return service.parseGatewayResponse(upstreamResponse);
+    }
+}
@@ -0,0 +1,68 @@
+package co.zw.telone.paymentgateway.service.impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.lang.reflect.Proxy;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The id generator's own cost per call: date formatting, key building and the probe loop.
+ * Redis is replaced by an in-memory set of ids already taken today, so every call probes
+ * {@code taken + 1} keys and the numbers do not include network time. The set is never
+ * written to, which keeps the probe count fixed for the whole run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class UniqueIdBenchmark {
+
+    @Param({"0", "20"})
+    public int taken;
+
+    private RedisUniqueIdService service;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String date = new SimpleDateFormat("yyyyMMdd").format(new Date());
+        Set<String> takenIds = new HashSet<>();
+        for (int i = 1; i <= taken; i++) {
+            takenIds.add("T" + date + String.format("%02d", i));
+        }
+        @SuppressWarnings("unchecked")
+        ValueOperations<String, String> operations = (ValueOperations<String, String>) Proxy.newProxyInstance(
+                ValueOperations.class.getClassLoader(), new Class<?>[]{ValueOperations.class},
+                (proxy, method, args) -> {
+                    if (!method.getName().equals("setIfAbsent")) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    return !takenIds.contains((String) args[0]);
+                });
+        StringRedisTemplate redisTemplate = new StringRedisTemplate() {
+            @Override
+            public ValueOperations<String, String> opsForValue() {
+                return operations;
+            }
+        };
+        service = new RedisUniqueIdService(redisTemplate, new SimpleMeterRegistry());
+    }
+
+    @Benchmark
+    public String generateUniqueTransactionId() {
+        return service.generateUniqueTransactionId("TelOne");
+    }
+}
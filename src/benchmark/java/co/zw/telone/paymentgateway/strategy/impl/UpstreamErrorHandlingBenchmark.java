@@ -0,0 +1,79 @@
+package co.zw.telone.paymentgateway.strategy.impl;
+
+import co.zw.telone.paymentgateway.client.UpstreamErrorBodyReader;
+import co.zw.telone.paymentgateway.config.PaymentGatewayErrorDecoder;
+import co.zw.telone.paymentgateway.exception.UpstreamValidationException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import feign.Request;
+import feign.Response;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.ResponseEntity;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The path a gateway 400 takes: {@link PaymentGatewayErrorDecoder} reads and classifies the
+ * response, then {@link UpstreamValidationStrategy} builds the client's error response. The
+ * strategy is also measured on its own, for a body with and without an error object.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class UpstreamErrorHandlingBenchmark {
+
+    private static final String METHOD_KEY = "SessionApiClient#createSession(String,SessionRequest)";
+
+    private PaymentGatewayErrorDecoder decoder;
+    private UpstreamValidationStrategy strategy;
+    private Response response;
+    private UpstreamValidationException withError;
+    private UpstreamValidationException withoutError;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        decoder = new PaymentGatewayErrorDecoder(new UpstreamErrorBodyReader(objectMapper), new SimpleMeterRegistry());
+        strategy = new UpstreamValidationStrategy(objectMapper);
+
+        Request request = Request.create(Request.HttpMethod.POST, "http://gateway/api/v1/sessions",
+                Map.of(), new byte[0], StandardCharsets.UTF_8, null);
+        response = Response.builder()
+                .status(400)
+                .reason("Bad Request")
+                .request(request)
+                .headers(Map.of("Content-Type", List.of("application/json")))
+                .body("""
+                        {"error":{"code":"UNSUPPORTED_CURRENCY","message":"Currency not supported","statusCode":"400"}}
+                        """, StandardCharsets.UTF_8)
+                .build();
+        withError = (UpstreamValidationException) decoder.decode(METHOD_KEY, response);
+        withoutError = new UpstreamValidationException(400, "[400] " + METHOD_KEY, request, new byte[0], Map.of(), null);
+    }
+
+    @Benchmark
+    public ResponseEntity<?> decodeAndHandle() {
+        return strategy.handleError((UpstreamValidationException) decoder.decode(METHOD_KEY, response));
+    }
+
+    @Benchmark
+    public ResponseEntity<?> handleError() {
+        return strategy.handleError(withError);
+    }
+
+    @Benchmark
+    public ResponseEntity<?> handleErrorWithoutErrorObject() {
+        return strategy.handleError(withoutError);
+    }
+}
@@ -0,0 +1,54 @@
+package co.zw.telone.paymentgateway.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * How long the stub gateway takes to answer. Written as {@code <kind>:<arguments>}, with
+ * durations in the usual Spring Boot form ({@code 40ms}, {@code 1s}):
+ * <ul>
+ *     <li>{@code fixed:40ms}, or just {@code 40ms}</li>
+ *     <li>{@code uniform:20ms..80ms}</li>
+ *     <li>{@code exponential:40ms}, given the mean</li>
+ *     <li>{@code lognormal:40ms,0.5}, given the median and sigma; a long tail like most real gateways</li>
+ * </ul>
+ */
+@FunctionalInterface
+public interface LatencyDistribution {
+
+    long sampleNanos(ThreadLocalRandom random);
+
+    static LatencyDistribution parse(String spec) {
+        int colon = spec.indexOf(':');
+        String kind = colon < 0 ? "fixed" : spec.substring(0, colon);
+        String arguments = spec.substring(colon + 1);
+        switch (kind) {
+            case "fixed" -> {
+                long nanos = nanos(arguments);
+                return random -> nanos;
+            }
+            case "uniform" -> {
+                String[] bounds = arguments.split("\\.\\.");
+                long min = nanos(bounds[0]);
+                long max = nanos(bounds[1]);
+                return random -> min + random.nextLong(max - min + 1);
+            }
+            case "exponential" -> {
+                long mean = nanos(arguments);
+                return random -> (long) (-mean * Math.log(1 - random.nextDouble()));
+            }
+            case "lognormal" -> {
+                String[] parts = arguments.split(",");
+                double mu = Math.log(nanos(parts[0]));
+                double sigma = Double.parseDouble(parts[1]);
+                return random -> (long) Math.exp(mu + sigma * random.nextGaussian());
+            }
+            default -> throw new IllegalArgumentException("Unknown latency distribution: " + spec);
+        }
+    }
+
+    private static long nanos(String duration) {
+        return DurationStyle.detectAndParse(duration.trim()).toNanos();
+    }
+}
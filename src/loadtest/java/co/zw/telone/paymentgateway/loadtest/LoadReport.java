@@ -0,0 +1,55 @@
+package co.zw.telone.paymentgateway.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Outcome of one {@link OpenLoopDriver} run. Latencies are recorded in nanoseconds and
+ * reported in milliseconds.
+ */
+public record LoadReport(double offeredRate, long scheduled, long dropped, long ioErrors,
+                         Map<Integer, Long> statusCounts, Histogram latencies, long elapsedNanos) {
+
+    private static final double NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9, 99.99};
+
+    public long completed() {
+        return latencies.getTotalCount();
+    }
+
+    public double throughput() {
+        return completed() / (elapsedNanos / 1e9);
+    }
+
+    public void print(PrintStream out) {
+        out.printf("offered %.0f req/s, scheduled %d, completed %d, dropped %d, I/O errors %d%n",
+                offeredRate, scheduled, completed(), dropped, ioErrors);
+        out.printf("throughput %.1f req/s over %.1f s%n", throughput(), elapsedNanos / 1e9);
+        out.println("responses " + statusCounts);
+        StringBuilder line = new StringBuilder("latency ms");
+        for (double percentile : PERCENTILES) {
+            line.append(String.format("  p%s=%.2f", format(percentile),
+                    latencies.getValueAtPercentile(percentile) / NANOS_PER_MILLI));
+        }
+        line.append(String.format("  max=%.2f", latencies.getMaxValue() / NANOS_PER_MILLI));
+        out.println(line);
+    }
+
+    /** Writes the full percentile distribution in the .hgrm format HdrHistogram's plotter reads. */
+    public void writeDistribution(Path file) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+            latencies.outputPercentileDistribution(out, NANOS_PER_MILLI);
+        }
+    }
+
+    private static String format(double percentile) {
+        return percentile == Math.rint(percentile) ? Long.toString((long) percentile) : Double.toString(percentile);
+    }
+}
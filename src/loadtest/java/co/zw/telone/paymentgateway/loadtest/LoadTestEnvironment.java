@@ -0,0 +1,104 @@
+package co.zw.telone.paymentgateway.loadtest;
+
+import co.zw.telone.paymentgateway.PaymentGatewayApplication;
+import com.github.fppt.jedismock.RedisServer;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The application under test, wired to a {@link StubGateway} and to jedis-mock or a given
+ * Redis, with an in-memory database and throwaway journal and report directories.
+ */
+final class LoadTestEnvironment implements AutoCloseable {
+
+    static final String CLIENT = "loadtest";
+
+    private final RedisServer embeddedRedis;
+    private final StubGateway gateway;
+    private final ConfigurableApplicationContext app;
+
+    private LoadTestEnvironment(RedisServer embeddedRedis, StubGateway gateway, ConfigurableApplicationContext app) {
+        this.embeddedRedis = embeddedRedis;
+        this.gateway = gateway;
+        this.app = app;
+    }
+
+    /** @param merchants names the application's request validation accepts */
+    static LoadTestEnvironment start(LoadTestSettings settings, Collection<String> merchants) throws IOException {
+        // A devtools restart would run the caller's main method a second time in a new class loader.
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        Path workDirectory = Files.createTempDirectory("payment-loadtest");
+        RedisServer embeddedRedis = "embedded".equals(settings.redis()) ? RedisServer.newRedisServer().start() : null;
+        String redis = embeddedRedis != null ? "127.0.0.1:" + embeddedRedis.getBindPort() : settings.redis();
+        StubGateway gateway = null;
+        try {
+            gateway = StubGateway.start(settings.gateway());
+            ConfigurableApplicationContext app = new SpringApplicationBuilder(PaymentGatewayApplication.class)
+                    .run(applicationArgs(settings, merchants, redis, gateway.baseUrl(), workDirectory));
+            return new LoadTestEnvironment(embeddedRedis, gateway, app);
+        } catch (RuntimeException | IOException e) {
+            if (gateway != null) {
+                gateway.close();
+            }
+            if (embeddedRedis != null) {
+                embeddedRedis.stop();
+            }
+            throw e;
+        }
+    }
+
+    URI uri(String path) {
+        int port = ((WebServerApplicationContext) app).getWebServer().getPort();
+        return URI.create("http://127.0.0.1:" + port + path);
+    }
+
+    String gatewaySummary() {
+        return gateway.summary();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            app.close();
+            gateway.close();
+        } finally {
+            if (embeddedRedis != null) {
+                embeddedRedis.stop();
+            }
+        }
+    }
+
+    private static String[] applicationArgs(LoadTestSettings settings, Collection<String> merchants, String redis,
+                                            String gatewayUrl, Path workDirectory) {
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("server.port", "0");
+        properties.put("spring.data.redis.host", redis.substring(0, redis.lastIndexOf(':')));
+        properties.put("spring.data.redis.port", redis.substring(redis.lastIndexOf(':') + 1));
+        properties.put("spring.datasource.url", "jdbc:h2:mem:loadtest;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;"
+                + "DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE");
+        properties.put("payment.gateway.base-url", gatewayUrl);
+        properties.put("payment.gateway.client-id", CLIENT);
+        properties.put("payment.gateway.client-secret", CLIENT);
+        properties.put("payment.gateway.merchant-name", CLIENT);
+        properties.put("payment.validation.merchants", String.join(",", merchants));
+        properties.put("payment.journal.directory", workDirectory.resolve("journal").toString());
+        properties.put("payment.reconciliation.report-directory", workDirectory.resolve("reconciliation").toString());
+        properties.put("logging.level.root", "WARN");
+        properties.putAll(settings.appProperties());
+
+        List<String> args = new ArrayList<>();
+        properties.forEach((key, value) -> args.add("--" + key + "=" + value));
+        return args.toArray(String[]::new);
+    }
+}
@@ -0,0 +1,74 @@
+package co.zw.telone.paymentgateway.loadtest;
+
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongFunction;
+
+/**
+ * Runs the application against an in-process {@link StubGateway} and an in-memory Redis
+ * (jedis-mock), then drives {@code POST /api/v1/payment/session} at a fixed rate with
+ * {@link OpenLoopDriver}. Nothing leaves the machine.
+ * <p>
+ * Settings are {@code key=value} pairs, see {@link LoadTestSettings}:
+ * <pre>
+ * rate=100                      requests per second
+ * duration=30s  warmup=10s      measured run, and an unreported run before it
+ * latency=lognormal:40ms,0.5    stub gateway latency, see {@link LatencyDistribution}
+ * failure-rate=0                share of session calls answered 500
+ * unavailable-rate=0            share answered 503, which the client retries
+ * rejection-rate=0              share answered 400
+ * token-ttl=1h                  token lifetime; the client refreshes a minute before expiry
+ * generated-ids=false           leave merchantTransactionId out so the Redis id generator runs
+ * redis=embedded                jedis-mock, or host:port of a real Redis to take it out of the picture
+ * max-in-flight=10000           outstanding requests beyond this are dropped and counted
+ * histogram-file=target/loadtest/latency.hgrm
+ * </pre>
+ * The driver, the application and the stub share one JVM, so the numbers are for comparing
+ * changes on the same machine rather than for capacity planning. jedis-mock runs Lua and
+ * pub/sub in Java and saturates far below a real Redis; when the results show Redis time,
+ * rerun with {@code redis=host:port}.
+ */
+public final class LoadTestMain {
+
+    private static final String MERCHANT = LoadTestEnvironment.CLIENT;
+
+    private LoadTestMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestSettings settings = LoadTestSettings.parse(args);
+        System.out.println("load test: " + settings.describe());
+
+        try (LoadTestEnvironment environment = LoadTestEnvironment.start(settings, List.of(MERCHANT));
+             OpenLoopDriver driver = new OpenLoopDriver(settings.maxInFlight())) {
+            URI target = environment.uri("/api/v1/payment/session");
+            LongFunction<String> bodies = bodies(Long.toString(System.currentTimeMillis(), 36).toUpperCase(),
+                    settings.generatedIds());
+            long sequence = 0;
+            if (!settings.warmup().isZero()) {
+                LoadReport warmup = driver.run(settings.rate(), settings.warmup(),
+                        i -> OpenLoopDriver.postJson(target, bodies.apply(i)));
+                sequence += warmup.scheduled();
+                System.out.printf("warm-up: %d requests, p99 %.2f ms%n", warmup.completed(),
+                        warmup.latencies().getValueAtPercentile(99) / 1e6);
+            }
+            long firstSequence = sequence;
+            LoadReport report = driver.run(settings.rate(), settings.duration(),
+                    i -> OpenLoopDriver.postJson(target, bodies.apply(firstSequence + i)));
+            report.print(System.out);
+            report.writeDistribution(settings.histogramFile());
+            System.out.println("gateway " + environment.gatewaySummary());
+            System.out.println("distribution written to " + settings.histogramFile().toAbsolutePath());
+        }
+    }
+
+    private static LongFunction<String> bodies(String run, boolean generatedIds) {
+        return sequence -> {
+            long amount = 100 + ThreadLocalRandom.current().nextLong(1_000_000);
+            String id = generatedIds ? "" : ",\"merchantTransactionId\":\"LT" + run + "-" + sequence + "\"";
+            return "{\"amountInCents\":\"" + amount + "\",\"currency\":\"USD\",\"merchantName\":\"" + MERCHANT
+                    + "\",\"description\":\"load test\",\"returnUrl\":\"https://shop.example.com/return\"" + id + "}";
+        };
+    }
+}
@@ -0,0 +1,83 @@
+package co.zw.telone.paymentgateway.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Load test settings, given as {@code key=value} arguments. Unknown keys are rejected so a
+ * typo does not silently run with the default.
+ */
+public record LoadTestSettings(double rate, Duration duration, Duration warmup, int maxInFlight,
+                               boolean generatedIds, String redis, Path histogramFile, StubGateway.Settings gateway,
+                               Map<String, String> appProperties) {
+
+    private static final Map<String, String> DEFAULTS = new LinkedHashMap<>();
+
+    static {
+        DEFAULTS.put("rate", "100");
+        DEFAULTS.put("duration", "30s");
+        DEFAULTS.put("warmup", "10s");
+        DEFAULTS.put("max-in-flight", "10000");
+        DEFAULTS.put("generated-ids", "false");
+        DEFAULTS.put("redis", "embedded");
+        DEFAULTS.put("histogram-file", "target/loadtest/latency.hgrm");
+        DEFAULTS.put("latency", "lognormal:40ms,0.5");
+        DEFAULTS.put("failure-rate", "0");
+        DEFAULTS.put("unavailable-rate", "0");
+        DEFAULTS.put("rejection-rate", "0");
+        DEFAULTS.put("token-ttl", "1h");
+    }
+
+    /**
+     * Arguments starting with {@code --} are passed to the application unchanged, for example
+     * {@code --payment.serialization.accelerated=true}.
+     */
+    public static LoadTestSettings parse(String... args) {
+        Map<String, String> values = new HashMap<>(DEFAULTS);
+        Map<String, String> appProperties = new LinkedHashMap<>();
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (equals < 0) {
+                throw new IllegalArgumentException("Expected key=value but got '" + arg + "'");
+            }
+            String key = arg.substring(0, equals);
+            String value = arg.substring(equals + 1);
+            if (key.startsWith("--")) {
+                appProperties.put(key.substring(2), value);
+            } else if (DEFAULTS.containsKey(key)) {
+                values.put(key, value);
+            } else {
+                throw new IllegalArgumentException("Unknown setting '" + key + "'; known settings: " + DEFAULTS.keySet());
+            }
+        }
+        return new LoadTestSettings(
+                Double.parseDouble(values.get("rate")),
+                duration(values.get("duration")),
+                duration(values.get("warmup")),
+                Integer.parseInt(values.get("max-in-flight")),
+                Boolean.parseBoolean(values.get("generated-ids")),
+                values.get("redis"),
+                Path.of(values.get("histogram-file")),
+                new StubGateway.Settings(
+                        LatencyDistribution.parse(values.get("latency")),
+                        Double.parseDouble(values.get("failure-rate")),
+                        Double.parseDouble(values.get("unavailable-rate")),
+                        Double.parseDouble(values.get("rejection-rate")),
+                        duration(values.get("token-ttl"))),
+                appProperties);
+    }
+
+    public String describe() {
+        return String.format("rate=%.0f/s duration=%s warmup=%s generated-ids=%s redis=%s gateway=%s",
+                rate, duration, warmup, generatedIds, redis, gateway);
+    }
+
+    private static Duration duration(String value) {
+        return DurationStyle.detectAndParse(value);
+    }
+}
@@ -0,0 +1,118 @@
+package co.zw.telone.paymentgateway.loadtest;
+
+import org.HdrHistogram.Recorder;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongFunction;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * Sends requests on a schedule regardless of how fast they complete (open loop).
+ * <p>
+ * Request {@code i} is due at {@code start + i / rate}, or at its captured offset when
+ * replaying. Its latency is measured from that due time, not from when it was actually sent, so a stalled server shows up as latency
+ * instead of quietly lowering the offered load (coordinated omission). A request that finds
+ * {@code maxInFlight} requests outstanding is dropped and counted rather than queued.
+ */
+public final class OpenLoopDriver implements AutoCloseable {
+
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(2);
+
+    private final int maxInFlight;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final HttpClient client;
+
+    public OpenLoopDriver(int maxInFlight) {
+        this.maxInFlight = maxInFlight;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(executor)
+                .build();
+    }
+
+    public static HttpRequest postJson(URI target, String body) {
+        return HttpRequest.newBuilder(target)
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    /** Sends {@code requests.apply(i)} at a fixed rate for the given duration. */
+    public LoadReport run(double rate, Duration duration, LongFunction<HttpRequest> requests)
+            throws InterruptedException {
+        long period = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+        return drive(duration.toNanos() / period, i -> i * period, requests, rate);
+    }
+
+    /**
+     * Sends {@code requests.apply(i)} at {@code dueOffsetNanos.applyAsLong(i)} after the start.
+     * Offsets must not decrease.
+     *
+     * @param offeredRate only used for the report
+     */
+    public LoadReport replay(long total, LongUnaryOperator dueOffsetNanos, LongFunction<HttpRequest> requests,
+                             double offeredRate) throws InterruptedException {
+        return drive(total, dueOffsetNanos, requests, offeredRate);
+    }
+
+    private LoadReport drive(long total, LongUnaryOperator dueOffsetNanos, LongFunction<HttpRequest> requests,
+                             double offeredRate) throws InterruptedException {
+        Recorder recorder = new Recorder(HIGHEST_TRACKABLE_NANOS, 3);
+        Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+        LongAdder ioErrors = new LongAdder();
+        LongAdder dropped = new LongAdder();
+        Semaphore inFlight = new Semaphore(maxInFlight);
+
+        long start = System.nanoTime();
+        for (long i = 0; i < total; i++) {
+            long due = start + dueOffsetNanos.applyAsLong(i);
+            for (long wait = due - System.nanoTime(); wait > 0; wait = due - System.nanoTime()) {
+                LockSupport.parkNanos(wait);
+            }
+            if (!inFlight.tryAcquire()) {
+                dropped.increment();
+                continue;
+            }
+            client.sendAsync(requests.apply(i), HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+                recorder.recordValue(Math.min(System.nanoTime() - due, HIGHEST_TRACKABLE_NANOS));
+                if (error != null) {
+                    ioErrors.increment();
+                } else {
+                    statuses.computeIfAbsent(response.statusCode(), status -> new LongAdder()).increment();
+                }
+                inFlight.release();
+            });
+        }
+        if (!inFlight.tryAcquire(maxInFlight, 1, TimeUnit.MINUTES)) {
+            throw new IllegalStateException("Requests still outstanding a minute after the run ended");
+        }
+        long elapsed = System.nanoTime() - start;
+
+        Map<Integer, Long> statusCounts = new TreeMap<>();
+        statuses.forEach((status, count) -> statusCounts.put(status, count.sum()));
+        return new LoadReport(offeredRate, total, dropped.sum(), ioErrors.sum(), statusCounts,
+                recorder.getIntervalHistogram(), elapsed);
+    }
+
+    @Override
+    public void close() {
+        client.close();
+        executor.close();
+    }
+}
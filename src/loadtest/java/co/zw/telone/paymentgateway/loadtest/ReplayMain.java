@@ -0,0 +1,148 @@
+package co.zw.telone.paymentgateway.loadtest;
+
+import co.zw.telone.paymentgateway.capture.CapturedRequest;
+import co.zw.telone.paymentgateway.capture.TrafficCaptureFile;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Replays a capture written with {@code payment.capture.enabled=true} against the
+ * application, keeping the captured inter-arrival times divided by {@code speed}.
+ * <pre>
+ * mvn -o -Ploadtest test-compile exec:exec -Dloadtest.main=ReplayMain \
+ *     -Dloadtest.args="file=data/capture/traffic-1760000000000.bin speed=5"
+ * </pre>
+ * Settings, besides those of {@link LoadTestSettings} for the stub gateway and Redis
+ * ({@code rate}, {@code duration}, {@code warmup} and {@code generated-ids} do not apply):
+ * <pre>
+ * file=...          capture to replay
+ * speed=1           1 replays in real time, 5 and 10 compress the gaps five and ten times
+ * target=           base URL of a running node, e.g. http://127.0.0.1:8090, instead of
+ *                   starting one here; it must accept merchants merchant-0, merchant-1, ...
+ * </pre>
+ * The capture only keeps request shapes, so values are regenerated: merchant {@code n}
+ * becomes {@code merchant-n}, transaction {@code t} becomes {@code R<run>-t}, and descriptions
+ * are filled to their captured length. Status lookups refer to the same transactions as the
+ * sessions they followed, so hit and miss ratios carry over.
+ */
+public final class ReplayMain {
+
+    private static final String API = "/api/v1/payment";
+    private static final String RETURN_URL = "https://shop.example.com/return";
+
+    private ReplayMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path file = null;
+        double speed = 1;
+        String target = null;
+        List<String> remaining = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("file=")) {
+                file = Path.of(arg.substring("file=".length()));
+            } else if (arg.startsWith("speed=")) {
+                speed = Double.parseDouble(arg.substring("speed=".length()));
+            } else if (arg.startsWith("target=")) {
+                target = arg.substring("target=".length());
+            } else {
+                remaining.add(arg);
+            }
+        }
+        if (file == null || speed <= 0) {
+            throw new IllegalArgumentException("Expected file=<capture> and a positive speed");
+        }
+        LoadTestSettings settings = LoadTestSettings.parse(remaining.toArray(String[]::new));
+
+        List<CapturedRequest> captured = new ArrayList<>(TrafficCaptureFile.read(file));
+        if (captured.isEmpty()) {
+            throw new IllegalArgumentException(file + " holds no requests");
+        }
+        // The recorder can write a request slightly before one that arrived earlier.
+        captured.sort(Comparator.comparingLong(CapturedRequest::offsetMicros));
+        long firstMicros = captured.getFirst().offsetMicros();
+        double spanSeconds = (captured.getLast().offsetMicros() - firstMicros) / 1e6 / speed;
+        List<String> merchants = IntStream.rangeClosed(0, captured.stream().mapToInt(CapturedRequest::merchant).max()
+                .orElse(0)).mapToObj(ReplayMain::merchant).toList();
+        System.out.printf("replay: %d requests from %s at %sx over %.1f s, %s%n", captured.size(), file,
+                speed, spanSeconds, target != null ? "target " + target : settings.describe());
+
+        String run = Long.toString(System.currentTimeMillis(), 36).toUpperCase();
+        double scale = TimeUnit.MICROSECONDS.toNanos(1) / speed;
+        try (LoadTestEnvironment environment = target == null ? LoadTestEnvironment.start(settings, merchants) : null;
+             OpenLoopDriver driver = new OpenLoopDriver(settings.maxInFlight())) {
+            String base = environment != null ? environment.uri(API).toString() : target + API;
+            LoadReport report = driver.replay(captured.size(),
+                    i -> (long) ((captured.get((int) i).offsetMicros() - firstMicros) * scale),
+                    i -> request(base, run, captured.get((int) i)),
+                    captured.size() / Math.max(spanSeconds, 1e-3));
+            System.out.println("captured responses " + captured.stream().collect(
+                    Collectors.groupingBy(CapturedRequest::status, TreeMap::new, Collectors.counting())));
+            report.print(System.out);
+            report.writeDistribution(settings.histogramFile());
+            if (environment != null) {
+                System.out.println("gateway " + environment.gatewaySummary());
+            }
+            System.out.println("distribution written to " + settings.histogramFile().toAbsolutePath());
+        }
+    }
+
+    private static HttpRequest request(String base, String run, CapturedRequest captured) {
+        return switch (captured.endpoint()) {
+            case SESSION -> OpenLoopDriver.postJson(URI.create(base + "/session"), sessionBody(run, captured));
+            case SESSION_DATA -> OpenLoopDriver.postJson(URI.create(base + "/session-data"), sessionBody(run, captured));
+            case STATUS -> HttpRequest.newBuilder(URI.create(base + "/" + transaction(run,
+                            captured.transactions()[0]) + "/status"))
+                    .timeout(Duration.ofSeconds(30))
+                    .GET()
+                    .build();
+            case BATCH_STATUS -> OpenLoopDriver.postJson(URI.create(base + "/status/batch"),
+                    IntStream.of(captured.transactions()).mapToObj(t -> '"' + transaction(run, t) + '"')
+                            .collect(Collectors.joining(",", "[", "]")));
+        };
+    }
+
+    private static String sessionBody(String run, CapturedRequest captured) {
+        Map<String, String> fields = new TreeMap<>();
+        if (captured.amountInCents() >= 0) {
+            fields.put("amountInCents", Long.toString(captured.amountInCents()));
+        }
+        if (captured.currency() != null) {
+            fields.put("currency", captured.currency().name());
+        }
+        if (captured.merchant() >= 0) {
+            fields.put("merchantName", merchant(captured.merchant()));
+        }
+        if (captured.transactions().length > 0) {
+            fields.put("merchantTransactionId", transaction(run, captured.transactions()[0]));
+        }
+        if (captured.descriptionLength() >= 0) {
+            fields.put("description", "x".repeat(captured.descriptionLength()));
+        }
+        if (captured.hasReturnUrl()) {
+            fields.put("returnUrl", RETURN_URL);
+        }
+        return fields.entrySet().stream()
+                .map(field -> '"' + field.getKey() + "\":\"" + field.getValue() + '"')
+                .collect(Collectors.joining(",", "{", "}"));
+    }
+
+    private static String merchant(int ordinal) {
+        return "merchant-" + ordinal;
+    }
+
+    private static String transaction(String run, int ordinal) {
+        return "R" + run + "-" + ordinal;
+    }
+}
@@ -0,0 +1,168 @@
+package co.zw.telone.paymentgateway.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An in-process stand-in for the payment gateway's {@code /api/v1/token} and
+ * {@code /api/v1/sessions} endpoints, on the JDK HTTP server with one virtual thread per
+ * exchange.
+ * <p>
+ * Every session call sleeps for a sample of the configured {@link LatencyDistribution} and then
+ * fails with the configured probabilities: 500 for {@code failureRate}, 503 (which the client
+ * retries) for {@code unavailableRate} and a 400 rejection for {@code rejectionRate}. Tokens
+ * expire after {@code tokenTtl}; calls made with an unknown or expired token get a 401.
+ */
+public final class StubGateway implements AutoCloseable {
+
+    public record Settings(LatencyDistribution latency, double failureRate, double unavailableRate,
+                           double rejectionRate, Duration tokenTtl) {
+    }
+
+    private static final byte[] FAILURE = error("INTERNAL_ERROR", "500", "Gateway failure");
+    private static final byte[] UNAVAILABLE = error("SERVICE_UNAVAILABLE", "503", "Gateway busy");
+    private static final byte[] REJECTION = error("INVALID_REQUEST", "400", "Request rejected");
+    private static final byte[] UNAUTHORIZED = error("UNAUTHORIZED", "401", "Token expired or unknown");
+
+    private final Settings settings;
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<String, Long> tokenExpiries = new ConcurrentHashMap<>();
+
+    private final LongAdder tokensIssued = new LongAdder();
+    private final LongAdder sessionsCreated = new LongAdder();
+    private final LongAdder sessionsFailed = new LongAdder();
+    private final LongAdder unauthorized = new LongAdder();
+    private final LongAdder statusPolls = new LongAdder();
+
+    private StubGateway(Settings settings) throws IOException {
+        this.settings = settings;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 1024);
+        server.setExecutor(executor);
+        server.createContext("/api/v1/token", this::token);
+        server.createContext("/api/v1/sessions", this::sessions);
+    }
+
+    public static StubGateway start(Settings settings) throws IOException {
+        StubGateway gateway = new StubGateway(settings);
+        gateway.server.start();
+        return gateway;
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public String summary() {
+        return "tokens issued=" + tokensIssued.sum()
+                + ", sessions created=" + sessionsCreated.sum()
+                + ", sessions failed=" + sessionsFailed.sum()
+                + ", 401s=" + unauthorized.sum()
+                + ", status polls=" + statusPolls.sum();
+    }
+
+    private void token(HttpExchange exchange) throws IOException {
+        drain(exchange);
+        String token = UUID.randomUUID().toString();
+        tokenExpiries.put(token, System.nanoTime() + settings.tokenTtl().toNanos());
+        tokensIssued.increment();
+        send(exchange, 200, ("{\"data\":{\"token\":\"" + token + "\",\"expires_in\":"
+                + settings.tokenTtl().toSeconds() + "}}").getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void sessions(HttpExchange exchange) throws IOException {
+        drain(exchange);
+        if (!hasValidToken(exchange)) {
+            unauthorized.increment();
+            send(exchange, 401, UNAUTHORIZED);
+            return;
+        }
+        if ("GET".equals(exchange.getRequestMethod())) {
+            statusPolls.increment();
+            String path = exchange.getRequestURI().getPath();
+            String id = path.substring(path.lastIndexOf('/') + 1);
+            send(exchange, 200, session(id, "COMPLETE"));
+            return;
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        sleep(settings.latency().sampleNanos(random));
+        double roll = random.nextDouble();
+        if (roll < settings.failureRate()) {
+            sessionsFailed.increment();
+            send(exchange, 500, FAILURE);
+        } else if ((roll -= settings.failureRate()) < settings.unavailableRate()) {
+            sessionsFailed.increment();
+            send(exchange, 503, UNAVAILABLE);
+        } else if (roll - settings.unavailableRate() < settings.rejectionRate()) {
+            sessionsFailed.increment();
+            send(exchange, 400, REJECTION);
+        } else {
+            sessionsCreated.increment();
+            send(exchange, 200, session(UUID.randomUUID().toString().replace("-", ""), "PENDING"));
+        }
+    }
+
+    private boolean hasValidToken(HttpExchange exchange) {
+        String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+        if (authorization == null || !authorization.startsWith("Bearer ")) {
+            return false;
+        }
+        Long expiry = tokenExpiries.get(authorization.substring("Bearer ".length()));
+        return expiry != null && expiry - System.nanoTime() > 0;
+    }
+
+    private static byte[] session(String id, String status) {
+        return ("{\"data\":{\"id\":\"" + id + "\",\"token\":\"" + id.substring(0, 8)
+                + "\",\"sessionInfo\":{\"status\":\"" + status + "\"}}}").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] error(String code, String statusCode, String message) {
+        return ("{\"error\":{\"code\":\"" + code + "\",\"statusCode\":\"" + statusCode
+                + "\",\"message\":\"" + message + "\"}}").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void drain(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+    }
+
+    private static void send(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static void sleep(long nanos) {
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.close();
+    }
+}
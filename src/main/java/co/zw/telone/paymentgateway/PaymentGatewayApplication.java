@@ -1,15 +1,22 @@
 package co.zw.telone.paymentgateway;
 
+import co.zw.telone.paymentgateway.config.PaymentGatewayRuntimeHints;
 import io.swagger.v3.oas.annotations.OpenAPIDefinition;
 import io.swagger.v3.oas.annotations.info.Info;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @OpenAPIDefinition(info = @Info(title = "Payment Gateway Service",
         description = "This Service is Responsible For Processing All The Digital Innovation Payments", version = "0.0.1"))
 @SpringBootApplication
+@ConfigurationPropertiesScan
 @EnableFeignClients(basePackages = "co.zw.telone.paymentgateway.client")
+@EnableScheduling
+@ImportRuntimeHints(PaymentGatewayRuntimeHints.class)
 public class PaymentGatewayApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,44 @@
+package co.zw.telone.paymentgateway.capture;
+
+import co.zw.telone.paymentgateway.model.CurrencyCode;
+
+/**
+ * The anonymized shape of one payment API request.
+ * <p>
+ * Merchant names and merchant transaction ids are replaced by ordinals, numbered in order of
+ * first appearance within one capture, so repeats and retries of the same transaction stay
+ * recognizable without the ids themselves being kept. Descriptions and return URLs are
+ * reduced to a length and a flag.
+ *
+ * @param offsetMicros      arrival time relative to the start of the capture
+ * @param status            HTTP status the node answered with
+ * @param merchant          merchant ordinal, or -1 when the request named none
+ * @param currency          null when missing or not a supported currency
+ * @param amountInCents     -1 when missing or malformed
+ * @param transactions      ordinals of the merchant transaction ids the request refers to
+ * @param descriptionLength -1 when there was no description
+ */
+public record CapturedRequest(long offsetMicros, Endpoint endpoint, int status, int merchant, CurrencyCode currency,
+                              long amountInCents, int[] transactions, int descriptionLength, boolean hasReturnUrl) {
+
+    /** The {@code PaymentGateController} endpoints that are captured. Ordinals are part of the file format. */
+    public enum Endpoint {
+        SESSION,
+        SESSION_DATA,
+        STATUS,
+        BATCH_STATUS;
+
+        private static final Endpoint[] VALUES = values();
+
+        static Endpoint ofOrdinal(int ordinal) {
+            if (ordinal < 0 || ordinal >= VALUES.length) {
+                throw new IllegalArgumentException("Unknown endpoint " + ordinal);
+            }
+            return VALUES[ordinal];
+        }
+
+        public boolean createsSession() {
+            return this == SESSION || this == SESSION_DATA;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package co.zw.telone.paymentgateway.capture;
+
+import co.zw.telone.paymentgateway.model.CurrencyCode;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Binary format for captured traffic.
+ * <p>
+ * A header ({@code "PGTC"}, a format version and the capture start in epoch millis) followed
+ * by one record per request. Numbers are LEB128 varints, signed ones zig-zag encoded, and
+ * arrival times are stored as the difference to the previous record, so a typical session
+ * request takes around ten bytes:
+ * <pre>
+ * offset delta (zig-zag varint, micros)   endpoint (byte)   status (varint)
+ * merchant + 1 (varint)   currency ordinal + 1 (byte)   amount in cents + 1 (varint)
+ * transaction count (varint), then each ordinal (varint)
+ * description length + 1 (varint)   flags (byte; bit 0: has return URL)
+ * </pre>
+ */
+public final class TrafficCaptureFile {
+
+    private static final int MAGIC = 0x50475443;
+    private static final int VERSION = 1;
+    private static final CurrencyCode[] CURRENCIES = CurrencyCode.values();
+
+    private TrafficCaptureFile() {
+    }
+
+    public static Writer create(Path file, long startEpochMillis) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        return new Writer(Files.newOutputStream(file), startEpochMillis);
+    }
+
+    /** Reads a whole capture; a record cut short by a crash ends the list. */
+    public static List<CapturedRequest> read(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            return read(in);
+        }
+    }
+
+    static List<CapturedRequest> read(InputStream input) throws IOException {
+        DataInputStream in = new DataInputStream(input);
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a traffic capture file");
+        }
+        int version = in.readUnsignedByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported traffic capture version " + version);
+        }
+        in.readLong();
+        List<CapturedRequest> requests = new ArrayList<>();
+        long offset = 0;
+        while (true) {
+            int first = in.read();
+            if (first < 0) {
+                return requests;
+            }
+            try {
+                offset += zigZagDecode(readVarLong(in, first));
+                CapturedRequest.Endpoint endpoint = CapturedRequest.Endpoint.ofOrdinal(in.readUnsignedByte());
+                int status = (int) readVarLong(in, in.readUnsignedByte());
+                int merchant = (int) readVarLong(in, in.readUnsignedByte()) - 1;
+                int currency = in.readUnsignedByte();
+                long amount = readVarLong(in, in.readUnsignedByte()) - 1;
+                int[] transactions = new int[(int) readVarLong(in, in.readUnsignedByte())];
+                for (int i = 0; i < transactions.length; i++) {
+                    transactions[i] = (int) readVarLong(in, in.readUnsignedByte());
+                }
+                int descriptionLength = (int) readVarLong(in, in.readUnsignedByte()) - 1;
+                int flags = in.readUnsignedByte();
+                requests.add(new CapturedRequest(offset, endpoint, status, merchant,
+                        currency == 0 ? null : CURRENCIES[currency - 1], amount, transactions,
+                        descriptionLength, (flags & 1) != 0));
+            } catch (EOFException e) {
+                return requests;
+            }
+        }
+    }
+
+    /** Not thread-safe; the capture has a single writer thread. */
+    public static final class Writer implements Closeable {
+
+        private final DataOutputStream out;
+        private long previousOffset;
+
+        Writer(OutputStream output, long startEpochMillis) throws IOException {
+            this.out = new DataOutputStream(new BufferedOutputStream(output, 64 * 1024));
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeLong(startEpochMillis);
+        }
+
+        public void write(CapturedRequest request) throws IOException {
+            writeVarLong(zigZagEncode(request.offsetMicros() - previousOffset));
+            previousOffset = request.offsetMicros();
+            out.writeByte(request.endpoint().ordinal());
+            writeVarLong(request.status());
+            writeVarLong(request.merchant() + 1L);
+            out.writeByte(request.currency() == null ? 0 : request.currency().ordinal() + 1);
+            writeVarLong(request.amountInCents() + 1);
+            writeVarLong(request.transactions().length);
+            for (int transaction : request.transactions()) {
+                writeVarLong(transaction);
+            }
+            writeVarLong(request.descriptionLength() + 1L);
+            out.writeByte(request.hasReturnUrl() ? 1 : 0);
+        }
+
+        public void flush() throws IOException {
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+
+        private void writeVarLong(long value) throws IOException {
+            while ((value & ~0x7FL) != 0) {
+                out.writeByte((int) (value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            out.writeByte((int) value);
+        }
+    }
+
+    private static long readVarLong(DataInputStream in, int first) throws IOException {
+        if (first < 0) {
+            throw new EOFException();
+        }
+        long value = first & 0x7F;
+        int shift = 7;
+        for (int b = first; (b & 0x80) != 0; shift += 7) {
+            if (shift > 63) {
+                throw new IOException("Malformed varint");
+            }
+            b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+        }
+        return value;
+    }
+
+    private static long zigZagEncode(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long zigZagDecode(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
@@ -0,0 +1,75 @@
+package co.zw.telone.paymentgateway.capture;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingRequestWrapper;
+
+import java.io.IOException;
+
+/**
+ * Hands the {@code PaymentGateController} requests worth replaying to the {@link TrafficRecorder}:
+ * session creation, single status lookups and batch status lookups. Event streams and
+ * callbacks are left out. Bodies are kept as read by the controller, up to a size limit.
+ */
+public class TrafficCaptureFilter extends OncePerRequestFilter {
+
+    private static final String PREFIX = "/api/v1/payment/";
+    private static final String STATUS_SUFFIX = "/status";
+
+    private final TrafficRecorder recorder;
+    private final int maxBodyBytes;
+
+    public TrafficCaptureFilter(TrafficRecorder recorder, int maxBodyBytes) {
+        this.recorder = recorder;
+        this.maxBodyBytes = maxBodyBytes;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return endpoint(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long arrivalNanos = System.nanoTime();
+        CapturedRequest.Endpoint endpoint = endpoint(request);
+        boolean hasBody = endpoint != CapturedRequest.Endpoint.STATUS;
+        ContentCachingRequestWrapper wrapped = hasBody ? new ContentCachingRequestWrapper(request, maxBodyBytes) : null;
+        try {
+            chain.doFilter(wrapped != null ? wrapped : request, response);
+        } finally {
+            String uri = request.getRequestURI();
+            recorder.offer(new TrafficRecorder.Observed(arrivalNanos, endpoint, response.getStatus(),
+                    endpoint == CapturedRequest.Endpoint.STATUS
+                            ? uri.substring(PREFIX.length(), uri.length() - STATUS_SUFFIX.length()) : null,
+                    wrapped != null ? wrapped.getContentAsByteArray() : null));
+        }
+    }
+
+    private static CapturedRequest.Endpoint endpoint(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        if (!uri.startsWith(PREFIX)) {
+            return null;
+        }
+        String path = uri.substring(PREFIX.length());
+        boolean post = "POST".equals(request.getMethod());
+        if (post && path.equals("session")) {
+            return CapturedRequest.Endpoint.SESSION;
+        }
+        if (post && path.equals("session-data")) {
+            return CapturedRequest.Endpoint.SESSION_DATA;
+        }
+        if (post && path.equals("status/batch")) {
+            return CapturedRequest.Endpoint.BATCH_STATUS;
+        }
+        if ("GET".equals(request.getMethod()) && path.endsWith(STATUS_SUFFIX)
+                && path.indexOf('/') == path.length() - STATUS_SUFFIX.length()) {
+            return CapturedRequest.Endpoint.STATUS;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,246 @@
+package co.zw.telone.paymentgateway.capture;
+
+import co.zw.telone.paymentgateway.config.TrafficCaptureProperties;
+import co.zw.telone.paymentgateway.model.CurrencyCode;
+import co.zw.telone.paymentgateway.model.Money;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import co.zw.telone.paymentgateway.service.impl.CheckpointRestoreLifecycle;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind stage for traffic capture.
+ * <p>
+ * The filter only copies what it saw into a bounded queue. A single writer thread does the
+ * rest: it parses bodies, swaps merchant names and transaction ids for ordinals and appends
+ * the result to the capture file. The name and id dictionaries live on that thread only and
+ * are never written out. When the queue is full requests are skipped and counted.
+ * <p>
+ * Every start opens a new capture file with fresh dictionaries, and stop drains the queue and
+ * closes the file; a CRaC restore therefore continues in a new file.
+ */
+@Slf4j
+public class TrafficRecorder implements SmartLifecycle {
+
+    /** What the filter hands over; everything identifying is still in here. */
+    record Observed(long arrivalNanos, CapturedRequest.Endpoint endpoint, int status, String pathId, byte[] body) {
+    }
+
+    private static final Observed SHUTDOWN = new Observed(0, null, 0, null, null);
+    private static final int[] NO_TRANSACTIONS = new int[0];
+
+    private final ObjectMapper objectMapper;
+    private final BlockingQueue<Observed> buffer;
+    private final long maxRecords;
+    private final Path directory;
+    private final Counter captured;
+    private final Counter skipped;
+    private final Map<String, Integer> merchants = new HashMap<>();
+    private final Map<String, Integer> transactions = new HashMap<>();
+    private Path file;
+    private long startNanos;
+    private Thread writer;
+    private volatile boolean running;
+    private long written;
+
+    public TrafficRecorder(TrafficCaptureProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.buffer = new ArrayBlockingQueue<>(properties.getBufferCapacity());
+        this.maxRecords = properties.getMaxRecords();
+        this.directory = properties.getDirectory();
+        this.captured = Counter.builder("payment.capture.records")
+                .description("Requests written to the traffic capture")
+                .register(meterRegistry);
+        this.skipped = Counter.builder("payment.capture.skipped")
+                .description("Requests not captured because the buffer was full or the limit was reached")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        if (running) {
+            return;
+        }
+        long startEpochMillis = System.currentTimeMillis();
+        Path next = directory.resolve("traffic-" + startEpochMillis + ".bin");
+        TrafficCaptureFile.Writer out;
+        try {
+            out = TrafficCaptureFile.create(next, startEpochMillis);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot create traffic capture file " + next, e);
+        }
+        // Ordinals are only meaningful within one file.
+        file = next;
+        startNanos = System.nanoTime();
+        written = 0;
+        merchants.clear();
+        transactions.clear();
+        log.info("Capturing payment API traffic to {}", file.toAbsolutePath());
+        running = true;
+        writer = new Thread(() -> run(out), "traffic-capture");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    void offer(Observed observed) {
+        if (!running || !buffer.offer(observed)) {
+            skipped.increment();
+        }
+    }
+
+    private void run(TrafficCaptureFile.Writer out) {
+        try (out) {
+            List<Observed> batch = new ArrayList<>(256);
+            while (running || !buffer.isEmpty()) {
+                Observed first = buffer.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    out.flush();
+                    continue;
+                }
+                batch.add(first);
+                buffer.drainTo(batch, 255);
+                for (Observed observed : batch) {
+                    if (observed == SHUTDOWN) {
+                        continue;
+                    }
+                    if (written == maxRecords) {
+                        skipped.increment();
+                        continue;
+                    }
+                    out.write(anonymize(observed));
+                    written++;
+                    captured.increment();
+                }
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            running = false;
+            log.error("Traffic capture stopped; {} requests were written to {}", written, file, e);
+        }
+    }
+
+    private CapturedRequest anonymize(Observed observed) {
+        long offsetMicros = TimeUnit.NANOSECONDS.toMicros(observed.arrivalNanos() - startNanos);
+        return switch (observed.endpoint()) {
+            case SESSION, SESSION_DATA -> sessionShape(observed, offsetMicros);
+            case STATUS -> new CapturedRequest(offsetMicros, observed.endpoint(), observed.status(), -1, null, -1,
+                    new int[]{transaction(observed.pathId())}, -1, false);
+            case BATCH_STATUS -> new CapturedRequest(offsetMicros, observed.endpoint(), observed.status(), -1, null, -1,
+                    batchIds(observed.body()), -1, false);
+        };
+    }
+
+    private CapturedRequest sessionShape(Observed observed, long offsetMicros) {
+        JsonNode body;
+        try {
+            body = objectMapper.readTree(observed.body());
+        } catch (IOException e) {
+            body = null;
+        }
+        if (body == null || !body.isObject()) {
+            return new CapturedRequest(offsetMicros, observed.endpoint(), observed.status(), -1, null, -1,
+                    NO_TRANSACTIONS, -1, false);
+        }
+        String merchantName = text(body, "merchantName");
+        String merchantTransactionId = text(body, "merchantTransactionId");
+        String description = text(body, "description");
+        return new CapturedRequest(offsetMicros, observed.endpoint(), observed.status(),
+                merchantName == null ? -1 : merchants.computeIfAbsent(merchantName, name -> merchants.size()),
+                currency(text(body, "currency")),
+                amount(body.get("amountInCents")),
+                merchantTransactionId == null || merchantTransactionId.isEmpty()
+                        ? NO_TRANSACTIONS : new int[]{transaction(merchantTransactionId)},
+                description == null ? -1 : description.length(),
+                text(body, "returnUrl") != null);
+    }
+
+    /** Accepts both body forms the batch endpoint takes; a body cut off at the size limit keeps the ids read so far. */
+    private int[] batchIds(byte[] body) {
+        List<Integer> ordinals = new ArrayList<>();
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null) {
+                if (token == JsonToken.VALUE_STRING) {
+                    ordinals.add(transaction(parser.getText()));
+                }
+            }
+        } catch (IOException e) {
+            // Truncated or malformed; keep what was read.
+        }
+        return ordinals.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private int transaction(String merchantTransactionId) {
+        return transactions.computeIfAbsent(merchantTransactionId, id -> transactions.size());
+    }
+
+    private static String text(JsonNode body, String field) {
+        JsonNode value = body.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    private static CurrencyCode currency(String code) {
+        try {
+            return code == null ? null : CurrencyCode.of(code);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static long amount(JsonNode value) {
+        if (value == null || !(value.isTextual() || value.isIntegralNumber())) {
+            return -1;
+        }
+        try {
+            String text = value.asText();
+            long cents = Money.parseCents(text, 0, text.length());
+            return cents < 0 ? -1 : cents;
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+    }
+
+    @Override
+    public void stop() {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        buffer.offer(SHUTDOWN);
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        writer = null;
+        buffer.clear();
+        log.info("Traffic capture closed with {} requests in {}", written, file.toAbsolutePath());
+    }
+
+    @Override
+    public boolean isRunning() {
+        return writer != null;
+    }
+
+    @Override
+    public int getPhase() {
+        return CheckpointRestoreLifecycle.RESOURCE_PHASE;
+    }
+}
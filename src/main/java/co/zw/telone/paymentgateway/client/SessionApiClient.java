@@ -2,19 +2,26 @@ package co.zw.telone.paymentgateway.client;
 
 import co.zw.telone.paymentgateway.response.SessionRequest;
 import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 
 import java.util.Map;
 
-@FeignClient(name = "sessionApiClient", url = "${payment.gateway.base-url}")
+@FeignClient(name = "sessionApiClient")
 public interface SessionApiClient {
 
     @PostMapping("/api/v1/sessions")
     Map<String, Object> createSession(
             @RequestHeader("Authorization") String authorizationHeader,
             @RequestBody SessionRequest sessionRequest);
+
+    @GetMapping("/api/v1/sessions/{sessionId}")
+    Map<String, Object> getSession(
+            @RequestHeader("Authorization") String authorizationHeader,
+            @PathVariable("sessionId") String sessionId);
 }
 
 
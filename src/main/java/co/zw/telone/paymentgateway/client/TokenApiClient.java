@@ -11,7 +11,6 @@ import java.util.Map;
 
 @FeignClient(
         name = "token-api",
-        url = "${payment.gateway.base-url}",
         configuration = PaymentGatewayFeignConfig.class
 )
 public interface TokenApiClient {
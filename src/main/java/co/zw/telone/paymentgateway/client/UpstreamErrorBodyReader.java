@@ -0,0 +1,39 @@
+package co.zw.telone.paymentgateway.client;
+
+import co.zw.telone.paymentgateway.model.UpstreamRejection;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * Decodes gateway error bodies of the form {@code {"error":{"code":..,"message":..,"statusCode":..}}}
+ * straight into {@link UpstreamRejection} through a reader that is built once.
+ */
+@Component
+public class UpstreamErrorBodyReader {
+
+    private final ObjectReader reader;
+
+    public UpstreamErrorBodyReader(ObjectMapper objectMapper) {
+        this.reader = objectMapper.readerFor(UpstreamErrorBody.class);
+    }
+
+    /**
+     * @return the error object, or null when the body is empty or has no error object
+     * @throws IOException when the body is not JSON of the expected shape
+     */
+    public UpstreamRejection read(byte[] content) throws IOException {
+        if (content == null || content.length == 0) {
+            return null;
+        }
+        UpstreamErrorBody body = reader.readValue(content);
+        return body == null ? null : body.error();
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record UpstreamErrorBody(UpstreamRejection error) {
+    }
+}
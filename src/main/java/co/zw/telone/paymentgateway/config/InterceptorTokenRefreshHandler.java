@@ -1,8 +1,12 @@
 package co.zw.telone.paymentgateway.config;
 
 import co.zw.telone.paymentgateway.client.TokenApiClient;
+import co.zw.telone.paymentgateway.jfr.TokenRefreshEvent;
+import co.zw.telone.paymentgateway.timing.RequestTimings;
+import co.zw.telone.paymentgateway.timing.TimingPhase;
 import co.zw.telone.paymentgateway.tokendto.TokenRequest;
 import feign.RequestInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -24,6 +28,7 @@ public class InterceptorTokenRefreshHandler {
     private String clientSecret;
 
     private final TokenApiClient tokenApiClient;
+    private final MeterRegistry meterRegistry;
 
     private String authToken;
     private Long tokenExpiryTime;
@@ -37,7 +42,9 @@ public class InterceptorTokenRefreshHandler {
     public RequestInterceptor authorizationInterceptor() {
         return template -> {
             // Ensure the token is valid before making any request
-            ensureValidToken();
+            try (RequestTimings.Scope ignored = RequestTimings.time(TimingPhase.TOKEN)) {
+                ensureValidToken();
+            }
 
             if (authToken != null) {
                 template.header("Authorization", "Bearer " + authToken);
@@ -71,6 +78,9 @@ public class InterceptorTokenRefreshHandler {
     private void refreshToken() {
         TokenRequest tokenRequest = new TokenRequest(clientId, clientSecret);
 
+        String outcome = "failure";
+        TokenRefreshEvent event = new TokenRefreshEvent();
+        event.begin();
         try {
             // Call the Token API to get a new token
             log.info("Fetching a new token from the Token API.");
@@ -107,13 +117,28 @@ public class InterceptorTokenRefreshHandler {
             this.tokenExpiryTime = Instant.now().getEpochSecond() + expiresIn;
 
             log.info("Token refreshed successfully. Expires at: {}", tokenExpiryTime);
+            outcome = "success";
+            event.expiresIn = expiresIn;
 
         } catch (Exception e) {
             log.error("Error while refreshing token.", e);
             throw new RuntimeException("Failed to refresh authentication token.", e);
+        } finally {
+            meterRegistry.counter("payment.token.refreshes", "outcome", outcome).increment();
+            event.success = "success".equals(outcome);
+            event.commit();
         }
     }
 
+    /**
+     * Drops the cached token so the next request fetches a new one. Used before a CRaC
+     * checkpoint, which would otherwise write the token into the image and restore it stale.
+     */
+    public synchronized void invalidateToken() {
+        authToken = null;
+        tokenExpiryTime = null;
+    }
+
     /**
      * Returns the current authentication token.
      *
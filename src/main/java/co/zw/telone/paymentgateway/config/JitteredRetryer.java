@@ -0,0 +1,67 @@
+package co.zw.telone.paymentgateway.config;
+
+import co.zw.telone.paymentgateway.exception.UpstreamTransientException;
+import feign.Request;
+import feign.RetryableException;
+import feign.Retryer;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Retries transient gateway failures with exponential backoff and full jitter, so callers that
+ * failed together do not come back together.
+ * <p>
+ * Creating a session is not idempotent: a POST is only retried when the gateway said it did
+ * not process it (429 or 503). Reads are retried on any transient failure, including I/O errors.
+ * A Retry-After from the gateway takes precedence over the computed delay.
+ */
+public class JitteredRetryer implements Retryer {
+
+    private final int maxAttempts;
+    private final long periodMillis;
+    private final long maxPeriodMillis;
+    private int attempt = 1;
+
+    public JitteredRetryer(int maxAttempts, long periodMillis, long maxPeriodMillis) {
+        this.maxAttempts = maxAttempts;
+        this.periodMillis = periodMillis;
+        this.maxPeriodMillis = maxPeriodMillis;
+    }
+
+    @Override
+    public void continueOrPropagate(RetryableException e) {
+        if (!isRetryable(e) || attempt >= maxAttempts) {
+            throw e;
+        }
+        long delay = delayMillis(e);
+        attempt++;
+        try {
+            TimeUnit.MILLISECONDS.sleep(delay);
+        } catch (InterruptedException interrupted) {
+            Thread.currentThread().interrupt();
+            throw e;
+        }
+    }
+
+    static boolean isRetryable(RetryableException e) {
+        boolean idempotent = e.method() == Request.HttpMethod.GET || e.method() == Request.HttpMethod.HEAD;
+        if (e instanceof UpstreamTransientException) {
+            return idempotent || e.status() == 429 || e.status() == 503;
+        }
+        return idempotent;
+    }
+
+    private long delayMillis(RetryableException e) {
+        if (e.retryAfter() != null) {
+            return Math.clamp(e.retryAfter() - System.currentTimeMillis(), 0, maxPeriodMillis);
+        }
+        long ceiling = Math.min(maxPeriodMillis, periodMillis << Math.min(attempt - 1, 20));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    @Override
+    public Retryer clone() {
+        return new JitteredRetryer(maxAttempts, periodMillis, maxPeriodMillis);
+    }
+}
@@ -0,0 +1,32 @@
+package co.zw.telone.paymentgateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "payment.journal")
+public class JournalProperties {
+
+    private boolean enabled = true;
+
+    private Path directory = Path.of("data/journal");
+
+    /** Size of each memory-mapped segment file; records never span segments. */
+    private DataSize segmentSize = DataSize.ofMegabytes(64);
+
+    /** Upper bound on how long an appended record waits to be forced to disk. */
+    private Duration flushInterval = Duration.ofMillis(10);
+
+    /** Delay between compactions of sealed segments. */
+    private Duration compactionInterval = Duration.ofHours(1);
+
+    /** Records older than this are dropped by compaction. */
+    private Duration retention = Duration.ofDays(7);
+
+    /** Restore transactions missing from Redis from the journal at startup. */
+    private boolean replayOnStartup = true;
+}
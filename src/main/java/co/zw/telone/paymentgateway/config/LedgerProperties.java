@@ -0,0 +1,27 @@
+package co.zw.telone.paymentgateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.time.ZoneId;
+
+@Data
+@ConfigurationProperties(prefix = "payment.ledger")
+public class LedgerProperties {
+
+    /** Time zone that decides which business day a ledger row belongs to. */
+    private ZoneId zone = ZoneId.of("Africa/Harare");
+
+    /** Rows waiting to be written; further rows are dropped and counted while it is full. */
+    private int bufferCapacity = 65_536;
+
+    /** Rows per JDBC batch; a full batch is written immediately. */
+    private int batchSize = 500;
+
+    /** Longest a row waits for its batch to fill. */
+    private Duration flushInterval = Duration.ofMillis(200);
+
+    /** How long shutdown waits for the buffer to drain. */
+    private Duration shutdownTimeout = Duration.ofSeconds(10);
+}
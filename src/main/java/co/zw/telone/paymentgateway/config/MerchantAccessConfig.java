@@ -0,0 +1,24 @@
+package co.zw.telone.paymentgateway.config;
+
+import co.zw.telone.paymentgateway.security.MerchantAccessInterceptor;
+import co.zw.telone.paymentgateway.security.MerchantRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/** Merchant-scoped reads: event streams, daily totals and the ledger. */
+@Configuration
+public class MerchantAccessConfig {
+
+    @Bean
+    public WebMvcConfigurer merchantAccessInterceptorConfigurer(MerchantRegistry merchantRegistry) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(new MerchantAccessInterceptor(merchantRegistry)).addPathPatterns(
+                        "/api/v1/payment/merchants/**", "/api/v1/reports/merchants/**", "/api/v1/ledger/merchants/**");
+            }
+        };
+    }
+}
@@ -0,0 +1,18 @@
+package co.zw.telone.paymentgateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "payment.merchant-access")
+public class MerchantAccessProperties {
+
+    /**
+     * API key per merchant name, presented as {@code Authorization: Bearer <key>} on the
+     * merchant's event stream, daily totals and ledger. A merchant without a key cannot read them.
+     */
+    private Map<String, String> apiKeys = new HashMap<>();
+}
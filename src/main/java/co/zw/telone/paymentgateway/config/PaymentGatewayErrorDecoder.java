@@ -1,23 +1,113 @@
 package co.zw.telone.paymentgateway.config;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import co.zw.telone.paymentgateway.client.UpstreamErrorBodyReader;
+import co.zw.telone.paymentgateway.exception.UpstreamAuthException;
+import co.zw.telone.paymentgateway.exception.UpstreamFatalException;
+import co.zw.telone.paymentgateway.exception.UpstreamTransientException;
+import co.zw.telone.paymentgateway.exception.UpstreamValidationException;
+import co.zw.telone.paymentgateway.model.UpstreamRejection;
 import feign.Response;
+import feign.Util;
 import feign.codec.ErrorDecoder;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.web.ErrorResponse;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.util.Collection;
+import java.util.Set;
 
+/**
+ * Maps gateway error responses onto the {@link co.zw.telone.paymentgateway.exception.UpstreamFailure}
+ * hierarchy. The body is read and parsed here, once, so callers work with the typed error
+ * instead of re-parsing {@code FeignException} content.
+ * <ul>
+ *     <li>408, 429, 502, 503, 504 or a transient gateway code: {@link UpstreamTransientException}</li>
+ *     <li>401, 403: {@link UpstreamAuthException}</li>
+ *     <li>any other 4xx: {@link UpstreamValidationException}</li>
+ *     <li>anything else: {@link UpstreamFatalException}</li>
+ * </ul>
+ * Every decoded error is counted in {@code payment.upstream.errors}, tagged with the client
+ * method, HTTP status and gateway error code.
+ */
 @Slf4j
 public class PaymentGatewayErrorDecoder implements ErrorDecoder {
 
-    private final ErrorDecoder defaultDecoder = new Default();
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private static final Set<Integer> TRANSIENT_STATUSES = Set.of(408, 429, 502, 503, 504);
 
+    private static final Set<String> TRANSIENT_CODES = Set.of(
+            "RATE_LIMITED", "TOO_MANY_REQUESTS", "SERVICE_UNAVAILABLE", "TEMPORARILY_UNAVAILABLE", "TIMEOUT");
+
+    private final UpstreamErrorBodyReader errorBodyReader;
+    private final MeterRegistry meterRegistry;
+
+    public PaymentGatewayErrorDecoder(UpstreamErrorBodyReader errorBodyReader, MeterRegistry meterRegistry) {
+        this.errorBodyReader = errorBodyReader;
+        this.meterRegistry = meterRegistry;
+    }
 
     @Override
     public Exception decode(String methodKey, Response response) {
+        int status = response.status();
+        byte[] body = readBody(response);
+        UpstreamRejection error = parse(methodKey, body);
+        countError(methodKey, status, error);
+        String message = "[" + status + "] " + methodKey
+                + (error != null && error.message() != null ? ": " + error.message() : "");
+
+        if (TRANSIENT_STATUSES.contains(status) || (error != null && TRANSIENT_CODES.contains(error.code()))) {
+            return new UpstreamTransientException(status, message, response.request(),
+                    retryAfter(response.headers().get("Retry-After")), body, response.headers(), error);
+        }
+        if (status == 401 || status == 403) {
+            return new UpstreamAuthException(status, message, response.request(), body, response.headers(), error);
+        }
+        if (status >= 400 && status < 500) {
+            return new UpstreamValidationException(status, message, response.request(), body, response.headers(), error);
+        }
+        return new UpstreamFatalException(status, message, response.request(), body, response.headers(), error);
+    }
+
+    /** The method key is bounded by the client interfaces; the parameter list is dropped to keep tags short. */
+    private void countError(String methodKey, int status, UpstreamRejection error) {
+        int paren = methodKey.indexOf('(');
+        meterRegistry.counter("payment.upstream.errors",
+                "method", paren < 0 ? methodKey : methodKey.substring(0, paren),
+                "status", Integer.toString(status),
+                "code", error != null && error.code() != null ? error.code() : "NONE").increment();
+    }
+
+    private static byte[] readBody(Response response) {
+        if (response.body() == null) {
+            return new byte[0];
+        }
+        try (InputStream in = response.body().asInputStream()) {
+            return Util.toByteArray(in);
+        } catch (IOException e) {
+            return new byte[0];
+        }
+    }
+
+    private UpstreamRejection parse(String methodKey, byte[] body) {
+        try {
+            return errorBodyReader.read(body);
+        } catch (IOException e) {
+            log.warn("Unparseable error body from {}: {}", methodKey, e.getMessage());
+            return null;
+        }
+    }
 
-        return defaultDecoder.decode(methodKey, response);
+    /**
+     * @return when to retry, in epoch millis, for a Retry-After given in seconds; otherwise null
+     */
+    private static Long retryAfter(Collection<String> values) {
+        if (values == null || values.isEmpty()) {
+            return null;
+        }
+        try {
+            return System.currentTimeMillis() + Long.parseLong(values.iterator().next().trim()) * 1000;
+        } catch (NumberFormatException e) {
+            return null;
+        }
     }
-}
\ No newline at end of file
+}
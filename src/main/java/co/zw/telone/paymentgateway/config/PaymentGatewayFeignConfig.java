@@ -1,7 +1,13 @@
 package co.zw.telone.paymentgateway.config;
 
+import co.zw.telone.paymentgateway.client.UpstreamErrorBodyReader;
+import co.zw.telone.paymentgateway.jfr.JfrFeignCapability;
+import co.zw.telone.paymentgateway.timing.ServerTimingFeignCapability;
+import feign.Capability;
 import feign.Logger;
+import feign.Retryer;
 import feign.codec.ErrorDecoder;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -18,8 +24,24 @@ public class PaymentGatewayFeignConfig {
     }
 
     @Bean
-    public ErrorDecoder errorDecoder() {
-        return new PaymentGatewayErrorDecoder();
+    public ErrorDecoder errorDecoder(UpstreamErrorBodyReader errorBodyReader, MeterRegistry meterRegistry) {
+        return new PaymentGatewayErrorDecoder(errorBodyReader, meterRegistry);
+    }
+
+    @Bean
+    public Retryer retryer(UpstreamRetryProperties properties) {
+        return new JitteredRetryer(properties.getMaxAttempts(), properties.getPeriod().toMillis(),
+                properties.getMaxPeriod().toMillis());
+    }
+
+    @Bean
+    public Capability jfrFeignCapability() {
+        return new JfrFeignCapability();
+    }
+
+    @Bean
+    public Capability serverTimingFeignCapability() {
+        return new ServerTimingFeignCapability();
     }
 
 
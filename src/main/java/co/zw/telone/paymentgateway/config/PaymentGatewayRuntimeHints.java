@@ -0,0 +1,62 @@
+package co.zw.telone.paymentgateway.config;
+
+import co.zw.telone.paymentgateway.client.SessionApiClient;
+import co.zw.telone.paymentgateway.client.TokenApiClient;
+import co.zw.telone.paymentgateway.validation.PaymentSessionRequestValidator;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.util.ClassUtils;
+
+import java.util.List;
+
+/**
+ * Hints for the native image built by the {@code native} Maven profile.
+ * <p>
+ * Spring AOT derives hints for controller signatures on its own. This adds:
+ * <ul>
+ *     <li>Jackson binding for the Lombok DTOs bound outside controllers: gateway responses
+ *     converted from maps, journal entries, and the webhook events and status snapshots the
+ *     Redis template stores as JSON</li>
+ *     <li>the upstream error body record read by {@code UpstreamErrorBodyReader}</li>
+ *     <li>JDK proxies and method reflection for the Feign clients, which Feign builds at runtime</li>
+ *     <li>the constructor of the request validator, which Hibernate Validator creates reflectively</li>
+ * </ul>
+ * The Redis template itself only uses string serializers, which Spring Data Redis registers.
+ */
+public class PaymentGatewayRuntimeHints implements RuntimeHintsRegistrar {
+
+    private static final List<String> JSON_PACKAGES = List.of(
+            "co.zw.telone.paymentgateway.response",
+            "co.zw.telone.paymentgateway.paymentDto",
+            "co.zw.telone.paymentgateway.tokendto",
+            "co.zw.telone.paymentgateway.model");
+    private static final String UPSTREAM_ERROR_BODY =
+            "co.zw.telone.paymentgateway.client.UpstreamErrorBodyReader$UpstreamErrorBody";
+    private static final List<Class<?>> FEIGN_CLIENTS = List.of(SessionApiClient.class, TokenApiClient.class);
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        BindingReflectionHintsRegistrar bindings = new BindingReflectionHintsRegistrar();
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+        scanner.setResourceLoader(new DefaultResourceLoader(classLoader));
+        scanner.addIncludeFilter((reader, factory) -> true);
+        for (String basePackage : JSON_PACKAGES) {
+            for (BeanDefinition candidate : scanner.findCandidateComponents(basePackage)) {
+                bindings.registerReflectionHints(hints.reflection(),
+                        ClassUtils.resolveClassName(candidate.getBeanClassName(), classLoader));
+            }
+        }
+        bindings.registerReflectionHints(hints.reflection(), ClassUtils.resolveClassName(UPSTREAM_ERROR_BODY, classLoader));
+
+        for (Class<?> client : FEIGN_CLIENTS) {
+            hints.proxies().registerJdkProxy(client);
+            hints.reflection().registerType(client, MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+        hints.reflection().registerType(PaymentSessionRequestValidator.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+    }
+}
@@ -0,0 +1,39 @@
+package co.zw.telone.paymentgateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "payment.poller")
+public class PollerProperties {
+
+    private boolean enabled = true;
+
+    /** Delay between poll rounds. */
+    private Duration interval = Duration.ofSeconds(5);
+
+    /** How long a node keeps leadership without renewing it. */
+    private Duration leaseTtl = Duration.ofSeconds(30);
+
+    /** Maximum number of sessions queried per round. */
+    private int batchSize = 100;
+
+    /** Upper bound on upstream status calls per second. */
+    private int maxRequestsPerSecond = 20;
+
+    /** Number of upstream status calls in flight at once. */
+    private int concurrency = 4;
+
+    /** Delay before a newly pending session is first polled. */
+    private Duration initialDelay = Duration.ofSeconds(30);
+
+    /** Backoff after the first unsuccessful poll; doubles with every further poll. */
+    private Duration backoffBase = Duration.ofSeconds(15);
+
+    private Duration maxBackoff = Duration.ofMinutes(10);
+
+    /** Sessions still pending after this long are marked EXPIRED. */
+    private Duration maxAge = Duration.ofHours(2);
+}
@@ -0,0 +1,25 @@
+package co.zw.telone.paymentgateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+
+@Data
+@ConfigurationProperties(prefix = "payment.reconciliation")
+public class ReconciliationProperties {
+
+    /** Each run writes its reports to a subdirectory named after the settlement date and run time. */
+    private Path reportDirectory = Path.of("data/reconciliation");
+
+    /** Worker threads for parsing; defaults to one per core. */
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+
+    /** Byte ranges at most this large are parsed by a single task. */
+    private DataSize splitSize = DataSize.ofMegabytes(4);
+
+    private String idColumn = "merchantTransactionId";
+
+    private String amountColumn = "amountInCents";
+}
@@ -0,0 +1,36 @@
+package co.zw.telone.paymentgateway.config;
+
+import co.zw.telone.paymentgateway.profiling.RequestCostEndpoint;
+import co.zw.telone.paymentgateway.profiling.RequestCostInterceptor;
+import co.zw.telone.paymentgateway.profiling.RequestCostRecorder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/** Sampled per-request allocation and CPU cost, exposed at {@code /actuator/requestcost}. */
+@Configuration
+@ConditionalOnProperty(prefix = "payment.request-cost", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class RequestCostConfig {
+
+    @Bean
+    public RequestCostRecorder requestCostRecorder(RequestCostProperties properties) {
+        return new RequestCostRecorder(properties.getSampleRate());
+    }
+
+    @Bean
+    public RequestCostEndpoint requestCostEndpoint(RequestCostRecorder recorder) {
+        return new RequestCostEndpoint(recorder);
+    }
+
+    @Bean
+    public WebMvcConfigurer requestCostInterceptorConfigurer(RequestCostRecorder recorder) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(new RequestCostInterceptor(recorder)).addPathPatterns("/api/v1/payment/**");
+            }
+        };
+    }
+}
@@ -0,0 +1,14 @@
+package co.zw.telone.paymentgateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "payment.request-cost")
+public class RequestCostProperties {
+
+    private boolean enabled = true;
+
+    /** Share of payment API requests measured. */
+    private double sampleRate = 0.05;
+}
@@ -0,0 +1,36 @@
+package co.zw.telone.paymentgateway.config;
+
+import co.zw.telone.paymentgateway.model.CurrencyCode;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Set;
+
+@Data
+@ConfigurationProperties(prefix = "payment.validation")
+public class RequestValidationProperties {
+
+    private long minAmountInCents = 1;
+
+    private long maxAmountInCents = 1_000_000_000L;
+
+    private Set<CurrencyCode> currencies = EnumSet.allOf(CurrencyCode.class);
+
+    /** Merchants allowed to open sessions. Merchants with a webhook destination are always allowed. */
+    private Set<String> merchants = new HashSet<>();
+
+    /**
+     * Hosts a returnUrl may point at; an entry also allows its subdomains. When empty any
+     * http or https URL is accepted.
+     */
+    private Set<String> returnUrlHosts = new HashSet<>();
+
+    private int maxMerchantTransactionIdLength = 64;
+
+    /** Matches the merchant_name column of the ledger. */
+    private int maxMerchantNameLength = 128;
+
+    private int maxDescriptionLength = 255;
+}
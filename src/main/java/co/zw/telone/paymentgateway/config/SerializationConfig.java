@@ -0,0 +1,68 @@
+package co.zw.telone.paymentgateway.config;
+
+import co.zw.telone.paymentgateway.serialization.CachedJacksonFeignDecoder;
+import co.zw.telone.paymentgateway.serialization.CachedJacksonFeignEncoder;
+import co.zw.telone.paymentgateway.serialization.CachedJacksonHttpMessageConverter;
+import co.zw.telone.paymentgateway.serialization.JsonCodecs;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import feign.codec.Decoder;
+import feign.codec.Encoder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Opt-in JSON fast path, enabled with {@code payment.serialization.accelerated=true}.
+ * <p>
+ * Registers Jackson Blackbird, which replaces reflective getter, setter and constructor calls
+ * with generated lambdas, on the application {@link ObjectMapper}. Readers and writers for
+ * each DTO type are then built once and shared by the MVC message converter and the Feign
+ * encoder and decoder.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "payment.serialization", name = "accelerated", havingValue = "true")
+public class SerializationConfig {
+
+    /** Picked up by Spring Boot and added to the auto-configured ObjectMapper. */
+    @Bean
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+
+    @Bean
+    public JsonCodecs jsonCodecs(ObjectMapper objectMapper) {
+        return new JsonCodecs(objectMapper);
+    }
+
+    @Bean
+    public WebMvcConfigurer cachedJacksonConverterConfigurer(JsonCodecs jsonCodecs) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+                for (int i = 0; i < converters.size(); i++) {
+                    if (converters.get(i) instanceof MappingJackson2HttpMessageConverter) {
+                        converters.set(i, new CachedJacksonHttpMessageConverter(jsonCodecs));
+                        return;
+                    }
+                }
+            }
+        };
+    }
+
+    @Bean
+    public Encoder feignEncoder(JsonCodecs jsonCodecs) {
+        return new CachedJacksonFeignEncoder(jsonCodecs);
+    }
+
+    @Bean
+    public Decoder feignDecoder(JsonCodecs jsonCodecs) {
+        return new CachedJacksonFeignDecoder(jsonCodecs);
+    }
+}
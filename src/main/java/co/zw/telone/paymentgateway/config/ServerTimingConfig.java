@@ -0,0 +1,29 @@
+package co.zw.telone.paymentgateway.config;
+
+import co.zw.telone.paymentgateway.timing.ServerTimingFilter;
+import co.zw.telone.paymentgateway.timing.SloTracker;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ServerTimingConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "payment.slo", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public SloTracker sloTracker(SloProperties properties, MeterRegistry meterRegistry) {
+        return new SloTracker(properties, meterRegistry);
+    }
+
+    @Bean
+    public FilterRegistrationBean<ServerTimingFilter> serverTimingFilter(ServerTimingProperties properties,
+                                                                        ObjectProvider<SloTracker> sloTracker) {
+        FilterRegistrationBean<ServerTimingFilter> registration = new FilterRegistrationBean<>(
+                new ServerTimingFilter(properties.isServerTimingHeader(), sloTracker.getIfAvailable()));
+        registration.addUrlPatterns("/api/v1/payment/*");
+        return registration;
+    }
+}
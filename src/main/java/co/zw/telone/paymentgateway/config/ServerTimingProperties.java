@@ -0,0 +1,12 @@
+package co.zw.telone.paymentgateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "payment.timing")
+public class ServerTimingProperties {
+
+    /** Adds a Server-Timing header with the phases of each payment API request. */
+    private boolean serverTimingHeader = false;
+}
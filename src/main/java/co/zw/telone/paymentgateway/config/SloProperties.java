@@ -0,0 +1,40 @@
+package co.zw.telone.paymentgateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "payment.slo")
+public class SloProperties {
+
+    private boolean enabled = true;
+
+    /** Share of requests that must be fast and free of server errors. */
+    private double objective = 0.99;
+
+    /** Slowest a request may be and still count as good, unless overridden for its endpoint. */
+    private Duration latencyThreshold = Duration.ofSeconds(2);
+
+    /** Per-endpoint thresholds, keyed by the request mapping pattern. */
+    private Map<String, Duration> latencyThresholds = new HashMap<>();
+
+    /** Granularity of the rolling windows. */
+    private Duration slot = Duration.ofMinutes(1);
+
+    private Duration shortWindow = Duration.ofMinutes(5);
+
+    private Duration longWindow = Duration.ofHours(1);
+
+    /**
+     * Burn rate both windows must reach to raise the alert gauge; 14.4 spends 2% of a 30-day
+     * error budget in an hour.
+     */
+    private double alertBurnRate = 14.4;
+
+    /** Merchants tracked separately; later ones are grouped under "other". */
+    private int maxMerchants = 50;
+}
@@ -0,0 +1,34 @@
+package co.zw.telone.paymentgateway.config;
+
+import co.zw.telone.paymentgateway.capture.TrafficCaptureFilter;
+import co.zw.telone.paymentgateway.capture.TrafficRecorder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Traffic capture for replay testing, enabled with {@code payment.capture.enabled=true}.
+ * Replay the file with the {@code loadtest} profile's {@code ReplayMain}.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "payment.capture", name = "enabled", havingValue = "true")
+public class TrafficCaptureConfig {
+
+    @Bean
+    public TrafficRecorder trafficRecorder(TrafficCaptureProperties properties, ObjectMapper objectMapper,
+                                           MeterRegistry meterRegistry) {
+        return new TrafficRecorder(properties, objectMapper, meterRegistry);
+    }
+
+    @Bean
+    public FilterRegistrationBean<TrafficCaptureFilter> trafficCaptureFilter(TrafficRecorder recorder,
+                                                                            TrafficCaptureProperties properties) {
+        FilterRegistrationBean<TrafficCaptureFilter> registration = new FilterRegistrationBean<>(
+                new TrafficCaptureFilter(recorder, (int) properties.getMaxBodySize().toBytes()));
+        registration.addUrlPatterns("/api/v1/payment/*");
+        return registration;
+    }
+}
@@ -0,0 +1,27 @@
+package co.zw.telone.paymentgateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+
+@Data
+@ConfigurationProperties(prefix = "payment.capture")
+public class TrafficCaptureProperties {
+
+    /** Record anonymized payment API traffic for replay. Off unless asked for. */
+    private boolean enabled = false;
+
+    /** Each run writes a new {@code traffic-<epoch-millis>.bin} file here. */
+    private Path directory = Path.of("data/capture");
+
+    /** Requests waiting to be written; further requests are not captured while it is full. */
+    private int bufferCapacity = 65_536;
+
+    /** Request bodies are only inspected up to this size. */
+    private DataSize maxBodySize = DataSize.ofKilobytes(64);
+
+    /** Capture stops after this many requests. */
+    private long maxRecords = 10_000_000;
+}
@@ -0,0 +1,43 @@
+package co.zw.telone.paymentgateway.config;
+
+import co.zw.telone.paymentgateway.model.TransactionRecord;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class TransactionStatusCacheConfig {
+
+    public static final String CACHE_NAME = "transactionStatus";
+
+    /**
+     * Local near-cache in front of the Redis status hashes. Entries are invalidated on every
+     * status change; the write expiry only bounds staleness while a node is cut off from pub/sub.
+     *
+     * @return the near-cache
+     */
+    @Bean
+    public Cache<String, TransactionRecord> transactionStatusCache(
+            @Value("${payment.transactions.near-cache.maximum-size:100000}") long maximumSize,
+            @Value("${payment.transactions.near-cache.expire-after-write:30s}") Duration expireAfterWrite,
+            MeterRegistry meterRegistry) {
+        Cache<String, TransactionRecord> cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        Gauge.builder("payment.transaction.status.cache.hit.ratio", cache, c -> c.stats().hitRate())
+                .description("Hit ratio of the transaction status near-cache")
+                .register(meterRegistry);
+        return cache;
+    }
+}
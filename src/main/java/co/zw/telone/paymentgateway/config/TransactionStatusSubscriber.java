@@ -0,0 +1,104 @@
+package co.zw.telone.paymentgateway.config;
+
+import co.zw.telone.paymentgateway.event.TransactionStatusBroadcastEvent;
+import co.zw.telone.paymentgateway.model.TransactionRecord;
+import co.zw.telone.paymentgateway.response.TransactionStatusResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.github.benmanes.caffeine.cache.Cache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+
+import static co.zw.telone.paymentgateway.util.PaymentGatewayConstants.TRANSACTION_STATUS_CHANNEL;
+
+/**
+ * Listens for status changes published by any node, evicts the local near-cache copy and
+ * re-publishes the change locally as a {@link TransactionStatusBroadcastEvent}.
+ * <p>
+ * The listener container is deliberately not a bean: a container bean would be started with
+ * the context and fail startup whenever Redis is unreachable. Instead the subscription is
+ * (re)established on a schedule, and the near-cache is flushed every time it comes back since
+ * changes made on other nodes may have been missed in between.
+ */
+@Component
+@Slf4j
+public class TransactionStatusSubscriber implements DisposableBean {
+
+    private final RedisMessageListenerContainer container;
+    private final ThreadPoolTaskExecutor listenerExecutor;
+    private final Cache<String, TransactionRecord> transactionStatusCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectReader statusReader;
+
+    public TransactionStatusSubscriber(RedisConnectionFactory connectionFactory,
+                                       Cache<String, TransactionRecord> transactionStatusCache,
+                                       ApplicationEventPublisher eventPublisher,
+                                       ObjectMapper objectMapper) {
+        this.transactionStatusCache = transactionStatusCache;
+        this.eventPublisher = eventPublisher;
+        this.statusReader = objectMapper.readerFor(TransactionStatusResponse.class);
+        this.listenerExecutor = singleThreadExecutor();
+
+        this.container = new RedisMessageListenerContainer();
+        this.container.setConnectionFactory(connectionFactory);
+        // One listener thread keeps status changes in publish order.
+        this.container.setTaskExecutor(listenerExecutor);
+        this.container.addMessageListener((message, pattern) -> onMessage(message),
+                new ChannelTopic(TRANSACTION_STATUS_CHANNEL));
+        this.container.afterPropertiesSet();
+    }
+
+    @Scheduled(fixedDelayString = "${payment.transactions.near-cache.resubscribe-interval:30s}")
+    public void ensureSubscribed() {
+        if (container.isListening()) {
+            return;
+        }
+        try {
+            container.start();
+            transactionStatusCache.invalidateAll();
+            log.info("Subscribed to transaction status changes.");
+        } catch (Exception e) {
+            container.stop();
+            log.warn("Unable to subscribe to transaction status changes: {}", e.getMessage());
+        }
+    }
+
+    private void onMessage(Message message) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.indexOf('|');
+        try {
+            long eventId = Long.parseLong(body, 0, separator, 10);
+            TransactionStatusResponse status = statusReader.readValue(body.substring(separator + 1));
+            transactionStatusCache.invalidate(status.getMerchantTransactionId());
+            eventPublisher.publishEvent(new TransactionStatusBroadcastEvent(eventId, status));
+        } catch (Exception e) {
+            log.warn("Ignoring malformed status change message: {}", body, e);
+        }
+    }
+
+    private static ThreadPoolTaskExecutor singleThreadExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setThreadNamePrefix("txn-status-listener-");
+        executor.setDaemon(true);
+        executor.initialize();
+        return executor;
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        container.destroy();
+        listenerExecutor.shutdown();
+    }
+}
@@ -0,0 +1,42 @@
+package co.zw.telone.paymentgateway.config;
+
+import co.zw.telone.paymentgateway.model.CurrencyCode;
+import co.zw.telone.paymentgateway.model.UpstreamRejection;
+import co.zw.telone.paymentgateway.response.PaymentSessionRequest;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class UpstreamRejectionCacheConfig {
+
+    public static final String CACHE_NAME = "upstreamRejections";
+
+    /**
+     * Permanent upstream rejections keyed by the request fields the gateway judged. The
+     * merchantTransactionId is left out since it differs on every attempt.
+     */
+    public record RejectionKey(String merchantName, long amountInCents, CurrencyCode currency,
+                               String returnUrl, String description) {
+
+        public static RejectionKey of(PaymentSessionRequest request) {
+            return new RejectionKey(request.getMerchantName(), request.getAmountInCents(), request.getCurrency(),
+                    request.getReturnUrl(), request.getDescription());
+        }
+    }
+
+    @Bean
+    public Cache<RejectionKey, UpstreamRejection> upstreamRejectionCache(
+            UpstreamRejectionProperties properties, MeterRegistry meterRegistry) {
+        Cache<RejectionKey, UpstreamRejection> cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        return cache;
+    }
+}
@@ -0,0 +1,31 @@
+package co.zw.telone.paymentgateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+
+@Data
+@ConfigurationProperties(prefix = "payment.gateway.rejections")
+public class UpstreamRejectionProperties {
+
+    private boolean enabled = true;
+
+    /** How long a permanent rejection is answered locally before the gateway is asked again. */
+    private Duration ttl = Duration.ofMinutes(5);
+
+    private long maximumSize = 10_000;
+
+    /**
+     * Gateway {@code error.code} values that will not change on retry. Any other code is
+     * treated as transient and never cached.
+     */
+    private Set<String> permanentCodes = new HashSet<>(Set.of(
+            "UNKNOWN_MERCHANT", "INVALID_MERCHANT", "MERCHANT_DISABLED",
+            "UNSUPPORTED_CURRENCY", "INVALID_CURRENCY", "INVALID_AMOUNT", "INVALID_RETURN_URL"));
+
+    /** Gateway {@code error.statusCode} values that are permanent whatever the code says. */
+    private Set<String> permanentStatusCodes = new HashSet<>(Set.of("422"));
+}
@@ -0,0 +1,19 @@
+package co.zw.telone.paymentgateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "payment.gateway.retry")
+public class UpstreamRetryProperties {
+
+    /** Total attempts including the first call. */
+    private int maxAttempts = 3;
+
+    /** Upper bound of the first backoff; doubles with every further attempt. */
+    private Duration period = Duration.ofMillis(100);
+
+    private Duration maxPeriod = Duration.ofSeconds(2);
+}
@@ -0,0 +1,19 @@
+package co.zw.telone.paymentgateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "payment.warmup")
+public class WarmupProperties {
+
+    private boolean enabled = true;
+
+    /** Longest readiness is held back; steps still running then are abandoned. */
+    private Duration budget = Duration.ofSeconds(20);
+
+    /** Passes over the mapping, validation and serialization paths. */
+    private int iterations = 10_000;
+}
@@ -0,0 +1,51 @@
+package co.zw.telone.paymentgateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "payment.webhooks")
+public class WebhookProperties {
+
+    private boolean enabled = true;
+
+    /** Delay between dispatch rounds. */
+    private Duration interval = Duration.ofSeconds(1);
+
+    private Duration connectTimeout = Duration.ofSeconds(5);
+
+    private Duration requestTimeout = Duration.ofSeconds(10);
+
+    /** How long a claimed event stays invisible to other nodes before it is considered lost. */
+    private Duration claimTimeout = Duration.ofMinutes(1);
+
+    /** Deliveries attempted before an event is moved to the dead-letter list. */
+    private int maxAttempts = 10;
+
+    /** Backoff after the first failed delivery; doubles with every further failure. */
+    private Duration backoffBase = Duration.ofSeconds(10);
+
+    private Duration maxBackoff = Duration.ofHours(1);
+
+    /** Webhook destinations keyed by merchant name. Merchants not listed here get no webhooks. */
+    private Map<String, Merchant> merchants = new HashMap<>();
+
+    @Data
+    public static class Merchant {
+
+        private String url;
+
+        /** Shared secret used to sign each request body. */
+        private String secret;
+
+        /** Requests in flight to this merchant at once, per node. */
+        private int maxConcurrency = 2;
+
+        /** Events per request; above 1 the body is a JSON array. */
+        private int batchSize = 1;
+    }
+}
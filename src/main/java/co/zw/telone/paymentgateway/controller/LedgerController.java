@@ -0,0 +1,39 @@
+package co.zw.telone.paymentgateway.controller;
+
+import co.zw.telone.paymentgateway.model.LedgerEntry;
+import co.zw.telone.paymentgateway.model.TransactionStatus;
+import co.zw.telone.paymentgateway.response.ApiResponse;
+import co.zw.telone.paymentgateway.service.LedgerService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static co.zw.telone.paymentgateway.util.PaymentGatewayConstants.OPERATION_SUCCESS;
+
+@RestController
+@RequestMapping("/api/v1/ledger")
+@RequiredArgsConstructor
+public class LedgerController {
+
+    private final LedgerService ledgerService;
+
+    @GetMapping("/merchants/{merchantName}")
+    public ResponseEntity<ApiResponse<List<LedgerEntry>>> getLedgerEntries(
+            @PathVariable String merchantName,
+            @RequestParam("date") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(value = "status", required = false) TransactionStatus status,
+            @RequestParam(value = "page", defaultValue = "0") int page,
+            @RequestParam(value = "size", defaultValue = "100") int size) {
+        List<LedgerEntry> data = ledgerService.findEntries(merchantName, date, status, page, size);
+        return ResponseEntity.ok(new ApiResponse<>(HttpStatus.OK, OPERATION_SUCCESS, data));
+    }
+}
@@ -4,13 +4,25 @@ package co.zw.telone.paymentgateway.controller;
 import co.zw.telone.paymentgateway.response.PaymentSessionRequest;
 import co.zw.telone.paymentgateway.response.PaymentSessionResponse;
 import co.zw.telone.paymentgateway.response.ApiResponse;
+import co.zw.telone.paymentgateway.response.TransactionStatusResponse;
+import co.zw.telone.paymentgateway.service.PaymentEventStreamService;
 import co.zw.telone.paymentgateway.service.PaymentGatewayService;
+import co.zw.telone.paymentgateway.service.TransactionStatusBatchService;
+import co.zw.telone.paymentgateway.service.TransactionStatusService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
 
 import static co.zw.telone.paymentgateway.util.PaymentGatewayConstants.OPERATION_SUCCESS;
 
@@ -21,10 +33,13 @@ import static co.zw.telone.paymentgateway.util.PaymentGatewayConstants.OPERATION
 public class PaymentGateController {
 
     private final PaymentGatewayService paymentGatewayService;
+    private final TransactionStatusService transactionStatusService;
+    private final TransactionStatusBatchService transactionStatusBatchService;
+    private final PaymentEventStreamService paymentEventStreamService;
 
 
         @PostMapping("/session")
-        public ResponseEntity<Void> createPaymentSession(@RequestBody PaymentSessionRequest request) {
+        public ResponseEntity<Void> createPaymentSession(@Valid @RequestBody PaymentSessionRequest request) {
             // Generate payment session
             PaymentSessionResponse data = paymentGatewayService.createPaymentSession(request);
 
@@ -39,12 +54,50 @@ public class PaymentGateController {
 
     @PostMapping("/session-data")
     public ResponseEntity<ApiResponse<PaymentSessionResponse>> createPaymentSessionData(
-            @RequestBody PaymentSessionRequest request) {
+            @Valid @RequestBody PaymentSessionRequest request) {
         PaymentSessionResponse data = paymentGatewayService.createPaymentSession(request);
         ApiResponse<PaymentSessionResponse> response = new ApiResponse<>(
                 HttpStatus.OK, OPERATION_SUCCESS, data);
         return ResponseEntity.status(HttpStatus.OK).body(response);
     }
+
+    @GetMapping("/{merchantTransactionId}/status")
+    public ResponseEntity<ApiResponse<TransactionStatusResponse>> getTransactionStatus(
+            @PathVariable String merchantTransactionId) {
+        TransactionStatusResponse data = TransactionStatusResponse.from(
+                transactionStatusService.getStatus(merchantTransactionId));
+        return ResponseEntity.ok(new ApiResponse<>(HttpStatus.OK, OPERATION_SUCCESS, data));
+    }
+
+    @PostMapping(value = "/status/batch", consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void getTransactionStatuses(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        StreamingResponseBody body = transactionStatusBatchService.prepareStatusStream(request.getInputStream());
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        body.writeTo(response.getOutputStream());
+    }
+
+    @GetMapping(value = "/{merchantTransactionId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamTransactionEvents(@PathVariable String merchantTransactionId) {
+        return paymentEventStreamService.subscribeToTransaction(merchantTransactionId);
+    }
+
+    @GetMapping(value = "/merchants/{merchantName}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamMerchantEvents(
+            @PathVariable String merchantName,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return paymentEventStreamService.subscribeToMerchant(merchantName, lastEventId);
+    }
+
+    @GetMapping("/callback")
+    public ResponseEntity<ApiResponse<TransactionStatusResponse>> handlePaymentCallback(
+            @RequestParam("status") String status,
+            @RequestParam(value = "statusCode", required = false) String statusCode,
+            @RequestParam("merchantTransactionId") String merchantTransactionId) {
+        TransactionStatusResponse data = paymentGatewayService.handlePaymentCallback(
+                status, statusCode, merchantTransactionId);
+        return ResponseEntity.ok(new ApiResponse<>(HttpStatus.OK, OPERATION_SUCCESS, data));
+    }
     }
 
 //    @PostMapping("/session")
@@ -0,0 +1,40 @@
+package co.zw.telone.paymentgateway.controller;
+
+import co.zw.telone.paymentgateway.response.ApiResponse;
+import co.zw.telone.paymentgateway.response.ReconciliationSummary;
+import co.zw.telone.paymentgateway.service.ReconciliationService;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.time.LocalDate;
+
+import static co.zw.telone.paymentgateway.util.PaymentGatewayConstants.OPERATION_SUCCESS;
+
+@RestController
+@RequestMapping("/api/v1/reconciliation")
+@RequiredArgsConstructor
+public class ReconciliationController {
+
+    private final ReconciliationService reconciliationService;
+
+    /**
+     * Takes the settlement file as the raw request body so it is streamed to disk rather
+     * than buffered as a multipart upload.
+     */
+    @PostMapping(consumes = "text/csv")
+    public ResponseEntity<ApiResponse<ReconciliationSummary>> reconcile(
+            @RequestParam("date") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(value = "merchantName", required = false) String merchantName,
+            HttpServletRequest request) throws IOException {
+        ReconciliationSummary data = reconciliationService.reconcile(date, merchantName, request.getInputStream());
+        return ResponseEntity.ok(new ApiResponse<>(HttpStatus.OK, OPERATION_SUCCESS, data));
+    }
+}
@@ -0,0 +1,37 @@
+package co.zw.telone.paymentgateway.controller;
+
+import co.zw.telone.paymentgateway.config.LedgerProperties;
+import co.zw.telone.paymentgateway.response.ApiResponse;
+import co.zw.telone.paymentgateway.response.MerchantDailyTotals;
+import co.zw.telone.paymentgateway.service.MerchantTotalsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+
+import static co.zw.telone.paymentgateway.util.PaymentGatewayConstants.OPERATION_SUCCESS;
+
+@RestController
+@RequestMapping("/api/v1/reports")
+@RequiredArgsConstructor
+public class ReportController {
+
+    private final MerchantTotalsService merchantTotalsService;
+    private final LedgerProperties ledgerProperties;
+
+    @GetMapping("/merchants/{merchantName}/daily-totals")
+    public ResponseEntity<ApiResponse<MerchantDailyTotals>> getDailyTotals(
+            @PathVariable String merchantName,
+            @RequestParam(value = "date", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        LocalDate day = date != null ? date : LocalDate.now(ledgerProperties.getZone());
+        MerchantDailyTotals data = merchantTotalsService.getDailyTotals(merchantName, day);
+        return ResponseEntity.ok(new ApiResponse<>(HttpStatus.OK, OPERATION_SUCCESS, data));
+    }
+}
@@ -0,0 +1,16 @@
+package co.zw.telone.paymentgateway.event;
+
+import co.zw.telone.paymentgateway.response.TransactionStatusResponse;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published on every node when a status change arrives over the Redis channel,
+ * whichever node made the change.
+ */
+@Getter
+@AllArgsConstructor
+public class TransactionStatusBroadcastEvent {
+    private final long eventId;
+    private final TransactionStatusResponse status;
+}
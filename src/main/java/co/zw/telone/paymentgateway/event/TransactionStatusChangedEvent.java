@@ -0,0 +1,16 @@
+package co.zw.telone.paymentgateway.event;
+
+import co.zw.telone.paymentgateway.model.TransactionRecord;
+import co.zw.telone.paymentgateway.model.TransactionStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published locally whenever a transaction is created or changes status on this node.
+ */
+@Getter
+@AllArgsConstructor
+public class TransactionStatusChangedEvent {
+    private final TransactionRecord record;
+    private final TransactionStatus previousStatus;
+}
@@ -4,7 +4,7 @@ import org.springframework.http.HttpStatus;
 
 public class BadRequestException extends TokenServiceException {
     public BadRequestException(String message, HttpStatus status) {
-        super(message, status);
+        super(message, status, false);
     }
 
     public BadRequestException(String message, Throwable cause, HttpStatus status) {
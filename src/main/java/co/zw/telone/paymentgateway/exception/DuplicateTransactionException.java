@@ -0,0 +1,9 @@
+package co.zw.telone.paymentgateway.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class DuplicateTransactionException extends TokenServiceException {
+    public DuplicateTransactionException(String merchantTransactionId) {
+        super("Transaction already exists: " + merchantTransactionId, HttpStatus.CONFLICT, false);
+    }
+}
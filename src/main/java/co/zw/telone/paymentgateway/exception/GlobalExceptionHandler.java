@@ -1,59 +1,85 @@
 package co.zw.telone.paymentgateway.exception;
 
 import co.zw.telone.paymentgateway.strategy.context.ErrorHandlerContext;
-import co.zw.telone.paymentgateway.strategy.impl.FeignBadRequestStrategy;
 import co.zw.telone.paymentgateway.tokendto.ApiResponse;
 import co.zw.telone.paymentgateway.tokendto.ErrorDto;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import feign.FeignException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.redis.RedisConnectionFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
-import java.time.LocalDateTime;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.List;
 
 @ControllerAdvice
 @Slf4j
 @RequiredArgsConstructor
 public class GlobalExceptionHandler {
 
-    private final ObjectMapper objectMapper;
+    private final ErrorHandlerContext errorHandlerContext;
+    private final MeterRegistry meterRegistry;
 
-    @ExceptionHandler(TokenServiceException.class)
-    public ResponseEntity<ApiResponse<?>> handleTokenServiceException(TokenServiceException ex) {
+    /**
+     * Domain and upstream failures are answered by the strategy registered for their type.
+     */
+    @ExceptionHandler({TokenServiceException.class, PaymentGatewayException.class,
+            UpstreamValidationException.class, RedisConnectionFailureException.class})
+    public ResponseEntity<?> handleWithStrategy(Exception ex) {
+        ResponseEntity<?> response = errorHandlerContext.handleError(ex);
+        countError(ex, response.getStatusCode().value());
+        return response;
+    }
+
+    /**
+     * Amounts and currencies are parsed while the body is bound, so a malformed value ends up
+     * here rather than deeper in the service.
+     */
+    @ExceptionHandler(HttpMessageNotReadableException.class)
+    public ResponseEntity<ApiResponse<?>> handleUnreadableBody(HttpMessageNotReadableException ex) {
+        String message = "Malformed request body";
+        if (ex.getCause() instanceof JsonMappingException mapping && !mapping.getPath().isEmpty()) {
+            String field = mapping.getPath().get(mapping.getPath().size() - 1).getFieldName();
+            message = "Invalid value for '" + field + "'";
+        }
+        countError(ex, HttpStatus.BAD_REQUEST.value());
         ErrorDto errorDto = ErrorDto.builder()
-                .status(ex.getClass().getSimpleName())
-                .message(ex.getMessage())
-                .code(ex.getStatus().toString())
+                .status(BadRequestException.class.getSimpleName())
+                .message(message)
+                .code(HttpStatus.BAD_REQUEST.toString())
                 .build();
-        return ResponseEntity.status(ex.getStatus())
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                 .body(ApiResponse.error(errorDto));
     }
 
-        @ExceptionHandler(FeignException.BadRequest.class)
-        public ResponseEntity<Map<String, Object>> handleBadRequest(FeignException.BadRequest ex) {
-            // Delegate error handling to the strategy
-            ErrorHandlerContext context = new ErrorHandlerContext(new FeignBadRequestStrategy(objectMapper));
-            return context.handleError(ex.contentUTF8());
-        }
-
-
-        @ExceptionHandler(org.springframework.data.redis.RedisConnectionFailureException.class)
-        public ResponseEntity<Object> handleRedisConnectionFailure(RedisConnectionFailureException ex) {
-            Map<String, Object> errorDetails = new HashMap<>();
-            errorDetails.put("timestamp", LocalDateTime.now());
-            errorDetails.put("status", HttpStatus.INTERNAL_SERVER_ERROR.value());
-            errorDetails.put("error", "Redis Connection Failure");
-            errorDetails.put("message", "Unable to connect to Redis server.");
-            errorDetails.put("path", "/api/v1/payment/session"); // Path can be dynamically set.
-
-            return new ResponseEntity<>(errorDetails, HttpStatus.INTERNAL_SERVER_ERROR);
+    @ExceptionHandler(MethodArgumentNotValidException.class)
+    public ResponseEntity<ApiResponse<?>> handleValidationFailure(MethodArgumentNotValidException ex) {
+        List<ErrorDto.FieldViolation> violations = new ArrayList<>();
+        for (FieldError fieldError : ex.getBindingResult().getFieldErrors()) {
+            violations.add(new ErrorDto.FieldViolation(fieldError.getField(), fieldError.getDefaultMessage()));
         }
+        countError(ex, HttpStatus.BAD_REQUEST.value());
+        ErrorDto errorDto = ErrorDto.builder()
+                .status(BadRequestException.class.getSimpleName())
+                .message("Request validation failed")
+                .code(HttpStatus.BAD_REQUEST.toString())
+                .violations(violations)
+                .build();
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(ApiResponse.error(errorDto));
     }
 
+    /** One series per exception class and response status, in {@code payment.errors}. */
+    private void countError(Exception ex, int status) {
+        meterRegistry.counter("payment.errors",
+                "exception", ex.getClass().getSimpleName(),
+                "status", Integer.toString(status)).increment();
+    }
+}
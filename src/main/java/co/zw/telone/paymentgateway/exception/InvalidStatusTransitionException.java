@@ -0,0 +1,10 @@
+package co.zw.telone.paymentgateway.exception;
+
+import co.zw.telone.paymentgateway.model.TransactionStatus;
+import org.springframework.http.HttpStatus;
+
+public class InvalidStatusTransitionException extends TokenServiceException {
+    public InvalidStatusTransitionException(String merchantTransactionId, TransactionStatus from, TransactionStatus to) {
+        super("Transaction " + merchantTransactionId + " cannot move from " + from + " to " + to, HttpStatus.CONFLICT, false);
+    }
+}
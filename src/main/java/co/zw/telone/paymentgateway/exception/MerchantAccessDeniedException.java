@@ -0,0 +1,9 @@
+package co.zw.telone.paymentgateway.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class MerchantAccessDeniedException extends TokenServiceException {
+    public MerchantAccessDeniedException(String merchantName) {
+        super("A valid API key for " + merchantName + " is required", HttpStatus.UNAUTHORIZED, false);
+    }
+}
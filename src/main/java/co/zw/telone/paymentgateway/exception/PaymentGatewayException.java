@@ -1,13 +1,24 @@
 package co.zw.telone.paymentgateway.exception;
 
 
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+@Getter
 public class PaymentGatewayException extends RuntimeException {
+    private final HttpStatus status;
 
     public PaymentGatewayException(String message) {
         super(message);
+        this.status = HttpStatus.INTERNAL_SERVER_ERROR;
     }
 
+    /**
+     * Client errors keep the upstream exception as their cause but skip their own stack trace;
+     * only server errors are worth one.
+     */
     public PaymentGatewayException(String message, Throwable cause, int code) {
-        super(message, cause);
+        super(message, cause, true, code >= 500);
+        this.status = HttpStatus.valueOf(code);
     }
-}
\ No newline at end of file
+}
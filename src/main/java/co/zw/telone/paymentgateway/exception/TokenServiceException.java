@@ -17,4 +17,13 @@ public abstract class TokenServiceException extends RuntimeException {
         this.status = status;
     }
 
+    /**
+     * For expected failures such as a missing transaction or a rejected request. These are
+     * answered with a 4xx and never logged with a trace, so filling one in is wasted work.
+     */
+    protected TokenServiceException(String message, HttpStatus status, boolean writableStackTrace) {
+        super(message, null, false, writableStackTrace);
+        this.status = status;
+    }
+
 }
\ No newline at end of file
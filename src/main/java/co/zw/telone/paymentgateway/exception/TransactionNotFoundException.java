@@ -0,0 +1,9 @@
+package co.zw.telone.paymentgateway.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class TransactionNotFoundException extends TokenServiceException {
+    public TransactionNotFoundException(String merchantTransactionId) {
+        super("Transaction not found: " + merchantTransactionId, HttpStatus.NOT_FOUND, false);
+    }
+}
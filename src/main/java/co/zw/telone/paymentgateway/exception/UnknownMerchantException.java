@@ -0,0 +1,9 @@
+package co.zw.telone.paymentgateway.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class UnknownMerchantException extends TokenServiceException {
+    public UnknownMerchantException(String merchantName) {
+        super("Merchant not found: " + merchantName, HttpStatus.NOT_FOUND, false);
+    }
+}
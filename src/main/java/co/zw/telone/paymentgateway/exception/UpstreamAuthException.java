@@ -0,0 +1,26 @@
+package co.zw.telone.paymentgateway.exception;
+
+import co.zw.telone.paymentgateway.model.UpstreamRejection;
+import feign.FeignException;
+import feign.Request;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * The gateway refused our credentials or token.
+ */
+public class UpstreamAuthException extends FeignException implements UpstreamFailure {
+    private final transient UpstreamRejection error;
+
+    public UpstreamAuthException(int status, String message, Request request, byte[] body,
+                                 Map<String, Collection<String>> headers, UpstreamRejection error) {
+        super(status, message, request, body, headers);
+        this.error = error;
+    }
+
+    @Override
+    public UpstreamRejection getError() {
+        return error;
+    }
+}
@@ -0,0 +1,16 @@
+package co.zw.telone.paymentgateway.exception;
+
+import co.zw.telone.paymentgateway.model.UpstreamRejection;
+
+/**
+ * A non-2xx answer from the payment gateway, decoded once by the Feign error decoder.
+ */
+public interface UpstreamFailure {
+
+    int status();
+
+    /**
+     * @return the gateway's error object, or null when the body did not carry one
+     */
+    UpstreamRejection getError();
+}
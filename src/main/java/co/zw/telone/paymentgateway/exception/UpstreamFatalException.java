@@ -0,0 +1,26 @@
+package co.zw.telone.paymentgateway.exception;
+
+import co.zw.telone.paymentgateway.model.UpstreamRejection;
+import feign.FeignException;
+import feign.Request;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * The gateway failed in a way that is not expected to clear up on retry.
+ */
+public class UpstreamFatalException extends FeignException implements UpstreamFailure {
+    private final transient UpstreamRejection error;
+
+    public UpstreamFatalException(int status, String message, Request request, byte[] body,
+                                  Map<String, Collection<String>> headers, UpstreamRejection error) {
+        super(status, message, request, body, headers);
+        this.error = error;
+    }
+
+    @Override
+    public UpstreamRejection getError() {
+        return error;
+    }
+}
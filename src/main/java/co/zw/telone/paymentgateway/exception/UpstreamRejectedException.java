@@ -0,0 +1,18 @@
+package co.zw.telone.paymentgateway.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+/**
+ * The gateway rejected a session for a reason that will not change on retry. Also thrown,
+ * without an upstream call, while the same request is held in the rejection cache.
+ */
+@Getter
+public class UpstreamRejectedException extends TokenServiceException {
+    private final String upstreamCode;
+
+    public UpstreamRejectedException(String upstreamCode, String message) {
+        super("Rejected by payment gateway (" + upstreamCode + "): " + message, HttpStatus.BAD_REQUEST, false);
+        this.upstreamCode = upstreamCode;
+    }
+}
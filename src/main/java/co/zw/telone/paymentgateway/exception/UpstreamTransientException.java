@@ -0,0 +1,27 @@
+package co.zw.telone.paymentgateway.exception;
+
+import co.zw.telone.paymentgateway.model.UpstreamRejection;
+import feign.Request;
+import feign.RetryableException;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * The gateway was overloaded or briefly unavailable; the same call may succeed later.
+ * This is the only upstream failure the Feign retryer acts on.
+ */
+public class UpstreamTransientException extends RetryableException implements UpstreamFailure {
+    private final transient UpstreamRejection error;
+
+    public UpstreamTransientException(int status, String message, Request request, Long retryAfter,
+                                      byte[] body, Map<String, Collection<String>> headers, UpstreamRejection error) {
+        super(status, message, request.httpMethod(), retryAfter, request, body, headers);
+        this.error = error;
+    }
+
+    @Override
+    public UpstreamRejection getError() {
+        return error;
+    }
+}
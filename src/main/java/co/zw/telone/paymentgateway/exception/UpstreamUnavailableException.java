@@ -0,0 +1,25 @@
+package co.zw.telone.paymentgateway.exception;
+
+import co.zw.telone.paymentgateway.model.UpstreamRejection;
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+/**
+ * The gateway could not create the session: it was overloaded, timed out, refused our
+ * credentials or failed outright. Answered with a 502, 503 or 504 rather than a 500, since the
+ * fault is upstream. The decoded gateway error is kept, and no stack trace is captured because
+ * the upstream status says all there is to say.
+ */
+@Getter
+public class UpstreamUnavailableException extends TokenServiceException {
+    private final transient UpstreamRejection error;
+
+    /** Seconds the caller should wait before trying again, or null when a retry will not help. */
+    private final Long retryAfterSeconds;
+
+    public UpstreamUnavailableException(String message, HttpStatus status, UpstreamRejection error, Long retryAfterSeconds) {
+        super(message, status, false);
+        this.error = error;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
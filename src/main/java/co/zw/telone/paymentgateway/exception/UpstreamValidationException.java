@@ -0,0 +1,32 @@
+package co.zw.telone.paymentgateway.exception;
+
+import co.zw.telone.paymentgateway.model.UpstreamRejection;
+import feign.FeignException;
+import feign.Request;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * The gateway rejected the request as invalid. Resending it unchanged will not help, and
+ * this is routine enough that no stack trace is captured.
+ */
+public class UpstreamValidationException extends FeignException implements UpstreamFailure {
+    private final transient UpstreamRejection error;
+
+    public UpstreamValidationException(int status, String message, Request request, byte[] body,
+                                       Map<String, Collection<String>> headers, UpstreamRejection error) {
+        super(status, message, request, body, headers);
+        this.error = error;
+    }
+
+    @Override
+    public UpstreamRejection getError() {
+        return error;
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
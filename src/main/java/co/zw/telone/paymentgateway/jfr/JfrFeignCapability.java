@@ -0,0 +1,56 @@
+package co.zw.telone.paymentgateway.jfr;
+
+import feign.Capability;
+import feign.Client;
+import feign.MethodMetadata;
+import feign.Request;
+import feign.Response;
+
+import java.io.IOException;
+
+/**
+ * Emits an {@link UpstreamCallEvent} around every Feign HTTP exchange.
+ * <p>
+ * Like the other events in this package it is enabled by default and costs close to nothing
+ * while no recording is running, so a continuous recording can be left on in production:
+ * <pre>
+ * -XX:StartFlightRecording=name=payment,maxage=6h,disk=true,dumponexit=true
+ * jcmd &lt;pid&gt; JFR.dump name=payment filename=payment.jfr
+ * jfr print --categories "Payment Gateway" payment.jfr
+ * </pre>
+ */
+public class JfrFeignCapability implements Capability {
+
+    @Override
+    public Client enrich(Client client) {
+        return (request, options) -> {
+            UpstreamCallEvent event = new UpstreamCallEvent();
+            event.begin();
+            Response response = null;
+            try {
+                response = client.execute(request, options);
+                return response;
+            } catch (IOException | RuntimeException e) {
+                event.error = e.getClass().getSimpleName();
+                throw e;
+            } finally {
+                if (event.shouldCommit()) {
+                    record(event, request, response);
+                    event.commit();
+                }
+            }
+        };
+    }
+
+    private static void record(UpstreamCallEvent event, Request request, Response response) {
+        MethodMetadata metadata = request.requestTemplate() != null ? request.requestTemplate().methodMetadata() : null;
+        event.method = metadata != null ? metadata.configKey() : request.url();
+        event.httpMethod = request.httpMethod().name();
+        event.requestBytes = request.body() != null ? request.body().length : 0;
+        if (response != null) {
+            event.status = response.status();
+            Integer length = response.body() != null ? response.body().length() : Integer.valueOf(0);
+            event.responseBytes = length != null ? length : -1;
+        }
+    }
+}
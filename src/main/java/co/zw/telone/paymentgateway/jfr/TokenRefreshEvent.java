@@ -0,0 +1,28 @@
+package co.zw.telone.paymentgateway.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * One call to the token API made while holding the interceptor's lock. Threads blocked on
+ * that lock show up as {@code jdk.JavaMonitorEnter} events overlapping this one.
+ */
+@Name("co.zw.telone.payment.TokenRefresh")
+@Label("Token Refresh")
+@Category({"Payment Gateway", "Upstream"})
+@Description("Gateway token fetched by the Feign authorization interceptor")
+@StackTrace(false)
+public class TokenRefreshEvent extends Event {
+
+    @Label("Success")
+    public boolean success;
+
+    @Label("Expires In")
+    @Timespan(Timespan.SECONDS)
+    public long expiresIn;
+}
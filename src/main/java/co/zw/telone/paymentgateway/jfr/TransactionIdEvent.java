@@ -0,0 +1,24 @@
+package co.zw.telone.paymentgateway.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("co.zw.telone.payment.TransactionIdGeneration")
+@Label("Transaction Id Generation")
+@Category({"Payment Gateway", "Redis"})
+@Description("Reservation of a generated merchant transaction id in Redis")
+@StackTrace(false)
+public class TransactionIdEvent extends Event {
+
+    @Label("Prefix")
+    @Description("Merchant initial and date the candidate ids share")
+    public String prefix;
+
+    @Label("Probes")
+    @Description("SETNX attempts made, including the successful one")
+    public int probes;
+}
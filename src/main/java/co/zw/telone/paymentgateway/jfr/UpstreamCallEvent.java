@@ -0,0 +1,40 @@
+package co.zw.telone.paymentgateway.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** One HTTP exchange made by a Feign client; retried calls produce one event per attempt. */
+@Name("co.zw.telone.payment.UpstreamCall")
+@Label("Upstream Call")
+@Category({"Payment Gateway", "Upstream"})
+@Description("HTTP exchange with the payment gateway")
+@StackTrace(false)
+public class UpstreamCallEvent extends Event {
+
+    @Label("Client Method")
+    public String method;
+
+    @Label("HTTP Method")
+    public String httpMethod;
+
+    @Label("Status")
+    @Description("Response status, or 0 when no response was received")
+    public int status;
+
+    @Label("Request Size")
+    @DataAmount
+    public long requestBytes;
+
+    @Label("Response Size")
+    @DataAmount
+    @Description("Declared Content-Length of the response, or -1 when not known up front")
+    public long responseBytes;
+
+    @Label("Error")
+    public String error;
+}
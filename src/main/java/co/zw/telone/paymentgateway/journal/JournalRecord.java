@@ -0,0 +1,13 @@
+package co.zw.telone.paymentgateway.journal;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class JournalRecord {
+    private final JournalRecordType type;
+    private final long timestamp;
+    private final String merchantTransactionId;
+    private final byte[] payload;
+}
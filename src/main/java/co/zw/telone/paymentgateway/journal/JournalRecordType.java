@@ -0,0 +1,37 @@
+package co.zw.telone.paymentgateway.journal;
+
+/**
+ * Kinds of journal record. The code is what is stored on disk, so existing codes must never change.
+ */
+public enum JournalRecordType {
+    SESSION_REQUEST((byte) 1),
+    UPSTREAM_RESPONSE((byte) 2),
+    CALLBACK((byte) 3),
+    STATUS_CHANGE((byte) 4);
+
+    private static final JournalRecordType[] BY_CODE = new JournalRecordType[5];
+
+    static {
+        for (JournalRecordType type : values()) {
+            BY_CODE[type.code] = type;
+        }
+    }
+
+    private final byte code;
+
+    JournalRecordType(byte code) {
+        this.code = code;
+    }
+
+    public byte code() {
+        return code;
+    }
+
+    public static JournalRecordType fromCode(byte code) {
+        JournalRecordType type = code > 0 && code < BY_CODE.length ? BY_CODE[code] : null;
+        if (type == null) {
+            throw new IllegalArgumentException("Unknown journal record type " + code);
+        }
+        return type;
+    }
+}
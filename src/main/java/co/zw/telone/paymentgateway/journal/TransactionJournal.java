@@ -0,0 +1,513 @@
+package co.zw.telone.paymentgateway.journal;
+
+import co.zw.telone.paymentgateway.config.JournalProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import co.zw.telone.paymentgateway.service.impl.CheckpointRestoreLifecycle;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only journal of everything that happens to a payment, kept in memory-mapped
+ * segment files.
+ * <p>
+ * Record layout, big-endian:
+ * <pre>
+ *   int   body length
+ *   int   CRC32C of body
+ *   body: byte  type
+ *         long  timestamp (epoch millis)
+ *         short merchantTransactionId length
+ *         bytes merchantTransactionId (UTF-8)
+ *         bytes payload
+ * </pre>
+ * A zero length or a checksum mismatch marks the end of a segment, so a record torn by a
+ * crash is simply not there on replay.
+ * <p>
+ * Appends only copy into the mapping; a flusher thread forces everything written since its
+ * last pass in one call (group commit), so a record reaches disk within
+ * {@code flush-interval}. A full segment is sealed and a new one started. Sealed segments are
+ * compacted on a schedule down to the latest record of each type per transaction, dropping
+ * anything older than the retention period.
+ * <p>
+ * The active segment is opened on start and forced and closed on stop, so a CRaC checkpoint
+ * holds no open journal file; after restore the journal reopens where it left off.
+ */
+@Component
+@Slf4j
+public class TransactionJournal implements SmartLifecycle {
+
+    private static final int HEADER_BYTES = 8;
+    private static final int FIXED_BODY_BYTES = 1 + 8 + 2;
+    private static final String SEGMENT_SUFFIX = ".journal";
+    private static final String COMPACTING_SUFFIX = ".compacting";
+
+    private final JournalProperties properties;
+    private final int segmentSize;
+    private final Timer appendTimer;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private Segment active;
+    private Thread flusher;
+    private volatile boolean running;
+
+    public TransactionJournal(JournalProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.segmentSize = (int) Math.min(properties.getSegmentSize().toBytes(), Integer.MAX_VALUE);
+        this.appendTimer = Timer.builder("payment.journal.append")
+                .description("Time to append one record to the journal")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        if (!properties.isEnabled() || running) {
+            return;
+        }
+        writeLock.lock();
+        try {
+            Files.createDirectories(properties.getDirectory());
+            discardUnfinishedCompaction();
+            List<Path> segments = listSegments();
+            active = segments.isEmpty()
+                    ? Segment.create(segmentPath(1), 1, segmentSize)
+                    : openForAppend(segments.get(segments.size() - 1));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open journal at " + properties.getDirectory(), e);
+        } finally {
+            writeLock.unlock();
+        }
+
+        running = true;
+        flusher = new Thread(this::runFlusher, "journal-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+        log.info("Journal open at {} (segment {}, offset {})", properties.getDirectory(), active.id, active.position);
+    }
+
+    /**
+     * Appends a record. Never throws: the journal must not fail the payment it records.
+     */
+    public void append(JournalRecordType type, String merchantTransactionId, byte[] payload) {
+        if (!running) {
+            return;
+        }
+        long start = System.nanoTime();
+        byte[] id = merchantTransactionId.getBytes(StandardCharsets.UTF_8);
+        int recordLength = HEADER_BYTES + FIXED_BODY_BYTES + id.length + payload.length;
+        if (recordLength > segmentSize) {
+            log.warn("Journal record for {} is {} bytes, larger than a segment; not journaled",
+                    merchantTransactionId, recordLength);
+            return;
+        }
+
+        writeLock.lock();
+        try {
+            if (active == null) {
+                return;
+            }
+            if (active.buffer.capacity() - active.position < recordLength) {
+                roll();
+            }
+            active.position = write(active.buffer, active.position, type, System.currentTimeMillis(), id, payload);
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to journal {} for {}", type, merchantTransactionId, e);
+        } finally {
+            writeLock.unlock();
+        }
+        appendTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Reads every record, oldest first. Segments are mapped read-only and scanned sequentially.
+     */
+    public void replay(Consumer<JournalRecord> consumer) throws IOException {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        for (Path path : listSegments()) {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                read(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), consumer);
+            }
+        }
+    }
+
+    /**
+     * Rewrites the sealed segments, keeping only the latest record of each type per transaction,
+     * into as few segments of {@code segment-size} as they fit. The results replace the oldest
+     * sealed segments one at a time, oldest first, before the rest are deleted, oldest first. A
+     * record never lands after the segment it came from, so a crash part-way leaves at worst some
+     * duplicates that replay in the right order.
+     */
+    @Scheduled(initialDelayString = "${payment.journal.compaction-interval:1h}",
+            fixedDelayString = "${payment.journal.compaction-interval:1h}")
+    public void compact() {
+        if (!running) {
+            return;
+        }
+        try {
+            long activeId;
+            writeLock.lock();
+            try {
+                if (active == null) {
+                    return;
+                }
+                activeId = active.id;
+            } finally {
+                writeLock.unlock();
+            }
+            List<Path> sealed = listSegments().stream().filter(path -> segmentId(path) < activeId).toList();
+            if (sealed.isEmpty()) {
+                return;
+            }
+            compact(sealed);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Journal compaction failed: {}", e.getMessage());
+        }
+    }
+
+    private void compact(List<Path> sealed) throws IOException {
+        long cutoff = System.currentTimeMillis() - properties.getRetention().toMillis();
+        List<ByteBuffer> sources = new ArrayList<>(sealed.size());
+        for (Path path : sealed) {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                sources.add(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+            }
+        }
+
+        // First pass: where the latest record of each type per transaction is, as segment and
+        // offset. Payloads stay in the mapped segments, so the index is a few dozen bytes a key.
+        Map<String, Long> latest = new LinkedHashMap<>();
+        int scanned = 0;
+        for (int segment = 0; segment < sources.size(); segment++) {
+            long segmentBits = (long) segment << 32;
+            int[] count = new int[1];
+            scan(sources.get(segment), (buffer, position, bodyLength) -> {
+                count[0]++;
+                int bodyStart = position + HEADER_BYTES;
+                byte[] id = new byte[buffer.getShort(bodyStart + 9) & 0xFFFF];
+                buffer.get(bodyStart + FIXED_BODY_BYTES, id);
+                String key = buffer.get(bodyStart) + ":" + new String(id, StandardCharsets.UTF_8);
+                // Remove first so iteration order follows each key's latest occurrence.
+                latest.remove(key);
+                if (buffer.getLong(bodyStart + 1) >= cutoff) {
+                    latest.put(key, segmentBits | position);
+                }
+            });
+            scanned += count[0];
+        }
+
+        // Packed in order into segments no larger than the live ones. Packing in order never needs
+        // more segments than it read, and never puts a record in a later segment than it came from.
+        int outputs = 0;
+        long outputSize = segmentSize;
+        for (long location : latest.values()) {
+            int length = recordLength(sources, location);
+            if (outputSize + length > segmentSize) {
+                outputs++;
+                outputSize = 0;
+            }
+            outputSize += length;
+        }
+        if (outputs > sealed.size()) {
+            // Only possible when segment-size was lowered since the sealed segments were written.
+            log.warn("Journal compaction skipped: {} sealed segments would need {} at the current segment size",
+                    sealed.size(), outputs);
+            return;
+        }
+
+        // Second pass: each record is copied as it stands, checksum included, from its mapped segment.
+        List<Path> compacting = new ArrayList<>(outputs);
+        FileChannel output = null;
+        try {
+            outputSize = segmentSize;
+            for (long location : latest.values()) {
+                int length = recordLength(sources, location);
+                if (outputSize + length > segmentSize) {
+                    closeCompacted(output);
+                    Path target = sealed.get(compacting.size());
+                    compacting.add(target.resolveSibling(target.getFileName() + COMPACTING_SUFFIX));
+                    output = FileChannel.open(compacting.get(compacting.size() - 1),
+                            StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+                    outputSize = 0;
+                }
+                ByteBuffer record = sources.get((int) (location >>> 32)).slice((int) location, length);
+                while (record.hasRemaining()) {
+                    output.write(record);
+                }
+                outputSize += length;
+            }
+            closeCompacted(output);
+            output = null;
+        } finally {
+            if (output != null) {
+                output.close();
+            }
+        }
+
+        for (int i = 0; i < compacting.size(); i++) {
+            Files.move(compacting.get(i), sealed.get(i), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        }
+        for (Path path : sealed.subList(compacting.size(), sealed.size())) {
+            Files.delete(path);
+        }
+        log.info("Compacted {} journal segments: kept {} of {} records", sealed.size(), latest.size(), scanned);
+    }
+
+    private static int recordLength(List<ByteBuffer> sources, long location) {
+        return HEADER_BYTES + sources.get((int) (location >>> 32)).getInt((int) location);
+    }
+
+    private static void closeCompacted(FileChannel output) throws IOException {
+        if (output != null) {
+            output.force(true);
+            output.close();
+        }
+    }
+
+    private void roll() throws IOException {
+        Segment previous = active;
+        previous.buffer.force();
+        previous.channel.close();
+        active = Segment.create(segmentPath(previous.id + 1), previous.id + 1, segmentSize);
+        log.debug("Journal rolled to segment {}", active.id);
+    }
+
+    private void runFlusher() {
+        long intervalNanos = properties.getFlushInterval().toNanos();
+        while (running) {
+            LockSupport.parkNanos(intervalNanos);
+            flush();
+        }
+    }
+
+    private void flush() {
+        Segment segment;
+        int end;
+        writeLock.lock();
+        try {
+            segment = active;
+            if (segment == null) {
+                return;
+            }
+            end = segment.position;
+        } finally {
+            writeLock.unlock();
+        }
+        // A segment rolled meanwhile was forced in full by roll(); forcing it again is harmless.
+        if (end > segment.flushed) {
+            try {
+                segment.buffer.force(segment.flushed, end - segment.flushed);
+                segment.flushed = end;
+            } catch (UncheckedIOException e) {
+                log.error("Failed to flush journal segment {}", segment.id, e);
+            }
+        }
+    }
+
+    /**
+     * Opens the newest segment and positions after its last intact record, clearing any torn
+     * record behind it. A segment of a different size than configured is left sealed.
+     */
+    private Segment openForAppend(Path path) throws IOException {
+        long id = segmentId(path);
+        if (Files.size(path) != segmentSize) {
+            return Segment.create(segmentPath(id + 1), id + 1, segmentSize);
+        }
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        int end = read(buffer, record -> { });
+        int tornLength = end + HEADER_BYTES <= segmentSize ? buffer.getInt(end) : 0;
+        if (tornLength != 0) {
+            int clearTo = (int) Math.min((long) end + HEADER_BYTES + Math.max(tornLength, 0), segmentSize);
+            for (int i = end; i < clearTo; i++) {
+                buffer.put(i, (byte) 0);
+            }
+            buffer.force();
+            log.warn("Journal segment {} ended in a torn record at offset {}; discarded it", id, end);
+        }
+        return new Segment(id, channel, buffer, end);
+    }
+
+    private void discardUnfinishedCompaction() throws IOException {
+        try (Stream<Path> files = Files.list(properties.getDirectory())) {
+            for (Path path : files.filter(p -> p.getFileName().toString().endsWith(COMPACTING_SUFFIX)).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    private List<Path> listSegments() throws IOException {
+        try (Stream<Path> files = Files.list(properties.getDirectory())) {
+            return files.filter(path -> path.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private Path segmentPath(long id) {
+        return properties.getDirectory().resolve(String.format("%016d%s", id, SEGMENT_SUFFIX));
+    }
+
+    private static long segmentId(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    /**
+     * Writes one record at {@code position} and returns the position after it. The length is
+     * written last so a reader never sees a length without its body.
+     */
+    private static int write(ByteBuffer buffer, int position, JournalRecordType type, long timestamp,
+                             byte[] id, byte[] payload) {
+        int bodyStart = position + HEADER_BYTES;
+        int bodyLength = FIXED_BODY_BYTES + id.length + payload.length;
+        buffer.put(bodyStart, type.code());
+        buffer.putLong(bodyStart + 1, timestamp);
+        buffer.putShort(bodyStart + 9, (short) id.length);
+        buffer.put(bodyStart + FIXED_BODY_BYTES, id);
+        buffer.put(bodyStart + FIXED_BODY_BYTES + id.length, payload);
+
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(bodyStart, bodyLength));
+        buffer.putInt(position + 4, (int) crc.getValue());
+        buffer.putInt(position, bodyLength);
+        return bodyStart + bodyLength;
+    }
+
+    /**
+     * Decodes intact records from the start of {@code buffer} and returns the offset after the last one.
+     */
+    private static int read(ByteBuffer buffer, Consumer<JournalRecord> consumer) {
+        return scan(buffer, (source, position, bodyLength) -> {
+            int bodyStart = position + HEADER_BYTES;
+            int idLength = source.getShort(bodyStart + 9) & 0xFFFF;
+            byte[] id = new byte[idLength];
+            source.get(bodyStart + FIXED_BODY_BYTES, id);
+            byte[] payload = new byte[bodyLength - FIXED_BODY_BYTES - idLength];
+            source.get(bodyStart + FIXED_BODY_BYTES + idLength, payload);
+            consumer.accept(new JournalRecord(
+                    JournalRecordType.fromCode(source.get(bodyStart)),
+                    source.getLong(bodyStart + 1),
+                    new String(id, StandardCharsets.UTF_8),
+                    payload));
+        });
+    }
+
+    /**
+     * Visits the intact records from the start of {@code buffer} in place and returns the offset
+     * after the last one.
+     */
+    private static int scan(ByteBuffer buffer, RecordVisitor visitor) {
+        int position = 0;
+        int limit = buffer.limit();
+        CRC32C crc = new CRC32C();
+        while (position + HEADER_BYTES + FIXED_BODY_BYTES <= limit) {
+            int bodyLength = buffer.getInt(position);
+            int bodyStart = position + HEADER_BYTES;
+            if (bodyLength < FIXED_BODY_BYTES || bodyLength > limit - bodyStart) {
+                break;
+            }
+            crc.reset();
+            crc.update(buffer.slice(bodyStart, bodyLength));
+            if ((int) crc.getValue() != buffer.getInt(position + 4)) {
+                break;
+            }
+            visitor.visit(buffer, position, bodyLength);
+            position = bodyStart + bodyLength;
+        }
+        return position;
+    }
+
+    @FunctionalInterface
+    private interface RecordVisitor {
+        /** Called with the offset of a record's header and the length of its body. */
+        void visit(ByteBuffer buffer, int position, int bodyLength);
+    }
+
+    /**
+     * Forces and closes the active segment. Its mapping goes with the last reference to the
+     * buffer; a checkpoint collects garbage first, so no journal file is left mapped either.
+     */
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(flusher);
+        try {
+            flusher.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        writeLock.lock();
+        try {
+            active.buffer.force();
+            active.channel.close();
+            log.info("Journal closed at segment {}, offset {}", active.id, active.position);
+        } catch (IOException e) {
+            log.error("Failed to close journal segment {}", active.id, e);
+        } finally {
+            active = null;
+            flusher = null;
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return CheckpointRestoreLifecycle.RESOURCE_PHASE;
+    }
+
+    private static final class Segment {
+        private final long id;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        /** Guarded by the write lock. */
+        private int position;
+        /** Only touched by the flusher thread. */
+        private int flushed;
+
+        private Segment(long id, FileChannel channel, MappedByteBuffer buffer, int position) {
+            this.id = id;
+            this.channel = channel;
+            this.buffer = buffer;
+            this.position = position;
+            this.flushed = position;
+        }
+
+        static Segment create(Path path, long id, int size) throws IOException {
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            return new Segment(id, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, size), 0);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package co.zw.telone.paymentgateway.journal;
+
+import co.zw.telone.paymentgateway.config.JournalProperties;
+import co.zw.telone.paymentgateway.event.TransactionStatusChangedEvent;
+import co.zw.telone.paymentgateway.model.Money;
+import co.zw.telone.paymentgateway.model.TransactionRecord;
+import co.zw.telone.paymentgateway.model.TransactionStatus;
+import co.zw.telone.paymentgateway.service.TransactionStatusService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static co.zw.telone.paymentgateway.util.PaymentGatewayConstants.PENDING_SESSIONS_KEY;
+
+/**
+ * Journals every status change and, at startup, replays the journal to put back transactions
+ * that Redis no longer has. Restored pending sessions go straight back on the poller's queue.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TransactionJournalRecorder {
+
+    private final TransactionJournal journal;
+    private final JournalProperties properties;
+    private final TransactionStatusService transactionStatusService;
+    private final StringRedisTemplate redisTemplate;
+
+    @EventListener
+    public void onStatusChanged(TransactionStatusChangedEvent event) {
+        TransactionRecord record = event.getRecord();
+        journal.append(JournalRecordType.STATUS_CHANGE, record.getMerchantTransactionId(), encode(record));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void recover() {
+        if (!properties.isEnabled() || !properties.isReplayOnStartup()) {
+            return;
+        }
+        long start = System.nanoTime();
+        Map<String, TransactionRecord> latest = new HashMap<>();
+        int[] records = new int[1];
+        try {
+            journal.replay(record -> {
+                records[0]++;
+                if (record.getType() == JournalRecordType.STATUS_CHANGE) {
+                    latest.put(record.getMerchantTransactionId(),
+                            decode(record.getMerchantTransactionId(), record.getPayload()));
+                }
+            });
+
+            List<TransactionRecord> restored = transactionStatusService.restoreAll(latest.values());
+            long now = System.currentTimeMillis();
+            Set<ZSetOperations.TypedTuple<String>> pending = restored.stream()
+                    .filter(record -> record.getStatus() == TransactionStatus.PENDING)
+                    .map(record -> ZSetOperations.TypedTuple.of(record.getMerchantTransactionId(), (double) now))
+                    .collect(Collectors.toSet());
+            if (!pending.isEmpty()) {
+                redisTemplate.opsForZSet().addIfAbsent(PENDING_SESSIONS_KEY, pending);
+            }
+            log.info("Replayed {} journal records for {} transactions in {} ms; restored {}",
+                    records[0], latest.size(), (System.nanoTime() - start) / 1_000_000, restored.size());
+        } catch (Exception e) {
+            log.warn("Journal replay failed: {}", e.getMessage());
+        }
+    }
+
+    static byte[] encode(TransactionRecord record) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeUTF(record.getStatus().name());
+            writeNullable(out, record.getSessionId());
+            writeNullable(out, record.getMerchantName());
+            // Amounts stay strings in the payload so journals written before Money still replay.
+            writeNullable(out, record.getAmount() == null ? null : record.getAmount().centsString());
+            writeNullable(out, record.getAmount() == null ? null : record.getAmount().currency().name());
+            out.writeLong(record.getCreatedAt());
+            out.writeLong(record.getUpdatedAt());
+            out.writeLong(record.getVersion());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static TransactionRecord decode(String merchantTransactionId, byte[] payload) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            return TransactionRecord.builder()
+                    .merchantTransactionId(merchantTransactionId)
+                    .status(TransactionStatus.valueOf(in.readUTF()))
+                    .sessionId(readNullable(in))
+                    .merchantName(readNullable(in))
+                    .amount(Money.parseStored(readNullable(in), readNullable(in)))
+                    .createdAt(in.readLong())
+                    .updatedAt(in.readLong())
+                    .version(in.readLong())
+                    .build();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeNullable(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullable(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
@@ -0,0 +1,115 @@
+package co.zw.telone.paymentgateway.ledger;
+
+import co.zw.telone.paymentgateway.model.LedgerEntry;
+import co.zw.telone.paymentgateway.model.TransactionStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ObjLongConsumer;
+
+@Repository
+@RequiredArgsConstructor
+public class LedgerRepository {
+
+    // A row can be offered twice if a batch is retried after a partial failure; the key makes that harmless.
+    private static final String INSERT_SQL = """
+            INSERT INTO payment_ledger (merchant_transaction_id, version, session_id, merchant_name, status,
+                                        previous_status, amount_in_cents, currency, business_date, recorded_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT DO NOTHING
+            """;
+
+    private static final String SELECT_COLUMNS = """
+            SELECT merchant_transaction_id, version, session_id, merchant_name, status, previous_status,
+                   amount_in_cents, currency, business_date, recorded_at
+            FROM payment_ledger
+            """;
+
+    private static final RowMapper<LedgerEntry> ROW_MAPPER = (rs, rowNum) -> LedgerEntry.builder()
+            .merchantTransactionId(rs.getString("merchant_transaction_id"))
+            .version(rs.getLong("version"))
+            .sessionId(rs.getString("session_id"))
+            .merchantName(rs.getString("merchant_name"))
+            .status(TransactionStatus.valueOf(rs.getString("status")))
+            .previousStatus(rs.getString("previous_status") == null
+                    ? null : TransactionStatus.valueOf(rs.getString("previous_status")))
+            .amountInCents(rs.getObject("amount_in_cents", Long.class))
+            .currency(rs.getString("currency"))
+            .businessDate(rs.getObject("business_date", LocalDate.class))
+            .recordedAt(rs.getTimestamp("recorded_at").toInstant())
+            .build();
+
+    private static final int STREAM_FETCH_SIZE = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void insertBatch(List<LedgerEntry> entries) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, entries, entries.size(), (ps, entry) -> {
+            ps.setString(1, entry.getMerchantTransactionId());
+            ps.setLong(2, entry.getVersion());
+            ps.setString(3, entry.getSessionId());
+            ps.setString(4, entry.getMerchantName());
+            ps.setString(5, entry.getStatus().name());
+            ps.setString(6, entry.getPreviousStatus() == null ? null : entry.getPreviousStatus().name());
+            if (entry.getAmountInCents() == null) {
+                ps.setNull(7, Types.BIGINT);
+            } else {
+                ps.setLong(7, entry.getAmountInCents());
+            }
+            ps.setString(8, entry.getCurrency());
+            ps.setDate(9, Date.valueOf(entry.getBusinessDate()));
+            ps.setTimestamp(10, Timestamp.from(entry.getRecordedAt()));
+        });
+    }
+
+    /**
+     * Rows for one merchant and day, optionally narrowed to a status. Served by the
+     * (merchant_name, business_date, status) index and paged by {@code offset}.
+     */
+    public List<LedgerEntry> find(String merchantName, LocalDate businessDate, TransactionStatus status,
+                                  int limit, int offset) {
+        StringBuilder sql = new StringBuilder(SELECT_COLUMNS).append("WHERE merchant_name = ? AND business_date = ?");
+        List<Object> args = new ArrayList<>(List.of(merchantName, Date.valueOf(businessDate)));
+        if (status != null) {
+            sql.append(" AND status = ?");
+            args.add(status.name());
+        }
+        sql.append(" ORDER BY recorded_at, merchant_transaction_id, version LIMIT ? OFFSET ?");
+        args.add(limit);
+        args.add(offset);
+        return jdbcTemplate.query(sql.toString(), ROW_MAPPER, args.toArray());
+    }
+
+    /**
+     * Streams the id and amount of every transaction that completed on {@code businessDate},
+     * optionally for one merchant, without holding the result set in memory.
+     */
+    public void streamCompleted(LocalDate businessDate, String merchantName, ObjLongConsumer<String> consumer) {
+        StringBuilder sql = new StringBuilder("""
+                SELECT merchant_transaction_id, amount_in_cents FROM payment_ledger
+                WHERE business_date = ? AND status = ?""");
+        List<Object> args = new ArrayList<>(List.of(Date.valueOf(businessDate), TransactionStatus.COMPLETE.name()));
+        if (merchantName != null) {
+            sql.append(" AND merchant_name = ?");
+            args.add(merchantName);
+        }
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql.toString());
+            statement.setFetchSize(STREAM_FETCH_SIZE);
+            for (int i = 0; i < args.size(); i++) {
+                statement.setObject(i + 1, args.get(i));
+            }
+            return statement;
+        }, (RowCallbackHandler) rs -> consumer.accept(rs.getString(1), rs.getLong(2)));
+    }
+}
@@ -0,0 +1,186 @@
+package co.zw.telone.paymentgateway.ledger;
+
+import co.zw.telone.paymentgateway.config.LedgerProperties;
+import co.zw.telone.paymentgateway.event.TransactionStatusChangedEvent;
+import co.zw.telone.paymentgateway.model.LedgerEntry;
+import co.zw.telone.paymentgateway.model.Money;
+import co.zw.telone.paymentgateway.model.TransactionRecord;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.NonTransientDataAccessException;
+import org.springframework.dao.NonTransientDataAccessResourceException;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Write-behind stage for the ledger.
+ * <p>
+ * Status changes are turned into rows and offered to a bounded queue, which is all the
+ * payment path pays for. A single writer thread drains the queue into JDBC batches, writing
+ * as soon as a batch is full or its oldest row has waited {@code flush-interval}. On shutdown
+ * the writer drains what is left before the datasource closes. When the queue is full rows are
+ * dropped rather than slowing payments down. A batch the database rejects because of its data
+ * is written again one row at a time, so only the offending rows are lost. Every dropped row is
+ * counted in {@code payment.ledger.dropped} and logged with its id and version; nothing writes
+ * them back later.
+ */
+@Component
+@Slf4j
+public class LedgerWriter implements DisposableBean {
+
+    private static final int MAX_WRITE_ATTEMPTS = 3;
+    private static final LedgerEntry SHUTDOWN = LedgerEntry.builder().build();
+
+    private final LedgerRepository ledgerRepository;
+    private final LedgerProperties properties;
+    private final BlockingQueue<LedgerEntry> buffer;
+    private final Timer flushTimer;
+    private final Counter droppedRows;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    public LedgerWriter(LedgerRepository ledgerRepository, LedgerProperties properties, MeterRegistry meterRegistry) {
+        this.ledgerRepository = ledgerRepository;
+        this.properties = properties;
+        this.buffer = new ArrayBlockingQueue<>(properties.getBufferCapacity());
+        this.flushTimer = Timer.builder("payment.ledger.flush")
+                .description("Time to write one batch of ledger rows")
+                .register(meterRegistry);
+        this.droppedRows = Counter.builder("payment.ledger.dropped")
+                .description("Ledger rows dropped because the buffer was full or the database kept failing")
+                .register(meterRegistry);
+        Gauge.builder("payment.ledger.buffer.size", buffer, BlockingQueue::size)
+                .description("Ledger rows waiting to be written")
+                .register(meterRegistry);
+
+        this.writer = new Thread(this::run, "ledger-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    @EventListener
+    public void onStatusChanged(TransactionStatusChangedEvent event) {
+        TransactionRecord record = event.getRecord();
+        Instant recordedAt = Instant.ofEpochMilli(record.getUpdatedAt());
+        Money amount = record.getAmount();
+        LedgerEntry entry = LedgerEntry.builder()
+                .merchantTransactionId(record.getMerchantTransactionId())
+                .version(record.getVersion())
+                .sessionId(record.getSessionId())
+                .merchantName(record.getMerchantName())
+                .status(record.getStatus())
+                .previousStatus(event.getPreviousStatus())
+                .amountInCents(amount == null ? null : amount.amountInCents())
+                .currency(amount == null ? null : amount.currency().name())
+                .businessDate(recordedAt.atZone(properties.getZone()).toLocalDate())
+                .recordedAt(recordedAt)
+                .build();
+        if (!buffer.offer(entry)) {
+            droppedRows.increment();
+            log.error("Ledger buffer full; dropped row for {} v{}", entry.getMerchantTransactionId(), entry.getVersion());
+        }
+    }
+
+    private void run() {
+        int batchSize = properties.getBatchSize();
+        long flushIntervalNanos = properties.getFlushInterval().toNanos();
+        List<LedgerEntry> batch = new ArrayList<>(batchSize);
+        while (running || !buffer.isEmpty()) {
+            try {
+                LedgerEntry first = buffer.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+                if (first == null || first == SHUTDOWN) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + flushIntervalNanos;
+                while (batch.size() < batchSize && running) {
+                    long remaining = deadline - System.nanoTime();
+                    LedgerEntry next = remaining > 0 ? buffer.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                    buffer.drainTo(batch, batchSize - batch.size());
+                }
+                buffer.drainTo(batch, batchSize - batch.size());
+                batch.removeIf(entry -> entry == SHUTDOWN);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<LedgerEntry> batch) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                flushTimer.record(() -> ledgerRepository.insertBatch(batch));
+                return;
+            } catch (RuntimeException e) {
+                if (isRowProblem(e) && batch.size() > 1) {
+                    log.warn("Ledger batch of {} rejected, writing rows one at a time: {}", batch.size(), e.getMessage());
+                    writeEach(batch);
+                    return;
+                }
+                if (attempt == MAX_WRITE_ATTEMPTS) {
+                    droppedRows.increment(batch.size());
+                    log.error("Dropped {} ledger rows after {} failed writes", batch.size(), attempt, e);
+                    return;
+                }
+                log.warn("Ledger write failed (attempt {}): {}", attempt, e.getMessage());
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(100L << attempt));
+            }
+        }
+    }
+
+    private void writeEach(List<LedgerEntry> batch) {
+        for (LedgerEntry entry : batch) {
+            try {
+                flushTimer.record(() -> ledgerRepository.insertBatch(List.of(entry)));
+            } catch (RuntimeException e) {
+                droppedRows.increment();
+                log.error("Dropped ledger row for {} v{}: {}", entry.getMerchantTransactionId(), entry.getVersion(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * A constraint or data error will fail the same batch every time, unlike a lost connection,
+     * which is worth retrying as a whole.
+     */
+    private static boolean isRowProblem(RuntimeException e) {
+        return e instanceof NonTransientDataAccessException && !(e instanceof NonTransientDataAccessResourceException);
+    }
+
+    /**
+     * Drains the buffer before the datasource goes away; this bean depends on it, so Spring
+     * destroys this one first.
+     */
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        // Wakes a writer waiting for its batch to fill. Interrupting it instead could land in the
+        // middle of a JDBC call; if the buffer is full the writer is not waiting anyway.
+        buffer.offer(SHUTDOWN);
+        writer.join(properties.getShutdownTimeout().toMillis());
+        if (writer.isAlive()) {
+            log.warn("Ledger writer did not drain within {}; {} rows left unwritten",
+                    properties.getShutdownTimeout(), buffer.size());
+        }
+    }
+}
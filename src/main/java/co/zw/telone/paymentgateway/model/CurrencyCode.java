@@ -0,0 +1,47 @@
+package co.zw.telone.paymentgateway.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+
+/**
+ * ISO 4217 currencies accepted by the gateway.
+ * <p>
+ * All of them have two minor units, which is what lets amounts travel as plain cents.
+ */
+public enum CurrencyCode {
+    ZWG(924),
+    ZWL(932),
+    USD(840),
+    ZAR(710),
+    BWP(72),
+    GBP(826),
+    EUR(978);
+
+    private static final CurrencyCode[] VALUES = values();
+
+    private final int numericCode;
+
+    CurrencyCode(int numericCode) {
+        this.numericCode = numericCode;
+    }
+
+    public int getNumericCode() {
+        return numericCode;
+    }
+
+    /**
+     * Case-insensitive lookup that does not allocate, so it is safe on the request path.
+     *
+     * @throws IllegalArgumentException when the code is not a supported currency
+     */
+    @JsonCreator
+    public static CurrencyCode of(String code) {
+        if (code != null && code.length() == 3) {
+            for (CurrencyCode currency : VALUES) {
+                if (currency.name().equalsIgnoreCase(code)) {
+                    return currency;
+                }
+            }
+        }
+        throw new IllegalArgumentException("Unsupported currency: " + code);
+    }
+}
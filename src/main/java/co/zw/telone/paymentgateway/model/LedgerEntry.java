@@ -0,0 +1,29 @@
+package co.zw.telone.paymentgateway.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * One row of the payment ledger: a single status change of a transaction.
+ */
+@Getter
+@Builder
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class LedgerEntry {
+    private final String merchantTransactionId;
+    private final long version;
+    private final String sessionId;
+    private final String merchantName;
+    private final TransactionStatus status;
+    private final TransactionStatus previousStatus;
+    private final Long amountInCents;
+    private final String currency;
+    private final LocalDate businessDate;
+    private final Instant recordedAt;
+}
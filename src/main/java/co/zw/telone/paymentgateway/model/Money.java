@@ -0,0 +1,159 @@
+package co.zw.telone.paymentgateway.model;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+
+import java.io.IOException;
+import java.util.Objects;
+
+/**
+ * An amount in minor units (cents) of a currency.
+ * <p>
+ * Amounts are parsed once when a request is bound and carried as a primitive from then on,
+ * so sums and comparisons never go back through strings.
+ */
+public record Money(long amountInCents, CurrencyCode currency) {
+
+    public Money {
+        Objects.requireNonNull(currency, "currency");
+    }
+
+    public static Money of(long amountInCents, CurrencyCode currency) {
+        return new Money(amountInCents, currency);
+    }
+
+    /**
+     * Reads back stored values such as Redis hash fields and journal payloads. Records written
+     * before amounts were validated may hold anything, so those come back without an amount
+     * rather than failing the whole read.
+     *
+     * @return null when either part is missing or malformed
+     */
+    public static Money parseStored(String amountInCents, String currency) {
+        if (amountInCents == null || currency == null) {
+            return null;
+        }
+        try {
+            return new Money(parseCents(amountInCents, 0, amountInCents.length()), CurrencyCode.of(currency));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    public Money plus(Money other) {
+        if (other.currency != currency) {
+            throw new IllegalArgumentException("Cannot add " + other.currency + " to " + currency);
+        }
+        return new Money(Math.addExact(amountInCents, other.amountInCents), currency);
+    }
+
+    public boolean isPositive() {
+        return amountInCents > 0;
+    }
+
+    /** The amount as it appears on the wire. */
+    public String centsString() {
+        return Long.toString(amountInCents);
+    }
+
+    @Override
+    public String toString() {
+        return amountInCents + " " + currency;
+    }
+
+    /**
+     * Parses an optionally signed run of decimal digits without allocating.
+     *
+     * @throws IllegalArgumentException when the characters are not an integer that fits a long
+     */
+    public static long parseCents(CharSequence text, int from, int to) {
+        boolean negative = from < to && text.charAt(from) == '-';
+        int i = requireDigits(negative ? from + 1 : from, to);
+        long value = 0;
+        for (; i < to; i++) {
+            value = appendDigit(value, text.charAt(i));
+        }
+        return negative ? -value : value;
+    }
+
+    /** Same as {@link #parseCents(CharSequence, int, int)} over a parser's character buffer. */
+    static long parseCents(char[] text, int from, int to) {
+        boolean negative = from < to && text[from] == '-';
+        int i = requireDigits(negative ? from + 1 : from, to);
+        long value = 0;
+        for (; i < to; i++) {
+            value = appendDigit(value, text[i]);
+        }
+        return negative ? -value : value;
+    }
+
+    private static int requireDigits(int from, int to) {
+        if (from == to) {
+            throw new IllegalArgumentException("Amount in cents must be a whole number");
+        }
+        return from;
+    }
+
+    private static long appendDigit(long value, char c) {
+        int digit = c - '0';
+        if (digit < 0 || digit > 9) {
+            throw new IllegalArgumentException("Amount in cents must be a whole number");
+        }
+        if (value > (Long.MAX_VALUE - digit) / 10) {
+            throw new IllegalArgumentException("Amount in cents is too large");
+        }
+        return value * 10 + digit;
+    }
+
+    /**
+     * Writes a cents field as a JSON string, which is how the upstream API and existing
+     * clients expect it.
+     */
+    public static final class CentsSerializer extends JsonSerializer<Long> {
+        @Override
+        public void serialize(Long value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            long cents = value;
+            if (cents < 0) {
+                generator.writeString(Long.toString(cents));
+                return;
+            }
+            char[] digits = new char[19];
+            int position = digits.length;
+            do {
+                digits[--position] = (char) ('0' + cents % 10);
+                cents /= 10;
+            } while (cents != 0);
+            generator.writeString(digits, position, digits.length - position);
+        }
+    }
+
+    /**
+     * Reads a cents field given either as a JSON string or a JSON integer, straight from the
+     * parser's buffer. Anything else fails binding, which surfaces as a 400.
+     */
+    public static final class CentsDeserializer extends JsonDeserializer<Long> {
+        @Override
+        public Long deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            JsonToken token = parser.currentToken();
+            if (token == JsonToken.VALUE_NUMBER_INT) {
+                return parser.getLongValue();
+            }
+            if (token == JsonToken.VALUE_STRING) {
+                char[] text = parser.getTextCharacters();
+                int offset = parser.getTextOffset();
+                int length = parser.getTextLength();
+                try {
+                    return parseCents(text, offset, offset + length);
+                } catch (IllegalArgumentException e) {
+                    return (Long) context.handleWeirdStringValue(Long.class, parser.getText(), e.getMessage());
+                }
+            }
+            return (Long) context.handleUnexpectedToken(Long.class, parser);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package co.zw.telone.paymentgateway.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Snapshot of a payment session and its current lifecycle status.
+ * Instances are shared through the local near-cache, so they are never mutated.
+ */
+@Getter
+@Builder(toBuilder = true)
+@AllArgsConstructor
+public class TransactionRecord {
+    private final String merchantTransactionId;
+    private final String sessionId;
+    private final TransactionStatus status;
+    private final String merchantName;
+    /** Null for records stored before amounts were validated. */
+    private final Money amount;
+    private final long createdAt;
+    private final long updatedAt;
+    private final long version;
+}
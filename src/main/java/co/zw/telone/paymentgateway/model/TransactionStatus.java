@@ -0,0 +1,64 @@
+package co.zw.telone.paymentgateway.model;
+
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Lifecycle of a payment session as tracked by this service.
+ * <p>
+ * CREATED -> PENDING -> COMPLETE | FAILED | EXPIRED
+ */
+public enum TransactionStatus {
+    CREATED,
+    PENDING,
+    COMPLETE,
+    FAILED,
+    EXPIRED;
+
+    private Set<TransactionStatus> allowedTargets;
+
+    static {
+        CREATED.allowedTargets = EnumSet.of(PENDING, FAILED, EXPIRED);
+        PENDING.allowedTargets = EnumSet.of(COMPLETE, FAILED, EXPIRED);
+        COMPLETE.allowedTargets = EnumSet.noneOf(TransactionStatus.class);
+        FAILED.allowedTargets = EnumSet.noneOf(TransactionStatus.class);
+        EXPIRED.allowedTargets = EnumSet.noneOf(TransactionStatus.class);
+    }
+
+    /**
+     * Checks whether the state machine allows moving from this status to the target status.
+     *
+     * @param target the requested status
+     * @return true if the transition is allowed
+     */
+    public boolean canTransitionTo(TransactionStatus target) {
+        return allowedTargets.contains(target);
+    }
+
+    /**
+     * @return true if no further transitions are possible
+     */
+    public boolean isTerminal() {
+        return allowedTargets.isEmpty();
+    }
+
+    /**
+     * Maps a status string reported by the upstream gateway onto our lifecycle.
+     * Unknown or missing values are treated as still pending.
+     *
+     * @param gatewayStatus status reported by the gateway
+     * @return the matching TransactionStatus
+     */
+    public static TransactionStatus fromGatewayStatus(String gatewayStatus) {
+        if (gatewayStatus == null) {
+            return PENDING;
+        }
+        return switch (gatewayStatus.trim().toUpperCase(Locale.ROOT)) {
+            case "COMPLETE", "COMPLETED", "SUCCESS", "SUCCESSFUL", "PAID" -> COMPLETE;
+            case "FAILED", "FAILURE", "DECLINED", "CANCELLED", "CANCELED", "REJECTED" -> FAILED;
+            case "EXPIRED", "TIMEOUT", "TIMED_OUT" -> EXPIRED;
+            default -> PENDING;
+        };
+    }
+}
@@ -0,0 +1,10 @@
+package co.zw.telone.paymentgateway.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * The {@code error} object of a gateway 4xx response.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record UpstreamRejection(String code, String statusCode, String message) {
+}
@@ -0,0 +1,29 @@
+package co.zw.telone.paymentgateway.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Body of a merchant webhook. {@code eventId} is stable across redeliveries and increases
+ * with every change to the same transaction, so merchants can drop duplicates and
+ * out-of-order deliveries.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class WebhookEvent {
+    private String eventId;
+    private String type;
+    private String merchantTransactionId;
+    private String sessionId;
+    private TransactionStatus status;
+    private TransactionStatus previousStatus;
+    private Instant occurredAt;
+}
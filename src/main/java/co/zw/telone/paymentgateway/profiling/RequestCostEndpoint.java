@@ -0,0 +1,23 @@
+package co.zw.telone.paymentgateway.profiling;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+/**
+ * {@code GET /actuator/requestcost} reports allocated bytes and CPU time per endpoint. The
+ * endpoint is read-only: it shares the application port, so nothing on it may change state.
+ */
+@Endpoint(id = "requestcost")
+public class RequestCostEndpoint {
+
+    private final RequestCostRecorder recorder;
+
+    public RequestCostEndpoint(RequestCostRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    @ReadOperation
+    public RequestCostRecorder.Report costs() {
+        return recorder.report();
+    }
+}
@@ -0,0 +1,40 @@
+package co.zw.telone.paymentgateway.profiling;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Samples the cost of handler invocations, including request body binding and response
+ * writing. For async requests only the part on the original thread would be measured, so
+ * they are left out.
+ */
+public class RequestCostInterceptor implements HandlerInterceptor {
+
+    private static final String SAMPLE = RequestCostInterceptor.class.getName() + ".sample";
+
+    private final RequestCostRecorder recorder;
+
+    public RequestCostInterceptor(RequestCostRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        RequestCostRecorder.Sample sample = recorder.start();
+        if (sample != null) {
+            request.setAttribute(SAMPLE, sample);
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        if (request.getAttribute(SAMPLE) instanceof RequestCostRecorder.Sample sample && !request.isAsyncStarted()) {
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            recorder.finish(sample, request.getMethod() + " " + pattern);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package co.zw.telone.paymentgateway.profiling;
+
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.lang.management.ManagementFactory;
+import java.time.Instant;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Measures the bytes allocated and the CPU time used by a sample of requests on their own
+ * thread, with the per-thread counters of {@link com.sun.management.ThreadMXBean}, and keeps
+ * the distributions per endpoint since start-up.
+ * <p>
+ * Work handed to other threads, such as journal and ledger writes, is not included.
+ * Requests on virtual threads are skipped because the counters do not cover them.
+ */
+@Slf4j
+public class RequestCostRecorder {
+
+    /** Counter values when a sampled request started. */
+    record Sample(Thread thread, long allocatedBytes, long cpuNanos) {
+    }
+
+    public record Distribution(double mean, long p50, long p90, long p99, long max) {
+
+        static Distribution of(Histogram histogram) {
+            return new Distribution(histogram.getMean(), histogram.getValueAtPercentile(50),
+                    histogram.getValueAtPercentile(90), histogram.getValueAtPercentile(99), histogram.getMaxValue());
+        }
+    }
+
+    public record EndpointCost(long samples, Distribution allocatedBytes, Distribution cpuMicros) {
+    }
+
+    public record Report(Instant since, double sampleRate, Map<String, EndpointCost> endpoints) {
+    }
+
+    private final com.sun.management.ThreadMXBean threads;
+    private final double sampleRate;
+    private final boolean allocationSupported;
+    private final boolean cpuSupported;
+    private final Map<String, Costs> endpoints = new ConcurrentHashMap<>();
+    private final Instant since = Instant.now();
+
+    public RequestCostRecorder(double sampleRate) {
+        this.threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        this.sampleRate = sampleRate;
+        this.allocationSupported = threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled();
+        this.cpuSupported = threads.isCurrentThreadCpuTimeSupported() && threads.isThreadCpuTimeEnabled();
+        if (!allocationSupported || !cpuSupported) {
+            log.warn("Request cost sampling is partial: allocation counters {}, CPU counters {}",
+                    allocationSupported ? "on" : "off", cpuSupported ? "on" : "off");
+        }
+    }
+
+    /** Returns null when this request is not sampled. */
+    Sample start() {
+        Thread thread = Thread.currentThread();
+        if (thread.isVirtual() || ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return null;
+        }
+        return new Sample(thread, allocatedBytes(), cpuNanos());
+    }
+
+    void finish(Sample sample, String endpoint) {
+        if (sample.thread() != Thread.currentThread()) {
+            return;
+        }
+        long allocated = allocatedBytes() - sample.allocatedBytes();
+        long cpu = cpuNanos() - sample.cpuNanos();
+        endpoints.computeIfAbsent(endpoint, key -> new Costs()).record(allocated, cpu / 1_000);
+    }
+
+    public Report report() {
+        Map<String, EndpointCost> costs = new TreeMap<>();
+        endpoints.forEach((endpoint, endpointCosts) -> costs.put(endpoint, endpointCosts.snapshot()));
+        return new Report(since, sampleRate, costs);
+    }
+
+    private long allocatedBytes() {
+        return allocationSupported ? threads.getCurrentThreadAllocatedBytes() : 0;
+    }
+
+    private long cpuNanos() {
+        return cpuSupported ? threads.getCurrentThreadCpuTime() : 0;
+    }
+
+    private static final class Costs {
+
+        private final Histogram allocatedBytes = new ConcurrentHistogram(2);
+        private final Histogram cpuMicros = new ConcurrentHistogram(2);
+
+        void record(long bytes, long micros) {
+            allocatedBytes.recordValue(Math.max(0, bytes));
+            cpuMicros.recordValue(Math.max(0, micros));
+        }
+
+        EndpointCost snapshot() {
+            Histogram bytes = allocatedBytes.copy();
+            Histogram micros = cpuMicros.copy();
+            return new EndpointCost(bytes.getTotalCount(), Distribution.of(bytes), Distribution.of(micros));
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package co.zw.telone.paymentgateway.reconciliation;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The transactions this service issued for one settlement period, indexed for matching.
+ * <p>
+ * Each transaction gets an entry number; ids and amounts are kept in arrays by entry number,
+ * and a {@link LongLongHashIndex} maps a 64-bit hash of the id to that number. Settlement rows
+ * are hashed straight from the file bytes, so matching a row allocates nothing. Two ids sharing
+ * a 64-bit hash is astronomically unlikely at settlement-file sizes; the second one is treated
+ * as a duplicate.
+ */
+public final class IssuedTransactions {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final LongLongHashIndex index;
+    private final String[] ids;
+    private final long[] amounts;
+
+    private IssuedTransactions(LongLongHashIndex index, String[] ids, long[] amounts) {
+        this.index = index;
+        this.ids = ids;
+        this.amounts = amounts;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return the entry number of the transaction, or -1 when it was not issued
+     */
+    public int entryOf(long idHash) {
+        return (int) index.get(idHash, -1L);
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public String idAt(int entry) {
+        return ids[entry];
+    }
+
+    public long amountAt(int entry) {
+        return amounts[entry];
+    }
+
+    public static long hash(String merchantTransactionId) {
+        byte[] bytes = merchantTransactionId.getBytes(StandardCharsets.UTF_8);
+        return hash(ByteBuffer.wrap(bytes), 0, bytes.length);
+    }
+
+    /**
+     * FNV-1a over the bytes followed by a 64-bit finalizer; never returns 0.
+     */
+    public static long hash(ByteBuffer buffer, int from, int to) {
+        long hash = FNV_OFFSET;
+        for (int i = from; i < to; i++) {
+            hash ^= buffer.get(i) & 0xFF;
+            hash *= FNV_PRIME;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash == 0 ? 1 : hash;
+    }
+
+    public static final class Builder {
+        private final List<String> ids = new ArrayList<>();
+        private long[] amounts = new long[1024];
+
+        private Builder() {
+        }
+
+        public Builder add(String merchantTransactionId, long amountInCents) {
+            if (ids.size() == amounts.length) {
+                amounts = Arrays.copyOf(amounts, amounts.length * 2);
+            }
+            amounts[ids.size()] = amountInCents;
+            ids.add(merchantTransactionId);
+            return this;
+        }
+
+        public IssuedTransactions build() {
+            LongLongHashIndex index = new LongLongHashIndex(ids.size());
+            List<String> kept = new ArrayList<>(ids.size());
+            long[] keptAmounts = new long[ids.size()];
+            for (int i = 0; i < ids.size(); i++) {
+                if (index.putIfAbsent(hash(ids.get(i)), kept.size())) {
+                    keptAmounts[kept.size()] = amounts[i];
+                    kept.add(ids.get(i));
+                }
+            }
+            return new IssuedTransactions(index, kept.toArray(String[]::new), Arrays.copyOf(keptAmounts, kept.size()));
+        }
+    }
+}
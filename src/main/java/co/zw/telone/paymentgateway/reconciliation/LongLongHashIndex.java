@@ -0,0 +1,81 @@
+package co.zw.telone.paymentgateway.reconciliation;
+
+/**
+ * Fixed-capacity open-addressing map from a non-zero {@code long} key to a {@code long} value,
+ * with linear probing over two flat arrays. At a million entries it takes 32 MB and no per-entry
+ * objects, and a lookup is usually one or two adjacent array reads.
+ * <p>
+ * Not thread-safe for writes; concurrent reads after construction are fine.
+ */
+public final class LongLongHashIndex {
+
+    private static final long EMPTY = 0L;
+
+    private final long[] keys;
+    private final long[] values;
+    private final int mask;
+    private int size;
+
+    /**
+     * @param expectedSize number of entries that will be stored; the table is kept at most half full
+     */
+    public LongLongHashIndex(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize * 2 - 1)) << 1;
+        this.keys = new long[capacity];
+        this.values = new long[capacity];
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Stores the value unless the key is already present.
+     *
+     * @return {@code true} if the key was added
+     */
+    public boolean putIfAbsent(long key, long value) {
+        checkKey(key);
+        int slot = slot(key);
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        if (size == keys.length / 2) {
+            throw new IllegalStateException("Index is full at " + size + " entries");
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        size++;
+        return true;
+    }
+
+    /**
+     * @return the value stored for {@code key}, or {@code missingValue} when absent
+     */
+    public long get(long key, long missingValue) {
+        int slot = slot(key);
+        long candidate;
+        while ((candidate = keys[slot]) != EMPTY) {
+            if (candidate == key) {
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return missingValue;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private int slot(long key) {
+        // Keys are already well mixed hashes; fold the high bits in for small tables.
+        return (int) (key ^ (key >>> 32)) & mask;
+    }
+
+    private static void checkKey(long key) {
+        if (key == EMPTY) {
+            throw new IllegalArgumentException("0 is reserved as the empty key");
+        }
+    }
+}
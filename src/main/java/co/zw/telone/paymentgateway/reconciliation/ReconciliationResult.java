@@ -0,0 +1,94 @@
+package co.zw.telone.paymentgateway.reconciliation;
+
+import lombok.Getter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Outcome of one reconciliation run. Extra and mismatched rows are kept as objects; matched
+ * and missing transactions are derived from the issued set when the reports are written.
+ */
+@Getter
+public class ReconciliationResult {
+
+    public static final String MATCHED_REPORT = "matched.csv";
+    public static final String MISSING_REPORT = "missing.csv";
+    public static final String EXTRA_REPORT = "extra.csv";
+    public static final String AMOUNT_MISMATCH_REPORT = "amount_mismatch.csv";
+
+    private final long settlementRows;
+    private final long matched;
+    private final long malformed;
+    private final long missing;
+    private final List<Extra> extra;
+    private final List<Mismatch> mismatches;
+
+    private final IssuedTransactions issued;
+    private final AtomicLongArray seen;
+    private final AtomicLongArray mismatched;
+
+    ReconciliationResult(IssuedTransactions issued, AtomicLongArray seen, AtomicLongArray mismatched,
+                         long settlementRows, long matched, long malformed,
+                         List<Extra> extra, List<Mismatch> mismatches) {
+        this.issued = issued;
+        this.seen = seen;
+        this.mismatched = mismatched;
+        this.settlementRows = settlementRows;
+        this.matched = matched;
+        this.malformed = malformed;
+        this.extra = extra;
+        this.mismatches = mismatches;
+        this.missing = issued.size() - matched - mismatches.size();
+    }
+
+    /**
+     * Writes the four CSV reports into {@code directory}, which is created if needed.
+     */
+    public void writeReports(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        try (BufferedWriter matchedOut = Files.newBufferedWriter(directory.resolve(MATCHED_REPORT));
+             BufferedWriter missingOut = Files.newBufferedWriter(directory.resolve(MISSING_REPORT))) {
+            matchedOut.write("merchantTransactionId,amountInCents\n");
+            missingOut.write("merchantTransactionId,amountInCents\n");
+            for (int entry = 0; entry < issued.size(); entry++) {
+                BufferedWriter out;
+                if (!SettlementReconciler.isSet(seen, entry)) {
+                    out = missingOut;
+                } else if (!SettlementReconciler.isSet(mismatched, entry)) {
+                    out = matchedOut;
+                } else {
+                    continue;
+                }
+                out.write(issued.idAt(entry));
+                out.write(',');
+                out.write(Long.toString(issued.amountAt(entry)));
+                out.write('\n');
+            }
+        }
+        try (BufferedWriter out = Files.newBufferedWriter(directory.resolve(EXTRA_REPORT))) {
+            out.write("merchantTransactionId,settledAmountInCents\n");
+            for (Extra row : extra) {
+                out.write(row.merchantTransactionId() + "," + row.settledAmountInCents() + "\n");
+            }
+        }
+        try (BufferedWriter out = Files.newBufferedWriter(directory.resolve(AMOUNT_MISMATCH_REPORT))) {
+            out.write("merchantTransactionId,issuedAmountInCents,settledAmountInCents\n");
+            for (Mismatch row : mismatches) {
+                out.write(row.merchantTransactionId() + "," + row.issuedAmountInCents() + ","
+                        + row.settledAmountInCents() + "\n");
+            }
+        }
+    }
+
+    /** A settlement row for a transaction that was never issued, or a repeat of one already seen. */
+    public record Extra(String merchantTransactionId, long settledAmountInCents) {
+    }
+
+    public record Mismatch(String merchantTransactionId, long issuedAmountInCents, long settledAmountInCents) {
+    }
+}
@@ -0,0 +1,262 @@
+package co.zw.telone.paymentgateway.reconciliation;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Matches a settlement CSV against {@link IssuedTransactions}.
+ * <p>
+ * The file is memory-mapped and split into byte ranges that are parsed in parallel on a
+ * fork/join pool. A range owns every row that starts inside it. Rows are parsed in place:
+ * the id is hashed and the amount decoded straight from the mapped bytes, and only rows that
+ * end up in a report become objects. Which issued transactions were seen is tracked in shared
+ * bitsets, so missing and matched transactions can be listed afterwards without
+ * having buffered them.
+ * <p>
+ * The first line must be a header naming the id and amount columns. Fields are separated by
+ * commas and may be wrapped in double quotes, but may not themselves contain commas or newlines.
+ */
+public class SettlementReconciler {
+
+    private final ForkJoinPool pool;
+    private final int splitSize;
+    private final String idColumnName;
+    private final String amountColumnName;
+
+    public SettlementReconciler(ForkJoinPool pool, int splitSize, String idColumnName, String amountColumnName) {
+        this.pool = pool;
+        this.splitSize = Math.max(64 * 1024, splitSize);
+        this.idColumnName = idColumnName;
+        this.amountColumnName = amountColumnName;
+    }
+
+    /**
+     * @throws IllegalArgumentException when the header lacks the id or amount column
+     */
+    public ReconciliationResult reconcile(Path settlementFile, IssuedTransactions issued) throws IOException {
+        try (FileChannel channel = FileChannel.open(settlementFile, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Settlement file is larger than 2 GB: " + settlementFile);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+
+            int headerEnd = lineEnd(buffer, 0, buffer.limit());
+            int[] columns = resolveColumns(new String(readBytes(buffer, 0, headerEnd), StandardCharsets.UTF_8));
+            int dataStart = Math.min(headerEnd + 1, buffer.limit());
+
+            AtomicLongArray seen = new AtomicLongArray((issued.size() + 63) / 64);
+            AtomicLongArray mismatched = new AtomicLongArray((issued.size() + 63) / 64);
+            Partial totals = pool.invoke(new RangeTask(buffer, dataStart, buffer.limit(), dataStart,
+                    columns[0], columns[1], issued, seen, mismatched));
+            return new ReconciliationResult(issued, seen, mismatched, totals.rows, totals.matched,
+                    totals.malformed, totals.extra, totals.mismatches);
+        }
+    }
+
+    private int[] resolveColumns(String header) {
+        String[] names = header.replace("\"", "").split(",");
+        int id = -1;
+        int amount = -1;
+        for (int i = 0; i < names.length; i++) {
+            String name = names[i].trim();
+            if (name.equalsIgnoreCase(idColumnName)) {
+                id = i;
+            } else if (name.equalsIgnoreCase(amountColumnName)) {
+                amount = i;
+            }
+        }
+        if (id < 0 || amount < 0) {
+            throw new IllegalArgumentException("Settlement header must contain '" + idColumnName + "' and '"
+                    + amountColumnName + "': " + header);
+        }
+        return new int[]{id, amount};
+    }
+
+    private static int lineEnd(MappedByteBuffer buffer, int from, int limit) {
+        int i = from;
+        while (i < limit && buffer.get(i) != '\n') {
+            i++;
+        }
+        return i;
+    }
+
+    private static byte[] readBytes(MappedByteBuffer buffer, int from, int to) {
+        byte[] bytes = new byte[to - from];
+        buffer.get(from, bytes);
+        return bytes;
+    }
+
+    private static boolean markSeen(AtomicLongArray bits, int entry) {
+        int word = entry >>> 6;
+        long bit = 1L << entry;
+        long current;
+        do {
+            current = bits.get(word);
+            if ((current & bit) != 0) {
+                return false;
+            }
+        } while (!bits.compareAndSet(word, current, current | bit));
+        return true;
+    }
+
+    static boolean isSet(AtomicLongArray bits, int entry) {
+        return (bits.get(entry >>> 6) & (1L << entry)) != 0;
+    }
+
+    /** Counts and report rows for one range, merged up the fork/join tree. */
+    private static final class Partial {
+        long rows;
+        long matched;
+        long malformed;
+        final List<ReconciliationResult.Extra> extra = new ArrayList<>();
+        final List<ReconciliationResult.Mismatch> mismatches = new ArrayList<>();
+
+        Partial merge(Partial other) {
+            rows += other.rows;
+            matched += other.matched;
+            malformed += other.malformed;
+            extra.addAll(other.extra);
+            mismatches.addAll(other.mismatches);
+            return this;
+        }
+    }
+
+    private final class RangeTask extends RecursiveTask<Partial> {
+        private final MappedByteBuffer buffer;
+        private final int start;
+        private final int end;
+        private final int dataStart;
+        private final int idColumn;
+        private final int amountColumn;
+        private final IssuedTransactions issued;
+        private final AtomicLongArray seen;
+        private final AtomicLongArray mismatched;
+
+        RangeTask(MappedByteBuffer buffer, int start, int end, int dataStart, int idColumn, int amountColumn,
+                  IssuedTransactions issued, AtomicLongArray seen, AtomicLongArray mismatched) {
+            this.buffer = buffer;
+            this.start = start;
+            this.end = end;
+            this.dataStart = dataStart;
+            this.idColumn = idColumn;
+            this.amountColumn = amountColumn;
+            this.issued = issued;
+            this.seen = seen;
+            this.mismatched = mismatched;
+        }
+
+        @Override
+        protected Partial compute() {
+            if (end - start > splitSize) {
+                int middle = start + (end - start) / 2;
+                RangeTask left = new RangeTask(buffer, start, middle, dataStart, idColumn, amountColumn, issued, seen, mismatched);
+                RangeTask right = new RangeTask(buffer, middle, end, dataStart, idColumn, amountColumn, issued, seen, mismatched);
+                left.fork();
+                Partial rightResult = right.compute();
+                return left.join().merge(rightResult);
+            }
+            return scan();
+        }
+
+        private Partial scan() {
+            Partial partial = new Partial();
+            int limit = buffer.limit();
+            int position = start;
+            // Skip the tail of a row owned by the previous range.
+            if (position > dataStart && buffer.get(position - 1) != '\n') {
+                position = lineEnd(buffer, position, limit) + 1;
+            }
+            while (position < end) {
+                int lineEnd = lineEnd(buffer, position, limit);
+                parseRow(position, lineEnd, partial);
+                position = lineEnd + 1;
+            }
+            return partial;
+        }
+
+        private void parseRow(int from, int to, Partial partial) {
+            if (to > from && buffer.get(to - 1) == '\r') {
+                to--;
+            }
+            if (to == from) {
+                return;
+            }
+            int idFrom = -1;
+            int idTo = -1;
+            int amountFrom = -1;
+            int amountTo = -1;
+            int column = 0;
+            int fieldStart = from;
+            for (int i = from; i <= to; i++) {
+                if (i == to || buffer.get(i) == ',') {
+                    int fieldFrom = fieldStart;
+                    int fieldTo = i;
+                    if (fieldTo - fieldFrom >= 2 && buffer.get(fieldFrom) == '"' && buffer.get(fieldTo - 1) == '"') {
+                        fieldFrom++;
+                        fieldTo--;
+                    }
+                    if (column == idColumn) {
+                        idFrom = fieldFrom;
+                        idTo = fieldTo;
+                    } else if (column == amountColumn) {
+                        amountFrom = fieldFrom;
+                        amountTo = fieldTo;
+                    }
+                    column++;
+                    fieldStart = i + 1;
+                }
+            }
+
+            partial.rows++;
+            if (idFrom < 0 || idTo == idFrom || amountFrom < 0) {
+                partial.malformed++;
+                return;
+            }
+            long amount = parseAmount(amountFrom, amountTo);
+            if (amount == Long.MIN_VALUE) {
+                partial.malformed++;
+                return;
+            }
+
+            int entry = issued.entryOf(IssuedTransactions.hash(buffer, idFrom, idTo));
+            if (entry < 0 || !markSeen(seen, entry)) {
+                // Never issued, or a second settlement row for the same transaction.
+                partial.extra.add(new ReconciliationResult.Extra(
+                        new String(readBytes(buffer, idFrom, idTo), StandardCharsets.UTF_8), amount));
+            } else if (issued.amountAt(entry) != amount) {
+                markSeen(mismatched, entry);
+                partial.mismatches.add(new ReconciliationResult.Mismatch(issued.idAt(entry), issued.amountAt(entry), amount));
+            } else {
+                partial.matched++;
+            }
+        }
+
+        /** Parses an optionally signed integer; {@link Long#MIN_VALUE} when it is not one. */
+        private long parseAmount(int from, int to) {
+            boolean negative = from < to && buffer.get(from) == '-';
+            int i = negative ? from + 1 : from;
+            if (i == to) {
+                return Long.MIN_VALUE;
+            }
+            long value = 0;
+            for (; i < to; i++) {
+                int digit = buffer.get(i) - '0';
+                if (digit < 0 || digit > 9 || value > (Long.MAX_VALUE - digit) / 10) {
+                    return Long.MIN_VALUE;
+                }
+                value = value * 10 + digit;
+            }
+            return negative ? -value : value;
+        }
+    }
+}
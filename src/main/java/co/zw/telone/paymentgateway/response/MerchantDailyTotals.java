@@ -0,0 +1,29 @@
+package co.zw.telone.paymentgateway.response;
+
+import co.zw.telone.paymentgateway.model.TransactionStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@Builder
+public class MerchantDailyTotals {
+    private String merchantName;
+    private LocalDate date;
+    private List<Total> totals;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Total {
+        private String currency;
+        private TransactionStatus status;
+        private long count;
+        private long amountInCents;
+    }
+}
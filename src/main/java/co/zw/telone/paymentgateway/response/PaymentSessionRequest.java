@@ -1,5 +1,11 @@
 package co.zw.telone.paymentgateway.response;
 
+import co.zw.telone.paymentgateway.model.CurrencyCode;
+import co.zw.telone.paymentgateway.model.Money;
+import co.zw.telone.paymentgateway.validation.ValidPaymentSessionRequest;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -9,11 +15,22 @@ import lombok.NoArgsConstructor;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
+@ValidPaymentSessionRequest
 public class PaymentSessionRequest {
-    private String amountInCents;
-    private String currency;
+    @JsonSerialize(using = Money.CentsSerializer.class)
+    @JsonDeserialize(using = Money.CentsDeserializer.class)
+    private Long amountInCents;
+    private CurrencyCode currency;
     private String merchantName;
     private String merchantTransactionId;
     private String description;
     private String returnUrl;
-}
\ No newline at end of file
+
+    /**
+     * @return the amount and currency together, or null when either was not supplied
+     */
+    @JsonIgnore
+    public Money getAmount() {
+        return amountInCents == null || currency == null ? null : Money.of(amountInCents, currency);
+    }
+}
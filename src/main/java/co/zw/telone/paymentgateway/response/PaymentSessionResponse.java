@@ -1,6 +1,10 @@
 package co.zw.telone.paymentgateway.response;
 
 
+import co.zw.telone.paymentgateway.model.CurrencyCode;
+import co.zw.telone.paymentgateway.model.Money;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -22,7 +26,13 @@ public class PaymentSessionResponse {
     @NoArgsConstructor
     @AllArgsConstructor
     public static class PaymentAmount {
-        private String amountInCents;
-        private String currency;
+        @JsonSerialize(using = Money.CentsSerializer.class)
+        @JsonDeserialize(using = Money.CentsDeserializer.class)
+        private long amountInCents;
+        private CurrencyCode currency;
+
+        public static PaymentAmount of(Money money) {
+            return new PaymentAmount(money.amountInCents(), money.currency());
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,24 @@
+package co.zw.telone.paymentgateway.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ReconciliationSummary {
+    private LocalDate settlementDate;
+    private String merchantName;
+    private long issued;
+    private long settlementRows;
+    private long matched;
+    private long missing;
+    private long extra;
+    private long amountMismatches;
+    private long malformedRows;
+    private long durationMillis;
+    private String reportDirectory;
+}
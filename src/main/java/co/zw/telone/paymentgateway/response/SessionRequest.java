@@ -2,6 +2,10 @@ package co.zw.telone.paymentgateway.response;
 
 
 
+import co.zw.telone.paymentgateway.model.CurrencyCode;
+import co.zw.telone.paymentgateway.model.Money;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -24,8 +28,14 @@ public class SessionRequest {
     @NoArgsConstructor
     @AllArgsConstructor
     public static class Amount {
-        private String amountInCents;
-        private String currency;
+        @JsonSerialize(using = Money.CentsSerializer.class)
+        @JsonDeserialize(using = Money.CentsDeserializer.class)
+        private long amountInCents;
+        private CurrencyCode currency;
+
+        public static Amount of(Money money) {
+            return new Amount(money.amountInCents(), money.currency());
+        }
     }
 
     @Data
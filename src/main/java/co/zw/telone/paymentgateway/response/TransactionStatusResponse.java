@@ -0,0 +1,38 @@
+package co.zw.telone.paymentgateway.response;
+
+import co.zw.telone.paymentgateway.model.TransactionRecord;
+import co.zw.telone.paymentgateway.model.TransactionStatus;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TransactionStatusResponse {
+    private String merchantTransactionId;
+    private String sessionId;
+    private TransactionStatus status;
+    private String merchantName;
+    private PaymentSessionResponse.PaymentAmount amount;
+    private Instant createdAt;
+    private Instant updatedAt;
+
+    public static TransactionStatusResponse from(TransactionRecord record) {
+        return TransactionStatusResponse.builder()
+                .merchantTransactionId(record.getMerchantTransactionId())
+                .sessionId(record.getSessionId())
+                .status(record.getStatus())
+                .merchantName(record.getMerchantName())
+                .amount(record.getAmount() == null ? null : PaymentSessionResponse.PaymentAmount.of(record.getAmount()))
+                .createdAt(Instant.ofEpochMilli(record.getCreatedAt()))
+                .updatedAt(Instant.ofEpochMilli(record.getUpdatedAt()))
+                .build();
+    }
+}
@@ -0,0 +1,95 @@
+package co.zw.telone.paymentgateway.scheduler;
+
+import co.zw.telone.paymentgateway.config.PollerProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.util.List;
+import java.util.UUID;
+
+import static co.zw.telone.paymentgateway.util.PaymentGatewayConstants.POLLER_LEADER_KEY;
+
+/**
+ * Redis lease that elects a single node to run the upstream poller. The holder renews the lease
+ * at the start of every round and during rounds that run long; if it dies the key expires after
+ * the lease TTL and the next node to try takes over.
+ */
+@Component
+@Slf4j
+public class PollerLeaderLease implements DisposableBean {
+
+    private static final RedisScript<Long> ACQUIRE_OR_RENEW_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('GET', KEYS[1]) == ARGV[1] then
+                redis.call('PEXPIRE', KEYS[1], ARGV[2])
+                return 1
+            end
+            if redis.call('SET', KEYS[1], ARGV[1], 'NX', 'PX', ARGV[2]) then
+                return 1
+            end
+            return 0
+            """, Long.class);
+
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('GET', KEYS[1]) == ARGV[1] then
+                return redis.call('DEL', KEYS[1])
+            end
+            return 0
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final PollerProperties properties;
+    private final String nodeId;
+    private volatile boolean leader;
+
+    public PollerLeaderLease(StringRedisTemplate redisTemplate, PollerProperties properties) {
+        this.redisTemplate = redisTemplate;
+        this.properties = properties;
+        this.nodeId = resolveHostName() + ":" + UUID.randomUUID();
+    }
+
+    /**
+     * Acquires the lease if it is free, or extends it if this node already holds it.
+     *
+     * @return true if this node is the leader
+     */
+    public boolean tryAcquire() {
+        Long result = redisTemplate.execute(ACQUIRE_OR_RENEW_SCRIPT, List.of(POLLER_LEADER_KEY),
+                nodeId, Long.toString(properties.getLeaseTtl().toMillis()));
+        boolean acquired = Long.valueOf(1L).equals(result);
+        if (acquired != leader) {
+            log.info(acquired ? "Node {} became upstream poller leader." : "Node {} lost upstream poller leadership.", nodeId);
+            leader = acquired;
+        }
+        return acquired;
+    }
+
+    public boolean isLeader() {
+        return leader;
+    }
+
+    @Override
+    public void destroy() {
+        if (!leader) {
+            return;
+        }
+        try {
+            redisTemplate.execute(RELEASE_SCRIPT, List.of(POLLER_LEADER_KEY), nodeId);
+            log.info("Node {} released upstream poller leadership.", nodeId);
+        } catch (Exception e) {
+            log.warn("Failed to release poller lease; it will expire on its own: {}", e.getMessage());
+        }
+    }
+
+    private static String resolveHostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            return "unknown-host";
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package co.zw.telone.paymentgateway.scheduler;
+
+import co.zw.telone.paymentgateway.client.SessionApiClient;
+import co.zw.telone.paymentgateway.config.InterceptorTokenRefreshHandler;
+import co.zw.telone.paymentgateway.config.PollerProperties;
+import co.zw.telone.paymentgateway.event.TransactionStatusChangedEvent;
+import co.zw.telone.paymentgateway.exception.InvalidStatusTransitionException;
+import co.zw.telone.paymentgateway.exception.PaymentGatewayException;
+import co.zw.telone.paymentgateway.exception.TransactionNotFoundException;
+import co.zw.telone.paymentgateway.model.TransactionRecord;
+import co.zw.telone.paymentgateway.model.TransactionStatus;
+import co.zw.telone.paymentgateway.response.SessionResponse;
+import co.zw.telone.paymentgateway.service.TransactionStatusService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static co.zw.telone.paymentgateway.util.PaymentGatewayConstants.PENDING_SESSIONS_KEY;
+import static co.zw.telone.paymentgateway.util.PaymentGatewayConstants.TRANSACTION_KEY_PREFIX;
+
+/**
+ * Polls the upstream gateway for sessions that never received a callback.
+ * <p>
+ * Pending sessions live in a sorted set scored by the time they are next due. Each round the
+ * leader takes at most one batch of due sessions, queries them at a bounded rate and concurrency,
+ * and either applies the upstream status or pushes the session back with exponential backoff.
+ */
+@Component
+@Slf4j
+public class UpstreamStatusPoller implements DisposableBean {
+
+    private static final String POLL_ATTEMPTS_FIELD = "pollAttempts";
+
+    // HINCRBY on its own would recreate an expired status hash with no status and no TTL.
+    private static final RedisScript<Long> INCREMENT_ATTEMPTS_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('EXISTS', KEYS[1]) == 0 then
+                return 0
+            end
+            return redis.call('HINCRBY', KEYS[1], ARGV[1], 1)
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final PollerLeaderLease leaderLease;
+    private final PollerProperties properties;
+    private final TransactionStatusService transactionStatusService;
+    private final SessionApiClient sessionApiClient;
+    private final InterceptorTokenRefreshHandler tokenHandler;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final ExecutorService executor;
+
+    public UpstreamStatusPoller(StringRedisTemplate redisTemplate,
+                                PollerLeaderLease leaderLease,
+                                PollerProperties properties,
+                                TransactionStatusService transactionStatusService,
+                                SessionApiClient sessionApiClient,
+                                InterceptorTokenRefreshHandler tokenHandler,
+                                ObjectMapper objectMapper,
+                                MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.leaderLease = leaderLease;
+        this.properties = properties;
+        this.transactionStatusService = transactionStatusService;
+        this.sessionApiClient = sessionApiClient;
+        this.tokenHandler = tokenHandler;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(properties.getConcurrency(), runnable -> {
+            Thread thread = new Thread(runnable, "upstream-poller-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Keeps the pending set in step with the lifecycle: sessions enter it once the gateway
+     * has accepted them and leave it on any terminal status.
+     */
+    @EventListener
+    public void onStatusChanged(TransactionStatusChangedEvent event) {
+        TransactionRecord record = event.getRecord();
+        try {
+            if (record.getStatus() == TransactionStatus.PENDING) {
+                long dueAt = System.currentTimeMillis() + properties.getInitialDelay().toMillis();
+                redisTemplate.opsForZSet().add(PENDING_SESSIONS_KEY, record.getMerchantTransactionId(), dueAt);
+            } else if (record.getStatus().isTerminal()) {
+                redisTemplate.opsForZSet().remove(PENDING_SESSIONS_KEY, record.getMerchantTransactionId());
+            }
+        } catch (Exception e) {
+            log.warn("Failed to update pending set for {}: {}", record.getMerchantTransactionId(), e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${payment.poller.interval:5s}")
+    public void poll() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        try {
+            if (!leaderLease.tryAcquire()) {
+                return;
+            }
+            long now = System.currentTimeMillis();
+            Set<String> due = redisTemplate.opsForZSet()
+                    .rangeByScore(PENDING_SESSIONS_KEY, 0, now, 0, properties.getBatchSize());
+            if (due == null || due.isEmpty()) {
+                return;
+            }
+            log.debug("Polling upstream status for {} pending sessions", due.size());
+            pollBatch(due, now);
+        } catch (Exception e) {
+            log.warn("Upstream status poll round failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * A round can outlast the lease: a full batch at the default rate takes several seconds, and
+     * slow upstream calls add to that. The lease is therefore renewed every third of its TTL while
+     * the round runs, and if it has passed to another node the rest of the batch is left to it.
+     */
+    private void pollBatch(Set<String> merchantTransactionIds, long now) throws InterruptedException {
+        long spacingNanos = 1_000_000_000L / Math.max(1, properties.getMaxRequestsPerSecond());
+        long renewalNanos = properties.getLeaseTtl().toNanos() / 3;
+        long nextPermit = System.nanoTime();
+        long nextRenewal = nextPermit + renewalNanos;
+        List<Future<?>> inFlight = new ArrayList<>(merchantTransactionIds.size());
+
+        for (String merchantTransactionId : merchantTransactionIds) {
+            long wait = nextPermit - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            if (System.nanoTime() - nextRenewal >= 0) {
+                if (!leaderLease.tryAcquire()) {
+                    abandon(inFlight);
+                    return;
+                }
+                nextRenewal = System.nanoTime() + renewalNanos;
+            }
+            nextPermit = Math.max(nextPermit, System.nanoTime()) + spacingNanos;
+            inFlight.add(executor.submit(() -> pollSession(merchantTransactionId, now)));
+        }
+        for (Future<?> future : inFlight) {
+            while (true) {
+                try {
+                    future.get(Math.max(0, nextRenewal - System.nanoTime()), TimeUnit.NANOSECONDS);
+                    break;
+                } catch (ExecutionException e) {
+                    log.warn("Poll task failed: {}", e.getCause().getMessage());
+                    break;
+                } catch (TimeoutException e) {
+                    if (!leaderLease.tryAcquire()) {
+                        abandon(inFlight);
+                        return;
+                    }
+                    nextRenewal = System.nanoTime() + renewalNanos;
+                }
+            }
+        }
+    }
+
+    /**
+     * Stops polling once another node holds the lease. Sessions not yet polled stay due in the
+     * pending set, so the new leader picks them up.
+     */
+    private void abandon(List<Future<?>> inFlight) {
+        log.warn("Poller lease lost during a round; leaving the rest of the batch to the new leader");
+        inFlight.forEach(future -> future.cancel(true));
+    }
+
+    private void pollSession(String merchantTransactionId, long now) {
+        TransactionRecord record;
+        try {
+            record = transactionStatusService.getStatus(merchantTransactionId);
+        } catch (TransactionNotFoundException e) {
+            // The status hash expired; nothing left to poll for.
+            redisTemplate.opsForZSet().remove(PENDING_SESSIONS_KEY, merchantTransactionId);
+            count("gone");
+            return;
+        }
+
+        if (record.getStatus().isTerminal()) {
+            redisTemplate.opsForZSet().remove(PENDING_SESSIONS_KEY, merchantTransactionId);
+            count("resolved");
+            return;
+        }
+        try {
+            if (now - record.getCreatedAt() > properties.getMaxAge().toMillis()) {
+                transactionStatusService.transition(merchantTransactionId, TransactionStatus.EXPIRED, null);
+                count("expired");
+                return;
+            }
+            TransactionStatus upstreamStatus = fetchUpstreamStatus(record.getSessionId());
+            if (upstreamStatus != TransactionStatus.PENDING) {
+                transactionStatusService.transition(merchantTransactionId, upstreamStatus, null);
+                count("resolved");
+                return;
+            }
+            count("pending");
+        } catch (InvalidStatusTransitionException e) {
+            // A callback finished the transaction since it was read; nothing left to poll for.
+            redisTemplate.opsForZSet().remove(PENDING_SESSIONS_KEY, merchantTransactionId);
+            count("resolved");
+            return;
+        } catch (Exception e) {
+            log.warn("Failed to poll upstream status for {}: {}", merchantTransactionId, e.getMessage());
+            count("error");
+        }
+        reschedule(merchantTransactionId);
+    }
+
+    private TransactionStatus fetchUpstreamStatus(String sessionId) {
+        Map<String, Object> responseMap = sessionApiClient.getSession("Bearer " + validToken(), sessionId);
+        SessionResponse response = objectMapper.convertValue(responseMap, SessionResponse.class);
+        if (response.getData() == null || response.getData().getSessionInfo() == null) {
+            return TransactionStatus.PENDING;
+        }
+        return TransactionStatus.fromGatewayStatus(response.getData().getSessionInfo().getStatus());
+    }
+
+    private String validToken() {
+        tokenHandler.ensureValidToken();
+        String token = tokenHandler.getToken();
+        if (token == null) {
+            throw new PaymentGatewayException("Failed to retrieve a valid token.");
+        }
+        return token;
+    }
+
+    /**
+     * Pushes the session back with exponential backoff plus up to 10% jitter,
+     * so sessions created together do not stay in lock-step. A session whose status hash has
+     * expired meanwhile is dropped instead.
+     */
+    private void reschedule(String merchantTransactionId) {
+        Long attempts = redisTemplate.execute(INCREMENT_ATTEMPTS_SCRIPT,
+                List.of(TRANSACTION_KEY_PREFIX + merchantTransactionId), POLL_ATTEMPTS_FIELD);
+        if (attempts != null && attempts == 0) {
+            redisTemplate.opsForZSet().remove(PENDING_SESSIONS_KEY, merchantTransactionId);
+            count("gone");
+            return;
+        }
+        int exponent = (int) Math.min(Math.max(attempts == null ? 1 : attempts, 1) - 1, 20);
+        long backoff = Math.min(properties.getBackoffBase().toMillis() << exponent, properties.getMaxBackoff().toMillis());
+        long jitter = ThreadLocalRandom.current().nextLong(backoff / 10 + 1);
+        redisTemplate.opsForZSet().add(PENDING_SESSIONS_KEY, merchantTransactionId, System.currentTimeMillis() + backoff + jitter);
+    }
+
+    private void count(String outcome) {
+        meterRegistry.counter("payment.poller.polls", "outcome", outcome).increment();
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,322 @@
+package co.zw.telone.paymentgateway.scheduler;
+
+import co.zw.telone.paymentgateway.config.WebhookProperties;
+import co.zw.telone.paymentgateway.event.TransactionStatusChangedEvent;
+import co.zw.telone.paymentgateway.model.TransactionRecord;
+import co.zw.telone.paymentgateway.model.TransactionStatus;
+import co.zw.telone.paymentgateway.model.WebhookEvent;
+import co.zw.telone.paymentgateway.service.impl.CheckpointRestoreLifecycle;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static co.zw.telone.paymentgateway.util.PaymentGatewayConstants.WEBHOOK_ATTEMPTS_KEY_PREFIX;
+import static co.zw.telone.paymentgateway.util.PaymentGatewayConstants.WEBHOOK_DEAD_LETTER_KEY_PREFIX;
+import static co.zw.telone.paymentgateway.util.PaymentGatewayConstants.WEBHOOK_QUEUE_KEY_PREFIX;
+
+/**
+ * Delivers status changes to merchant webhook endpoints.
+ * <p>
+ * Each merchant has a queue in Redis: a sorted set of serialized events scored by the time
+ * they are next due. A round claims due events by pushing their score past the claim timeout,
+ * so a node that dies mid-delivery only delays its events and never loses them. Delivered
+ * events are removed. Failed ones are rescheduled with exponential backoff and moved to a
+ * dead-letter list after {@code maxAttempts}. Delivery is at-least-once and not ordered;
+ * merchants use {@link WebhookEvent#getEventId()} to discard duplicates and stale updates.
+ * <p>
+ * The HTTP client is created on start and shut down on stop, after in-flight deliveries have
+ * finished, so a CRaC checkpoint holds none of its connections.
+ */
+@Component
+@Slf4j
+public class WebhookDispatcher implements SmartLifecycle {
+
+    private static final String EVENT_TYPE = "payment.status_changed";
+    private static final String SIGNATURE_HEADER = "X-Webhook-Signature";
+    private static final String TIMESTAMP_HEADER = "X-Webhook-Timestamp";
+    private static final int DEAD_LETTER_LIMIT = 10_000;
+
+    /** Returns up to ARGV[2] events due by ARGV[1] and hides them until ARGV[3]. */
+    private static final RedisScript<List> CLAIM_SCRIPT = new DefaultRedisScript<>("""
+            local due = redis.call('ZRANGEBYSCORE', KEYS[1], '-inf', ARGV[1], 'LIMIT', 0, ARGV[2])
+            for _, member in ipairs(due) do
+                redis.call('ZADD', KEYS[1], 'XX', ARGV[3], member)
+            end
+            return due
+            """, List.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final WebhookProperties properties;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private volatile HttpClient httpClient;
+    private final Map<String, Semaphore> inFlightLimits = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> backlogs = new ConcurrentHashMap<>();
+
+    public WebhookDispatcher(StringRedisTemplate redisTemplate,
+                             WebhookProperties properties,
+                             ObjectMapper objectMapper,
+                             MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void start() {
+        httpClient = HttpClient.newBuilder()
+                .connectTimeout(properties.getConnectTimeout())
+                .build();
+    }
+
+    /**
+     * Waits for in-flight deliveries up to the request timeout; anything cut off stays claimed
+     * and is delivered again once the claim times out.
+     */
+    @Override
+    public void stop() {
+        HttpClient client = httpClient;
+        if (client == null) {
+            return;
+        }
+        httpClient = null;
+        client.shutdown();
+        try {
+            if (!client.awaitTermination(properties.getRequestTimeout())) {
+                client.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            client.shutdownNow();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return httpClient != null;
+    }
+
+    @Override
+    public int getPhase() {
+        return CheckpointRestoreLifecycle.RESOURCE_PHASE;
+    }
+
+    /**
+     * Queues a webhook for every change after creation. Only the node that made the change
+     * sees this event, so each change is queued exactly once.
+     */
+    @EventListener
+    public void onStatusChanged(TransactionStatusChangedEvent event) {
+        TransactionRecord record = event.getRecord();
+        if (record.getStatus() == TransactionStatus.CREATED
+                || !properties.isEnabled()
+                || !properties.getMerchants().containsKey(record.getMerchantName())) {
+            return;
+        }
+        WebhookEvent webhookEvent = WebhookEvent.builder()
+                .eventId(record.getMerchantTransactionId() + ":" + record.getVersion())
+                .type(EVENT_TYPE)
+                .merchantTransactionId(record.getMerchantTransactionId())
+                .sessionId(record.getSessionId())
+                .status(record.getStatus())
+                .previousStatus(event.getPreviousStatus())
+                .occurredAt(Instant.ofEpochMilli(record.getUpdatedAt()))
+                .build();
+        try {
+            redisTemplate.opsForZSet().add(WEBHOOK_QUEUE_KEY_PREFIX + record.getMerchantName(),
+                    objectMapper.writeValueAsString(webhookEvent), System.currentTimeMillis());
+        } catch (Exception e) {
+            log.error("Failed to queue webhook {}: {}", webhookEvent.getEventId(), e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${payment.webhooks.interval:1s}")
+    public void dispatch() {
+        HttpClient client = httpClient;
+        if (!properties.isEnabled() || client == null) {
+            return;
+        }
+        properties.getMerchants().forEach((merchantName, destination) -> {
+            try {
+                dispatch(client, merchantName, destination);
+            } catch (Exception e) {
+                log.warn("Webhook dispatch round for {} failed: {}", merchantName, e.getMessage());
+            }
+        });
+    }
+
+    private void dispatch(HttpClient client, String merchantName, WebhookProperties.Merchant destination) {
+        String queueKey = WEBHOOK_QUEUE_KEY_PREFIX + merchantName;
+        Long backlog = redisTemplate.opsForZSet().zCard(queueKey);
+        backlog(merchantName).set(backlog == null ? 0 : backlog);
+
+        Semaphore inFlight = inFlightLimits.computeIfAbsent(merchantName,
+                name -> new Semaphore(Math.max(1, destination.getMaxConcurrency())));
+        int batchSize = Math.max(1, destination.getBatchSize());
+        int capacity = inFlight.availablePermits() * batchSize;
+        if (capacity == 0 || backlog == null || backlog == 0) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        @SuppressWarnings("unchecked")
+        List<String> claimed = redisTemplate.execute(CLAIM_SCRIPT, List.of(queueKey),
+                Long.toString(now), Integer.toString(capacity),
+                Long.toString(now + properties.getClaimTimeout().toMillis()));
+        if (claimed == null) {
+            return;
+        }
+        for (int from = 0; from < claimed.size(); from += batchSize) {
+            List<String> batch = claimed.subList(from, Math.min(from + batchSize, claimed.size()));
+            // Never blocks: capacity was sized from the free permits and only this thread takes them.
+            inFlight.acquireUninterruptibly();
+            deliver(client, merchantName, destination, batch, inFlight);
+        }
+    }
+
+    private void deliver(HttpClient client, String merchantName, WebhookProperties.Merchant destination,
+                         List<String> batch, Semaphore inFlight) {
+        String body = destination.getBatchSize() > 1 ? "[" + String.join(",", batch) + "]" : batch.get(0);
+        HttpRequest request;
+        try {
+            String timestamp = Long.toString(Instant.now().getEpochSecond());
+            request = HttpRequest.newBuilder(URI.create(destination.getUrl()))
+                    .timeout(properties.getRequestTimeout())
+                    .header("Content-Type", "application/json")
+                    .header(TIMESTAMP_HEADER, timestamp)
+                    .header(SIGNATURE_HEADER, "sha256=" + sign(destination.getSecret(), timestamp, body))
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build();
+        } catch (RuntimeException | GeneralSecurityException e) {
+            log.error("Cannot build webhook request for {}: {}", merchantName, e.getMessage());
+            inFlight.release();
+            batch.forEach(member -> retry(merchantName, member));
+            return;
+        }
+
+        client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+            try {
+                if (error == null && response.statusCode() / 100 == 2) {
+                    batch.forEach(member -> acknowledge(merchantName, member));
+                } else {
+                    log.warn("Webhook delivery to {} failed: {}", merchantName,
+                            error != null ? error.getMessage() : "HTTP " + response.statusCode());
+                    batch.forEach(member -> retry(merchantName, member));
+                }
+            } catch (Exception e) {
+                // Anything left claimed is picked up again once the claim times out.
+                log.warn("Failed to record webhook outcome for {}: {}", merchantName, e.getMessage());
+            } finally {
+                inFlight.release();
+            }
+        });
+    }
+
+    private void acknowledge(String merchantName, String member) {
+        redisTemplate.opsForZSet().remove(WEBHOOK_QUEUE_KEY_PREFIX + merchantName, member);
+        WebhookEvent event = read(member);
+        if (event != null) {
+            redisTemplate.opsForHash().delete(WEBHOOK_ATTEMPTS_KEY_PREFIX + merchantName, event.getEventId());
+            if (event.getOccurredAt() != null) {
+                latencyTimer(merchantName).record(Duration.between(event.getOccurredAt(), Instant.now()));
+            }
+        }
+        count(merchantName, "delivered");
+    }
+
+    /**
+     * Reschedules with exponential backoff plus up to 10% jitter, or dead-letters the
+     * event once it has used up its attempts.
+     */
+    private void retry(String merchantName, String member) {
+        String queueKey = WEBHOOK_QUEUE_KEY_PREFIX + merchantName;
+        String attemptsKey = WEBHOOK_ATTEMPTS_KEY_PREFIX + merchantName;
+        WebhookEvent event = read(member);
+        String eventId = event != null ? event.getEventId() : member;
+
+        long attempts = redisTemplate.opsForHash().increment(attemptsKey, eventId, 1);
+        if (attempts >= properties.getMaxAttempts()) {
+            String deadLetterKey = WEBHOOK_DEAD_LETTER_KEY_PREFIX + merchantName;
+            redisTemplate.opsForList().rightPush(deadLetterKey, member);
+            redisTemplate.opsForList().trim(deadLetterKey, -DEAD_LETTER_LIMIT, -1);
+            redisTemplate.opsForZSet().remove(queueKey, member);
+            redisTemplate.opsForHash().delete(attemptsKey, eventId);
+            log.error("Webhook {} to {} dead-lettered after {} attempts", eventId, merchantName, attempts);
+            count(merchantName, "dead_lettered");
+            return;
+        }
+        int exponent = (int) Math.min(attempts - 1, 20);
+        long backoff = Math.min(properties.getBackoffBase().toMillis() << exponent, properties.getMaxBackoff().toMillis());
+        long jitter = ThreadLocalRandom.current().nextLong(backoff / 10 + 1);
+        redisTemplate.opsForZSet().add(queueKey, member, System.currentTimeMillis() + backoff + jitter);
+        count(merchantName, "retried");
+    }
+
+    private WebhookEvent read(String member) {
+        try {
+            return objectMapper.readValue(member, WebhookEvent.class);
+        } catch (Exception e) {
+            log.warn("Unreadable webhook event in queue: {}", member);
+            return null;
+        }
+    }
+
+    /** HMAC-SHA256 over "timestamp.body" so a captured request cannot be replayed later with a new timestamp. */
+    private static String sign(String secret, String timestamp, String body) throws GeneralSecurityException {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        mac.update(timestamp.getBytes(StandardCharsets.UTF_8));
+        mac.update((byte) '.');
+        return HexFormat.of().formatHex(mac.doFinal(body.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private AtomicLong backlog(String merchantName) {
+        return backlogs.computeIfAbsent(merchantName, name -> {
+            AtomicLong value = new AtomicLong();
+            Gauge.builder("payment.webhook.backlog", value, AtomicLong::get)
+                    .description("Webhook events waiting for delivery, including retries")
+                    .tag("merchant", name)
+                    .register(meterRegistry);
+            return value;
+        });
+    }
+
+    private Timer latencyTimer(String merchantName) {
+        return Timer.builder("payment.webhook.delivery.latency")
+                .description("Time from status change to acknowledged webhook delivery")
+                .tag("merchant", merchantName)
+                .register(meterRegistry);
+    }
+
+    private void count(String merchantName, String outcome) {
+        meterRegistry.counter("payment.webhook.deliveries", "merchant", merchantName, "outcome", outcome).increment();
+    }
+}
@@ -0,0 +1,46 @@
+package co.zw.telone.paymentgateway.security;
+
+import co.zw.telone.paymentgateway.exception.MerchantAccessDeniedException;
+import co.zw.telone.paymentgateway.exception.UnknownMerchantException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+
+/**
+ * Guards the endpoints scoped to one merchant by a {@code {merchantName}} path variable: the
+ * merchant must be registered, and the request must carry that merchant's API key as a bearer
+ * token. Rejections go through the exception handler like any other failure.
+ */
+public class MerchantAccessInterceptor implements HandlerInterceptor {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final MerchantRegistry merchantRegistry;
+
+    public MerchantAccessInterceptor(MerchantRegistry merchantRegistry) {
+        this.merchantRegistry = merchantRegistry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE) instanceof Map<?, ?> variables)
+                || !(variables.get("merchantName") instanceof String merchantName)) {
+            return true;
+        }
+        if (!merchantRegistry.contains(merchantName)) {
+            throw new UnknownMerchantException(merchantName);
+        }
+        String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+        String apiKey = authorization != null && authorization.regionMatches(true, 0, BEARER_PREFIX, 0, BEARER_PREFIX.length())
+                ? authorization.substring(BEARER_PREFIX.length()).trim()
+                : null;
+        if (!merchantRegistry.authenticates(merchantName, apiKey)) {
+            throw new MerchantAccessDeniedException(merchantName);
+        }
+        return true;
+    }
+}
@@ -0,0 +1,57 @@
+package co.zw.telone.paymentgateway.security;
+
+import co.zw.telone.paymentgateway.config.MerchantAccessProperties;
+import co.zw.telone.paymentgateway.config.RequestValidationProperties;
+import co.zw.telone.paymentgateway.config.WebhookProperties;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The merchants this service knows about: those allowed to open sessions, those with a webhook
+ * destination and those with an API key. Resolved once from configuration.
+ */
+@Component
+public class MerchantRegistry {
+
+    private final Set<String> merchants = new HashSet<>();
+    private final Map<String, byte[]> apiKeys = new HashMap<>();
+
+    public MerchantRegistry(RequestValidationProperties validationProperties,
+                            WebhookProperties webhookProperties,
+                            MerchantAccessProperties accessProperties) {
+        merchants.addAll(validationProperties.getMerchants());
+        merchants.addAll(webhookProperties.getMerchants().keySet());
+        accessProperties.getApiKeys().forEach((merchantName, apiKey) -> {
+            if (apiKey != null && !apiKey.isBlank()) {
+                apiKeys.put(merchantName, apiKey.getBytes(StandardCharsets.UTF_8));
+                merchants.add(merchantName);
+            }
+        });
+        merchants.removeIf(name -> name == null || name.isBlank());
+    }
+
+    public boolean isEmpty() {
+        return merchants.isEmpty();
+    }
+
+    public boolean contains(String merchantName) {
+        return merchantName != null && merchants.contains(merchantName);
+    }
+
+    /**
+     * Checks an API key in time independent of where it differs from the merchant's own.
+     *
+     * @return false for a merchant without a key
+     */
+    public boolean authenticates(String merchantName, String apiKey) {
+        byte[] expected = merchantName == null ? null : apiKeys.get(merchantName);
+        return expected != null && apiKey != null
+                && MessageDigest.isEqual(expected, apiKey.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,31 @@
+package co.zw.telone.paymentgateway.serialization;
+
+import feign.Response;
+import feign.Util;
+import feign.codec.Decoder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Type;
+
+/**
+ * Reads gateway response bodies with the cached reader for the declared return type.
+ */
+public class CachedJacksonFeignDecoder implements Decoder {
+
+    private final JsonCodecs codecs;
+
+    public CachedJacksonFeignDecoder(JsonCodecs codecs) {
+        this.codecs = codecs;
+    }
+
+    @Override
+    public Object decode(Response response, Type type) throws IOException {
+        if (response.status() == 204 || response.body() == null) {
+            return Util.emptyValueOf(type);
+        }
+        try (InputStream body = response.body().asInputStream()) {
+            return codecs.reader(type).readValue(body);
+        }
+    }
+}
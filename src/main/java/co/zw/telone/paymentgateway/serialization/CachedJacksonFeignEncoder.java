@@ -0,0 +1,31 @@
+package co.zw.telone.paymentgateway.serialization;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import feign.RequestTemplate;
+import feign.codec.EncodeException;
+import feign.codec.Encoder;
+
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes gateway request bodies with the cached writer for their class.
+ */
+public class CachedJacksonFeignEncoder implements Encoder {
+
+    private final JsonCodecs codecs;
+
+    public CachedJacksonFeignEncoder(JsonCodecs codecs) {
+        this.codecs = codecs;
+    }
+
+    @Override
+    public void encode(Object object, Type bodyType, RequestTemplate template) {
+        try {
+            template.header("Content-Type", "application/json");
+            template.body(codecs.writer(object.getClass()).writeValueAsBytes(object), StandardCharsets.UTF_8);
+        } catch (JsonProcessingException e) {
+            throw new EncodeException(e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package co.zw.telone.paymentgateway.serialization;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * JSON message converter that reads and writes through {@link JsonCodecs} instead of resolving
+ * a reader or writer from the mapper on every request. Takes the place of the default Jackson
+ * converter, so it never sees the byte[] and String bodies handled by the converters before it.
+ * <p>
+ * Like the default converter it honours a {@link MappingJacksonValue} body's view and filters,
+ * and it writes {@code ProblemDetail} bodies as {@code application/problem+json} through the
+ * mixin the Boot-built mapper already carries. Spring only applies {@code @JsonView} handler
+ * annotations for Jackson converters it knows, so handlers that need a view return a
+ * {@link MappingJacksonValue} themselves while this converter is enabled.
+ */
+public class CachedJacksonHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    private final JsonCodecs codecs;
+
+    public CachedJacksonHttpMessageConverter(JsonCodecs codecs) {
+        super(MediaType.APPLICATION_JSON, new MediaType("application", "*+json"));
+        this.codecs = codecs;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return true;
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) throws IOException {
+        return readJson(type, inputMessage);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+        return readJson(clazz, inputMessage);
+    }
+
+    private Object readJson(Type type, HttpInputMessage inputMessage) throws IOException {
+        try {
+            return codecs.reader(type).readValue(inputMessage.getBody());
+        } catch (JsonProcessingException e) {
+            throw new HttpMessageNotReadableException("JSON parse error: " + e.getOriginalMessage(), e, inputMessage);
+        }
+    }
+
+    @Override
+    protected void writeInternal(Object value, Type type, HttpOutputMessage outputMessage) throws IOException {
+        ObjectWriter writer;
+        if (value instanceof MappingJacksonValue container) {
+            value = container.getValue();
+            writer = codecs.writer(value.getClass());
+            if (container.getSerializationView() != null) {
+                writer = writer.withView(container.getSerializationView());
+            }
+            if (container.getFilters() != null) {
+                writer = writer.with(container.getFilters());
+            }
+        } else {
+            writer = codecs.writer(value.getClass());
+        }
+        try {
+            // The servlet stream belongs to the container; Jackson would otherwise close it after the value.
+            writer.writeValue(StreamUtils.nonClosing(outputMessage.getBody()), value);
+        } catch (JsonProcessingException e) {
+            throw new HttpMessageNotWritableException("Could not write JSON: " + e.getOriginalMessage(), e);
+        }
+    }
+}
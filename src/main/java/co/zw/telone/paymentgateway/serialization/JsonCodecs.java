@@ -0,0 +1,50 @@
+package co.zw.telone.paymentgateway.serialization;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link ObjectReader}s and {@link ObjectWriter}s built once per type and reused.
+ * <p>
+ * Readers are keyed by the declared (possibly generic) type. Writers are keyed by the runtime
+ * class of the value, which is what Jackson serializes anyway, so a writer is resolved with a
+ * single {@link ClassValue} lookup.
+ */
+public class JsonCodecs {
+
+    private final ObjectMapper objectMapper;
+    private final Map<Type, ObjectReader> readers = new ConcurrentHashMap<>();
+    private final ClassValue<ObjectWriter> writers = new ClassValue<>() {
+        @Override
+        protected ObjectWriter computeValue(Class<?> type) {
+            return objectMapper.writerFor(type);
+        }
+    };
+
+    public JsonCodecs(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public ObjectReader reader(Type type) {
+        ObjectReader reader = readers.get(type);
+        if (reader == null) {
+            JavaType javaType = objectMapper.constructType(type);
+            reader = readers.computeIfAbsent(type, t -> objectMapper.readerFor(javaType));
+        }
+        return reader;
+    }
+
+    public ObjectWriter writer(Class<?> type) {
+        return writers.get(type);
+    }
+
+    public ObjectMapper getObjectMapper() {
+        return objectMapper;
+    }
+}
@@ -0,0 +1,12 @@
+package co.zw.telone.paymentgateway.service;
+
+import co.zw.telone.paymentgateway.model.LedgerEntry;
+import co.zw.telone.paymentgateway.model.TransactionStatus;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface LedgerService {
+
+    List<LedgerEntry> findEntries(String merchantName, LocalDate businessDate, TransactionStatus status, int page, int size);
+}
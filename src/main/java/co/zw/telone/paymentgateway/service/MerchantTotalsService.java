@@ -0,0 +1,10 @@
+package co.zw.telone.paymentgateway.service;
+
+import co.zw.telone.paymentgateway.response.MerchantDailyTotals;
+
+import java.time.LocalDate;
+
+public interface MerchantTotalsService {
+
+    MerchantDailyTotals getDailyTotals(String merchantName, LocalDate date);
+}
@@ -0,0 +1,10 @@
+package co.zw.telone.paymentgateway.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public interface PaymentEventStreamService {
+
+    SseEmitter subscribeToTransaction(String merchantTransactionId);
+
+    SseEmitter subscribeToMerchant(String merchantName, Long lastEventId);
+}
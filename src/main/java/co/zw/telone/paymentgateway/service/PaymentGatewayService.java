@@ -2,7 +2,10 @@ package co.zw.telone.paymentgateway.service;
 
 import co.zw.telone.paymentgateway.response.PaymentSessionRequest;
 import co.zw.telone.paymentgateway.response.PaymentSessionResponse;
+import co.zw.telone.paymentgateway.response.TransactionStatusResponse;
 
 public interface PaymentGatewayService {
     PaymentSessionResponse createPaymentSession(PaymentSessionRequest request);
+
+    TransactionStatusResponse handlePaymentCallback(String status, String statusCode, String merchantTransactionId);
 }
\ No newline at end of file
@@ -0,0 +1,12 @@
+package co.zw.telone.paymentgateway.service;
+
+import co.zw.telone.paymentgateway.response.ReconciliationSummary;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+
+public interface ReconciliationService {
+
+    ReconciliationSummary reconcile(LocalDate settlementDate, String merchantName, InputStream settlementCsv) throws IOException;
+}
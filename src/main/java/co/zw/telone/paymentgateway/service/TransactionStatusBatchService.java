@@ -0,0 +1,11 @@
+package co.zw.telone.paymentgateway.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface TransactionStatusBatchService {
+
+    StreamingResponseBody prepareStatusStream(InputStream requestBody) throws IOException;
+}
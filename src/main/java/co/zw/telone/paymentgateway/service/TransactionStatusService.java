@@ -0,0 +1,31 @@
+package co.zw.telone.paymentgateway.service;
+
+import co.zw.telone.paymentgateway.model.TransactionRecord;
+import co.zw.telone.paymentgateway.model.TransactionStatus;
+import co.zw.telone.paymentgateway.response.PaymentSessionRequest;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+public interface TransactionStatusService {
+
+    TransactionRecord recordCreated(PaymentSessionRequest request);
+
+    TransactionRecord transition(String merchantTransactionId, TransactionStatus target, String sessionId);
+
+    /**
+     * Puts back transactions that are no longer in the store, e.g. after Redis lost its data.
+     * Existing transactions are left untouched, and no status change is announced.
+     *
+     * @return the records that were written
+     */
+    List<TransactionRecord> restoreAll(Collection<TransactionRecord> records);
+
+    TransactionRecord getStatus(String merchantTransactionId);
+
+    Map<String, TransactionRecord> getStatuses(List<String> merchantTransactionIds);
+
+    Optional<TransactionRecord> findBySessionId(String sessionId);
+}
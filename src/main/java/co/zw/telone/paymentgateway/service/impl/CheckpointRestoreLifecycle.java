@@ -0,0 +1,90 @@
+package co.zw.telone.paymentgateway.service.impl;
+
+import co.zw.telone.paymentgateway.config.InterceptorTokenRefreshHandler;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.web.context.WebServerGracefulShutdownLifecycle;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps a CRaC checkpoint taken after the warm-up usable. With {@code org.crac} on the classpath
+ * (the {@code crac} Maven profile) Spring stops every lifecycle bean before the checkpoint and
+ * starts them again after restore: Tomcat, the Lettuce connection factory and Hikari close and
+ * reopen their connections on their own, and so do the journal, the traffic capture and the
+ * webhook client, which run in {@link #RESOURCE_PHASE}.
+ * <p>
+ * This bean stops after Tomcat, so no request is in flight, and drops the cached gateway token so
+ * it is neither written into the image nor served stale. On restore it starts before Tomcat and
+ * fetches a new token, which also reopens the connection to the gateway, and pings Redis, so the
+ * first request after a restore finds everything warm. Failures are only logged, as in
+ * {@link PaymentGatewayWarmup}: the request that needs the connection will retry it.
+ * <p>
+ * On the first start the warm-up does this work, so nothing happens here.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CheckpointRestoreLifecycle implements SmartLifecycle {
+
+    /** Runs just before the web server starts accepting requests, and stops just after it. */
+    static final int PHASE = WebServerGracefulShutdownLifecycle.SMART_LIFECYCLE_PHASE - 2048;
+
+    /**
+     * For beans that hold files or sockets of their own, such as the journal: they open before
+     * anything serves requests and close after, so the checkpoint finds them closed.
+     */
+    public static final int RESOURCE_PHASE = PHASE - 1024;
+
+    private final InterceptorTokenRefreshHandler tokenHandler;
+    private final StringRedisTemplate redisTemplate;
+
+    private volatile boolean running;
+    private volatile boolean stopped;
+
+    @Override
+    public void start() {
+        if (stopped) {
+            reconnect();
+        }
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        tokenHandler.invalidateToken();
+        stopped = true;
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    private void reconnect() {
+        long start = System.nanoTime();
+        try {
+            redisTemplate.execute((RedisCallback<String>) RedisConnection::ping);
+        } catch (RuntimeException e) {
+            log.warn("Redis could not be reached after restart", e);
+        }
+        try {
+            tokenHandler.ensureValidToken();
+        } catch (RuntimeException e) {
+            log.warn("Gateway token could not be fetched after restart", e);
+        }
+        log.info("Connections re-established after restart in {} ms",
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+}
@@ -0,0 +1,32 @@
+package co.zw.telone.paymentgateway.service.impl;
+
+import co.zw.telone.paymentgateway.exception.BadRequestException;
+import co.zw.telone.paymentgateway.ledger.LedgerRepository;
+import co.zw.telone.paymentgateway.model.LedgerEntry;
+import co.zw.telone.paymentgateway.model.TransactionStatus;
+import co.zw.telone.paymentgateway.service.LedgerService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class LedgerServiceImpl implements LedgerService {
+
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private final LedgerRepository ledgerRepository;
+
+    @Override
+    public List<LedgerEntry> findEntries(String merchantName, LocalDate businessDate, TransactionStatus status,
+                                         int page, int size) {
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+            throw new BadRequestException("page must be >= 0 and size between 1 and " + MAX_PAGE_SIZE,
+                    HttpStatus.BAD_REQUEST);
+        }
+        return ledgerRepository.find(merchantName, businessDate, status, size, page * size);
+    }
+}
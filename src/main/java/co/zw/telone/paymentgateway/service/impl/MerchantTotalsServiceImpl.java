@@ -0,0 +1,252 @@
+package co.zw.telone.paymentgateway.service.impl;
+
+import co.zw.telone.paymentgateway.config.LedgerProperties;
+import co.zw.telone.paymentgateway.event.TransactionStatusChangedEvent;
+import co.zw.telone.paymentgateway.model.CurrencyCode;
+import co.zw.telone.paymentgateway.model.Money;
+import co.zw.telone.paymentgateway.model.TransactionRecord;
+import co.zw.telone.paymentgateway.model.TransactionStatus;
+import co.zw.telone.paymentgateway.response.MerchantDailyTotals;
+import co.zw.telone.paymentgateway.service.MerchantTotalsService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import static co.zw.telone.paymentgateway.util.PaymentGatewayConstants.MERCHANT_TOTALS_KEY_PREFIX;
+
+/**
+ * Per-merchant daily totals by currency and status.
+ * <p>
+ * Each status change bumps a pair of {@link LongAdder}s on this node, which costs the payment
+ * path a map lookup and two uncontended adds. A scheduled flush moves the accumulated deltas
+ * into one Redis hash per merchant and day; {@code sumThenReset} takes each cell atomically, so
+ * concurrent updates land in the next flush rather than being lost.
+ * <p>
+ * Each hash is updated by one script call that applies all of its increments and records the
+ * flush id under a field owned by this node. A flush that fails is retried with the same deltas
+ * and ids before anything new is taken, so a call that did reach Redis is not applied twice.
+ * Cells from earlier days are retired once empty; an update that still reaches a retired
+ * cell moves itself to the live one.
+ * A report is then a single HGETALL on a hash with a handful of fields, whatever the volume.
+ * Totals lag by at most one flush interval.
+ */
+@Service
+@Slf4j
+public class MerchantTotalsServiceImpl implements MerchantTotalsService, DisposableBean {
+
+    private static final String COUNT_SUFFIX = ":count";
+    private static final String AMOUNT_SUFFIX = ":amount";
+    private static final String FLUSH_FIELD_PREFIX = "flush:";
+
+    /**
+     * KEYS[1] is the totals hash; ARGV is this node's flush field, the flush id, the TTL in
+     * seconds, then field and increment pairs. Returns 0 when that flush was already applied.
+     */
+    private static final byte[] APPLY_SCRIPT = bytes("""
+            if redis.call('HGET', KEYS[1], ARGV[1]) == ARGV[2] then
+                return 0
+            end
+            for i = 4, #ARGV, 2 do
+                redis.call('HINCRBY', KEYS[1], ARGV[i], ARGV[i + 1])
+            end
+            redis.call('HSET', KEYS[1], ARGV[1], ARGV[2])
+            redis.call('EXPIRE', KEYS[1], ARGV[3])
+            return 1
+            """);
+
+    private final StringRedisTemplate redisTemplate;
+    private final LedgerProperties ledgerProperties;
+    private final Duration retention;
+    private final Map<TotalsKey, Totals> pending = new ConcurrentHashMap<>();
+    private final byte[] flushField = bytes(FLUSH_FIELD_PREFIX + UUID.randomUUID());
+    private final Counter flushFailures;
+
+    /** Deltas taken from {@link #pending} that Redis has not yet acknowledged; guarded by {@code this}. */
+    private List<HashUpdate> unacknowledged = List.of();
+
+    public MerchantTotalsServiceImpl(StringRedisTemplate redisTemplate,
+                                     LedgerProperties ledgerProperties,
+                                     @Value("${payment.totals.retention:400d}") Duration retention,
+                                     MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.ledgerProperties = ledgerProperties;
+        this.retention = retention;
+        this.flushFailures = Counter.builder("payment.totals.flush.failures")
+                .description("Totals flushes that failed and will be retried with the same deltas")
+                .register(meterRegistry);
+    }
+
+    @EventListener
+    public void onStatusChanged(TransactionStatusChangedEvent event) {
+        TransactionRecord record = event.getRecord();
+        if (record.getMerchantName() == null) {
+            return;
+        }
+        LocalDate day = Instant.ofEpochMilli(record.getUpdatedAt()).atZone(ledgerProperties.getZone()).toLocalDate();
+        Money amount = record.getAmount();
+        TotalsKey key = new TotalsKey(record.getMerchantName(), day,
+                amount == null ? null : amount.currency(), record.getStatus());
+        add(key, 1, amount == null ? 0 : amount.amountInCents());
+    }
+
+    private void add(TotalsKey key, long count, long amountInCents) {
+        Totals totals = pending.computeIfAbsent(key, k -> new Totals());
+        totals.count.add(count);
+        totals.amountInCents.add(amountInCents);
+        // A flush may have retired the cell between the lookup and the adds; whatever is left in
+        // it then belongs in the live one. Every add is taken by exactly one sumThenReset.
+        while (pending.get(key) != totals) {
+            count = totals.count.sumThenReset();
+            amountInCents = totals.amountInCents.sumThenReset();
+            if (count == 0 && amountInCents == 0) {
+                return;
+            }
+            totals = pending.computeIfAbsent(key, k -> new Totals());
+            totals.count.add(count);
+            totals.amountInCents.add(amountInCents);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${payment.totals.flush-interval:5s}")
+    public synchronized void flush() {
+        if (unacknowledged.isEmpty()) {
+            unacknowledged = takePending();
+        }
+        // Idle cells from earlier days are dropped once empty; a late update simply recreates its key.
+        LocalDate cutoff = LocalDate.now(ledgerProperties.getZone()).minusDays(1);
+        pending.forEach((key, totals) -> {
+            if (key.day().isBefore(cutoff) && totals.count.sum() == 0 && totals.amountInCents.sum() == 0) {
+                pending.remove(key, totals);
+            }
+        });
+        if (unacknowledged.isEmpty()) {
+            return;
+        }
+
+        try {
+            byte[] ttlSeconds = bytes(Long.toString(retention.toSeconds()));
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (HashUpdate update : unacknowledged) {
+                    byte[][] keysAndArgs = new byte[4 + update.increments().size() * 2][];
+                    keysAndArgs[0] = update.hashKey();
+                    keysAndArgs[1] = flushField;
+                    keysAndArgs[2] = update.flushId();
+                    keysAndArgs[3] = ttlSeconds;
+                    int i = 4;
+                    for (Map.Entry<String, Long> increment : update.increments().entrySet()) {
+                        keysAndArgs[i++] = bytes(increment.getKey());
+                        keysAndArgs[i++] = bytes(increment.getValue().toString());
+                    }
+                    connection.scriptingCommands().eval(APPLY_SCRIPT, ReturnType.INTEGER, 1, keysAndArgs);
+                }
+                return null;
+            });
+            unacknowledged = List.of();
+        } catch (Exception e) {
+            // Some scripts may have run; their flush ids make the retry skip them.
+            flushFailures.increment();
+            log.warn("Failed to flush merchant totals for {} hashes, will retry: {}", unacknowledged.size(), e.getMessage());
+        }
+    }
+
+    /** Takes every non-zero cell and groups the deltas into one update per merchant and day. */
+    private List<HashUpdate> takePending() {
+        Map<String, Map<String, Long>> byHash = new HashMap<>();
+        pending.forEach((key, totals) -> {
+            long count = totals.count.sumThenReset();
+            long amount = totals.amountInCents.sumThenReset();
+            if (count != 0 || amount != 0) {
+                CurrencyCode currency = key.currency();
+                String field = (currency == null ? "UNKNOWN" : currency.name()) + ":" + key.status().name();
+                Map<String, Long> increments = byHash.computeIfAbsent(totalsKey(key.merchantName(), key.day()),
+                        k -> new LinkedHashMap<>());
+                increments.merge(field + COUNT_SUFFIX, count, Long::sum);
+                increments.merge(field + AMOUNT_SUFFIX, amount, Long::sum);
+            }
+        });
+        List<HashUpdate> updates = new ArrayList<>(byHash.size());
+        byHash.forEach((hashKey, increments) ->
+                updates.add(new HashUpdate(bytes(hashKey), bytes(UUID.randomUUID().toString()), increments)));
+        return updates;
+    }
+
+    @Override
+    public MerchantDailyTotals getDailyTotals(String merchantName, LocalDate date) {
+        Map<Object, Object> hash = redisTemplate.opsForHash().entries(totalsKey(merchantName, date));
+        Map<String, MerchantDailyTotals.Total> byField = new HashMap<>();
+        hash.forEach((rawField, rawValue) -> {
+            String field = (String) rawField;
+            if (field.startsWith(FLUSH_FIELD_PREFIX)) {
+                return;
+            }
+            boolean isCount = field.endsWith(COUNT_SUFFIX);
+            String prefix = field.substring(0, field.lastIndexOf(':'));
+            int separator = prefix.indexOf(':');
+            MerchantDailyTotals.Total total = byField.computeIfAbsent(prefix, p -> MerchantDailyTotals.Total.builder()
+                    .currency(p.substring(0, separator))
+                    .status(TransactionStatus.valueOf(p.substring(separator + 1)))
+                    .build());
+            long value = Long.parseLong((String) rawValue);
+            if (isCount) {
+                total.setCount(value);
+            } else {
+                total.setAmountInCents(value);
+            }
+        });
+
+        List<MerchantDailyTotals.Total> totals = new ArrayList<>(byField.values());
+        totals.sort(Comparator.comparing(MerchantDailyTotals.Total::getCurrency)
+                .thenComparing(MerchantDailyTotals.Total::getStatus));
+        return MerchantDailyTotals.builder()
+                .merchantName(merchantName)
+                .date(date)
+                .totals(totals)
+                .build();
+    }
+
+    private static String totalsKey(String merchantName, LocalDate day) {
+        return MERCHANT_TOTALS_KEY_PREFIX + merchantName + ":" + day;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void destroy() {
+        flush();
+    }
+
+    private record TotalsKey(String merchantName, LocalDate day, CurrencyCode currency, TransactionStatus status) {
+    }
+
+    private record HashUpdate(byte[] hashKey, byte[] flushId, Map<String, Long> increments) {
+    }
+
+    private static final class Totals {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder amountInCents = new LongAdder();
+    }
+}
@@ -0,0 +1,372 @@
+package co.zw.telone.paymentgateway.service.impl;
+
+import co.zw.telone.paymentgateway.event.TransactionStatusBroadcastEvent;
+import co.zw.telone.paymentgateway.exception.UnknownMerchantException;
+import co.zw.telone.paymentgateway.model.TransactionStatus;
+import co.zw.telone.paymentgateway.response.TransactionStatusResponse;
+import co.zw.telone.paymentgateway.security.MerchantRegistry;
+import co.zw.telone.paymentgateway.service.PaymentEventStreamService;
+import co.zw.telone.paymentgateway.service.TransactionStatusService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes status changes to connected Server-Sent Events clients.
+ * <p>
+ * Every node receives every change through {@link TransactionStatusBroadcastEvent}, so clients
+ * may connect to any node. Changes are ordered on a single fan-out thread, which never writes to
+ * a socket: it only hands each event to the bounded queue of every interested client, so events
+ * reach each client in the order they were published. A small pool of sender threads drains the
+ * queues. A client that stops reading holds at most one sender until the write times out, and once
+ * its queue is full it is disconnected instead of holding up anyone else. Merchant streams exist
+ * only for registered merchants, and keep a bounded buffer of recent events so that a client
+ * reconnecting with {@code Last-Event-ID} gets what it missed instead of polling the status
+ * endpoint. A stream is evicted a couple of heartbeats after its last subscriber leaves.
+ */
+@Service
+@Slf4j
+public class PaymentEventStreamServiceImpl implements PaymentEventStreamService, DisposableBean {
+
+    private static final String STATUS_EVENT = "status";
+    /** Heartbeats a merchant stream outlives its last subscriber, so a reconnect can still replay. */
+    private static final int MERCHANT_STREAM_IDLE_HEARTBEATS = 2;
+
+    private final TransactionStatusService transactionStatusService;
+    private final MerchantRegistry merchantRegistry;
+    private final long emitterTimeoutMillis;
+    private final int replayBufferSize;
+    private final int clientQueueSize;
+    private final Counter slowClients;
+
+    private final ConcurrentMap<String, Set<Client>> transactionSubscribers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, MerchantStream> merchantStreams = new ConcurrentHashMap<>();
+    private final AtomicInteger openConnections = new AtomicInteger();
+    private final ExecutorService fanOut = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "sse-fan-out");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ExecutorService senders;
+
+    public PaymentEventStreamServiceImpl(TransactionStatusService transactionStatusService,
+                                         MerchantRegistry merchantRegistry,
+                                         MeterRegistry meterRegistry,
+                                         @Value("${payment.events.emitter-timeout:30m}") Duration emitterTimeout,
+                                         @Value("${payment.events.replay-buffer-size:1000}") int replayBufferSize,
+                                         @Value("${payment.events.client-queue-size:256}") int clientQueueSize,
+                                         @Value("${payment.events.sender-threads:4}") int senderThreads) {
+        this.transactionStatusService = transactionStatusService;
+        this.merchantRegistry = merchantRegistry;
+        this.emitterTimeoutMillis = emitterTimeout.toMillis();
+        this.replayBufferSize = replayBufferSize;
+        this.clientQueueSize = clientQueueSize;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "sse-sender-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("payment.events.connections", openConnections, AtomicInteger::get)
+                .description("Open Server-Sent Events connections on this node")
+                .register(meterRegistry);
+        this.slowClients = Counter.builder("payment.events.slow.clients")
+                .description("Server-Sent Events clients disconnected because their queue was full")
+                .register(meterRegistry);
+    }
+
+    /**
+     * The snapshot is read here and again on a sender thread once the client is registered, so
+     * the fan-out thread never waits on Redis. The second read covers changes dispatched between
+     * the first one and the registration; anything later arrives as an event.
+     */
+    @Override
+    public SseEmitter subscribeToTransaction(String merchantTransactionId) {
+        // Also makes an unknown id a plain 404 rather than an empty stream.
+        TransactionStatusResponse snapshot = TransactionStatusResponse.from(
+                transactionStatusService.getStatus(merchantTransactionId));
+        Client client = new Client();
+
+        // The subscriber set is looked up on the fan-out thread, as the heartbeat drops empty sets there.
+        fanOut.execute(() -> {
+            subscribe(transactionSubscribers.computeIfAbsent(
+                    merchantTransactionId, id -> ConcurrentHashMap.newKeySet()), client);
+            if (offerStatus(client, snapshot, snapshotEvent(snapshot))) {
+                senders.execute(() -> refreshSnapshot(merchantTransactionId, client));
+            }
+        });
+        return client.emitter;
+    }
+
+    private void refreshSnapshot(String merchantTransactionId, Client client) {
+        try {
+            TransactionStatusResponse snapshot = TransactionStatusResponse.from(
+                    transactionStatusService.getStatus(merchantTransactionId));
+            fanOut.execute(() -> offerStatus(client, snapshot, snapshotEvent(snapshot)));
+        } catch (RuntimeException e) {
+            log.warn("Unable to refresh status snapshot for {}: {}", merchantTransactionId, e.getMessage());
+        }
+    }
+
+    @Override
+    public SseEmitter subscribeToMerchant(String merchantName, Long lastEventId) {
+        if (!merchantRegistry.contains(merchantName)) {
+            throw new UnknownMerchantException(merchantName);
+        }
+        Client client = new Client();
+
+        // Replay and register in one fan-out task so nothing is missed or sent twice. The stream
+        // is looked up here too, as the heartbeat evicts idle streams on this thread.
+        fanOut.execute(() -> {
+            MerchantStream stream = merchantStreams.computeIfAbsent(merchantName, name -> new MerchantStream());
+            stream.idleHeartbeats = 0;
+            if (lastEventId != null) {
+                for (BufferedEvent event : stream.eventsAfter(lastEventId)) {
+                    if (!client.offer(statusEvent(event.eventId(), event.status()), false)) {
+                        return;
+                    }
+                }
+            }
+            subscribe(stream.subscribers, client);
+        });
+        return client.emitter;
+    }
+
+    @EventListener
+    public void onStatusBroadcast(TransactionStatusBroadcastEvent event) {
+        fanOut.execute(() -> dispatch(event.getEventId(), event.getStatus()));
+    }
+
+    private void dispatch(long eventId, TransactionStatusResponse status) {
+        String merchantName = status.getMerchantName();
+        MerchantStream stream = merchantName == null ? null : merchantStreams.get(merchantName);
+        if (stream != null) {
+            stream.append(new BufferedEvent(eventId, status), replayBufferSize);
+            offerAll(stream.subscribers, statusEvent(eventId, status), false);
+        }
+
+        Set<Client> subscribers = transactionSubscribers.get(status.getMerchantTransactionId());
+        if (subscribers != null) {
+            Set<ResponseBodyEmitter.DataWithMediaType> event = statusEvent(eventId, status);
+            for (Client client : subscribers) {
+                offerStatus(client, status, event);
+            }
+        }
+    }
+
+    /**
+     * Offers a transaction's status unless the client already has it or a later one. Statuses only
+     * move forward through the lifecycle, in declaration order, so a snapshot and the events around
+     * it can arrive in any order and the client still sees each status once, oldest first. Only
+     * called on the fan-out thread.
+     *
+     * @return false when the status was already terminal or the client is gone
+     */
+    private static boolean offerStatus(Client client, TransactionStatusResponse status,
+                                       Set<ResponseBodyEmitter.DataWithMediaType> event) {
+        if (client.lastStatus != null && client.lastStatus.compareTo(status.getStatus()) >= 0) {
+            return !client.closed && !client.lastStatus.isTerminal();
+        }
+        client.lastStatus = status.getStatus();
+        return client.offer(event, status.getStatus().isTerminal()) && !status.getStatus().isTerminal();
+    }
+
+    /**
+     * Keeps idle connections alive through proxies and flushes out clients that went away
+     * without closing the connection.
+     */
+    @Scheduled(fixedDelayString = "${payment.events.heartbeat-interval:15s}")
+    public void sendHeartbeats() {
+        fanOut.execute(() -> {
+            Set<ResponseBodyEmitter.DataWithMediaType> heartbeat = SseEmitter.event().comment("heartbeat").build();
+            transactionSubscribers.values().forEach(subscribers -> offerAll(subscribers, heartbeat, false));
+            merchantStreams.values().forEach(stream -> offerAll(stream.subscribers, heartbeat, false));
+            transactionSubscribers.values().removeIf(Set::isEmpty);
+            merchantStreams.values().removeIf(stream -> {
+                stream.idleHeartbeats = stream.subscribers.isEmpty() ? stream.idleHeartbeats + 1 : 0;
+                return stream.idleHeartbeats > MERCHANT_STREAM_IDLE_HEARTBEATS;
+            });
+        });
+    }
+
+    private void subscribe(Set<Client> subscribers, Client client) {
+        client.subscribers = subscribers;
+        if (subscribers.add(client)) {
+            openConnections.incrementAndGet();
+            // The emitter may have timed out or failed before this task ran.
+            if (client.closed) {
+                client.unsubscribe();
+            }
+        }
+    }
+
+    private void offerAll(Collection<Client> subscribers, Set<ResponseBodyEmitter.DataWithMediaType> event, boolean last) {
+        for (Client client : subscribers) {
+            client.offer(event, last);
+        }
+    }
+
+    private static Set<ResponseBodyEmitter.DataWithMediaType> snapshotEvent(TransactionStatusResponse status) {
+        return SseEmitter.event()
+                .name(STATUS_EVENT)
+                .data(status, MediaType.APPLICATION_JSON)
+                .build();
+    }
+
+    /** Built once per event; the same data is handed to every client. */
+    private static Set<ResponseBodyEmitter.DataWithMediaType> statusEvent(long eventId, TransactionStatusResponse status) {
+        return SseEmitter.event()
+                .id(Long.toString(eventId))
+                .name(STATUS_EVENT)
+                .data(status, MediaType.APPLICATION_JSON)
+                .build();
+    }
+
+    @Override
+    public void destroy() {
+        fanOut.shutdownNow();
+        senders.shutdownNow();
+        transactionSubscribers.values().forEach(subscribers -> subscribers.forEach(client -> client.emitter.complete()));
+        merchantStreams.values().forEach(stream -> stream.subscribers.forEach(client -> client.emitter.complete()));
+    }
+
+    private record BufferedEvent(long eventId, TransactionStatusResponse status) {
+    }
+
+    private record Outgoing(Set<ResponseBodyEmitter.DataWithMediaType> data, boolean last) {
+    }
+
+    /**
+     * One connected client. Events are offered without blocking and written by at most one sender
+     * thread at a time, in queue order. The emitter is only ever written and closed from that
+     * thread: its methods are synchronized, and a write blocked on a stalled socket holds the lock.
+     */
+    private final class Client {
+        private final SseEmitter emitter = new SseEmitter(emitterTimeoutMillis);
+        private final BlockingQueue<Outgoing> queue = new ArrayBlockingQueue<>(clientQueueSize);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile Set<Client> subscribers;
+        private volatile boolean closed;
+        private boolean finished;
+        /** Last status offered to a transaction stream; only touched on the fan-out thread. */
+        private TransactionStatus lastStatus;
+
+        Client() {
+            emitter.onCompletion(this::unsubscribe);
+            emitter.onTimeout(this::unsubscribe);
+            emitter.onError(e -> unsubscribe());
+        }
+
+        /**
+         * @return false when the client is gone or has just been dropped for falling behind
+         */
+        boolean offer(Set<ResponseBodyEmitter.DataWithMediaType> data, boolean last) {
+            if (closed) {
+                return false;
+            }
+            if (!queue.offer(new Outgoing(data, last))) {
+                log.debug("Dropping event stream client that fell {} events behind", clientQueueSize);
+                slowClients.increment();
+                closed = true;
+                unsubscribe();
+            }
+            if (draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+            return !closed;
+        }
+
+        private void drain() {
+            do {
+                Outgoing next;
+                while (!closed && (next = queue.poll()) != null) {
+                    write(next);
+                }
+                if (closed) {
+                    queue.clear();
+                    finish(null);
+                }
+                draining.set(false);
+            } while (!closed && !queue.isEmpty() && draining.compareAndSet(false, true));
+        }
+
+        private void write(Outgoing outgoing) {
+            try {
+                emitter.send(outgoing.data());
+                if (outgoing.last()) {
+                    closed = true;
+                }
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Dropping event stream client: {}", e.getMessage());
+                closed = true;
+                finish(e);
+            }
+        }
+
+        /** Only called by the draining sender, so {@code finished} needs no further guarding. */
+        private void finish(Throwable error) {
+            if (finished) {
+                return;
+            }
+            finished = true;
+            if (error != null) {
+                emitter.completeWithError(error);
+            } else {
+                emitter.complete();
+            }
+        }
+
+        private void unsubscribe() {
+            closed = true;
+            Set<Client> subscribers = this.subscribers;
+            if (subscribers != null && subscribers.remove(this)) {
+                openConnections.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Subscribers and recent events for one merchant. The buffer and the idle count are only
+     * touched from the fan-out thread, so they need no locking.
+     */
+    private static final class MerchantStream {
+        private final Set<Client> subscribers = ConcurrentHashMap.newKeySet();
+        private final Deque<BufferedEvent> recentEvents = new ArrayDeque<>();
+        private int idleHeartbeats;
+
+        void append(BufferedEvent event, int capacity) {
+            if (recentEvents.size() == capacity) {
+                recentEvents.removeFirst();
+            }
+            recentEvents.addLast(event);
+        }
+
+        Collection<BufferedEvent> eventsAfter(long lastEventId) {
+            return recentEvents.stream().filter(event -> event.eventId() > lastEventId).toList();
+        }
+    }
+}
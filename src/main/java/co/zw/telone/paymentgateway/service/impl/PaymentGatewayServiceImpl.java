@@ -2,18 +2,40 @@ package co.zw.telone.paymentgateway.service.impl;
 
 import co.zw.telone.paymentgateway.client.SessionApiClient;
 import co.zw.telone.paymentgateway.config.InterceptorTokenRefreshHandler;
+import co.zw.telone.paymentgateway.config.UpstreamRejectionCacheConfig.RejectionKey;
+import co.zw.telone.paymentgateway.config.UpstreamRejectionProperties;
+import co.zw.telone.paymentgateway.exception.DuplicateTransactionException;
 import co.zw.telone.paymentgateway.exception.PaymentGatewayException;
+import co.zw.telone.paymentgateway.exception.UpstreamAuthException;
+import co.zw.telone.paymentgateway.exception.UpstreamFailure;
+import co.zw.telone.paymentgateway.exception.UpstreamFatalException;
+import co.zw.telone.paymentgateway.exception.UpstreamRejectedException;
+import co.zw.telone.paymentgateway.exception.UpstreamTransientException;
+import co.zw.telone.paymentgateway.exception.UpstreamUnavailableException;
+import co.zw.telone.paymentgateway.exception.UpstreamValidationException;
+import co.zw.telone.paymentgateway.journal.JournalRecordType;
+import co.zw.telone.paymentgateway.journal.TransactionJournal;
+import co.zw.telone.paymentgateway.model.Money;
+import co.zw.telone.paymentgateway.model.TransactionRecord;
+import co.zw.telone.paymentgateway.model.TransactionStatus;
+import co.zw.telone.paymentgateway.model.UpstreamRejection;
 import co.zw.telone.paymentgateway.response.*;
 import co.zw.telone.paymentgateway.service.PaymentGatewayService;
+import co.zw.telone.paymentgateway.service.TransactionStatusService;
+import co.zw.telone.paymentgateway.timing.RequestTimings;
+import co.zw.telone.paymentgateway.timing.TimingPhase;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
 import feign.FeignException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
 import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -25,10 +47,17 @@ import static co.zw.telone.paymentgateway.util.PaymentGatewayConstants.PAYMENT_T
 @Slf4j
 public class PaymentGatewayServiceImpl implements PaymentGatewayService {
 
+    /** Offered to callers when an overloaded gateway did not say how long to wait. */
+    private static final long DEFAULT_RETRY_AFTER_SECONDS = 1;
+
     private final SessionApiClient sessionApiClient;
     private final InterceptorTokenRefreshHandler tokenHandler;
     private final RedisUniqueIdService redisUniqueIdService;
+    private final TransactionStatusService transactionStatusService;
+    private final TransactionJournal journal;
     private final ObjectMapper objectMapper;
+    private final Cache<RejectionKey, UpstreamRejection> upstreamRejectionCache;
+    private final UpstreamRejectionProperties rejectionProperties;
 
     @Value("${payment.gateway.payment-page-base-url}")
     private String paymentPageBaseUrl;
@@ -38,48 +67,158 @@ public class PaymentGatewayServiceImpl implements PaymentGatewayService {
     @Override
     public PaymentSessionResponse createPaymentSession(PaymentSessionRequest request) {
         log.info("Creating payment session for merchantTransactionId: {}", request.getMerchantTransactionId());
+        RequestTimings.merchant(request.getMerchantName());
+        // Presence and range were checked when the request was bound.
+        Money amount = request.getAmount();
+        RejectionKey rejectionKey = RejectionKey.of(request);
+        rejectIfKnownToFail(rejectionKey);
 
         String merchantTransactionId = getOrGenerateMerchantTransactionId(request);
+        trackCreated(request);
 
         try {
             String token = validateToken();
             String authHeader = buildAuthorizationHeader(token);
 
-            SessionRequest sessionRequest = mapToSessionRequest(request, merchantTransactionId);
+            SessionRequest sessionRequest;
+            try (RequestTimings.Scope ignored = RequestTimings.time(TimingPhase.MAPPING)) {
+                sessionRequest = mapToSessionRequest(request, amount, merchantTransactionId);
+            }
+            journal(JournalRecordType.SESSION_REQUEST, merchantTransactionId, sessionRequest);
             Map<String, Object> responseMap = sessionApiClient.createSession(authHeader, sessionRequest);
             log.debug("Session API response: {}", responseMap);
+            journal(JournalRecordType.UPSTREAM_RESPONSE, merchantTransactionId, responseMap);
 
-            SessionResponse gatewayResponse = parseGatewayResponse(responseMap);
+            SessionResponse gatewayResponse;
+            try (RequestTimings.Scope ignored = RequestTimings.time(TimingPhase.MAPPING)) {
+                gatewayResponse = parseGatewayResponse(responseMap);
+            }
             String sessionId = getSessionId(gatewayResponse);
             String paymentPageUrl = buildPaymentPageUrl(sessionId);
+            trackTransition(merchantTransactionId, TransactionStatus.PENDING, sessionId);
 
-            return preparePaymentSessionResponse(sessionId, paymentPageUrl, gatewayResponse.getData().getSessionInfo().getStatus(), request);
+            try (RequestTimings.Scope ignored = RequestTimings.time(TimingPhase.MAPPING)) {
+                return preparePaymentSessionResponse(sessionId, paymentPageUrl, gatewayResponse.getData().getSessionInfo().getStatus(), request, amount);
+            }
 
-        } catch (FeignException.BadRequest ex) {
-            handleBadRequest(ex);
+        } catch (UpstreamValidationException ex) {
+            journalUpstreamError(ex, merchantTransactionId);
+            trackTransition(merchantTransactionId, TransactionStatus.FAILED, null);
+            handleBadRequest(ex, rejectionKey);
+        } catch (UpstreamTransientException | UpstreamAuthException | UpstreamFatalException ex) {
+            journalUpstreamError(ex, merchantTransactionId);
+            trackTransition(merchantTransactionId, TransactionStatus.FAILED, null);
+            handleUpstreamFailure(ex, merchantTransactionId);
         } catch (Exception e) {
+            trackTransition(merchantTransactionId, TransactionStatus.FAILED, null);
             handleUnexpectedError(e, merchantTransactionId);
         }
 
         return null;
     }
 
+    /**
+     * Handles the payer's browser returning from the payment page. The query parameters come from
+     * the browser and are unauthenticated, so they are only journaled: the status is taken from one
+     * lookup of the session at the gateway. A failed lookup leaves the transaction to the poller.
+     */
+    @Override
+    public TransactionStatusResponse handlePaymentCallback(String status, String statusCode, String merchantTransactionId) {
+        log.info("Payment callback received: status={}, statusCode={}, merchantTransactionId={}",
+                status, statusCode, merchantTransactionId);
+        TransactionRecord record = transactionStatusService.getStatus(merchantTransactionId);
+        Map<String, String> callback = new LinkedHashMap<>();
+        callback.put("status", status);
+        callback.put("statusCode", statusCode);
+        journal(JournalRecordType.CALLBACK, merchantTransactionId, callback);
+
+        if (record.getStatus().isTerminal() || record.getSessionId() == null) {
+            return TransactionStatusResponse.from(record);
+        }
+        try {
+            TransactionStatus upstreamStatus = fetchUpstreamStatus(record.getSessionId());
+            if (upstreamStatus != TransactionStatus.PENDING) {
+                record = transactionStatusService.transition(merchantTransactionId, upstreamStatus, null);
+            }
+        } catch (Exception e) {
+            log.warn("Could not confirm the status of {} with the gateway: {}", merchantTransactionId, e.getMessage());
+            record = transactionStatusService.getStatus(merchantTransactionId);
+        }
+        return TransactionStatusResponse.from(record);
+    }
+
+    private TransactionStatus fetchUpstreamStatus(String sessionId) {
+        Map<String, Object> responseMap = sessionApiClient.getSession(buildAuthorizationHeader(validateToken()), sessionId);
+        SessionResponse response = objectMapper.convertValue(responseMap, SessionResponse.class);
+        if (response.getData() == null || response.getData().getSessionInfo() == null) {
+            return TransactionStatus.PENDING;
+        }
+        return TransactionStatus.fromGatewayStatus(response.getData().getSessionInfo().getStatus());
+    }
+
+    /**
+     * Status tracking must never fail a payment, so store errors are only logged. A reused
+     * merchantTransactionId is the exception: it is rejected before the gateway is called.
+     */
+    private void trackCreated(PaymentSessionRequest request) {
+        try {
+            transactionStatusService.recordCreated(request);
+        } catch (DuplicateTransactionException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("Failed to record transaction {}", request.getMerchantTransactionId(), e);
+        }
+    }
+
+    private void trackTransition(String merchantTransactionId, TransactionStatus target, String sessionId) {
+        try {
+            transactionStatusService.transition(merchantTransactionId, target, sessionId);
+        } catch (Exception e) {
+            log.error("Failed to move transaction {} to {}", merchantTransactionId, target, e);
+        }
+    }
+
+    private void journal(JournalRecordType type, String merchantTransactionId, Object payload) {
+        try {
+            journal.append(type, merchantTransactionId, objectMapper.writeValueAsBytes(payload));
+        } catch (Exception e) {
+            log.error("Failed to journal {} for {}", type, merchantTransactionId, e);
+        }
+    }
+
+    /** Journals the gateway's error body as received, so an unparseable one is not lost. */
+    private void journalUpstreamError(FeignException ex, String merchantTransactionId) {
+        try {
+            byte[] body = ex.responseBody().map(buffer -> {
+                byte[] bytes = new byte[buffer.remaining()];
+                buffer.duplicate().get(bytes);
+                return bytes;
+            }).orElse(new byte[0]);
+            journal.append(JournalRecordType.UPSTREAM_RESPONSE, merchantTransactionId, body);
+        } catch (Exception e) {
+            log.error("Failed to journal {} for {}", JournalRecordType.UPSTREAM_RESPONSE, merchantTransactionId, e);
+        }
+    }
+
     private String getOrGenerateMerchantTransactionId(PaymentSessionRequest request) {
         String merchantTransactionId = request.getMerchantTransactionId();
         if (merchantTransactionId == null || merchantTransactionId.trim().isEmpty()) {
-            merchantTransactionId = redisUniqueIdService.generateUniqueTransactionId(request.getMerchantName());
+            try (RequestTimings.Scope ignored = RequestTimings.time(TimingPhase.ID_GENERATION)) {
+                merchantTransactionId = redisUniqueIdService.generateUniqueTransactionId(request.getMerchantName());
+            }
             log.info("Generated MerchantTransactionId using RedisUniqueIdService: {}", merchantTransactionId);
             request.setMerchantTransactionId(merchantTransactionId);
         }
         return merchantTransactionId;
     }
 
-    private SessionRequest mapToSessionRequest(PaymentSessionRequest request, String merchantTransactionId) {
+    /**
+     * Package-private, like {@link #parseGatewayResponse}, so the JMH suites and
+     * {@link PaymentGatewayWarmup} can call it directly.
+     */
+    SessionRequest mapToSessionRequest(PaymentSessionRequest request, Money amount, String merchantTransactionId) {
         return SessionRequest.builder()
-                .amount(SessionRequest.Amount.builder()
-                        .amountInCents(request.getAmountInCents())
-                        .currency(request.getCurrency())
-                        .build())
+                .amount(SessionRequest.Amount.of(amount))
                 .merchant(SessionRequest.Merchant.builder()
                         .name(request.getMerchantName())
                         .build())
@@ -91,8 +230,11 @@ public class PaymentGatewayServiceImpl implements PaymentGatewayService {
     }
 
     private String validateToken() {
-        tokenHandler.ensureValidToken();
-        String token = tokenHandler.getToken();
+        String token;
+        try (RequestTimings.Scope ignored = RequestTimings.time(TimingPhase.TOKEN)) {
+            tokenHandler.ensureValidToken();
+            token = tokenHandler.getToken();
+        }
         if (token == null) {
             throw new PaymentGatewayException("Failed to retrieve a valid token.");
         }
@@ -103,7 +245,7 @@ public class PaymentGatewayServiceImpl implements PaymentGatewayService {
         return "Bearer " + token;
     }
 
-    private SessionResponse parseGatewayResponse(Map<String, Object> responseMap) {
+    SessionResponse parseGatewayResponse(Map<String, Object> responseMap) {
         SessionResponse gatewayResponse = objectMapper.convertValue(responseMap, SessionResponse.class);
         if (gatewayResponse.getError() != null) {
             log.error("Error from payment gateway: {}", gatewayResponse.getError().getMessage());
@@ -123,40 +265,86 @@ public class PaymentGatewayServiceImpl implements PaymentGatewayService {
         return paymentPageBaseUrl + "/" + sessionId;
     }
 
-    private PaymentSessionResponse preparePaymentSessionResponse(String sessionId, String paymentPageUrl, String status, PaymentSessionRequest request) {
+    private PaymentSessionResponse preparePaymentSessionResponse(String sessionId, String paymentPageUrl, String status, PaymentSessionRequest request, Money amount) {
         return PaymentSessionResponse.builder()
                 .sessionId(sessionId)
                 .paymentUrl(paymentPageUrl)
                 .status(status)
                 .merchantTransactionId(request.getMerchantTransactionId())
-                .amount(PaymentSessionResponse.PaymentAmount.builder()
-                        .amountInCents(request.getAmountInCents())
-                        .currency(request.getCurrency())
-                        .build())
+                .amount(PaymentSessionResponse.PaymentAmount.of(amount))
                 .build();
     }
 
-    private void handleBadRequest(FeignException.BadRequest ex) {
+    /**
+     * The gateway answers an identical request the same way while a permanent rejection is
+     * cached, so it is not asked again.
+     */
+    private void rejectIfKnownToFail(RejectionKey rejectionKey) {
+        if (!rejectionProperties.isEnabled()) {
+            return;
+        }
+        UpstreamRejection rejection = upstreamRejectionCache.getIfPresent(rejectionKey);
+        if (rejection != null) {
+            log.info("Rejecting session for {} from the rejection cache: {}", rejectionKey.merchantName(), rejection.code());
+            throw new UpstreamRejectedException(rejection.code(), rejection.message());
+        }
+    }
+
+    private void handleBadRequest(UpstreamValidationException ex, RejectionKey rejectionKey) {
         log.error("Bad Request error during session creation. Response Body: {}", ex.contentUTF8());
-        throw new PaymentGatewayException("Invalid request: " + extractErrorMessage(ex), ex, 400);
+        UpstreamRejection rejection = ex.getError() != null && ex.getError().message() != null
+                ? ex.getError()
+                : new UpstreamRejection(ex.getError() == null ? null : ex.getError().code(),
+                        ex.getError() == null ? null : ex.getError().statusCode(), "An unknown error occurred.");
+        if (isPermanent(rejection)) {
+            if (rejectionProperties.isEnabled()) {
+                upstreamRejectionCache.put(rejectionKey, rejection);
+            }
+            throw new UpstreamRejectedException(rejection.code(), rejection.message());
+        }
+        throw new PaymentGatewayException("Invalid request: " + rejection.message(), ex, ex.status());
     }
 
-    private void handleUnexpectedError(Exception e, String merchantTransactionId) {
-        log.error("Unexpected error while creating payment session for merchantTransactionId: {}", merchantTransactionId, e);
-        throw new PaymentGatewayException(PAYMENT_SESSION_FAILED, e, 500);
+    private boolean isPermanent(UpstreamRejection rejection) {
+        return (rejection.code() != null && rejectionProperties.getPermanentCodes().contains(rejection.code()))
+                || (rejection.statusCode() != null && rejectionProperties.getPermanentStatusCodes().contains(rejection.statusCode()));
     }
 
-    private String extractErrorMessage(FeignException.BadRequest ex) {
-        try {
-            Map<String, Object> response = objectMapper.readValue(ex.contentUTF8(), Map.class);
-            if (response.containsKey("error")) {
-                Map<String, Object> error = (Map<String, Object>) response.get("error");
-                return error.containsKey("message") ? error.get("message").toString() : "Unknown error";
-            }
-        } catch (Exception parseException) {
-            log.warn("Failed to parse error message from response: {}", ex.contentUTF8(), parseException);
+    /**
+     * The gateway answered, so the outcome is known and a stack trace adds nothing. Overload and
+     * timeouts are passed on as 503 and 504 with a Retry-After; refused credentials and other
+     * gateway faults as 502, since the merchant cannot fix them by changing the request.
+     */
+    private void handleUpstreamFailure(UpstreamFailure failure, String merchantTransactionId) {
+        UpstreamRejection error = failure.getError();
+        log.warn("Gateway failed session for merchantTransactionId {} with {}: {} {}", merchantTransactionId,
+                failure.status(), error == null ? null : error.code(), error == null ? null : error.message());
+        HttpStatus status = HttpStatus.BAD_GATEWAY;
+        Long retryAfterSeconds = null;
+        if (failure instanceof UpstreamTransientException transientFailure) {
+            status = failure.status() == 408 || failure.status() == 504 ? HttpStatus.GATEWAY_TIMEOUT : HttpStatus.SERVICE_UNAVAILABLE;
+            retryAfterSeconds = retryAfterSeconds(transientFailure.retryAfter());
+        }
+        String message = error == null || error.message() == null
+                ? PAYMENT_SESSION_FAILED
+                : PAYMENT_SESSION_FAILED + ": " + error.message();
+        throw new UpstreamUnavailableException(message, status, error, retryAfterSeconds);
+    }
+
+    /**
+     * @param retryAfter epoch millis from the gateway's Retry-After, or null when it sent none
+     */
+    private static long retryAfterSeconds(Long retryAfter) {
+        if (retryAfter == null) {
+            return DEFAULT_RETRY_AFTER_SECONDS;
         }
-        return "An unknown error occurred.";
+        long remainingMillis = retryAfter - System.currentTimeMillis();
+        return Math.max(1, (remainingMillis + 999) / 1000);
+    }
+
+    private void handleUnexpectedError(Exception e, String merchantTransactionId) {
+        log.error("Unexpected error while creating payment session for merchantTransactionId: {}", merchantTransactionId, e);
+        throw new PaymentGatewayException(PAYMENT_SESSION_FAILED, e, 500);
     }
 }
 
@@ -0,0 +1,138 @@
+package co.zw.telone.paymentgateway.service.impl;
+
+import co.zw.telone.paymentgateway.config.InterceptorTokenRefreshHandler;
+import co.zw.telone.paymentgateway.config.WarmupProperties;
+import co.zw.telone.paymentgateway.model.CurrencyCode;
+import co.zw.telone.paymentgateway.model.Money;
+import co.zw.telone.paymentgateway.model.TransactionRecord;
+import co.zw.telone.paymentgateway.model.TransactionStatus;
+import co.zw.telone.paymentgateway.response.ApiResponse;
+import co.zw.telone.paymentgateway.response.PaymentSessionRequest;
+import co.zw.telone.paymentgateway.response.PaymentSessionResponse;
+import co.zw.telone.paymentgateway.response.SessionRequest;
+import co.zw.telone.paymentgateway.response.SessionResponse;
+import co.zw.telone.paymentgateway.response.TransactionStatusResponse;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Pays the first-request costs before the readiness probe turns green. Spring Boot reports
+ * the application ready only after its runners return, so traffic waits for this one.
+ * <p>
+ * The token is fetched through the Feign interceptor's handler, which also opens the TLS
+ * connection to the gateway, and Redis is pinged to open its connection. Meanwhile the
+ * session mapping, request validation and JSON paths are run against a canned gateway
+ * response so Jackson has introspected the types and the JIT has compiled the hot methods.
+ * Nothing is sent to the gateway beyond the token request, and failures are only logged:
+ * a pod that cannot warm up serves cold rather than not at all.
+ */
+@Component
+@ConditionalOnProperty(prefix = "payment.warmup", name = "enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class PaymentGatewayWarmup implements ApplicationRunner {
+
+    private static final String CANNED_RESPONSE = """
+            {"data":{"id":"00000000000000000000000000000000","token":"warmup","sessionInfo":{
+              "amount":{"amountInCents":"12550","currency":"USD"},"merchant":{"name":"WARMUP"},
+              "paymentType":"PURCHASE","merchantTransactionId":"WARMUP01",
+              "description":"Warm-up","status":"PENDING",
+              "returnUrl":"https://warmup.invalid/return"}}}
+            """;
+    private static final String CANNED_REQUEST = """
+            {"amountInCents":"12550","currency":"USD","merchantName":"WARMUP",
+             "merchantTransactionId":"WARMUP01","description":"Warm-up",
+             "returnUrl":"https://warmup.invalid/return"}
+            """;
+
+    private final WarmupProperties properties;
+    private final InterceptorTokenRefreshHandler tokenHandler;
+    private final StringRedisTemplate redisTemplate;
+    private final PaymentGatewayServiceImpl paymentGatewayService;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    @Override
+    public void run(ApplicationArguments args) throws InterruptedException {
+        long start = System.nanoTime();
+        long deadline = start + properties.getBudget().toNanos();
+        ExecutorService connections = Executors.newFixedThreadPool(2,
+                Thread.ofPlatform().name("warmup-", 0).daemon().factory());
+        try {
+            Future<?> token = connections.submit(tokenHandler::ensureValidToken);
+            Future<?> redis = connections.submit(() -> redisTemplate.execute((RedisCallback<String>) RedisConnection::ping));
+            int iterations = exerciseMapping(deadline);
+            log.info("Warm-up finished in {} ms: token {}, redis {}, {} mapping passes",
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+                    await(token, deadline), await(redis, deadline), iterations);
+        } finally {
+            connections.shutdownNow();
+        }
+    }
+
+    private int exerciseMapping(long deadline) {
+        int iteration = 0;
+        try {
+            Map<String, Object> upstreamResponse = objectMapper.readValue(CANNED_RESPONSE, new TypeReference<>() {
+            });
+            for (; iteration < properties.getIterations() && System.nanoTime() < deadline; iteration++) {
+                PaymentSessionRequest request = objectMapper.readValue(CANNED_REQUEST, PaymentSessionRequest.class);
+                validator.validate(request);
+                Money amount = request.getAmount();
+                SessionRequest sessionRequest = paymentGatewayService.mapToSessionRequest(request, amount,
+                        request.getMerchantTransactionId());
+                objectMapper.writeValueAsBytes(sessionRequest);
+                SessionResponse sessionResponse = paymentGatewayService.parseGatewayResponse(upstreamResponse);
+                PaymentSessionResponse response = PaymentSessionResponse.builder()
+                        .sessionId(sessionResponse.getData().getId())
+                        .paymentUrl("https://warmup.invalid/" + sessionResponse.getData().getId())
+                        .status(sessionResponse.getData().getSessionInfo().getStatus())
+                        .merchantTransactionId(request.getMerchantTransactionId())
+                        .amount(PaymentSessionResponse.PaymentAmount.of(amount))
+                        .build();
+                objectMapper.writeValueAsBytes(new ApiResponse<>(HttpStatus.OK, "warm-up", response));
+                objectMapper.writeValueAsBytes(TransactionStatusResponse.from(TransactionRecord.builder()
+                        .merchantTransactionId(request.getMerchantTransactionId())
+                        .status(TransactionStatus.PENDING)
+                        .merchantName(request.getMerchantName())
+                        .amount(Money.of(12_550, CurrencyCode.USD))
+                        .build()));
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Warm-up of the mapping paths stopped after {} passes", iteration, e);
+        }
+        return iteration;
+    }
+
+    private static String await(Future<?> step, long deadline) throws InterruptedException {
+        try {
+            step.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            return "ready";
+        } catch (TimeoutException e) {
+            return "still pending when the budget ran out";
+        } catch (ExecutionException e) {
+            log.warn("Warm-up step failed", e.getCause());
+            return "failed";
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package co.zw.telone.paymentgateway.service.impl;
+
+import co.zw.telone.paymentgateway.config.ReconciliationProperties;
+import co.zw.telone.paymentgateway.exception.BadRequestException;
+import co.zw.telone.paymentgateway.ledger.LedgerRepository;
+import co.zw.telone.paymentgateway.reconciliation.IssuedTransactions;
+import co.zw.telone.paymentgateway.reconciliation.ReconciliationResult;
+import co.zw.telone.paymentgateway.reconciliation.SettlementReconciler;
+import co.zw.telone.paymentgateway.response.ReconciliationSummary;
+import co.zw.telone.paymentgateway.service.ReconciliationService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Reconciles a day's settlement file against the transactions the ledger shows as completed
+ * that day. The upload is spooled to disk next to the reports so the run can be repeated and
+ * audited, then matched by {@link SettlementReconciler} on a dedicated fork/join pool.
+ */
+@Service
+@Slf4j
+public class ReconciliationServiceImpl implements ReconciliationService, DisposableBean {
+
+    private static final String SETTLEMENT_FILE = "settlement.csv";
+
+    private final LedgerRepository ledgerRepository;
+    private final ReconciliationProperties properties;
+    private final ForkJoinPool pool;
+    private final SettlementReconciler reconciler;
+
+    public ReconciliationServiceImpl(LedgerRepository ledgerRepository, ReconciliationProperties properties) {
+        this.ledgerRepository = ledgerRepository;
+        this.properties = properties;
+        this.pool = new ForkJoinPool(Math.max(1, properties.getParallelism()));
+        this.reconciler = new SettlementReconciler(pool, (int) properties.getSplitSize().toBytes(),
+                properties.getIdColumn(), properties.getAmountColumn());
+    }
+
+    @Override
+    public ReconciliationSummary reconcile(LocalDate settlementDate, String merchantName,
+                                           InputStream settlementCsv) throws IOException {
+        long start = System.nanoTime();
+        Path runDirectory = properties.getReportDirectory()
+                .resolve(settlementDate + "-" + System.currentTimeMillis());
+        Files.createDirectories(runDirectory);
+        Path settlementFile = runDirectory.resolve(SETTLEMENT_FILE);
+        Files.copy(settlementCsv, settlementFile);
+
+        IssuedTransactions.Builder builder = IssuedTransactions.builder();
+        ledgerRepository.streamCompleted(settlementDate, merchantName, builder::add);
+        IssuedTransactions issued = builder.build();
+
+        ReconciliationResult result;
+        try {
+            result = reconciler.reconcile(settlementFile, issued);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+        result.writeReports(runDirectory);
+
+        ReconciliationSummary summary = ReconciliationSummary.builder()
+                .settlementDate(settlementDate)
+                .merchantName(merchantName)
+                .issued(issued.size())
+                .settlementRows(result.getSettlementRows())
+                .matched(result.getMatched())
+                .missing(result.getMissing())
+                .extra(result.getExtra().size())
+                .amountMismatches(result.getMismatches().size())
+                .malformedRows(result.getMalformed())
+                .durationMillis((System.nanoTime() - start) / 1_000_000)
+                .reportDirectory(runDirectory.toString())
+                .build();
+        log.info("Reconciled {} settlement rows for {}: {} matched, {} missing, {} extra, {} amount mismatches in {} ms",
+                summary.getSettlementRows(), settlementDate, summary.getMatched(), summary.getMissing(),
+                summary.getExtra(), summary.getAmountMismatches(), summary.getDurationMillis());
+        return summary;
+    }
+
+    @Override
+    public void destroy() {
+        pool.shutdown();
+    }
+}
@@ -1,9 +1,10 @@
 package co.zw.telone.paymentgateway.service.impl;
 
 
-
-import lombok.RequiredArgsConstructor;
-import org.springframework.beans.factory.annotation.Autowired;
+import co.zw.telone.paymentgateway.jfr.TransactionIdEvent;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Service;
 
@@ -12,13 +13,27 @@ import java.util.Date;
 import java.util.concurrent.TimeUnit;
 
 @Service
-@RequiredArgsConstructor(onConstructor_ = {@Autowired})
 public class RedisUniqueIdService {
 
 
     private final StringRedisTemplate redisTemplate;
+    private final Timer generateTimer;
+    private final DistributionSummary probes;
+
+    public RedisUniqueIdService(StringRedisTemplate redisTemplate, MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.generateTimer = Timer.builder("payment.transaction.id.generate")
+                .description("Time to reserve a unique merchant transaction id")
+                .register(meterRegistry);
+        this.probes = DistributionSummary.builder("payment.transaction.id.probes")
+                .description("Redis SETNX attempts needed to reserve one transaction id")
+                .register(meterRegistry);
+    }
 
     public String generateUniqueTransactionId(String merchantName) {
+        long start = System.nanoTime();
+        TransactionIdEvent event = new TransactionIdEvent();
+        event.begin();
         String firstLetter = merchantName != null && !merchantName.trim().isEmpty()
                 ? merchantName.substring(0, 1).toUpperCase()
                 : "X";
@@ -33,8 +48,15 @@ public class RedisUniqueIdService {
 
             if (Boolean.TRUE.equals(isNew)) {
                 // ID is unique, return it
+                probes.record(i);
+                generateTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                if (event.shouldCommit()) {
+                    event.prefix = firstLetter + date;
+                    event.probes = i;
+                    event.commit();
+                }
                 return transactionId;
             }
         }
     }
-}
\ No newline at end of file
+}
@@ -7,8 +7,10 @@ import co.zw.telone.paymentgateway.exception.GeneralTokenException;
 import co.zw.telone.paymentgateway.exception.InvalidCredentialsException;
 import co.zw.telone.paymentgateway.exception.PaymentGatewayConnectionException;
 import co.zw.telone.paymentgateway.exception.TokenNotFoundException;
+import co.zw.telone.paymentgateway.exception.UpstreamAuthException;
 import co.zw.telone.paymentgateway.service.TokenService;
 import feign.FeignException;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -24,6 +26,7 @@ import java.util.concurrent.ConcurrentHashMap;
 public class TokenServiceImpl implements TokenService {
 
     private final TokenApiClient tokenApiClient;
+    private final MeterRegistry meterRegistry;
 
     @Value("${payment.gateway.client-id}")
     private String clientId;
@@ -52,6 +55,7 @@ public class TokenServiceImpl implements TokenService {
                 .password(clientSecret)
                 .build();
 
+        String outcome = "failure";
         try {
             Map<String, Object> response = tokenApiClient.getToken(request);
 
@@ -61,6 +65,7 @@ public class TokenServiceImpl implements TokenService {
             if (token.isPresent()) {
                 String authToken = token.get();
                 tokenCache.put("authToken", authToken); // Cache the token
+                outcome = "success";
                 log.info("Successfully fetched and cached token.");
                 return new TokenResponse(authToken);
             }
@@ -68,8 +73,8 @@ public class TokenServiceImpl implements TokenService {
             log.error("Unable to extract token from response: {}", response);
             throw new TokenNotFoundException("Token not found in response");
 
-        } catch (FeignException.Forbidden e) {
-            log.error("Authentication failed with status 403: {}", e.getMessage());
+        } catch (UpstreamAuthException e) {
+            log.error("Authentication failed with status {}: {}", e.status(), e.getMessage());
             throw new InvalidCredentialsException("Invalid credentials", e);
         } catch (FeignException e) {
             log.error("Failed to get token: {} - {}", e.status(), e.getMessage());
@@ -77,6 +82,8 @@ public class TokenServiceImpl implements TokenService {
         } catch (Exception e) {
             log.error("Unexpected error while getting token", e);
             throw new GeneralTokenException("An unexpected error occurred", e);
+        } finally {
+            meterRegistry.counter("payment.token.refreshes", "outcome", outcome).increment();
         }
     }
 
@@ -0,0 +1,175 @@
+package co.zw.telone.paymentgateway.service.impl;
+
+import co.zw.telone.paymentgateway.exception.BadRequestException;
+import co.zw.telone.paymentgateway.model.TransactionRecord;
+import co.zw.telone.paymentgateway.response.TransactionStatusResponse;
+import co.zw.telone.paymentgateway.service.TransactionStatusBatchService;
+import co.zw.telone.paymentgateway.service.TransactionStatusService;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resolves arbitrarily large lists of merchantTransactionIds without holding them in memory:
+ * ids are read from the request one chunk at a time, resolved, and written out as NDJSON
+ * before the next chunk is read.
+ * <p>
+ * The first chunk is read before the response starts, so a body that goes wrong early, which is
+ * every body of up to one chunk, is still rejected with a 400. Once results are streaming the
+ * status can no longer change; a body that goes wrong later ends the stream with a
+ * {@code MALFORMED_REQUEST} line, never with a silently shortened one.
+ */
+@Service
+@Slf4j
+public class TransactionStatusBatchServiceImpl implements TransactionStatusBatchService {
+
+    private static final String IDS_FIELD = "merchantTransactionIds";
+    private static final String NOT_FOUND = "NOT_FOUND";
+    private static final String MALFORMED_REQUEST = "MALFORMED_REQUEST";
+
+    private final TransactionStatusService transactionStatusService;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter statusWriter;
+    private final int chunkSize;
+
+    public TransactionStatusBatchServiceImpl(TransactionStatusService transactionStatusService,
+                                             ObjectMapper objectMapper,
+                                             @Value("${payment.transactions.batch.chunk-size:500}") int chunkSize) {
+        this.transactionStatusService = transactionStatusService;
+        this.objectMapper = objectMapper;
+        this.statusWriter = objectMapper.writerFor(TransactionStatusResponse.class);
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Validates the shape of the request body and reads the first chunk of ids up front, so
+     * malformed requests still get a 400, and returns a body that writes one JSON object per id,
+     * in request order.
+     * Accepts either a bare JSON array of ids or an object with a "merchantTransactionIds" array.
+     */
+    @Override
+    public StreamingResponseBody prepareStatusStream(InputStream requestBody) throws IOException {
+        JsonParser parser = objectMapper.getFactory().createParser(requestBody);
+        List<String> firstChunk = new ArrayList<>(chunkSize);
+        boolean complete;
+        try {
+            positionAtIdArray(parser);
+            complete = readChunk(parser, firstChunk);
+        } catch (JsonProcessingException e) {
+            parser.close();
+            throw new BadRequestException("Malformed batch request body", e, HttpStatus.BAD_REQUEST);
+        } catch (IOException | RuntimeException e) {
+            parser.close();
+            throw e;
+        }
+        return output -> streamStatuses(parser, firstChunk, complete, output);
+    }
+
+    private void streamStatuses(JsonParser parser, List<String> chunk, boolean complete, OutputStream output)
+            throws IOException {
+        try (parser; JsonGenerator generator = objectMapper.getFactory().createGenerator(output, JsonEncoding.UTF8)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+
+            int total = writeChunk(chunk, generator);
+            while (!complete) {
+                chunk.clear();
+                try {
+                    complete = readChunk(parser, chunk);
+                } catch (JsonProcessingException | BadRequestException e) {
+                    // Resolve what was read before the bad token, then say why the stream ends here.
+                    total += writeChunk(chunk, generator);
+                    log.warn("Ending batch status stream after {} ids: {}", total, e.getMessage());
+                    writeMalformedRequest(total, generator);
+                    return;
+                }
+                total += writeChunk(chunk, generator);
+            }
+            log.debug("Streamed statuses for {} transactions", total);
+        }
+    }
+
+    /**
+     * Reads ids into {@code chunk} until it is full or the array ends.
+     *
+     * @return true once the end of the id array has been read
+     */
+    private boolean readChunk(JsonParser parser, List<String> chunk) throws IOException {
+        while (chunk.size() < chunkSize) {
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.END_ARRAY) {
+                return true;
+            }
+            if (token != JsonToken.VALUE_STRING) {
+                throw new BadRequestException("merchantTransactionIds must be strings, found " + token,
+                        HttpStatus.BAD_REQUEST);
+            }
+            chunk.add(parser.getText());
+        }
+        return false;
+    }
+
+    private void positionAtIdArray(JsonParser parser) throws IOException {
+        JsonToken first = parser.nextToken();
+        if (first == JsonToken.START_ARRAY) {
+            return;
+        }
+        if (first == JsonToken.START_OBJECT) {
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (IDS_FIELD.equals(field) && value == JsonToken.START_ARRAY) {
+                    return;
+                }
+                parser.skipChildren();
+            }
+        }
+        throw new BadRequestException("Request body must be an array of merchantTransactionIds", HttpStatus.BAD_REQUEST);
+    }
+
+    private int writeChunk(List<String> ids, JsonGenerator generator) throws IOException {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        Map<String, TransactionRecord> records = transactionStatusService.getStatuses(ids);
+        for (String id : ids) {
+            TransactionRecord record = records.get(id);
+            if (record != null) {
+                statusWriter.writeValue(generator, TransactionStatusResponse.from(record));
+            } else {
+                generator.writeStartObject();
+                generator.writeStringField("merchantTransactionId", id);
+                generator.writeStringField("error", NOT_FOUND);
+                generator.writeEndObject();
+            }
+            generator.writeRaw('\n');
+        }
+        generator.flush();
+        return ids.size();
+    }
+
+    private static void writeMalformedRequest(int processed, JsonGenerator generator) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("error", MALFORMED_REQUEST);
+        generator.writeNumberField("processed", processed);
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+        generator.flush();
+    }
+}
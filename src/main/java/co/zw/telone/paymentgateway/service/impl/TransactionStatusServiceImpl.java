@@ -0,0 +1,410 @@
+package co.zw.telone.paymentgateway.service.impl;
+
+import co.zw.telone.paymentgateway.event.TransactionStatusChangedEvent;
+import co.zw.telone.paymentgateway.exception.DuplicateTransactionException;
+import co.zw.telone.paymentgateway.exception.InvalidStatusTransitionException;
+import co.zw.telone.paymentgateway.exception.TransactionNotFoundException;
+import co.zw.telone.paymentgateway.model.Money;
+import co.zw.telone.paymentgateway.model.TransactionRecord;
+import co.zw.telone.paymentgateway.model.TransactionStatus;
+import co.zw.telone.paymentgateway.response.PaymentSessionRequest;
+import co.zw.telone.paymentgateway.response.TransactionStatusResponse;
+import co.zw.telone.paymentgateway.service.TransactionStatusService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.github.benmanes.caffeine.cache.Cache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static co.zw.telone.paymentgateway.util.PaymentGatewayConstants.EVENT_SEQUENCE_KEY;
+import static co.zw.telone.paymentgateway.util.PaymentGatewayConstants.SESSION_INDEX_KEY_PREFIX;
+import static co.zw.telone.paymentgateway.util.PaymentGatewayConstants.TRANSACTION_KEY_PREFIX;
+import static co.zw.telone.paymentgateway.util.PaymentGatewayConstants.TRANSACTION_STATUS_CHANNEL;
+
+@Service
+@Slf4j
+public class TransactionStatusServiceImpl implements TransactionStatusService {
+
+    static final String FIELD_MERCHANT_TRANSACTION_ID = "merchantTransactionId";
+    static final String FIELD_SESSION_ID = "sessionId";
+    static final String FIELD_STATUS = "status";
+    static final String FIELD_MERCHANT_NAME = "merchantName";
+    static final String FIELD_AMOUNT_IN_CENTS = "amountInCents";
+    static final String FIELD_CURRENCY = "currency";
+    static final String FIELD_CREATED_AT = "createdAt";
+    static final String FIELD_UPDATED_AT = "updatedAt";
+    static final String FIELD_VERSION = "version";
+
+    private static final int MAX_TRANSITION_ATTEMPTS = 3;
+    private static final int RESTORE_BATCH_SIZE = 1000;
+
+    private static final String[] HASH_FIELDS = {
+            FIELD_MERCHANT_TRANSACTION_ID, FIELD_SESSION_ID, FIELD_STATUS, FIELD_MERCHANT_NAME,
+            FIELD_AMOUNT_IN_CENTS, FIELD_CURRENCY, FIELD_CREATED_AT, FIELD_UPDATED_AT, FIELD_VERSION
+    };
+    private static final byte[][] HASH_FIELD_BYTES = toBytes(HASH_FIELDS);
+
+    /**
+     * Compare-and-set of the status field. Returns the new version, -1 when the
+     * transaction does not exist and -2 when the status changed underneath us.
+     */
+    private static final RedisScript<Long> TRANSITION_SCRIPT = new DefaultRedisScript<>("""
+            local current = redis.call('HGET', KEYS[1], 'status')
+            if not current then return -1 end
+            if current ~= ARGV[1] then return -2 end
+            redis.call('HSET', KEYS[1], 'status', ARGV[2], 'updatedAt', ARGV[3])
+            if ARGV[5] ~= '' then
+                redis.call('HSET', KEYS[1], 'sessionId', ARGV[5])
+                redis.call('SET', KEYS[2], redis.call('HGET', KEYS[1], 'merchantTransactionId'), 'PX', ARGV[4])
+            end
+            redis.call('PEXPIRE', KEYS[1], ARGV[4])
+            return redis.call('HINCRBY', KEYS[1], 'version', 1)
+            """, Long.class);
+
+    /**
+     * Writes a whole transaction unless it already exists, so neither a reused id nor a restored
+     * copy overwrites newer state. Returns 1 when written, 0 when skipped.
+     */
+    private static final RedisScript<Long> CREATE_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('EXISTS', KEYS[1]) == 1 then return 0 end
+            redis.call('HSET', KEYS[1], unpack(ARGV, 3))
+            redis.call('PEXPIRE', KEYS[1], ARGV[1])
+            if ARGV[2] ~= '' then
+                redis.call('SET', KEYS[2], redis.call('HGET', KEYS[1], 'merchantTransactionId'), 'PX', ARGV[1])
+            end
+            return 1
+            """, Long.class);
+
+    /**
+     * Broadcasts a status change as "eventId|json". The event id comes from a global sequence
+     * so that stream consumers can resume from the last id they saw.
+     */
+    private static final RedisScript<Long> PUBLISH_SCRIPT = new DefaultRedisScript<>("""
+            local eventId = redis.call('INCR', KEYS[1])
+            redis.call('PUBLISH', ARGV[1], eventId .. '|' .. ARGV[2])
+            return eventId
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final Cache<String, TransactionRecord> nearCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectWriter statusWriter;
+    private final Duration ttl;
+
+    public TransactionStatusServiceImpl(StringRedisTemplate redisTemplate,
+                                        Cache<String, TransactionRecord> transactionStatusCache,
+                                        ApplicationEventPublisher eventPublisher,
+                                        ObjectMapper objectMapper,
+                                        @Value("${payment.transactions.ttl:7d}") Duration ttl) {
+        this.redisTemplate = redisTemplate;
+        this.nearCache = transactionStatusCache;
+        this.eventPublisher = eventPublisher;
+        this.statusWriter = objectMapper.writerFor(TransactionStatusResponse.class);
+        this.ttl = ttl;
+    }
+
+    @Override
+    public TransactionRecord recordCreated(PaymentSessionRequest request) {
+        long now = System.currentTimeMillis();
+        TransactionRecord record = TransactionRecord.builder()
+                .merchantTransactionId(request.getMerchantTransactionId())
+                .status(TransactionStatus.CREATED)
+                .merchantName(request.getMerchantName())
+                .amount(request.getAmount())
+                .createdAt(now)
+                .updatedAt(now)
+                .version(0)
+                .build();
+
+        if (!createIfAbsent(record, ttl.toMillis())) {
+            throw new DuplicateTransactionException(record.getMerchantTransactionId());
+        }
+        onStatusChanged(record, null);
+
+        log.debug("Recorded transaction {} as {}", record.getMerchantTransactionId(), record.getStatus());
+        return record;
+    }
+
+    @Override
+    public TransactionRecord transition(String merchantTransactionId, TransactionStatus target, String sessionId) {
+        for (int attempt = 0; attempt < MAX_TRANSITION_ATTEMPTS; attempt++) {
+            TransactionRecord current = load(merchantTransactionId)
+                    .orElseThrow(() -> new TransactionNotFoundException(merchantTransactionId));
+
+            if (current.getStatus() == target) {
+                return current;
+            }
+            if (!current.getStatus().canTransitionTo(target)) {
+                throw new InvalidStatusTransitionException(merchantTransactionId, current.getStatus(), target);
+            }
+
+            long now = System.currentTimeMillis();
+            Long version = redisTemplate.execute(TRANSITION_SCRIPT,
+                    List.of(transactionKey(merchantTransactionId), SESSION_INDEX_KEY_PREFIX + (sessionId == null ? "" : sessionId)),
+                    current.getStatus().name(),
+                    target.name(),
+                    Long.toString(now),
+                    Long.toString(ttl.toMillis()),
+                    sessionId == null ? "" : sessionId);
+
+            if (version == null || version == -1L) {
+                throw new TransactionNotFoundException(merchantTransactionId);
+            }
+            if (version >= 0) {
+                TransactionRecord updated = current.toBuilder()
+                        .status(target)
+                        .sessionId(sessionId != null ? sessionId : current.getSessionId())
+                        .updatedAt(now)
+                        .version(version)
+                        .build();
+                onStatusChanged(updated, current.getStatus());
+                log.info("Transaction {} moved from {} to {}", merchantTransactionId, current.getStatus(), target);
+                return updated;
+            }
+            log.debug("Concurrent status update on {}; retrying transition to {}", merchantTransactionId, target);
+        }
+        TransactionRecord latest = load(merchantTransactionId)
+                .orElseThrow(() -> new TransactionNotFoundException(merchantTransactionId));
+        throw new InvalidStatusTransitionException(merchantTransactionId, latest.getStatus(), target);
+    }
+
+    /**
+     * Runs the create script for every record in pipelined rounds of {@value #RESTORE_BATCH_SIZE},
+     * so a replay of many transactions costs a few round trips rather than one per transaction.
+     */
+    @Override
+    public List<TransactionRecord> restoreAll(Collection<TransactionRecord> records) {
+        // Keep the expiry each record would have had if it had never been lost.
+        long now = System.currentTimeMillis();
+        List<TransactionRecord> live = records.stream()
+                .filter(record -> restoreTtlMillis(record, now) > 0)
+                .toList();
+        if (live.isEmpty()) {
+            return List.of();
+        }
+
+        // EVALSHA inside a pipeline cannot fall back to EVAL, so load the script first.
+        byte[] sha = CREATE_SCRIPT.getSha1().getBytes(StandardCharsets.UTF_8);
+        redisTemplate.execute((RedisCallback<String>) connection -> connection.scriptingCommands()
+                .scriptLoad(CREATE_SCRIPT.getScriptAsString().getBytes(StandardCharsets.UTF_8)));
+
+        List<TransactionRecord> restored = new ArrayList<>();
+        for (int from = 0; from < live.size(); from += RESTORE_BATCH_SIZE) {
+            List<TransactionRecord> batch = live.subList(from, Math.min(from + RESTORE_BATCH_SIZE, live.size()));
+            List<Object> replies = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (TransactionRecord record : batch) {
+                    connection.scriptingCommands().evalSha(sha, ReturnType.INTEGER, 2,
+                            toBytes(createKeysAndArgs(record, restoreTtlMillis(record, now)).toArray(String[]::new)));
+                }
+                return null;
+            });
+            for (int i = 0; i < batch.size(); i++) {
+                if (Long.valueOf(1L).equals(replies.get(i))) {
+                    restored.add(batch.get(i));
+                    nearCache.invalidate(batch.get(i).getMerchantTransactionId());
+                }
+            }
+        }
+        return restored;
+    }
+
+    private long restoreTtlMillis(TransactionRecord record, long now) {
+        return record.getUpdatedAt() + ttl.toMillis() - now;
+    }
+
+    private boolean createIfAbsent(TransactionRecord record, long ttlMillis) {
+        List<String> keysAndArgs = createKeysAndArgs(record, ttlMillis);
+        Long written = redisTemplate.execute(CREATE_SCRIPT, keysAndArgs.subList(0, 2),
+                keysAndArgs.subList(2, keysAndArgs.size()).toArray());
+        return written != null && written == 1L;
+    }
+
+    /** The two keys of {@link #CREATE_SCRIPT} followed by its arguments. */
+    private static List<String> createKeysAndArgs(TransactionRecord record, long ttlMillis) {
+        String sessionId = record.getSessionId() == null ? "" : record.getSessionId();
+        List<String> keysAndArgs = new ArrayList<>(HASH_FIELDS.length * 2 + 4);
+        keysAndArgs.add(transactionKey(record.getMerchantTransactionId()));
+        keysAndArgs.add(SESSION_INDEX_KEY_PREFIX + sessionId);
+        keysAndArgs.add(Long.toString(ttlMillis));
+        keysAndArgs.add(sessionId);
+        toHash(record).forEach((field, value) -> {
+            keysAndArgs.add(field);
+            keysAndArgs.add(value);
+        });
+        return keysAndArgs;
+    }
+
+    @Override
+    public TransactionRecord getStatus(String merchantTransactionId) {
+        TransactionRecord record = nearCache.get(merchantTransactionId, id -> load(id).orElse(null));
+        if (record == null) {
+            throw new TransactionNotFoundException(merchantTransactionId);
+        }
+        return record;
+    }
+
+    /**
+     * Resolves many transactions at once: near-cache first, then a single pipelined
+     * round of HMGETs for the misses. Missing transactions are absent from the result.
+     *
+     * @param merchantTransactionIds ids to resolve
+     * @return records keyed by id, in request order
+     */
+    @Override
+    public Map<String, TransactionRecord> getStatuses(List<String> merchantTransactionIds) {
+        Map<String, TransactionRecord> found = new HashMap<>(nearCache.getAllPresent(merchantTransactionIds));
+        List<String> misses = new ArrayList<>();
+        for (String id : merchantTransactionIds) {
+            if (!found.containsKey(id)) {
+                misses.add(id);
+            }
+        }
+
+        if (!misses.isEmpty()) {
+            List<Object> replies = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (String id : misses) {
+                    connection.hashCommands().hMGet(transactionKey(id).getBytes(StandardCharsets.UTF_8), HASH_FIELD_BYTES);
+                }
+                return null;
+            });
+
+            Map<String, TransactionRecord> loaded = new HashMap<>(misses.size() * 2);
+            for (int i = 0; i < misses.size(); i++) {
+                TransactionRecord record = fromFields((List<?>) replies.get(i));
+                if (record != null) {
+                    loaded.put(misses.get(i), record);
+                }
+            }
+            nearCache.putAll(loaded);
+            found.putAll(loaded);
+        }
+
+        Map<String, TransactionRecord> result = new LinkedHashMap<>(found.size() * 2);
+        for (String id : merchantTransactionIds) {
+            TransactionRecord record = found.get(id);
+            if (record != null) {
+                result.put(id, record);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Optional<TransactionRecord> findBySessionId(String sessionId) {
+        String merchantTransactionId = redisTemplate.opsForValue().get(SESSION_INDEX_KEY_PREFIX + sessionId);
+        if (merchantTransactionId == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(nearCache.get(merchantTransactionId, id -> load(id).orElse(null)));
+    }
+
+    /**
+     * Drops the local copy, tells every other node to do the same and notifies local listeners.
+     * The change is already committed, so a failed broadcast is only logged and never keeps it
+     * from the local listeners; other nodes then serve their cached copy until it expires.
+     */
+    private void onStatusChanged(TransactionRecord record, TransactionStatus previousStatus) {
+        nearCache.invalidate(record.getMerchantTransactionId());
+        try {
+            redisTemplate.execute(PUBLISH_SCRIPT, List.of(EVENT_SEQUENCE_KEY),
+                    TRANSACTION_STATUS_CHANNEL, statusWriter.writeValueAsString(TransactionStatusResponse.from(record)));
+        } catch (JsonProcessingException e) {
+            log.error("Failed to serialize status change for {}", record.getMerchantTransactionId(), e);
+        } catch (DataAccessException e) {
+            log.warn("Failed to broadcast status change for {}: {}", record.getMerchantTransactionId(), e.getMessage());
+        } finally {
+            eventPublisher.publishEvent(new TransactionStatusChangedEvent(record, previousStatus));
+        }
+    }
+
+    private Optional<TransactionRecord> load(String merchantTransactionId) {
+        Map<Object, Object> hash = redisTemplate.opsForHash().entries(transactionKey(merchantTransactionId));
+        return hash.isEmpty() ? Optional.empty() : Optional.of(fromHash(hash));
+    }
+
+    static String transactionKey(String merchantTransactionId) {
+        return TRANSACTION_KEY_PREFIX + merchantTransactionId;
+    }
+
+    private static Map<String, String> toHash(TransactionRecord record) {
+        Map<String, String> hash = new HashMap<>();
+        hash.put(FIELD_MERCHANT_TRANSACTION_ID, record.getMerchantTransactionId());
+        hash.put(FIELD_STATUS, record.getStatus().name());
+        putIfNotNull(hash, FIELD_SESSION_ID, record.getSessionId());
+        putIfNotNull(hash, FIELD_MERCHANT_NAME, record.getMerchantName());
+        if (record.getAmount() != null) {
+            hash.put(FIELD_AMOUNT_IN_CENTS, record.getAmount().centsString());
+            hash.put(FIELD_CURRENCY, record.getAmount().currency().name());
+        }
+        hash.put(FIELD_CREATED_AT, Long.toString(record.getCreatedAt()));
+        hash.put(FIELD_UPDATED_AT, Long.toString(record.getUpdatedAt()));
+        hash.put(FIELD_VERSION, Long.toString(record.getVersion()));
+        return hash;
+    }
+
+    static TransactionRecord fromHash(Map<Object, Object> hash) {
+        return TransactionRecord.builder()
+                .merchantTransactionId((String) hash.get(FIELD_MERCHANT_TRANSACTION_ID))
+                .sessionId((String) hash.get(FIELD_SESSION_ID))
+                .status(TransactionStatus.valueOf((String) hash.get(FIELD_STATUS)))
+                .merchantName((String) hash.get(FIELD_MERCHANT_NAME))
+                .amount(Money.parseStored((String) hash.get(FIELD_AMOUNT_IN_CENTS), (String) hash.get(FIELD_CURRENCY)))
+                .createdAt(parseLong(hash.get(FIELD_CREATED_AT)))
+                .updatedAt(parseLong(hash.get(FIELD_UPDATED_AT)))
+                .version(parseLong(hash.get(FIELD_VERSION)))
+                .build();
+    }
+
+    /**
+     * Builds a record from an HMGET reply ordered as {@link #HASH_FIELDS}.
+     */
+    private static TransactionRecord fromFields(List<?> values) {
+        if (values == null || values.get(2) == null) {
+            return null;
+        }
+        Map<Object, Object> hash = new HashMap<>(HASH_FIELDS.length * 2);
+        for (int i = 0; i < HASH_FIELDS.length; i++) {
+            if (values.get(i) != null) {
+                hash.put(HASH_FIELDS[i], values.get(i));
+            }
+        }
+        return fromHash(hash);
+    }
+
+    private static byte[][] toBytes(String[] fields) {
+        byte[][] bytes = new byte[fields.length][];
+        for (int i = 0; i < fields.length; i++) {
+            bytes[i] = fields[i].getBytes(StandardCharsets.UTF_8);
+        }
+        return bytes;
+    }
+
+    private static void putIfNotNull(Map<String, String> hash, String field, String value) {
+        if (value != null) {
+            hash.put(field, value);
+        }
+    }
+
+    private static long parseLong(Object value) {
+        return value == null ? 0L : Long.parseLong(value.toString());
+    }
+}
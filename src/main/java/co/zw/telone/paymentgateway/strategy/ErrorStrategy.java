@@ -2,8 +2,12 @@ package co.zw.telone.paymentgateway.strategy;
 
 import org.springframework.http.ResponseEntity;
 
-import java.util.Map;
+/**
+ * Turns one type of exception, and its subclasses, into an HTTP response.
+ */
+public interface ErrorStrategy<E extends Throwable> {
 
-public interface ErrorStrategy {
-    ResponseEntity<Map<String, Object>> handleError(String responseBody);
-}
\ No newline at end of file
+    Class<E> exceptionType();
+
+    ResponseEntity<?> handleError(E exception);
+}
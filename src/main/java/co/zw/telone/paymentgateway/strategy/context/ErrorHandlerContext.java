@@ -1,17 +1,55 @@
 package co.zw.telone.paymentgateway.strategy.context;
 
 import co.zw.telone.paymentgateway.strategy.ErrorStrategy;
-import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
 
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
-@RequiredArgsConstructor
+/**
+ * Registry of {@link ErrorStrategy} beans keyed by exception type.
+ * <p>
+ * The strategy for a thrown class is resolved once, walking up its superclasses, and then
+ * cached per class, so handling an exception is a single lookup with no allocation.
+ */
+@Component
 public class ErrorHandlerContext {
 
-    private final ErrorStrategy errorStrategy;
+    private final Map<Class<?>, ErrorStrategy<?>> strategies = new HashMap<>();
 
-    public ResponseEntity<Map<String, Object>> handleError(String responseBody) {
-        return errorStrategy.handleError(responseBody);
+    private final ClassValue<ErrorStrategy<?>> resolved = new ClassValue<>() {
+        @Override
+        protected ErrorStrategy<?> computeValue(Class<?> type) {
+            for (Class<?> candidate = type; candidate != null; candidate = candidate.getSuperclass()) {
+                ErrorStrategy<?> strategy = strategies.get(candidate);
+                if (strategy != null) {
+                    return strategy;
+                }
+            }
+            return null;
+        }
+    };
+
+    public ErrorHandlerContext(List<ErrorStrategy<?>> strategies) {
+        for (ErrorStrategy<?> strategy : strategies) {
+            ErrorStrategy<?> previous = this.strategies.put(strategy.exceptionType(), strategy);
+            if (previous != null) {
+                throw new IllegalStateException("Two error strategies for " + strategy.exceptionType().getName());
+            }
+        }
+    }
+
+    /**
+     * @throws IllegalStateException when no strategy is registered for the exception or a superclass
+     */
+    @SuppressWarnings("unchecked")
+    public <E extends Throwable> ResponseEntity<?> handleError(E exception) {
+        ErrorStrategy<E> strategy = (ErrorStrategy<E>) resolved.get(exception.getClass());
+        if (strategy == null) {
+            throw new IllegalStateException("No error strategy for " + exception.getClass().getName(), exception);
+        }
+        return strategy.handleError(exception);
     }
-}
\ No newline at end of file
+}
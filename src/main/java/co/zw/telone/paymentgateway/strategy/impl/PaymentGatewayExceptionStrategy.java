@@ -0,0 +1,28 @@
+package co.zw.telone.paymentgateway.strategy.impl;
+
+import co.zw.telone.paymentgateway.exception.PaymentGatewayException;
+import co.zw.telone.paymentgateway.strategy.ErrorStrategy;
+import co.zw.telone.paymentgateway.tokendto.ApiResponse;
+import co.zw.telone.paymentgateway.tokendto.ErrorDto;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+@Component
+public class PaymentGatewayExceptionStrategy implements ErrorStrategy<PaymentGatewayException> {
+
+    @Override
+    public Class<PaymentGatewayException> exceptionType() {
+        return PaymentGatewayException.class;
+    }
+
+    @Override
+    public ResponseEntity<?> handleError(PaymentGatewayException exception) {
+        ErrorDto errorDto = ErrorDto.builder()
+                .status(PaymentGatewayException.class.getSimpleName())
+                .message(exception.getMessage())
+                .code(exception.getStatus().toString())
+                .build();
+        return ResponseEntity.status(exception.getStatus())
+                .body(ApiResponse.error(errorDto));
+    }
+}
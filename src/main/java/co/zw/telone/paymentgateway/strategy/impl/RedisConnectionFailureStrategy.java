@@ -0,0 +1,42 @@
+package co.zw.telone.paymentgateway.strategy.impl;
+
+import co.zw.telone.paymentgateway.strategy.ErrorStrategy;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Every request fails the same way while Redis is down, so the body is written once.
+ */
+@Component
+public class RedisConnectionFailureStrategy implements ErrorStrategy<RedisConnectionFailureException> {
+
+    private final byte[] body;
+
+    public RedisConnectionFailureStrategy(ObjectMapper objectMapper) throws JsonProcessingException {
+        Map<String, Object> errorDetails = new LinkedHashMap<>();
+        errorDetails.put("status", HttpStatus.INTERNAL_SERVER_ERROR.value());
+        errorDetails.put("error", "Redis Connection Failure");
+        errorDetails.put("message", "Unable to connect to Redis server.");
+        this.body = objectMapper.writeValueAsBytes(errorDetails);
+    }
+
+    @Override
+    public Class<RedisConnectionFailureException> exceptionType() {
+        return RedisConnectionFailureException.class;
+    }
+
+    @Override
+    public ResponseEntity<?> handleError(RedisConnectionFailureException exception) {
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+}
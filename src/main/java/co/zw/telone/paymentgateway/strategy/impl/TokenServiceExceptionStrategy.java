@@ -0,0 +1,28 @@
+package co.zw.telone.paymentgateway.strategy.impl;
+
+import co.zw.telone.paymentgateway.exception.TokenServiceException;
+import co.zw.telone.paymentgateway.strategy.ErrorStrategy;
+import co.zw.telone.paymentgateway.tokendto.ApiResponse;
+import co.zw.telone.paymentgateway.tokendto.ErrorDto;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+@Component
+public class TokenServiceExceptionStrategy implements ErrorStrategy<TokenServiceException> {
+
+    @Override
+    public Class<TokenServiceException> exceptionType() {
+        return TokenServiceException.class;
+    }
+
+    @Override
+    public ResponseEntity<?> handleError(TokenServiceException exception) {
+        ErrorDto errorDto = ErrorDto.builder()
+                .status(exception.getClass().getSimpleName())
+                .message(exception.getMessage())
+                .code(exception.getStatus().toString())
+                .build();
+        return ResponseEntity.status(exception.getStatus())
+                .body(ApiResponse.error(errorDto));
+    }
+}
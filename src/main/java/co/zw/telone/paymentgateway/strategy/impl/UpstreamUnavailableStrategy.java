@@ -0,0 +1,36 @@
+package co.zw.telone.paymentgateway.strategy.impl;
+
+import co.zw.telone.paymentgateway.exception.UpstreamUnavailableException;
+import co.zw.telone.paymentgateway.strategy.ErrorStrategy;
+import co.zw.telone.paymentgateway.tokendto.ApiResponse;
+import co.zw.telone.paymentgateway.tokendto.ErrorDto;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+/**
+ * Like {@link TokenServiceExceptionStrategy}, plus a Retry-After header when the gateway is
+ * expected to recover.
+ */
+@Component
+public class UpstreamUnavailableStrategy implements ErrorStrategy<UpstreamUnavailableException> {
+
+    @Override
+    public Class<UpstreamUnavailableException> exceptionType() {
+        return UpstreamUnavailableException.class;
+    }
+
+    @Override
+    public ResponseEntity<?> handleError(UpstreamUnavailableException exception) {
+        ErrorDto errorDto = ErrorDto.builder()
+                .status(UpstreamUnavailableException.class.getSimpleName())
+                .message(exception.getMessage())
+                .code(exception.getStatus().toString())
+                .build();
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(exception.getStatus());
+        if (exception.getRetryAfterSeconds() != null) {
+            response.header(HttpHeaders.RETRY_AFTER, Long.toString(exception.getRetryAfterSeconds()));
+        }
+        return response.body(ApiResponse.error(errorDto));
+    }
+}
@@ -0,0 +1,51 @@
+package co.zw.telone.paymentgateway.strategy.impl;
+
+import co.zw.telone.paymentgateway.exception.UpstreamValidationException;
+import co.zw.telone.paymentgateway.model.UpstreamRejection;
+import co.zw.telone.paymentgateway.strategy.ErrorStrategy;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Objects;
+
+@Slf4j
+@Component
+public class UpstreamValidationStrategy implements ErrorStrategy<UpstreamValidationException> {
+
+    /** Written once; gateway errors without a readable error object all get this body. */
+    private final byte[] unknownErrorBody;
+
+    public UpstreamValidationStrategy(ObjectMapper objectMapper) throws JsonProcessingException {
+        this.unknownErrorBody = objectMapper.writeValueAsBytes(errorBody("BAD_REQUEST", "Unknown error occurred.", "INVALID_REQUEST"));
+    }
+
+    @Override
+    public Class<UpstreamValidationException> exceptionType() {
+        return UpstreamValidationException.class;
+    }
+
+    @Override
+    public ResponseEntity<?> handleError(UpstreamValidationException exception) {
+        UpstreamRejection error = exception.getError();
+        if (error == null) {
+            log.warn("Error object is missing in gateway response: {}", exception.contentUTF8());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(unknownErrorBody);
+        }
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(errorBody(Objects.requireNonNullElse(error.code(), "BAD_REQUEST"),
+                        Objects.requireNonNullElse(error.message(), "Unknown error occurred."),
+                        Objects.requireNonNullElse(error.statusCode(), "INVALID_REQUEST")));
+    }
+
+    private static Map<String, Object> errorBody(String status, String message, String code) {
+        return Map.of("error", Map.of("status", status, "message", message, "code", code));
+    }
+}
@@ -0,0 +1,116 @@
+package co.zw.telone.paymentgateway.timing;
+
+/**
+ * Where the time of the current payment API request went.
+ * <p>
+ * {@link ServerTimingFilter} opens one per request on the request thread, and code on that
+ * thread marks its phases:
+ * <pre>
+ * try (RequestTimings.Scope ignored = RequestTimings.time(TimingPhase.UPSTREAM)) {
+ *     ...
+ * }
+ * </pre>
+ * Only the outermost phase is charged, so the token API call made while acquiring a token
+ * counts as token time rather than upstream time. On other threads, such as the poller, no
+ * timings are open and {@link #time} returns a shared no-op scope.
+ */
+public final class RequestTimings {
+
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private static final ThreadLocal<RequestTimings> CURRENT = new ThreadLocal<>();
+    private static final Scope NOOP = () -> {
+    };
+    private static final TimingPhase[] PHASES = TimingPhase.values();
+
+    private final long startNanos = System.nanoTime();
+    private final long[] phaseNanos = new long[PHASES.length];
+    private final Scope closeActive = this::closeActive;
+    private int seenPhases;
+    private TimingPhase active;
+    private long activeStartNanos;
+    private String merchant;
+
+    private RequestTimings() {
+    }
+
+    public static Scope time(TimingPhase phase) {
+        RequestTimings timings = CURRENT.get();
+        if (timings == null || timings.active != null) {
+            return NOOP;
+        }
+        timings.active = phase;
+        timings.activeStartNanos = System.nanoTime();
+        return timings.closeActive;
+    }
+
+    /** Attributes the current request to a merchant for the per-merchant SLO windows. */
+    public static void merchant(String merchantName) {
+        RequestTimings timings = CURRENT.get();
+        if (timings != null) {
+            timings.merchant = merchantName;
+        }
+    }
+
+    static RequestTimings start() {
+        RequestTimings timings = new RequestTimings();
+        CURRENT.set(timings);
+        return timings;
+    }
+
+    void finish() {
+        CURRENT.remove();
+        closeActive();
+    }
+
+    long elapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    String merchant() {
+        return merchant;
+    }
+
+    private void closeActive() {
+        if (active != null) {
+            phaseNanos[active.ordinal()] += System.nanoTime() - activeStartNanos;
+            seenPhases |= 1 << active.ordinal();
+            active = null;
+        }
+    }
+
+    /**
+     * Renders the phases seen so far, the time outside them as {@code other} and the total,
+     * in milliseconds. A phase still running is counted up to now.
+     */
+    String toHeader() {
+        long now = System.nanoTime();
+        StringBuilder header = new StringBuilder(192);
+        long phasesTotal = 0;
+        for (TimingPhase phase : PHASES) {
+            long nanos = phaseNanos[phase.ordinal()] + (phase == active ? now - activeStartNanos : 0);
+            if ((seenPhases & 1 << phase.ordinal()) == 0 && phase != active) {
+                continue;
+            }
+            phasesTotal += nanos;
+            append(header, phase.metricName(), phase.description(), nanos);
+        }
+        long total = now - startNanos;
+        append(header, "other", "Other", total - phasesTotal);
+        append(header, "total", "Total", total);
+        return header.toString();
+    }
+
+    private static void append(StringBuilder header, String name, String description, long nanos) {
+        if (!header.isEmpty()) {
+            header.append(", ");
+        }
+        long micros = Math.max(0, nanos / 1_000);
+        long fraction = micros % 1_000;
+        header.append(name).append(";desc=\"").append(description).append("\";dur=").append(micros / 1_000).append('.')
+                .append(fraction < 100 ? (fraction < 10 ? "00" : "0") : "").append(fraction);
+    }
+}
@@ -0,0 +1,40 @@
+package co.zw.telone.paymentgateway.timing;
+
+import feign.Capability;
+import feign.Client;
+import feign.codec.Decoder;
+import feign.codec.Encoder;
+
+/**
+ * Charges Feign HTTP exchanges to {@link TimingPhase#UPSTREAM} and payload encoding and
+ * decoding to {@link TimingPhase#SERIALIZATION}.
+ */
+public class ServerTimingFeignCapability implements Capability {
+
+    @Override
+    public Client enrich(Client client) {
+        return (request, options) -> {
+            try (RequestTimings.Scope ignored = RequestTimings.time(TimingPhase.UPSTREAM)) {
+                return client.execute(request, options);
+            }
+        };
+    }
+
+    @Override
+    public Encoder enrich(Encoder encoder) {
+        return (object, bodyType, template) -> {
+            try (RequestTimings.Scope ignored = RequestTimings.time(TimingPhase.SERIALIZATION)) {
+                encoder.encode(object, bodyType, template);
+            }
+        };
+    }
+
+    @Override
+    public Decoder enrich(Decoder decoder) {
+        return (response, type) -> {
+            try (RequestTimings.Scope ignored = RequestTimings.time(TimingPhase.SERIALIZATION)) {
+                return decoder.decode(response, type);
+            }
+        };
+    }
+}
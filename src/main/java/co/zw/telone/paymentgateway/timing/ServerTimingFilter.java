@@ -0,0 +1,112 @@
+package co.zw.telone.paymentgateway.timing;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/**
+ * Opens the {@link RequestTimings} of each payment API request, optionally reports them in a
+ * {@code Server-Timing} header and feeds the request's latency to the {@link SloTracker}.
+ * <p>
+ * The header has to go out with the status line, so it is added just before the response is
+ * committed; serializing our own response body happens after that and is not part of it.
+ */
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    static final String HEADER = "Server-Timing";
+
+    private final boolean addHeader;
+    private final SloTracker sloTracker;
+
+    /** @param sloTracker may be null when SLO tracking is disabled */
+    public ServerTimingFilter(boolean addHeader, SloTracker sloTracker) {
+        this.addHeader = addHeader;
+        this.sloTracker = sloTracker;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestTimings timings = RequestTimings.start();
+        TimingHeaderResponse wrapped = addHeader ? new TimingHeaderResponse(response, timings) : null;
+        boolean failed = true;
+        try {
+            chain.doFilter(request, wrapped != null ? wrapped : response);
+            failed = false;
+        } finally {
+            timings.finish();
+            if (wrapped != null) {
+                wrapped.addTimingHeader();
+            }
+            if (sloTracker != null && !request.isAsyncStarted()) {
+                Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                if (pattern != null) {
+                    sloTracker.record(pattern.toString(), timings.merchant(), timings.elapsedNanos(),
+                            failed ? HttpServletResponse.SC_INTERNAL_SERVER_ERROR : response.getStatus());
+                }
+            }
+        }
+    }
+
+    private static final class TimingHeaderResponse extends HttpServletResponseWrapper {
+
+        private final RequestTimings timings;
+        private boolean added;
+
+        TimingHeaderResponse(HttpServletResponse response, RequestTimings timings) {
+            super(response);
+            this.timings = timings;
+        }
+
+        void addTimingHeader() {
+            if (!added && !isCommitted()) {
+                setHeader(HEADER, timings.toHeader());
+            }
+            added = true;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            addTimingHeader();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            addTimingHeader();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            addTimingHeader();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            addTimingHeader();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            addTimingHeader();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            addTimingHeader();
+            super.sendRedirect(location);
+        }
+    }
+}
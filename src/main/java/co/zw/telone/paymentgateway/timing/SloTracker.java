@@ -0,0 +1,122 @@
+package co.zw.telone.paymentgateway.timing;
+
+import co.zw.telone.paymentgateway.config.SloProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tracks the latency objective per endpoint and per merchant and publishes multi-window
+ * burn rates:
+ * <ul>
+ *     <li>{@code payment.slo.burn.rate{scope, name, window}} - bad share over the window divided
+ *     by the share the objective allows; 1 spends the error budget exactly on time</li>
+ *     <li>{@code payment.slo.alert{scope, name}} - 1 while both the short and the long window
+ *     burn at {@code payment.slo.alert-burn-rate} or faster</li>
+ *     <li>{@code payment.slo.latency{scope, name, window, quantile=0.99}}</li>
+ * </ul>
+ * A request is bad when it fails with a 5xx or takes longer than its endpoint's threshold;
+ * merchant windows use the threshold of the endpoint each request went to.
+ */
+public class SloTracker {
+
+    private static final String OTHER_MERCHANTS = "other";
+    private static final List<ChronoUnit> LABEL_UNITS = List.of(ChronoUnit.DAYS, ChronoUnit.HOURS, ChronoUnit.MINUTES,
+            ChronoUnit.SECONDS);
+
+    private final SloProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final double errorBudget;
+    private final int shortSlots;
+    private final int longSlots;
+    private final String shortWindow;
+    private final String longWindow;
+    private final Map<String, SloWindows> endpoints = new ConcurrentHashMap<>();
+    private final Map<String, SloWindows> merchants = new ConcurrentHashMap<>();
+
+    public SloTracker(SloProperties properties, MeterRegistry meterRegistry) {
+        if (properties.getObjective() <= 0 || properties.getObjective() >= 1) {
+            throw new IllegalArgumentException("payment.slo.objective must be between 0 and 1");
+        }
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.errorBudget = 1 - properties.getObjective();
+        this.shortSlots = slots(properties.getShortWindow());
+        this.longSlots = Math.max(shortSlots, slots(properties.getLongWindow()));
+        this.shortWindow = label(properties.getShortWindow());
+        this.longWindow = label(properties.getLongWindow());
+    }
+
+    /**
+     * @param endpoint request mapping pattern
+     * @param merchant merchant the request was made for, or null when not known
+     */
+    public void record(String endpoint, String merchant, long nanos, int status) {
+        SloWindows endpointWindows = endpoints.computeIfAbsent(endpoint, this::endpointWindows);
+        long micros = TimeUnit.NANOSECONDS.toMicros(nanos);
+        boolean good = status < 500 && micros <= endpointWindows.thresholdMicros();
+        endpointWindows.record(micros, good);
+        if (merchant != null) {
+            String key = merchants.containsKey(merchant) || merchants.size() < properties.getMaxMerchants()
+                    ? merchant : OTHER_MERCHANTS;
+            merchants.computeIfAbsent(key, name -> register(new SloWindows(0, shortSlots, longSlots), "merchant", name))
+                    .record(micros, good);
+        }
+    }
+
+    @Scheduled(fixedRateString = "${payment.slo.slot:1m}", initialDelayString = "${payment.slo.slot:1m}")
+    public void rotate() {
+        endpoints.values().forEach(windows -> windows.rotate(errorBudget));
+        merchants.values().forEach(windows -> windows.rotate(errorBudget));
+    }
+
+    private SloWindows endpointWindows(String endpoint) {
+        Duration threshold = properties.getLatencyThresholds().getOrDefault(endpoint, properties.getLatencyThreshold());
+        return register(new SloWindows(TimeUnit.NANOSECONDS.toMicros(threshold.toNanos()), shortSlots, longSlots),
+                "endpoint", endpoint);
+    }
+
+    private SloWindows register(SloWindows windows, String scope, String name) {
+        Gauge.builder("payment.slo.burn.rate", windows, SloWindows::shortBurnRate)
+                .description("Error budget burn rate over the window")
+                .tags("scope", scope, "name", name, "window", shortWindow)
+                .register(meterRegistry);
+        Gauge.builder("payment.slo.burn.rate", windows, SloWindows::longBurnRate)
+                .description("Error budget burn rate over the window")
+                .tags("scope", scope, "name", name, "window", longWindow)
+                .register(meterRegistry);
+        Gauge.builder("payment.slo.alert", windows, w -> w.shortBurnRate() >= properties.getAlertBurnRate()
+                        && w.longBurnRate() >= properties.getAlertBurnRate() ? 1 : 0)
+                .description("1 while both windows burn the error budget at the alert rate or faster")
+                .tags("scope", scope, "name", name)
+                .register(meterRegistry);
+        Gauge.builder("payment.slo.latency", windows, SloWindows::shortP99Seconds)
+                .description("Latency percentile over the window")
+                .baseUnit("seconds")
+                .tags("scope", scope, "name", name, "window", shortWindow, "quantile", "0.99")
+                .register(meterRegistry);
+        return windows;
+    }
+
+    /** "5m" rather than "300000ms". */
+    private static String label(Duration window) {
+        for (ChronoUnit unit : LABEL_UNITS) {
+            if (window.toMillis() % unit.getDuration().toMillis() == 0) {
+                return DurationStyle.SIMPLE.print(window, unit);
+            }
+        }
+        return DurationStyle.SIMPLE.print(window);
+    }
+
+    private int slots(Duration window) {
+        return (int) Math.max(1, window.toMillis() / properties.getSlot().toMillis());
+    }
+}
@@ -0,0 +1,94 @@
+package co.zw.telone.paymentgateway.timing;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Rolling windows for one endpoint or merchant: good and bad counts per slot over the long
+ * window, and a latency histogram per slot over the short one. Recording is lock-free;
+ * {@link #rotate} runs on the scheduler once per slot and publishes the figures the gauges read.
+ */
+final class SloWindows {
+
+    private static final double MICROS_PER_SECOND = TimeUnit.SECONDS.toMicros(1);
+
+    private final long thresholdMicros;
+    private final Recorder latencies = new Recorder(2);
+    private final LongAdder total = new LongAdder();
+    private final LongAdder bad = new LongAdder();
+    private final Histogram[] recentLatencies;
+    private final long[] totals;
+    private final long[] bads;
+    private int slot;
+
+    private volatile double shortBurnRate;
+    private volatile double longBurnRate;
+    private volatile double shortP99Seconds;
+
+    SloWindows(long thresholdMicros, int shortSlots, int longSlots) {
+        this.thresholdMicros = thresholdMicros;
+        this.recentLatencies = new Histogram[shortSlots];
+        this.totals = new long[longSlots];
+        this.bads = new long[longSlots];
+    }
+
+    long thresholdMicros() {
+        return thresholdMicros;
+    }
+
+    void record(long micros, boolean good) {
+        latencies.recordValue(micros);
+        total.increment();
+        if (!good) {
+            bad.increment();
+        }
+    }
+
+    synchronized void rotate(double errorBudget) {
+        slot++;
+        int recent = slot % recentLatencies.length;
+        recentLatencies[recent] = recentLatencies[recent] == null
+                ? latencies.getIntervalHistogram()
+                : latencies.getIntervalHistogram(recentLatencies[recent]);
+        int index = slot % totals.length;
+        totals[index] = total.sumThenReset();
+        bads[index] = bad.sumThenReset();
+
+        shortBurnRate = burnRate(recentLatencies.length, errorBudget);
+        longBurnRate = burnRate(totals.length, errorBudget);
+        Histogram merged = new Histogram(2);
+        for (Histogram histogram : recentLatencies) {
+            if (histogram != null) {
+                merged.add(histogram);
+            }
+        }
+        shortP99Seconds = merged.getTotalCount() == 0 ? 0 : merged.getValueAtPercentile(99) / MICROS_PER_SECOND;
+    }
+
+    /** Bad share over the last {@code slots} slots divided by the share the objective allows. */
+    private double burnRate(int slots, double errorBudget) {
+        long requests = 0;
+        long failures = 0;
+        for (int i = 0; i < slots; i++) {
+            int index = Math.floorMod(slot - i, totals.length);
+            requests += totals[index];
+            failures += bads[index];
+        }
+        return requests == 0 ? 0 : (double) failures / requests / errorBudget;
+    }
+
+    double shortBurnRate() {
+        return shortBurnRate;
+    }
+
+    double longBurnRate() {
+        return longBurnRate;
+    }
+
+    double shortP99Seconds() {
+        return shortP99Seconds;
+    }
+}
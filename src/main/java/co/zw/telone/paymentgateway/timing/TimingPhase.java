@@ -0,0 +1,28 @@
+package co.zw.telone.paymentgateway.timing;
+
+/** Parts of a payment API request reported in its {@code Server-Timing} header. */
+public enum TimingPhase {
+
+    ID_GENERATION("id", "ID generation"),
+    TOKEN("token", "Token acquisition"),
+    UPSTREAM("upstream", "Upstream call"),
+    MAPPING("mapping", "Mapping"),
+    /** JSON encoding and decoding of upstream payloads. */
+    SERIALIZATION("serialization", "Serialization");
+
+    private final String metricName;
+    private final String description;
+
+    TimingPhase(String metricName, String description) {
+        this.metricName = metricName;
+        this.description = description;
+    }
+
+    public String metricName() {
+        return metricName;
+    }
+
+    public String description() {
+        return description;
+    }
+}
@@ -1,10 +1,13 @@
 package co.zw.telone.paymentgateway.tokendto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.List;
+
 @Data
 @Builder
 @NoArgsConstructor
@@ -13,4 +16,16 @@ public class ErrorDto {
     private String status;
     private String message;
     private String code;
+
+    /** Per-field problems when a request failed validation. */
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    private List<FieldViolation> violations;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class FieldViolation {
+        private String field;
+        private String message;
+    }
 }
\ No newline at end of file
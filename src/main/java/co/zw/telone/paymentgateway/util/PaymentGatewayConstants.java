@@ -4,6 +4,17 @@ public class PaymentGatewayConstants {
     public static final String PAYMENT_SESSION_FAILED = "Failed to create payment session";
     public static final String PAYMENT_TYPE_PURCHASE = "PURCHASE";
 public static final  String OPERATION_SUCCESS = "SUCCESS";
+
+    public static final String TRANSACTION_KEY_PREFIX = "payment:txn:";
+    public static final String SESSION_INDEX_KEY_PREFIX = "payment:txn:session:";
+    public static final String TRANSACTION_STATUS_CHANNEL = "payment:txn:status-changed";
+    public static final String EVENT_SEQUENCE_KEY = "payment:txn:event-seq";
+    public static final String MERCHANT_TOTALS_KEY_PREFIX = "payment:totals:";
+    public static final String WEBHOOK_QUEUE_KEY_PREFIX = "payment:webhook:queue:";
+    public static final String WEBHOOK_ATTEMPTS_KEY_PREFIX = "payment:webhook:attempts:";
+    public static final String WEBHOOK_DEAD_LETTER_KEY_PREFIX = "payment:webhook:dead:";
+    public static final String PENDING_SESSIONS_KEY = "payment:txn:pending";
+    public static final String POLLER_LEADER_KEY = "payment:poller:leader";
     private PaymentGatewayConstants() {
         // Private constructor to prevent instantiation
     }
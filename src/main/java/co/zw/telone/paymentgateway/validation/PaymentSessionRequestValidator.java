@@ -0,0 +1,163 @@
+package co.zw.telone.paymentgateway.validation;
+
+import co.zw.telone.paymentgateway.config.RequestValidationProperties;
+import co.zw.telone.paymentgateway.model.CurrencyCode;
+import co.zw.telone.paymentgateway.response.PaymentSessionRequest;
+import co.zw.telone.paymentgateway.security.MerchantRegistry;
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Validates {@link PaymentSessionRequest}s before any Redis or upstream call is made.
+ * <p>
+ * Everything that depends on configuration is resolved once when the validator is created:
+ * the currency whitelist becomes an {@link EnumSet} and the return URL allowlist a set of
+ * lower-cased hosts, and merchants are checked against the {@link MerchantRegistry}. A valid request only pays for a few lookups,
+ * and violations are only built for requests that are being rejected anyway.
+ */
+public class PaymentSessionRequestValidator
+        implements ConstraintValidator<ValidPaymentSessionRequest, PaymentSessionRequest> {
+
+    private static final Pattern MERCHANT_TRANSACTION_ID = Pattern.compile("[A-Za-z0-9._-]+");
+
+    private final long minAmountInCents;
+    private final long maxAmountInCents;
+    private final Set<CurrencyCode> currencies;
+    private final MerchantRegistry merchantRegistry;
+    private final Set<String> returnUrlHosts;
+    private final int maxMerchantNameLength;
+    private final int maxMerchantTransactionIdLength;
+    private final int maxDescriptionLength;
+
+    public PaymentSessionRequestValidator(RequestValidationProperties properties, MerchantRegistry merchantRegistry) {
+        this.minAmountInCents = properties.getMinAmountInCents();
+        this.maxAmountInCents = properties.getMaxAmountInCents();
+        this.currencies = properties.getCurrencies().isEmpty()
+                ? EnumSet.noneOf(CurrencyCode.class)
+                : EnumSet.copyOf(properties.getCurrencies());
+        this.merchantRegistry = merchantRegistry;
+        this.returnUrlHosts = new HashSet<>();
+        for (String host : properties.getReturnUrlHosts()) {
+            returnUrlHosts.add(host.toLowerCase(Locale.ROOT));
+        }
+        this.maxMerchantNameLength = properties.getMaxMerchantNameLength();
+        this.maxMerchantTransactionIdLength = properties.getMaxMerchantTransactionIdLength();
+        this.maxDescriptionLength = properties.getMaxDescriptionLength();
+    }
+
+    @Override
+    public boolean isValid(PaymentSessionRequest request, ConstraintValidatorContext context) {
+        if (request == null) {
+            return true;
+        }
+        boolean valid = checkAmount(request, context);
+        valid &= checkCurrency(request, context);
+        valid &= checkMerchant(request, context);
+        valid &= checkMerchantTransactionId(request, context);
+        valid &= checkReturnUrl(request, context);
+        if (request.getDescription() != null && request.getDescription().length() > maxDescriptionLength) {
+            valid = reject(context, "description", "must be at most " + maxDescriptionLength + " characters");
+        }
+        return valid;
+    }
+
+    private boolean checkAmount(PaymentSessionRequest request, ConstraintValidatorContext context) {
+        Long amount = request.getAmountInCents();
+        if (amount == null) {
+            return reject(context, "amountInCents", "is required");
+        }
+        if (amount < minAmountInCents || amount > maxAmountInCents) {
+            return reject(context, "amountInCents",
+                    "must be between " + minAmountInCents + " and " + maxAmountInCents);
+        }
+        return true;
+    }
+
+    private boolean checkCurrency(PaymentSessionRequest request, ConstraintValidatorContext context) {
+        CurrencyCode currency = request.getCurrency();
+        if (currency == null) {
+            return reject(context, "currency", "is required");
+        }
+        if (!currencies.contains(currency)) {
+            return reject(context, "currency", "must be one of " + currencies);
+        }
+        return true;
+    }
+
+    private boolean checkMerchant(PaymentSessionRequest request, ConstraintValidatorContext context) {
+        String merchantName = request.getMerchantName();
+        if (merchantName == null || merchantName.isBlank()) {
+            return reject(context, "merchantName", "is required");
+        }
+        if (merchantName.length() > maxMerchantNameLength) {
+            return reject(context, "merchantName", "must be at most " + maxMerchantNameLength + " characters");
+        }
+        if (!merchantRegistry.isEmpty() && !merchantRegistry.contains(merchantName)) {
+            return reject(context, "merchantName", "is not a registered merchant");
+        }
+        return true;
+    }
+
+    /** The id is optional; one is generated when it is left out. */
+    private boolean checkMerchantTransactionId(PaymentSessionRequest request, ConstraintValidatorContext context) {
+        String id = request.getMerchantTransactionId();
+        if (id == null || id.isEmpty()) {
+            return true;
+        }
+        if (id.length() > maxMerchantTransactionIdLength || !MERCHANT_TRANSACTION_ID.matcher(id).matches()) {
+            return reject(context, "merchantTransactionId", "must be at most " + maxMerchantTransactionIdLength
+                    + " letters, digits, '.', '_' or '-'");
+        }
+        return true;
+    }
+
+    private boolean checkReturnUrl(PaymentSessionRequest request, ConstraintValidatorContext context) {
+        String returnUrl = request.getReturnUrl();
+        if (returnUrl == null || returnUrl.isEmpty()) {
+            return true;
+        }
+        URI uri;
+        try {
+            uri = new URI(returnUrl);
+        } catch (URISyntaxException e) {
+            return reject(context, "returnUrl", "is not a valid URL");
+        }
+        String scheme = uri.getScheme();
+        String host = uri.getHost();
+        if (host == null || !("https".equalsIgnoreCase(scheme) || "http".equalsIgnoreCase(scheme))) {
+            return reject(context, "returnUrl", "must be an absolute http or https URL");
+        }
+        if (!returnUrlHosts.isEmpty() && !isAllowedHost(host.toLowerCase(Locale.ROOT))) {
+            return reject(context, "returnUrl", "host is not allowed");
+        }
+        return true;
+    }
+
+    private boolean isAllowedHost(String host) {
+        if (returnUrlHosts.contains(host)) {
+            return true;
+        }
+        for (int dot = host.indexOf('.'); dot >= 0; dot = host.indexOf('.', dot + 1)) {
+            if (returnUrlHosts.contains(host.substring(dot + 1))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean reject(ConstraintValidatorContext context, String field, String message) {
+        context.disableDefaultConstraintViolation();
+        context.buildConstraintViolationWithTemplate(message)
+                .addPropertyNode(field)
+                .addConstraintViolation();
+        return false;
+    }
+}
@@ -0,0 +1,27 @@
+package co.zw.telone.paymentgateway.validation;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Checks a whole payment session request against the configured amount range, currencies,
+ * merchants and return URL hosts. Each failing field is reported as its own violation.
+ */
+@Documented
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Constraint(validatedBy = PaymentSessionRequestValidator.class)
+public @interface ValidPaymentSessionRequest {
+
+    String message() default "Invalid payment session request";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+}
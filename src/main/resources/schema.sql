@@ -0,0 +1,19 @@
+CREATE TABLE IF NOT EXISTS payment_ledger (
+    merchant_transaction_id VARCHAR(64)  NOT NULL,
+    version                 BIGINT       NOT NULL,
+    session_id              VARCHAR(64),
+    merchant_name           VARCHAR(128),
+    status                  VARCHAR(16)  NOT NULL,
+    previous_status         VARCHAR(16),
+    amount_in_cents         BIGINT,
+    currency                VARCHAR(3),
+    business_date           DATE         NOT NULL,
+    recorded_at             TIMESTAMP    NOT NULL,
+    PRIMARY KEY (merchant_transaction_id, version)
+);
+
+CREATE INDEX IF NOT EXISTS idx_payment_ledger_merchant_day_status
+    ON payment_ledger (merchant_name, business_date, status);
+
+CREATE INDEX IF NOT EXISTS idx_payment_ledger_day_status
+    ON payment_ledger (business_date, status);
@@ -3,7 +3,7 @@ package co.zw.telone.paymentgateway;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = "payment.warmup.enabled=false")
 class PaymentGatewayApplicationTests {
 
     @Test
@@ -0,0 +1,54 @@
+package co.zw.telone.paymentgateway.capture;
+
+import co.zw.telone.paymentgateway.model.CurrencyCode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TrafficCaptureFileTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void roundTripsRecordsIncludingOutOfOrderArrivals() throws Exception {
+        Path file = directory.resolve("traffic.bin");
+        List<CapturedRequest> requests = List.of(
+                new CapturedRequest(1_500, CapturedRequest.Endpoint.SESSION, 302, 0, CurrencyCode.USD,
+                        12_550, new int[]{0}, 14, true),
+                // Writer-thread order can trail arrival order by a little.
+                new CapturedRequest(1_200, CapturedRequest.Endpoint.SESSION_DATA, 400, -1, null,
+                        -1, new int[0], -1, false),
+                new CapturedRequest(90_000_000_000L, CapturedRequest.Endpoint.BATCH_STATUS, 200, -1, null,
+                        -1, new int[]{0, 7, 300_000}, -1, false),
+                new CapturedRequest(90_000_000_001L, CapturedRequest.Endpoint.STATUS, 404, -1, null,
+                        -1, new int[]{1}, -1, false));
+        try (TrafficCaptureFile.Writer writer = TrafficCaptureFile.create(file, 1_700_000_000_000L)) {
+            for (CapturedRequest request : requests) {
+                writer.write(request);
+            }
+        }
+
+        List<CapturedRequest> read = TrafficCaptureFile.read(file);
+
+        assertThat(read).hasSize(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            CapturedRequest expected = requests.get(i);
+            CapturedRequest actual = read.get(i);
+            assertThat(actual).usingRecursiveComparison().ignoringFields("transactions").isEqualTo(expected);
+            assertThat(actual.transactions()).containsExactly(expected.transactions());
+        }
+
+        byte[] bytes = Files.readAllBytes(file);
+        List<CapturedRequest> truncated = TrafficCaptureFile.read(
+                new ByteArrayInputStream(Arrays.copyOf(bytes, bytes.length - 2)));
+        assertThat(truncated).hasSize(requests.size() - 1);
+    }
+}
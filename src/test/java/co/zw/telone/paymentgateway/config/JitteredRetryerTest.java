@@ -0,0 +1,68 @@
+package co.zw.telone.paymentgateway.config;
+
+import co.zw.telone.paymentgateway.exception.UpstreamTransientException;
+import feign.Request;
+import feign.RetryableException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JitteredRetryerTest {
+
+    @Test
+    void retriesAPostOnlyWhenTheGatewayDidNotProcessIt() {
+        assertThat(JitteredRetryer.isRetryable(transientFailure(Request.HttpMethod.POST, 429))).isTrue();
+        assertThat(JitteredRetryer.isRetryable(transientFailure(Request.HttpMethod.POST, 503))).isTrue();
+        assertThat(JitteredRetryer.isRetryable(transientFailure(Request.HttpMethod.POST, 502))).isFalse();
+        assertThat(JitteredRetryer.isRetryable(transientFailure(Request.HttpMethod.POST, 504))).isFalse();
+        // An I/O error may have happened after the gateway created the session.
+        assertThat(JitteredRetryer.isRetryable(ioError(Request.HttpMethod.POST))).isFalse();
+    }
+
+    @Test
+    void retriesReadsOnAnyTransientFailure() {
+        assertThat(JitteredRetryer.isRetryable(transientFailure(Request.HttpMethod.GET, 504))).isTrue();
+        assertThat(JitteredRetryer.isRetryable(ioError(Request.HttpMethod.GET))).isTrue();
+    }
+
+    @Test
+    void stopsAfterMaxAttempts() {
+        JitteredRetryer retryer = new JitteredRetryer(3, 0, 0);
+        RetryableException failure = transientFailure(Request.HttpMethod.GET, 503);
+
+        assertThatCode(() -> retryer.continueOrPropagate(failure)).doesNotThrowAnyException();
+        assertThatCode(() -> retryer.continueOrPropagate(failure)).doesNotThrowAnyException();
+        assertThatThrownBy(() -> retryer.continueOrPropagate(failure)).isSameAs(failure);
+        // Every call gets a fresh count.
+        assertThatCode(() -> retryer.clone().continueOrPropagate(failure)).doesNotThrowAnyException();
+    }
+
+    @Test
+    void honoursRetryAfterUpToTheMaximumPeriod() {
+        JitteredRetryer retryer = new JitteredRetryer(2, 0, 50);
+        RetryableException failure = new UpstreamTransientException(503, "busy", request(Request.HttpMethod.GET),
+                System.currentTimeMillis() + 60_000, new byte[0], Map.of(), null);
+
+        long start = System.nanoTime();
+        retryer.continueOrPropagate(failure);
+
+        assertThat((System.nanoTime() - start) / 1_000_000).isBetween(40L, 5_000L);
+    }
+
+    private static UpstreamTransientException transientFailure(Request.HttpMethod method, int status) {
+        return new UpstreamTransientException(status, "transient", request(method), null, new byte[0], Map.of(), null);
+    }
+
+    private static RetryableException ioError(Request.HttpMethod method) {
+        return new RetryableException(-1, "Connection reset", method, (Long) null, request(method));
+    }
+
+    private static Request request(Request.HttpMethod method) {
+        return Request.create(method, "http://gateway/session", Map.of(), null, StandardCharsets.UTF_8, null);
+    }
+}
@@ -0,0 +1,81 @@
+package co.zw.telone.paymentgateway.config;
+
+import co.zw.telone.paymentgateway.client.UpstreamErrorBodyReader;
+import co.zw.telone.paymentgateway.exception.UpstreamAuthException;
+import co.zw.telone.paymentgateway.exception.UpstreamFatalException;
+import co.zw.telone.paymentgateway.exception.UpstreamTransientException;
+import co.zw.telone.paymentgateway.exception.UpstreamValidationException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import feign.Request;
+import feign.Response;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PaymentGatewayErrorDecoderTest {
+
+    private static final String METHOD_KEY = "SessionApiClient#createSession(String,SessionRequest)";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PaymentGatewayErrorDecoder decoder =
+            new PaymentGatewayErrorDecoder(new UpstreamErrorBodyReader(new ObjectMapper()), meterRegistry);
+
+    @Test
+    void classifiesByStatus() {
+        assertThat(decode(503, null, Map.of())).isInstanceOf(UpstreamTransientException.class);
+        assertThat(decode(429, null, Map.of())).isInstanceOf(UpstreamTransientException.class);
+        assertThat(decode(401, null, Map.of())).isInstanceOf(UpstreamAuthException.class);
+        assertThat(decode(403, null, Map.of())).isInstanceOf(UpstreamAuthException.class);
+        assertThat(decode(422, null, Map.of())).isInstanceOf(UpstreamValidationException.class);
+        assertThat(decode(500, null, Map.of())).isInstanceOf(UpstreamFatalException.class);
+    }
+
+    @Test
+    void treatsATransientGatewayCodeAsTransientWhateverTheStatus() {
+        Exception decoded = decode(400, "{\"error\":{\"code\":\"RATE_LIMITED\",\"message\":\"slow down\"}}", Map.of());
+
+        assertThat(decoded).isInstanceOf(UpstreamTransientException.class)
+                .hasMessage("[400] " + METHOD_KEY + ": slow down");
+        assertThat(((UpstreamTransientException) decoded).getError().code()).isEqualTo("RATE_LIMITED");
+    }
+
+    @Test
+    void readsRetryAfterSeconds() {
+        long before = System.currentTimeMillis();
+        UpstreamTransientException decoded =
+                (UpstreamTransientException) decode(503, null, Map.of("Retry-After", List.of("2")));
+
+        assertThat(decoded.retryAfter()).isBetween(before + 2000, System.currentTimeMillis() + 2000);
+        assertThat(((UpstreamTransientException) decode(503, null, Map.of("Retry-After", List.of("soon"))))
+                .retryAfter()).isNull();
+    }
+
+    @Test
+    void countsEveryErrorByMethodStatusAndCode() {
+        decode(422, "{\"error\":{\"code\":\"INVALID_AMOUNT\"}}", Map.of());
+        decode(422, "not json", Map.of());
+
+        assertThat(meterRegistry.get("payment.upstream.errors")
+                .tags("method", "SessionApiClient#createSession", "status", "422", "code", "INVALID_AMOUNT")
+                .counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("payment.upstream.errors").tags("code", "NONE").counter().count()).isEqualTo(1);
+    }
+
+    private Exception decode(int status, String body, Map<String, Collection<String>> headers) {
+        Response response = Response.builder()
+                .status(status)
+                .reason("error")
+                .request(Request.create(Request.HttpMethod.POST, "http://gateway/session", Map.of(), null,
+                        StandardCharsets.UTF_8, null))
+                .headers(headers)
+                .body(body, StandardCharsets.UTF_8)
+                .build();
+        return decoder.decode(METHOD_KEY, response);
+    }
+}
@@ -0,0 +1,34 @@
+package co.zw.telone.paymentgateway.config;
+
+import co.zw.telone.paymentgateway.client.SessionApiClient;
+import co.zw.telone.paymentgateway.model.WebhookEvent;
+import co.zw.telone.paymentgateway.response.PaymentSessionResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+import org.springframework.util.ClassUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PaymentGatewayRuntimeHintsTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    PaymentGatewayRuntimeHintsTest() {
+        new PaymentGatewayRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void registersJsonBindingForScannedDtos() {
+        assertThat(RuntimeHintsPredicates.reflection().onType(PaymentSessionResponse.class)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(PaymentSessionResponse.PaymentAmount.class)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(WebhookEvent.class)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(ClassUtils.resolveClassName(
+                "co.zw.telone.paymentgateway.client.UpstreamErrorBodyReader$UpstreamErrorBody", null))).accepts(hints);
+    }
+
+    @Test
+    void registersFeignClientProxies() {
+        assertThat(RuntimeHintsPredicates.proxies().forInterfaces(SessionApiClient.class)).accepts(hints);
+    }
+}
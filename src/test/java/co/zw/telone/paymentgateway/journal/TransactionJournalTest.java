@@ -0,0 +1,150 @@
+package co.zw.telone.paymentgateway.journal;
+
+import co.zw.telone.paymentgateway.config.JournalProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TransactionJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void replaysRecordsAcrossSegmentsAndRestarts() throws IOException {
+        TransactionJournal journal = open();
+        for (int i = 0; i < 100; i++) {
+            journal.append(JournalRecordType.SESSION_REQUEST, "T" + i, ("payload-" + i).getBytes(StandardCharsets.UTF_8));
+        }
+        journal.stop();
+
+        journal = open();
+        journal.append(JournalRecordType.CALLBACK, "T0", new byte[]{1, 2, 3});
+        List<JournalRecord> records = replay(journal);
+        journal.stop();
+
+        assertThat(segments()).hasSizeGreaterThan(1);
+        assertThat(records).hasSize(101);
+        assertThat(records.get(42).getMerchantTransactionId()).isEqualTo("T42");
+        assertThat(new String(records.get(42).getPayload(), StandardCharsets.UTF_8)).isEqualTo("payload-42");
+        assertThat(records.get(100).getType()).isEqualTo(JournalRecordType.CALLBACK);
+    }
+
+    @Test
+    void reopensAfterStopAsOnCheckpointRestore() throws IOException {
+        TransactionJournal journal = open();
+        journal.append(JournalRecordType.SESSION_REQUEST, "T1", new byte[]{1});
+        journal.stop();
+        journal.append(JournalRecordType.SESSION_REQUEST, "T2", new byte[]{2});
+        journal.start();
+        journal.append(JournalRecordType.CALLBACK, "T3", new byte[]{3});
+        List<JournalRecord> records = replay(journal);
+        journal.stop();
+
+        assertThat(journal.isRunning()).isFalse();
+        assertThat(records).extracting(JournalRecord::getMerchantTransactionId).containsExactly("T1", "T3");
+    }
+
+    @Test
+    void discardsTornRecordOnReopen() throws IOException {
+        TransactionJournal journal = open();
+        journal.append(JournalRecordType.SESSION_REQUEST, "T1", new byte[]{1});
+        journal.append(JournalRecordType.SESSION_REQUEST, "T2", new byte[]{2});
+        journal.stop();
+
+        // Corrupt the payload of the second record as a crash mid-write would.
+        Path segment = segments().get(0);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            int secondPayload = (8 + 11 + 2 + 1) + 8 + 11 + 2;
+            channel.write(ByteBuffer.wrap(new byte[]{9}), secondPayload);
+        }
+
+        journal = open();
+        journal.append(JournalRecordType.CALLBACK, "T3", new byte[]{3});
+        List<JournalRecord> records = replay(journal);
+        journal.stop();
+
+        assertThat(records).extracting(JournalRecord::getMerchantTransactionId).containsExactly("T1", "T3");
+    }
+
+    @Test
+    void compactionKeepsLatestRecordPerTransaction() throws IOException {
+        TransactionJournal journal = open();
+        for (int round = 0; round < 20; round++) {
+            for (int i = 0; i < 5; i++) {
+                journal.append(JournalRecordType.STATUS_CHANGE, "T" + i, ("round-" + round).getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        journal.compact();
+        List<JournalRecord> records = replay(journal);
+        journal.stop();
+
+        List<String> latestStatusPayloads = records.stream()
+                .filter(record -> record.getType() == JournalRecordType.STATUS_CHANGE)
+                .collect(Collectors.toMap(JournalRecord::getMerchantTransactionId,
+                        record -> new String(record.getPayload(), StandardCharsets.UTF_8), (first, second) -> second))
+                .values().stream().distinct().toList();
+        assertThat(latestStatusPayloads).containsExactly("round-19");
+        assertThat(records.size()).isLessThan(100);
+    }
+
+    @Test
+    void compactsIntoSegmentsNoLargerThanTheLiveOnes() throws IOException {
+        TransactionJournal journal = open();
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < 40; i++) {
+                journal.append(JournalRecordType.STATUS_CHANGE, "T" + i, ("round-" + round).getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        journal.compact();
+        List<JournalRecord> records = replay(journal);
+        journal.stop();
+
+        assertThat(segments()).hasSizeGreaterThan(2);
+        for (Path segment : segments()) {
+            assertThat(Files.size(segment)).isLessThanOrEqualTo(512);
+        }
+        Map<String, String> latest = records.stream()
+                .collect(Collectors.toMap(JournalRecord::getMerchantTransactionId,
+                        record -> new String(record.getPayload(), StandardCharsets.UTF_8), (first, second) -> second));
+        assertThat(latest).hasSize(40);
+        assertThat(latest.values()).containsOnly("round-2");
+    }
+
+    private TransactionJournal open() {
+        JournalProperties properties = new JournalProperties();
+        properties.setDirectory(directory);
+        properties.setSegmentSize(DataSize.ofBytes(512));
+        TransactionJournal journal = new TransactionJournal(properties, new SimpleMeterRegistry());
+        journal.start();
+        return journal;
+    }
+
+    private static List<JournalRecord> replay(TransactionJournal journal) throws IOException {
+        List<JournalRecord> records = new ArrayList<>();
+        journal.replay(records::add);
+        return records;
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().toList();
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package co.zw.telone.paymentgateway.ledger;
+
+import co.zw.telone.paymentgateway.config.LedgerProperties;
+import co.zw.telone.paymentgateway.event.TransactionStatusChangedEvent;
+import co.zw.telone.paymentgateway.model.CurrencyCode;
+import co.zw.telone.paymentgateway.model.LedgerEntry;
+import co.zw.telone.paymentgateway.model.Money;
+import co.zw.telone.paymentgateway.model.TransactionRecord;
+import co.zw.telone.paymentgateway.model.TransactionStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class LedgerWriterTest {
+
+    private final LedgerRepository ledgerRepository = mock(LedgerRepository.class);
+    private final List<List<LedgerEntry>> batches = new CopyOnWriteArrayList<>();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private LedgerWriter writer;
+
+    @AfterEach
+    void stop() throws InterruptedException {
+        writer.destroy();
+    }
+
+    @Test
+    void writesAFullBatchWithoutWaitingForTheInterval() throws InterruptedException {
+        recordBatches();
+        writer = new LedgerWriter(ledgerRepository, properties(3, Duration.ofMinutes(1)), meterRegistry);
+
+        for (int i = 0; i < 3; i++) {
+            writer.onStatusChanged(changed("T" + i));
+        }
+
+        awaitTrue(() -> batches.size() == 1);
+        assertThat(batches.get(0)).extracting(LedgerEntry::getMerchantTransactionId).containsExactly("T0", "T1", "T2");
+    }
+
+    @Test
+    void flushesAPartialBatchOnceItsOldestRowHasWaited() throws InterruptedException {
+        recordBatches();
+        writer = new LedgerWriter(ledgerRepository, properties(100, Duration.ofMillis(50)), meterRegistry);
+
+        writer.onStatusChanged(changed("T1"));
+        writer.onStatusChanged(changed("T2"));
+
+        awaitTrue(() -> !batches.isEmpty());
+        LedgerEntry entry = batches.get(0).get(0);
+        assertThat(batches.get(0)).hasSize(2);
+        assertThat(entry.getAmountInCents()).isEqualTo(12_550L);
+        assertThat(entry.getCurrency()).isEqualTo("USD");
+        assertThat(entry.getPreviousStatus()).isEqualTo(TransactionStatus.PENDING);
+        assertThat(entry.getBusinessDate()).isEqualTo(LocalDate.of(2024, 3, 1));
+    }
+
+    @Test
+    void drainsEveryRowOnShutdown() throws InterruptedException {
+        recordBatches();
+        writer = new LedgerWriter(ledgerRepository, properties(2, Duration.ofMinutes(1)), meterRegistry);
+
+        for (int i = 0; i < 5; i++) {
+            writer.onStatusChanged(changed("T" + i));
+        }
+        writer.destroy();
+
+        assertThat(batches.stream().flatMap(List::stream).map(LedgerEntry::getMerchantTransactionId))
+                .containsExactly("T0", "T1", "T2", "T3", "T4");
+    }
+
+    @Test
+    void retriesAFailedWriteBeforeDroppingTheBatch() throws InterruptedException {
+        doAnswer(invocation -> {
+            batches.add(List.copyOf(invocation.getArgument(0)));
+            throw new IllegalStateException("database down");
+        }).when(ledgerRepository).insertBatch(anyList());
+        writer = new LedgerWriter(ledgerRepository, properties(1, Duration.ofMillis(10)), meterRegistry);
+
+        writer.onStatusChanged(changed("T1"));
+
+        awaitTrue(() -> meterRegistry.counter("payment.ledger.dropped").count() == 1);
+        assertThat(batches).hasSize(3);
+    }
+
+    @Test
+    void writesTheRestOfABatchWhenOneRowIsRejected() throws InterruptedException {
+        doAnswer(invocation -> {
+            List<LedgerEntry> entries = invocation.getArgument(0);
+            if (entries.stream().anyMatch(entry -> entry.getMerchantTransactionId().equals("T1"))) {
+                throw new DataIntegrityViolationException("value too long for merchant_name");
+            }
+            batches.add(List.copyOf(entries));
+            return null;
+        }).when(ledgerRepository).insertBatch(anyList());
+        writer = new LedgerWriter(ledgerRepository, properties(3, Duration.ofMinutes(1)), meterRegistry);
+
+        for (int i = 0; i < 3; i++) {
+            writer.onStatusChanged(changed("T" + i));
+        }
+
+        awaitTrue(() -> meterRegistry.counter("payment.ledger.dropped").count() == 1 && batches.size() == 2);
+        assertThat(batches.stream().flatMap(List::stream).map(LedgerEntry::getMerchantTransactionId))
+                .containsExactly("T0", "T2");
+    }
+
+    @Test
+    void dropsAndCountsRowsWhileTheBufferIsFull() throws InterruptedException {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            writing.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            batches.add(List.copyOf(invocation.getArgument(0)));
+            return null;
+        }).when(ledgerRepository).insertBatch(anyList());
+        LedgerProperties properties = properties(1, Duration.ofMillis(10));
+        properties.setBufferCapacity(1);
+        writer = new LedgerWriter(ledgerRepository, properties, meterRegistry);
+
+        writer.onStatusChanged(changed("T1"));
+        assertThat(writing.await(10, TimeUnit.SECONDS)).isTrue();
+        writer.onStatusChanged(changed("T2"));
+        writer.onStatusChanged(changed("T3"));
+        release.countDown();
+
+        awaitTrue(() -> batches.size() == 2);
+        assertThat(meterRegistry.counter("payment.ledger.dropped").count()).isEqualTo(1);
+        assertThat(batches.stream().flatMap(List::stream).map(LedgerEntry::getMerchantTransactionId))
+                .containsExactly("T1", "T2");
+    }
+
+    private void recordBatches() {
+        doAnswer(invocation -> {
+            batches.add(List.copyOf(invocation.getArgument(0)));
+            return null;
+        }).when(ledgerRepository).insertBatch(anyList());
+    }
+
+    private static LedgerProperties properties(int batchSize, Duration flushInterval) {
+        LedgerProperties properties = new LedgerProperties();
+        properties.setBatchSize(batchSize);
+        properties.setFlushInterval(flushInterval);
+        return properties;
+    }
+
+    private static TransactionStatusChangedEvent changed(String merchantTransactionId) {
+        return new TransactionStatusChangedEvent(TransactionRecord.builder()
+                .merchantTransactionId(merchantTransactionId)
+                .sessionId("S-" + merchantTransactionId)
+                .merchantName("ACME")
+                .status(TransactionStatus.COMPLETE)
+                .amount(Money.of(12_550L, CurrencyCode.USD))
+                // 23:30 UTC is already the next day in Harare.
+                .updatedAt(LocalDate.of(2024, 2, 29).atTime(23, 30).toInstant(ZoneOffset.UTC).toEpochMilli())
+                .version(2)
+                .build(), TransactionStatus.PENDING);
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met in time").isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+}
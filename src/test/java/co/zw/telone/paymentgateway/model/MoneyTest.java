@@ -0,0 +1,46 @@
+package co.zw.telone.paymentgateway.model;
+
+import co.zw.telone.paymentgateway.response.PaymentSessionRequest;
+import co.zw.telone.paymentgateway.response.PaymentSessionResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MoneyTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void bindsStringOrNumericCents() throws Exception {
+        PaymentSessionRequest fromString = objectMapper.readValue(
+                "{\"amountInCents\":\"12550\",\"currency\":\"usd\"}", PaymentSessionRequest.class);
+        PaymentSessionRequest fromNumber = objectMapper.readValue(
+                "{\"amountInCents\":12550,\"currency\":\"USD\"}", PaymentSessionRequest.class);
+
+        assertThat(fromString.getAmount()).isEqualTo(Money.of(12550, CurrencyCode.USD));
+        assertThat(fromNumber.getAmount()).isEqualTo(fromString.getAmount());
+    }
+
+    @Test
+    void keepsCentsAsStringsOnTheWire() throws Exception {
+        String json = objectMapper.writeValueAsString(
+                PaymentSessionResponse.PaymentAmount.of(Money.of(9_000_000_000L, CurrencyCode.ZWG)));
+
+        assertThat(json).isEqualTo("{\"amountInCents\":\"9000000000\",\"currency\":\"ZWG\"}");
+    }
+
+    @Test
+    void rejectsMalformedAmounts() {
+        assertThatThrownBy(() -> objectMapper.readValue(
+                "{\"amountInCents\":\"12.50\",\"currency\":\"USD\"}", PaymentSessionRequest.class))
+                .isInstanceOf(InvalidFormatException.class);
+        assertThatThrownBy(() -> objectMapper.readValue(
+                "{\"amountInCents\":\"99999999999999999999\",\"currency\":\"USD\"}", PaymentSessionRequest.class))
+                .isInstanceOf(InvalidFormatException.class);
+        assertThatThrownBy(() -> CurrencyCode.of("XYZ")).isInstanceOf(IllegalArgumentException.class);
+        assertThat(Money.parseStored("abc", "USD")).isNull();
+    }
+}
@@ -0,0 +1,37 @@
+package co.zw.telone.paymentgateway.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TransactionStatusTest {
+
+    @Test
+    void followsLifecycle() {
+        assertThat(TransactionStatus.CREATED.canTransitionTo(TransactionStatus.PENDING)).isTrue();
+        assertThat(TransactionStatus.PENDING.canTransitionTo(TransactionStatus.COMPLETE)).isTrue();
+        assertThat(TransactionStatus.PENDING.canTransitionTo(TransactionStatus.EXPIRED)).isTrue();
+        assertThat(TransactionStatus.CREATED.canTransitionTo(TransactionStatus.COMPLETE)).isFalse();
+        assertThat(TransactionStatus.PENDING.canTransitionTo(TransactionStatus.CREATED)).isFalse();
+    }
+
+    @Test
+    void terminalStatesAreFinal() {
+        for (TransactionStatus terminal : new TransactionStatus[]{
+                TransactionStatus.COMPLETE, TransactionStatus.FAILED, TransactionStatus.EXPIRED}) {
+            assertThat(terminal.isTerminal()).isTrue();
+            for (TransactionStatus target : TransactionStatus.values()) {
+                assertThat(terminal.canTransitionTo(target)).isFalse();
+            }
+        }
+    }
+
+    @Test
+    void mapsGatewayStatuses() {
+        assertThat(TransactionStatus.fromGatewayStatus("Complete")).isEqualTo(TransactionStatus.COMPLETE);
+        assertThat(TransactionStatus.fromGatewayStatus("DECLINED")).isEqualTo(TransactionStatus.FAILED);
+        assertThat(TransactionStatus.fromGatewayStatus("expired")).isEqualTo(TransactionStatus.EXPIRED);
+        assertThat(TransactionStatus.fromGatewayStatus(null)).isEqualTo(TransactionStatus.PENDING);
+        assertThat(TransactionStatus.fromGatewayStatus("OPEN")).isEqualTo(TransactionStatus.PENDING);
+    }
+}
@@ -0,0 +1,55 @@
+package co.zw.telone.paymentgateway.reconciliation;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SettlementReconcilerTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void classifiesRowsAcrossManyRanges() throws IOException {
+        IssuedTransactions.Builder issued = IssuedTransactions.builder();
+        StringBuilder csv = new StringBuilder("settledAt,merchantTransactionId,amountInCents\r\n");
+        for (int i = 0; i < 20_000; i++) {
+            issued.add("T" + i, 100 + i);
+            if (i < 10) {
+                continue;                                                  // missing
+            }
+            long settled = i < 15 ? 1 : 100 + i;                           // 5 amount mismatches
+            csv.append("2026-10-19,\"T").append(i).append("\",").append(settled).append("\r\n");
+        }
+        csv.append("2026-10-19,X1,500\r\n");                               // never issued
+        csv.append("2026-10-19,T20,120\r\n");                              // settled twice
+        csv.append("2026-10-19,T21,not-a-number\n");                       // malformed
+        csv.append("2026-10-19,X2,700");                                   // no trailing newline
+        Path file = directory.resolve("settlement.csv");
+        Files.writeString(file, csv);
+
+        ReconciliationResult result = new SettlementReconciler(new ForkJoinPool(4), 0,
+                "merchantTransactionId", "amountInCents").reconcile(file, issued.build());
+
+        assertThat(result.getSettlementRows()).isEqualTo(19_990 + 4);
+        assertThat(result.getMatched()).isEqualTo(19_985);
+        assertThat(result.getMismatches()).hasSize(5);
+        assertThat(result.getMissing()).isEqualTo(10);
+        assertThat(result.getMalformed()).isEqualTo(1);
+        assertThat(result.getExtra()).extracting(ReconciliationResult.Extra::merchantTransactionId)
+                .containsExactlyInAnyOrder("X1", "T20", "X2");
+
+        result.writeReports(directory);
+        List<String> missing = Files.readAllLines(directory.resolve(ReconciliationResult.MISSING_REPORT));
+        assertThat(missing).hasSize(11).contains("T0,100", "T9,109");
+        assertThat(Files.readAllLines(directory.resolve(ReconciliationResult.AMOUNT_MISMATCH_REPORT)))
+                .contains("T10,110,1");
+    }
+}
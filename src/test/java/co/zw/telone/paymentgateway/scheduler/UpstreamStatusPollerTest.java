@@ -0,0 +1,112 @@
+package co.zw.telone.paymentgateway.scheduler;
+
+import co.zw.telone.paymentgateway.client.SessionApiClient;
+import co.zw.telone.paymentgateway.config.InterceptorTokenRefreshHandler;
+import co.zw.telone.paymentgateway.config.PollerProperties;
+import co.zw.telone.paymentgateway.exception.InvalidStatusTransitionException;
+import co.zw.telone.paymentgateway.model.TransactionRecord;
+import co.zw.telone.paymentgateway.model.TransactionStatus;
+import co.zw.telone.paymentgateway.service.TransactionStatusService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.fppt.jedismock.RedisServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import static co.zw.telone.paymentgateway.util.PaymentGatewayConstants.PENDING_SESSIONS_KEY;
+import static co.zw.telone.paymentgateway.util.PaymentGatewayConstants.TRANSACTION_KEY_PREFIX;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UpstreamStatusPollerTest {
+
+    private final TransactionStatusService statusService = mock(TransactionStatusService.class);
+    private final SessionApiClient sessionApiClient = mock(SessionApiClient.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private RedisServer redis;
+    private LettuceConnectionFactory connectionFactory;
+    private StringRedisTemplate redisTemplate;
+    private UpstreamStatusPoller poller;
+
+    @BeforeEach
+    void start() throws IOException {
+        redis = RedisServer.newRedisServer().start();
+        connectionFactory = new LettuceConnectionFactory(redis.getHost(), redis.getBindPort());
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+
+        PollerLeaderLease leaderLease = mock(PollerLeaderLease.class);
+        when(leaderLease.tryAcquire()).thenReturn(true);
+        InterceptorTokenRefreshHandler tokenHandler = mock(InterceptorTokenRefreshHandler.class);
+        when(tokenHandler.getToken()).thenReturn("token");
+        PollerProperties properties = new PollerProperties();
+        properties.setMaxAge(Duration.ofHours(1));
+        poller = new UpstreamStatusPoller(redisTemplate, leaderLease, properties, statusService,
+                sessionApiClient, tokenHandler, objectMapper, meterRegistry);
+        redisTemplate.opsForZSet().add(PENDING_SESSIONS_KEY, "T1", 0);
+    }
+
+    @AfterEach
+    void stop() throws IOException {
+        poller.destroy();
+        connectionFactory.destroy();
+        redis.stop();
+    }
+
+    @Test
+    void leavesATransactionThatFinishedBeforeItCouldExpire() {
+        when(statusService.getStatus("T1")).thenReturn(pending(System.currentTimeMillis() - Duration.ofHours(2).toMillis()));
+        when(statusService.transition("T1", TransactionStatus.EXPIRED, null))
+                .thenThrow(new InvalidStatusTransitionException("T1", TransactionStatus.COMPLETE, TransactionStatus.EXPIRED));
+
+        poller.poll();
+
+        assertThat(redisTemplate.opsForZSet().zCard(PENDING_SESSIONS_KEY)).isZero();
+        assertThat(meterRegistry.counter("payment.poller.polls", "outcome", "resolved").count()).isEqualTo(1);
+    }
+
+    @Test
+    void backsOffWhileTheUpstreamCannotAnswer() {
+        redisTemplate.opsForHash().put(TRANSACTION_KEY_PREFIX + "T1", "status", "PENDING");
+        when(statusService.getStatus("T1")).thenReturn(pending(System.currentTimeMillis()));
+        when(sessionApiClient.getSession(anyString(), anyString())).thenThrow(new IllegalStateException("timeout"));
+
+        poller.poll();
+
+        assertThat(redisTemplate.opsForHash().get(TRANSACTION_KEY_PREFIX + "T1", "pollAttempts")).isEqualTo("1");
+        assertThat(redisTemplate.opsForZSet().score(PENDING_SESSIONS_KEY, "T1")).isGreaterThan(System.currentTimeMillis());
+    }
+
+    @Test
+    void doesNotRecreateAStatusHashThatExpiredDuringThePoll() {
+        when(statusService.getStatus("T1")).thenReturn(pending(System.currentTimeMillis()));
+        when(sessionApiClient.getSession(anyString(), anyString())).thenThrow(new IllegalStateException("timeout"));
+
+        poller.poll();
+
+        assertThat(redisTemplate.hasKey(TRANSACTION_KEY_PREFIX + "T1")).isFalse();
+        assertThat(redisTemplate.opsForZSet().zCard(PENDING_SESSIONS_KEY)).isZero();
+    }
+
+    private static TransactionRecord pending(long createdAt) {
+        return TransactionRecord.builder()
+                .merchantTransactionId("T1")
+                .sessionId("S1")
+                .status(TransactionStatus.PENDING)
+                .createdAt(createdAt)
+                .updatedAt(createdAt)
+                .version(1)
+                .build();
+    }
+}
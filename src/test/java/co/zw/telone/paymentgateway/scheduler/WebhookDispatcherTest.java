@@ -0,0 +1,182 @@
+package co.zw.telone.paymentgateway.scheduler;
+
+import co.zw.telone.paymentgateway.config.WebhookProperties;
+import co.zw.telone.paymentgateway.event.TransactionStatusChangedEvent;
+import co.zw.telone.paymentgateway.model.TransactionRecord;
+import co.zw.telone.paymentgateway.model.TransactionStatus;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.fppt.jedismock.RedisServer;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static co.zw.telone.paymentgateway.util.PaymentGatewayConstants.WEBHOOK_DEAD_LETTER_KEY_PREFIX;
+import static co.zw.telone.paymentgateway.util.PaymentGatewayConstants.WEBHOOK_QUEUE_KEY_PREFIX;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WebhookDispatcherTest {
+
+    private static final String MERCHANT = "ACME";
+    private static final String SECRET = "s3cret";
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final List<Delivery> deliveries = new CopyOnWriteArrayList<>();
+    private final AtomicInteger responseStatus = new AtomicInteger(200);
+    private RedisServer redis;
+    private LettuceConnectionFactory connectionFactory;
+    private StringRedisTemplate redisTemplate;
+    private HttpServer merchant;
+    private WebhookProperties properties;
+    private WebhookDispatcher dispatcher;
+
+    record Delivery(String timestamp, String signature, String body) {
+    }
+
+    @BeforeEach
+    void start() throws IOException {
+        redis = RedisServer.newRedisServer().start();
+        connectionFactory = new LettuceConnectionFactory(redis.getHost(), redis.getBindPort());
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+
+        merchant = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        merchant.createContext("/hooks", exchange -> {
+            deliveries.add(new Delivery(exchange.getRequestHeaders().getFirst("X-Webhook-Timestamp"),
+                    exchange.getRequestHeaders().getFirst("X-Webhook-Signature"),
+                    new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8)));
+            exchange.sendResponseHeaders(responseStatus.get(), -1);
+            exchange.close();
+        });
+        merchant.start();
+
+        WebhookProperties.Merchant destination = new WebhookProperties.Merchant();
+        destination.setUrl("http://127.0.0.1:" + merchant.getAddress().getPort() + "/hooks");
+        destination.setSecret(SECRET);
+        properties = new WebhookProperties();
+        properties.getMerchants().put(MERCHANT, destination);
+        properties.setBackoffBase(Duration.ofMillis(1));
+        properties.setMaxBackoff(Duration.ofMillis(1));
+        properties.setMaxAttempts(3);
+        dispatcher = new WebhookDispatcher(redisTemplate, properties, objectMapper, new SimpleMeterRegistry());
+        dispatcher.start();
+    }
+
+    @AfterEach
+    void stop() throws IOException {
+        dispatcher.stop();
+        merchant.stop(0);
+        connectionFactory.destroy();
+        redis.stop();
+    }
+
+    @Test
+    void deliversASignedEventAndRemovesItFromTheQueue() throws Exception {
+        dispatcher.onStatusChanged(changed("T1", TransactionStatus.COMPLETE, 2));
+
+        dispatcher.dispatch();
+        awaitTrue(() -> queueSize() == 0);
+
+        assertThat(deliveries).hasSize(1);
+        Delivery delivery = deliveries.get(0);
+        assertThat(delivery.signature()).isEqualTo("sha256=" + sign(delivery.timestamp() + "." + delivery.body()));
+        JsonNode body = objectMapper.readTree(delivery.body());
+        assertThat(body.get("eventId").asText()).isEqualTo("T1:2");
+        assertThat(body.get("status").asText()).isEqualTo("COMPLETE");
+        assertThat(body.get("previousStatus").asText()).isEqualTo("PENDING");
+    }
+
+    @Test
+    void queuesNothingForCreationOrMerchantsWithoutADestination() {
+        dispatcher.onStatusChanged(changed("T1", TransactionStatus.CREATED, 0));
+        dispatcher.onStatusChanged(new TransactionStatusChangedEvent(TransactionRecord.builder()
+                .merchantTransactionId("T2").merchantName("GLOBEX").status(TransactionStatus.PENDING)
+                .updatedAt(System.currentTimeMillis()).version(1).build(), TransactionStatus.CREATED));
+
+        assertThat(queueSize()).isZero();
+        assertThat(redisTemplate.opsForZSet().zCard(WEBHOOK_QUEUE_KEY_PREFIX + "GLOBEX")).isZero();
+    }
+
+    @Test
+    void hidesAClaimedEventFromTheNextRound() {
+        properties.getMerchants().get(MERCHANT).setUrl("http://127.0.0.1:1/unreachable");
+        properties.setBackoffBase(Duration.ofMinutes(1));
+        properties.setMaxBackoff(Duration.ofMinutes(1));
+        dispatcher.onStatusChanged(changed("T1", TransactionStatus.COMPLETE, 2));
+
+        dispatcher.dispatch();
+
+        // Claimed or rescheduled, the event is no longer due.
+        Double score = redisTemplate.opsForZSet().score(WEBHOOK_QUEUE_KEY_PREFIX + MERCHANT,
+                redisTemplate.opsForZSet().range(WEBHOOK_QUEUE_KEY_PREFIX + MERCHANT, 0, 0).iterator().next());
+        assertThat(score).isGreaterThan(System.currentTimeMillis() + 30_000);
+    }
+
+    @Test
+    void retriesAFailedDeliveryAndDeadLettersItAfterMaxAttempts() throws Exception {
+        responseStatus.set(500);
+        dispatcher.onStatusChanged(changed("T1", TransactionStatus.FAILED, 2));
+
+        for (int round = 1; round <= properties.getMaxAttempts(); round++) {
+            int expected = round;
+            awaitTrue(() -> {
+                dispatcher.dispatch();
+                return deliveries.size() >= expected;
+            });
+        }
+        awaitTrue(() -> queueSize() == 0);
+
+        assertThat(deliveries).hasSize(properties.getMaxAttempts());
+        List<String> deadLetters = redisTemplate.opsForList().range(WEBHOOK_DEAD_LETTER_KEY_PREFIX + MERCHANT, 0, -1);
+        assertThat(deadLetters).hasSize(1);
+        assertThat(objectMapper.readTree(deadLetters.get(0)).get("eventId").asText()).isEqualTo("T1:2");
+    }
+
+    private static TransactionStatusChangedEvent changed(String merchantTransactionId, TransactionStatus status, long version) {
+        return new TransactionStatusChangedEvent(TransactionRecord.builder()
+                .merchantTransactionId(merchantTransactionId)
+                .sessionId("S-" + merchantTransactionId)
+                .merchantName(MERCHANT)
+                .status(status)
+                .updatedAt(System.currentTimeMillis())
+                .version(version)
+                .build(), status == TransactionStatus.CREATED ? null : TransactionStatus.PENDING);
+    }
+
+    private long queueSize() {
+        Long size = redisTemplate.opsForZSet().zCard(WEBHOOK_QUEUE_KEY_PREFIX + MERCHANT);
+        return size == null ? 0 : size;
+    }
+
+    private static String sign(String content) throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        return HexFormat.of().formatHex(mac.doFinal(content.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met in time").isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package co.zw.telone.paymentgateway.security;
+
+import co.zw.telone.paymentgateway.config.MerchantAccessProperties;
+import co.zw.telone.paymentgateway.config.RequestValidationProperties;
+import co.zw.telone.paymentgateway.config.WebhookProperties;
+import co.zw.telone.paymentgateway.exception.MerchantAccessDeniedException;
+import co.zw.telone.paymentgateway.exception.UnknownMerchantException;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MerchantAccessInterceptorTest {
+
+    private final MerchantAccessInterceptor interceptor = new MerchantAccessInterceptor(registry());
+
+    @Test
+    void letsAMerchantReadItsOwnData() {
+        assertThat(preHandle(request("ACME", "Bearer acme-key"))).isTrue();
+        assertThat(preHandle(request("ACME", "bearer acme-key"))).isTrue();
+    }
+
+    @Test
+    void refusesAMissingOrWrongKey() {
+        assertThatThrownBy(() -> preHandle(request("ACME", null))).isInstanceOf(MerchantAccessDeniedException.class);
+        assertThatThrownBy(() -> preHandle(request("ACME", "Bearer globex-key"))).isInstanceOf(MerchantAccessDeniedException.class);
+        assertThatThrownBy(() -> preHandle(request("ACME", "acme-key"))).isInstanceOf(MerchantAccessDeniedException.class);
+    }
+
+    @Test
+    void refusesARegisteredMerchantWithoutAKey() {
+        assertThatThrownBy(() -> preHandle(request("INITECH", "Bearer anything")))
+                .isInstanceOf(MerchantAccessDeniedException.class);
+    }
+
+    @Test
+    void rejectsMerchantsItDoesNotKnow() {
+        assertThatThrownBy(() -> preHandle(request("NOBODY", "Bearer acme-key"))).isInstanceOf(UnknownMerchantException.class);
+    }
+
+    private boolean preHandle(MockHttpServletRequest request) {
+        return interceptor.preHandle(request, new MockHttpServletResponse(), new Object());
+    }
+
+    private static MockHttpServletRequest request(String merchantName, String authorization) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/payment/merchants/" + merchantName + "/events");
+        request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, Map.of("merchantName", merchantName));
+        if (authorization != null) {
+            request.addHeader("Authorization", authorization);
+        }
+        return request;
+    }
+
+    private static MerchantRegistry registry() {
+        RequestValidationProperties validationProperties = new RequestValidationProperties();
+        validationProperties.setMerchants(Set.of("INITECH"));
+        MerchantAccessProperties accessProperties = new MerchantAccessProperties();
+        accessProperties.getApiKeys().put("ACME", "acme-key");
+        accessProperties.getApiKeys().put("GLOBEX", "globex-key");
+        return new MerchantRegistry(validationProperties, new WebhookProperties(), accessProperties);
+    }
+}
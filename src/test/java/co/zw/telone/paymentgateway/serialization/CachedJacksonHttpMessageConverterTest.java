@@ -0,0 +1,72 @@
+package co.zw.telone.paymentgateway.serialization;
+
+import com.fasterxml.jackson.annotation.JsonView;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+
+class CachedJacksonHttpMessageConverterTest {
+
+    private final CachedJacksonHttpMessageConverter converter =
+            new CachedJacksonHttpMessageConverter(new JsonCodecs(Jackson2ObjectMapperBuilder.json().build()));
+
+    interface Summary {
+    }
+
+    record Payment(@JsonView(Summary.class) String id, String secret) {
+    }
+
+    @Test
+    void leavesTheResponseStreamOpen() throws IOException {
+        OutputStream body = spy(new ByteArrayOutputStream());
+        MockHttpOutputMessage message = new MockHttpOutputMessage() {
+            @Override
+            public OutputStream getBody() {
+                return body;
+            }
+        };
+
+        converter.write(new Payment("P1", "s"), MediaType.APPLICATION_JSON, message);
+
+        verify(body, never()).close();
+        assertThat(body.toString()).isEqualTo("{\"id\":\"P1\",\"secret\":\"s\"}");
+    }
+
+    @Test
+    void appliesTheViewOfAMappingJacksonValue() throws IOException {
+        MappingJacksonValue value = new MappingJacksonValue(new Payment("P1", "s"));
+        value.setSerializationView(Summary.class);
+        MockHttpOutputMessage message = new MockHttpOutputMessage();
+
+        converter.write(value, MediaType.APPLICATION_JSON, message);
+
+        assertThat(message.getBodyAsString()).isEqualTo("{\"id\":\"P1\"}");
+    }
+
+    @Test
+    void writesProblemDetailsAsProblemJson() throws IOException {
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, "bad");
+        problem.setProperty("code", "MALFORMED_REQUEST");
+        MockHttpOutputMessage message = new MockHttpOutputMessage();
+
+        assertThat(converter.canWrite(ProblemDetail.class, MediaType.APPLICATION_PROBLEM_JSON)).isTrue();
+        converter.write(problem, MediaType.APPLICATION_PROBLEM_JSON, message);
+
+        assertThat(message.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_PROBLEM_JSON);
+        assertThat(message.getBodyAsString()).contains("\"status\":400", "\"detail\":\"bad\"", "\"code\":\"MALFORMED_REQUEST\"")
+                .doesNotContain("properties");
+    }
+}
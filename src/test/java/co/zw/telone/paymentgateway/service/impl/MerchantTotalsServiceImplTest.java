@@ -0,0 +1,129 @@
+package co.zw.telone.paymentgateway.service.impl;
+
+import co.zw.telone.paymentgateway.config.LedgerProperties;
+import co.zw.telone.paymentgateway.event.TransactionStatusChangedEvent;
+import co.zw.telone.paymentgateway.model.CurrencyCode;
+import co.zw.telone.paymentgateway.model.Money;
+import co.zw.telone.paymentgateway.model.TransactionRecord;
+import co.zw.telone.paymentgateway.model.TransactionStatus;
+import co.zw.telone.paymentgateway.response.MerchantDailyTotals;
+import com.github.fppt.jedismock.RedisServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.spy;
+
+class MerchantTotalsServiceImplTest {
+
+    private final LedgerProperties ledgerProperties = new LedgerProperties();
+    private RedisServer redis;
+    private LettuceConnectionFactory connectionFactory;
+    private StringRedisTemplate redisTemplate;
+    private MerchantTotalsServiceImpl service;
+
+    @BeforeEach
+    void start() throws IOException {
+        redis = RedisServer.newRedisServer().start();
+        connectionFactory = new LettuceConnectionFactory(redis.getHost(), redis.getBindPort());
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redisTemplate = spy(new StringRedisTemplate(connectionFactory));
+        service = new MerchantTotalsServiceImpl(redisTemplate, ledgerProperties, Duration.ofDays(400),
+                new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void stop() throws IOException {
+        connectionFactory.destroy();
+        redis.stop();
+    }
+
+    @Test
+    void keepsCountingADayWhoseCellWasRetired() {
+        LocalDate day = LocalDate.now(ledgerProperties.getZone()).minusDays(3);
+
+        service.onStatusChanged(completed(day, 1_000));
+        service.flush();
+        service.flush();
+        service.onStatusChanged(completed(day, 500));
+        service.flush();
+
+        assertThat(service.getDailyTotals("ACME", day).getTotals())
+                .containsExactly(new MerchantDailyTotals.Total("USD", TransactionStatus.COMPLETE, 2, 1_500));
+    }
+
+    @Test
+    void losesNoUpdateThatRacesAFlush() throws Exception {
+        LocalDate day = LocalDate.now(ledgerProperties.getZone()).minusDays(3);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int thread = 0; thread < 4; thread++) {
+                writers.add(executor.submit(() -> {
+                    for (int i = 0; i < 2_000; i++) {
+                        service.onStatusChanged(completed(day, 1));
+                    }
+                }));
+            }
+            while (!writers.stream().allMatch(Future::isDone)) {
+                service.flush();
+            }
+            for (Future<?> writer : writers) {
+                writer.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        service.flush();
+
+        assertThat(service.getDailyTotals("ACME", day).getTotals())
+                .containsExactly(new MerchantDailyTotals.Total("USD", TransactionStatus.COMPLETE, 8_000, 8_000));
+    }
+
+    @Test
+    void countsAFlushOnceWhenItsReplyIsLost() {
+        LocalDate day = LocalDate.now(ledgerProperties.getZone());
+        doAnswer(invocation -> {
+            invocation.callRealMethod();
+            throw new RedisConnectionFailureException("connection reset");
+        }).doCallRealMethod().when(redisTemplate).executePipelined(any(RedisCallback.class));
+
+        service.onStatusChanged(completed(day, 1_000));
+        service.flush();
+        service.onStatusChanged(completed(day, 500));
+        service.flush();
+        service.flush();
+
+        assertThat(service.getDailyTotals("ACME", day).getTotals())
+                .containsExactly(new MerchantDailyTotals.Total("USD", TransactionStatus.COMPLETE, 2, 1_500));
+    }
+
+    private TransactionStatusChangedEvent completed(LocalDate day, long amountInCents) {
+        return new TransactionStatusChangedEvent(TransactionRecord.builder()
+                .merchantTransactionId("T1")
+                .merchantName("ACME")
+                .status(TransactionStatus.COMPLETE)
+                .amount(Money.of(amountInCents, CurrencyCode.USD))
+                .updatedAt(day.atTime(12, 0).atZone(ledgerProperties.getZone()).toInstant().toEpochMilli())
+                .version(2)
+                .build(), TransactionStatus.PENDING);
+    }
+}
@@ -0,0 +1,186 @@
+package co.zw.telone.paymentgateway.service.impl;
+
+import co.zw.telone.paymentgateway.client.SessionApiClient;
+import co.zw.telone.paymentgateway.config.InterceptorTokenRefreshHandler;
+import co.zw.telone.paymentgateway.config.UpstreamRejectionCacheConfig.RejectionKey;
+import co.zw.telone.paymentgateway.config.UpstreamRejectionProperties;
+import co.zw.telone.paymentgateway.exception.PaymentGatewayException;
+import co.zw.telone.paymentgateway.exception.UpstreamAuthException;
+import co.zw.telone.paymentgateway.exception.UpstreamRejectedException;
+import co.zw.telone.paymentgateway.exception.UpstreamTransientException;
+import co.zw.telone.paymentgateway.exception.UpstreamUnavailableException;
+import co.zw.telone.paymentgateway.exception.UpstreamValidationException;
+import co.zw.telone.paymentgateway.journal.JournalRecordType;
+import co.zw.telone.paymentgateway.journal.TransactionJournal;
+import co.zw.telone.paymentgateway.model.CurrencyCode;
+import co.zw.telone.paymentgateway.model.TransactionRecord;
+import co.zw.telone.paymentgateway.model.TransactionStatus;
+import co.zw.telone.paymentgateway.model.UpstreamRejection;
+import co.zw.telone.paymentgateway.response.PaymentSessionRequest;
+import co.zw.telone.paymentgateway.response.TransactionStatusResponse;
+import co.zw.telone.paymentgateway.service.TransactionStatusService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import feign.Request;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PaymentGatewayServiceImplTest {
+
+    private final SessionApiClient sessionApiClient = mock(SessionApiClient.class);
+    private final InterceptorTokenRefreshHandler tokenHandler = mock(InterceptorTokenRefreshHandler.class);
+    private final TransactionStatusService statusService = mock(TransactionStatusService.class);
+    private final TransactionJournal journal = mock(TransactionJournal.class);
+    private final Cache<RejectionKey, UpstreamRejection> rejectionCache = Caffeine.newBuilder().build();
+    private final PaymentGatewayServiceImpl service = new PaymentGatewayServiceImpl(sessionApiClient, tokenHandler,
+            mock(RedisUniqueIdService.class), statusService, journal, new ObjectMapper(),
+            rejectionCache, new UpstreamRejectionProperties());
+
+    private final TransactionRecord pending = TransactionRecord.builder()
+            .merchantTransactionId("T1")
+            .sessionId("S1")
+            .status(TransactionStatus.PENDING)
+            .build();
+
+    @Test
+    void forgedCallbackCannotCompleteATransaction() {
+        when(tokenHandler.getToken()).thenReturn("token");
+        when(statusService.getStatus("T1")).thenReturn(pending);
+        when(sessionApiClient.getSession("Bearer token", "S1"))
+                .thenReturn(Map.of("data", Map.of("id", "S1", "sessionInfo", Map.of("status", "PENDING"))));
+
+        TransactionStatusResponse response = service.handlePaymentCallback("COMPLETE", "200", "T1");
+
+        assertThat(response.getStatus()).isEqualTo(TransactionStatus.PENDING);
+        verify(statusService, never()).transition(anyString(), any(), any());
+    }
+
+    @Test
+    void callbackAppliesTheStatusConfirmedByTheGateway() {
+        when(tokenHandler.getToken()).thenReturn("token");
+        when(statusService.getStatus("T1")).thenReturn(pending);
+        when(sessionApiClient.getSession("Bearer token", "S1"))
+                .thenReturn(Map.of("data", Map.of("id", "S1", "sessionInfo", Map.of("status", "DECLINED"))));
+        when(statusService.transition("T1", TransactionStatus.FAILED, null))
+                .thenReturn(pending.toBuilder().status(TransactionStatus.FAILED).build());
+
+        TransactionStatusResponse response = service.handlePaymentCallback("COMPLETE", "200", "T1");
+
+        assertThat(response.getStatus()).isEqualTo(TransactionStatus.FAILED);
+    }
+
+    @Test
+    void answersARepeatedPermanentRejectionWithoutCallingTheGateway() {
+        when(tokenHandler.getToken()).thenReturn("token");
+        when(sessionApiClient.createSession(anyString(), any()))
+                .thenThrow(rejection(new UpstreamRejection("INVALID_CURRENCY", "400", "Currency not enabled")));
+
+        assertThatThrownBy(() -> service.createPaymentSession(sessionRequest("T1")))
+                .isInstanceOf(UpstreamRejectedException.class);
+        // A new merchantTransactionId does not change what the gateway judged.
+        assertThatThrownBy(() -> service.createPaymentSession(sessionRequest("T2")))
+                .isInstanceOf(UpstreamRejectedException.class)
+                .hasMessageContaining("Currency not enabled");
+
+        verify(sessionApiClient, times(1)).createSession(anyString(), any());
+        assertThat(rejectionCache.asMap()).hasSize(1);
+    }
+
+    @Test
+    void neverCachesARejectionThatMayChange() {
+        when(tokenHandler.getToken()).thenReturn("token");
+        when(sessionApiClient.createSession(anyString(), any()))
+                .thenThrow(rejection(new UpstreamRejection("DUPLICATE_REFERENCE", "400", "Try again")));
+
+        assertThatThrownBy(() -> service.createPaymentSession(sessionRequest("T1")))
+                .isInstanceOf(PaymentGatewayException.class);
+        assertThatThrownBy(() -> service.createPaymentSession(sessionRequest("T2")))
+                .isInstanceOf(PaymentGatewayException.class);
+
+        verify(sessionApiClient, times(2)).createSession(anyString(), any());
+        assertThat(rejectionCache.asMap()).isEmpty();
+    }
+
+    @Test
+    void passesAnOverloadedGatewayOnAsServiceUnavailableWithRetryAfter() {
+        when(tokenHandler.getToken()).thenReturn("token");
+        UpstreamRejection busy = new UpstreamRejection("RATE_LIMITED", "429", "Slow down");
+        when(sessionApiClient.createSession(anyString(), any()))
+                .thenThrow(new UpstreamTransientException(429, "[429] createSession", request(),
+                        System.currentTimeMillis() + 30_000, new byte[0], Map.of(), busy));
+
+        assertThatThrownBy(() -> service.createPaymentSession(sessionRequest("T1")))
+                .isInstanceOfSatisfying(UpstreamUnavailableException.class, e -> {
+                    assertThat(e.getStatus()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+                    assertThat(e.getRetryAfterSeconds()).isBetween(29L, 30L);
+                    assertThat(e.getError()).isEqualTo(busy);
+                    assertThat(e.getStackTrace()).isEmpty();
+                });
+        verify(statusService).transition("T1", TransactionStatus.FAILED, null);
+    }
+
+    @Test
+    void answersRefusedGatewayCredentialsWithBadGateway() {
+        when(tokenHandler.getToken()).thenReturn("token");
+        when(sessionApiClient.createSession(anyString(), any()))
+                .thenThrow(new UpstreamAuthException(401, "[401] createSession", request(), new byte[0], Map.of(), null));
+
+        assertThatThrownBy(() -> service.createPaymentSession(sessionRequest("T1")))
+                .isInstanceOfSatisfying(UpstreamUnavailableException.class, e -> {
+                    assertThat(e.getStatus()).isEqualTo(HttpStatus.BAD_GATEWAY);
+                    assertThat(e.getRetryAfterSeconds()).isNull();
+                });
+    }
+
+    @Test
+    void journalsTheRawErrorBodyWithoutLettingTheJournalFailTheRequest() {
+        when(tokenHandler.getToken()).thenReturn("token");
+        byte[] body = "{\"error\":{\"code\":\"INVALID_CURRENCY\"}}".getBytes(StandardCharsets.UTF_8);
+        when(sessionApiClient.createSession(anyString(), any()))
+                .thenThrow(new UpstreamValidationException(400, "[400] createSession", request(), body, Map.of(),
+                        new UpstreamRejection("INVALID_CURRENCY", "400", "Currency not enabled")));
+        doThrow(new UncheckedIOException(new IOException("disk full")))
+                .when(journal).append(eq(JournalRecordType.UPSTREAM_RESPONSE), anyString(), any());
+
+        assertThatThrownBy(() -> service.createPaymentSession(sessionRequest("T1")))
+                .isInstanceOf(UpstreamRejectedException.class);
+        verify(journal).append(JournalRecordType.UPSTREAM_RESPONSE, "T1", body);
+    }
+
+    private static PaymentSessionRequest sessionRequest(String merchantTransactionId) {
+        return PaymentSessionRequest.builder()
+                .merchantTransactionId(merchantTransactionId)
+                .merchantName("ACME")
+                .amountInCents(12_550L)
+                .currency(CurrencyCode.USD)
+                .returnUrl("https://shop.example.com/done")
+                .build();
+    }
+
+    private static UpstreamValidationException rejection(UpstreamRejection error) {
+        return new UpstreamValidationException(400, "[400] createSession", request(), new byte[0], Map.of(), error);
+    }
+
+    private static Request request() {
+        return Request.create(Request.HttpMethod.POST, "http://gateway/session", Map.of(), null,
+                StandardCharsets.UTF_8, null);
+    }
+}
@@ -0,0 +1,84 @@
+package co.zw.telone.paymentgateway.service.impl;
+
+import co.zw.telone.paymentgateway.exception.BadRequestException;
+import co.zw.telone.paymentgateway.model.TransactionRecord;
+import co.zw.telone.paymentgateway.model.TransactionStatus;
+import co.zw.telone.paymentgateway.service.TransactionStatusService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TransactionStatusBatchServiceImplTest {
+
+    private final TransactionStatusService statusService = mock(TransactionStatusService.class);
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final TransactionStatusBatchServiceImpl service =
+            new TransactionStatusBatchServiceImpl(statusService, objectMapper, 2);
+
+    @Test
+    void streamsOneLinePerIdInRequestOrder() throws IOException {
+        knownIds("T1", "T3");
+
+        List<String> lines = stream("{\"merchantTransactionIds\": [\"T1\", \"T2\", \"T3\"]}");
+
+        assertThat(lines).hasSize(3);
+        assertThat(lines.get(0)).contains("\"merchantTransactionId\":\"T1\"", "\"status\":\"PENDING\"");
+        assertThat(lines.get(1)).isEqualTo("{\"merchantTransactionId\":\"T2\",\"error\":\"NOT_FOUND\"}");
+        assertThat(lines.get(2)).contains("\"merchantTransactionId\":\"T3\"");
+    }
+
+    @Test
+    void rejectsABadIdInTheFirstChunkBeforeStreaming() {
+        assertThatThrownBy(() -> service.prepareStatusStream(body("[\"T1\", 42]")))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    void endsWithAnErrorLineWhenTheBodyGoesWrongMidStream() throws IOException {
+        knownIds("T1", "T2", "T3");
+
+        List<String> lines = stream("[\"T1\", \"T2\", \"T3\", {\"id\": \"T4\"}, \"T5\"]");
+
+        assertThat(lines).hasSize(4);
+        assertThat(lines.get(2)).contains("\"merchantTransactionId\":\"T3\"");
+        assertThat(lines.get(3)).isEqualTo("{\"error\":\"MALFORMED_REQUEST\",\"processed\":3}");
+    }
+
+    private void knownIds(String... ids) {
+        Map<String, TransactionRecord> records = List.of(ids).stream()
+                .collect(Collectors.toMap(Function.identity(), id -> TransactionRecord.builder()
+                        .merchantTransactionId(id)
+                        .status(TransactionStatus.PENDING)
+                        .build()));
+        when(statusService.getStatuses(anyList())).thenAnswer(invocation -> {
+            List<String> requested = invocation.getArgument(0);
+            return requested.stream().filter(records::containsKey)
+                    .collect(Collectors.toMap(Function.identity(), records::get));
+        });
+    }
+
+    private List<String> stream(String requestBody) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        service.prepareStatusStream(body(requestBody)).writeTo(output);
+        return output.toString(StandardCharsets.UTF_8).lines().toList();
+    }
+
+    private static ByteArrayInputStream body(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,165 @@
+package co.zw.telone.paymentgateway.service.impl;
+
+import co.zw.telone.paymentgateway.event.TransactionStatusChangedEvent;
+import co.zw.telone.paymentgateway.exception.DuplicateTransactionException;
+import co.zw.telone.paymentgateway.exception.InvalidStatusTransitionException;
+import co.zw.telone.paymentgateway.exception.TransactionNotFoundException;
+import co.zw.telone.paymentgateway.model.CurrencyCode;
+import co.zw.telone.paymentgateway.model.TransactionRecord;
+import co.zw.telone.paymentgateway.model.TransactionStatus;
+import co.zw.telone.paymentgateway.response.PaymentSessionRequest;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.fppt.jedismock.RedisServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static co.zw.telone.paymentgateway.util.PaymentGatewayConstants.EVENT_SEQUENCE_KEY;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TransactionStatusServiceImplTest {
+
+    private RedisServer redis;
+    private LettuceConnectionFactory connectionFactory;
+    private final List<TransactionStatusChangedEvent> events = new ArrayList<>();
+    private TransactionStatusServiceImpl service;
+
+    @BeforeEach
+    void startRedis() throws IOException {
+        redis = RedisServer.newRedisServer().start();
+        connectionFactory = new LettuceConnectionFactory(redis.getHost(), redis.getBindPort());
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        service = newNode();
+    }
+
+    @AfterEach
+    void stopRedis() throws IOException {
+        connectionFactory.destroy();
+        redis.stop();
+    }
+
+    @Test
+    void movesThroughTheLifecycleAndAnnouncesEveryChange() {
+        service.recordCreated(request("T1"));
+        service.transition("T1", TransactionStatus.PENDING, "S1");
+        TransactionRecord complete = service.transition("T1", TransactionStatus.COMPLETE, null);
+
+        assertThat(complete.getVersion()).isEqualTo(2);
+        assertThat(complete.getSessionId()).isEqualTo("S1");
+        assertThat(service.findBySessionId("S1")).map(TransactionRecord::getStatus).hasValue(TransactionStatus.COMPLETE);
+        assertThat(events).extracting(event -> event.getRecord().getStatus())
+                .containsExactly(TransactionStatus.CREATED, TransactionStatus.PENDING, TransactionStatus.COMPLETE);
+        assertThat(events).extracting(TransactionStatusChangedEvent::getPreviousStatus)
+                .containsExactly(null, TransactionStatus.CREATED, TransactionStatus.PENDING);
+        assertThat(new StringRedisTemplate(connectionFactory).opsForValue().get(EVENT_SEQUENCE_KEY)).isEqualTo("3");
+    }
+
+    @Test
+    void rejectsTransitionsTheStateMachineForbids() {
+        service.recordCreated(request("T1"));
+        service.transition("T1", TransactionStatus.PENDING, "S1");
+        events.clear();
+
+        assertThatThrownBy(() -> service.transition("T1", TransactionStatus.CREATED, null))
+                .isInstanceOf(InvalidStatusTransitionException.class);
+        // Repeating the current status is a no-op rather than an error.
+        assertThat(service.transition("T1", TransactionStatus.PENDING, null).getVersion()).isEqualTo(1);
+        assertThatThrownBy(() -> service.transition("T2", TransactionStatus.PENDING, null))
+                .isInstanceOf(TransactionNotFoundException.class);
+        assertThat(events).isEmpty();
+    }
+
+    @Test
+    void transitionsCheckTheStoreNotTheNearCache() {
+        TransactionStatusServiceImpl otherNode = newNode();
+        service.recordCreated(request("T1"));
+        service.transition("T1", TransactionStatus.PENDING, "S1");
+        assertThat(otherNode.getStatus("T1").getStatus()).isEqualTo(TransactionStatus.PENDING);
+
+        service.transition("T1", TransactionStatus.COMPLETE, null);
+
+        // The other node still holds PENDING locally, but the compare-and-set runs against Redis.
+        assertThatThrownBy(() -> otherNode.transition("T1", TransactionStatus.FAILED, null))
+                .isInstanceOf(InvalidStatusTransitionException.class);
+        assertThat(otherNode.getStatus("T1").getStatus()).isEqualTo(TransactionStatus.PENDING);
+    }
+
+    @Test
+    void transitionInvalidatesTheLocalNearCache() {
+        service.recordCreated(request("T1"));
+        assertThat(service.getStatus("T1").getStatus()).isEqualTo(TransactionStatus.CREATED);
+
+        service.transition("T1", TransactionStatus.PENDING, "S1");
+
+        assertThat(service.getStatus("T1").getStatus()).isEqualTo(TransactionStatus.PENDING);
+        assertThat(service.getStatuses(List.of("T1")).get("T1").getVersion()).isEqualTo(1);
+    }
+
+    @Test
+    void rejectsReusedMerchantTransactionId() {
+        service.recordCreated(request("T1"));
+        service.transition("T1", TransactionStatus.PENDING, "S1");
+        service.transition("T1", TransactionStatus.COMPLETE, null);
+        events.clear();
+
+        assertThatThrownBy(() -> service.recordCreated(request("T1")))
+                .isInstanceOf(DuplicateTransactionException.class);
+
+        TransactionRecord record = service.getStatus("T1");
+        assertThat(record.getStatus()).isEqualTo(TransactionStatus.COMPLETE);
+        assertThat(record.getSessionId()).isEqualTo("S1");
+        assertThat(record.getVersion()).isEqualTo(2);
+        assertThat(events).isEmpty();
+    }
+
+    @Test
+    void restoresOnlyTransactionsThatAreMissing() {
+        service.recordCreated(request("T1"));
+        service.transition("T1", TransactionStatus.PENDING, "S1");
+        long now = System.currentTimeMillis();
+        TransactionRecord staleCopy = TransactionRecord.builder()
+                .merchantTransactionId("T1").status(TransactionStatus.CREATED)
+                .createdAt(now).updatedAt(now).build();
+        TransactionRecord lost = TransactionRecord.builder()
+                .merchantTransactionId("T2").sessionId("S2").status(TransactionStatus.PENDING)
+                .createdAt(now).updatedAt(now).version(1).build();
+        TransactionRecord expired = lost.toBuilder()
+                .merchantTransactionId("T3").sessionId(null).updatedAt(now - Duration.ofDays(2).toMillis()).build();
+        events.clear();
+
+        List<TransactionRecord> restored = service.restoreAll(List.of(staleCopy, lost, expired));
+
+        assertThat(restored).extracting(TransactionRecord::getMerchantTransactionId).containsExactly("T2");
+        assertThat(service.getStatus("T1").getStatus()).isEqualTo(TransactionStatus.PENDING);
+        assertThat(service.getStatus("T2").getStatus()).isEqualTo(TransactionStatus.PENDING);
+        assertThat(service.findBySessionId("S2")).map(TransactionRecord::getMerchantTransactionId).hasValue("T2");
+        assertThat(service.getStatuses(List.of("T3"))).isEmpty();
+        assertThat(events).isEmpty();
+    }
+
+    /** A service with its own near cache over the shared Redis, as on another node. */
+    private TransactionStatusServiceImpl newNode() {
+        return new TransactionStatusServiceImpl(new StringRedisTemplate(connectionFactory),
+                Caffeine.newBuilder().build(), event -> events.add((TransactionStatusChangedEvent) event),
+                Jackson2ObjectMapperBuilder.json().build(), Duration.ofDays(1));
+    }
+
+    private static PaymentSessionRequest request(String merchantTransactionId) {
+        PaymentSessionRequest request = new PaymentSessionRequest();
+        request.setMerchantTransactionId(merchantTransactionId);
+        request.setMerchantName("ACME");
+        request.setAmountInCents(12_550L);
+        request.setCurrency(CurrencyCode.USD);
+        return request;
+    }
+}
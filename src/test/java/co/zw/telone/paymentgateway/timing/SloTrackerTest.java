@@ -0,0 +1,73 @@
+package co.zw.telone.paymentgateway.timing;
+
+import co.zw.telone.paymentgateway.config.SloProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SloTrackerTest {
+
+    private static final String SESSION = "/api/v1/payment/session";
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void alertsOnlyWhileBothWindowsBurnFast() {
+        SloProperties properties = new SloProperties();
+        properties.setLatencyThreshold(Duration.ofMillis(500));
+        properties.setShortWindow(Duration.ofMinutes(2));
+        properties.setLongWindow(Duration.ofMinutes(4));
+        properties.setAlertBurnRate(8);
+        properties.setMaxMerchants(1);
+        SloTracker tracker = new SloTracker(properties, registry);
+
+        // Four quiet slots fill the long window with good requests.
+        for (int slot = 0; slot < 4; slot++) {
+            record(tracker, 100, 10, 200, "shop-a");
+            tracker.rotate();
+        }
+        assertThat(burnRate("endpoint", SESSION, "2m")).isZero();
+
+        // 20% bad burns a 1% budget 20 times too fast; diluted to 10 and 5 by the quiet slots.
+        record(tracker, 80, 10, 200, "shop-b");
+        record(tracker, 10, 900, 200, "shop-b");
+        record(tracker, 10, 10, 503, "shop-b");
+        tracker.rotate();
+        assertThat(burnRate("endpoint", SESSION, "2m")).isCloseTo(10, within());
+        assertThat(burnRate("endpoint", SESSION, "4m")).isCloseTo(5, within());
+        assertThat(alert("endpoint", SESSION)).isZero();
+
+        record(tracker, 80, 10, 200, "shop-b");
+        record(tracker, 20, 900, 200, "shop-b");
+        tracker.rotate();
+        assertThat(burnRate("endpoint", SESSION, "2m")).isCloseTo(20, within());
+        assertThat(burnRate("endpoint", SESSION, "4m")).isCloseTo(10, within());
+        assertThat(alert("endpoint", SESSION)).isEqualTo(1);
+        // shop-b arrived after the merchant limit was reached.
+        assertThat(alert("merchant", "other")).isEqualTo(1);
+        assertThat(alert("merchant", "shop-a")).isZero();
+        assertThat(registry.get("payment.slo.latency").tag("name", SESSION).gauge().value()).isGreaterThan(0.5);
+    }
+
+    private static void record(SloTracker tracker, int count, long millis, int status, String merchant) {
+        for (int i = 0; i < count; i++) {
+            tracker.record(SESSION, merchant, TimeUnit.MILLISECONDS.toNanos(millis), status);
+        }
+    }
+
+    private double burnRate(String scope, String name, String window) {
+        return registry.get("payment.slo.burn.rate").tags("scope", scope, "name", name, "window", window).gauge().value();
+    }
+
+    private double alert(String scope, String name) {
+        return registry.get("payment.slo.alert").tags("scope", scope, "name", name).gauge().value();
+    }
+
+    private static org.assertj.core.data.Offset<Double> within() {
+        return org.assertj.core.data.Offset.offset(1e-6);
+    }
+}
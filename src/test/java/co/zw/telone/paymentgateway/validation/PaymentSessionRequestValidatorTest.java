@@ -0,0 +1,138 @@
+package co.zw.telone.paymentgateway.validation;
+
+import co.zw.telone.paymentgateway.config.MerchantAccessProperties;
+import co.zw.telone.paymentgateway.config.RequestValidationProperties;
+import co.zw.telone.paymentgateway.config.WebhookProperties;
+import co.zw.telone.paymentgateway.model.CurrencyCode;
+import co.zw.telone.paymentgateway.response.PaymentSessionRequest;
+import co.zw.telone.paymentgateway.security.MerchantRegistry;
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorFactory;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PaymentSessionRequestValidatorTest {
+
+    private ValidatorFactory validatorFactory;
+
+    @AfterEach
+    void close() {
+        validatorFactory.close();
+    }
+
+    @Test
+    void acceptsAValidRequest() {
+        Validator validator = validator(new RequestValidationProperties(), new WebhookProperties());
+
+        assertThat(validator.validate(valid().build())).isEmpty();
+        assertThat(validator.validate(valid().merchantTransactionId(null).returnUrl(null).build())).isEmpty();
+    }
+
+    @Test
+    void reportsEveryFailingFieldOnItsOwn() {
+        RequestValidationProperties properties = new RequestValidationProperties();
+        properties.setMaxAmountInCents(10_000);
+        properties.setCurrencies(EnumSet.of(CurrencyCode.USD, CurrencyCode.ZWG));
+        properties.setMaxDescriptionLength(5);
+        Validator validator = validator(properties, new WebhookProperties());
+
+        Map<String, String> violations = violations(validator, valid()
+                .amountInCents(10_001L)
+                .currency(CurrencyCode.ZAR)
+                .merchantName(" ")
+                .merchantTransactionId("has spaces")
+                .description("too long")
+                .returnUrl("ftp://shop.example.com/done")
+                .build());
+
+        assertThat(violations).containsOnlyKeys("amountInCents", "currency", "merchantName",
+                "merchantTransactionId", "description", "returnUrl");
+        assertThat(violations.get("amountInCents")).isEqualTo("must be between 1 and 10000");
+        assertThat(violations.get("returnUrl")).isEqualTo("must be an absolute http or https URL");
+    }
+
+    @Test
+    void onlyAcceptsRegisteredMerchantsOnceAnyAreConfigured() {
+        RequestValidationProperties properties = new RequestValidationProperties();
+        properties.setMerchants(Set.of("ACME"));
+        WebhookProperties webhookProperties = new WebhookProperties();
+        webhookProperties.getMerchants().put("GLOBEX", new WebhookProperties.Merchant());
+        Validator validator = validator(properties, webhookProperties);
+
+        assertThat(validator.validate(valid().merchantName("ACME").build())).isEmpty();
+        assertThat(validator.validate(valid().merchantName("GLOBEX").build())).isEmpty();
+        assertThat(violations(validator, valid().merchantName("INITECH").build()))
+                .containsEntry("merchantName", "is not a registered merchant");
+    }
+
+    @Test
+    void rejectsMerchantNamesTooLongForTheLedger() {
+        Validator validator = validator(new RequestValidationProperties(), new WebhookProperties());
+
+        assertThat(validator.validate(valid().merchantName("M".repeat(128)).build())).isEmpty();
+        assertThat(violations(validator, valid().merchantName("M".repeat(129)).build()))
+                .containsEntry("merchantName", "must be at most 128 characters");
+    }
+
+    @Test
+    void allowsReturnUrlsOnListedHostsAndTheirSubdomains() {
+        RequestValidationProperties properties = new RequestValidationProperties();
+        properties.setReturnUrlHosts(Set.of("Example.com"));
+        Validator validator = validator(properties, new WebhookProperties());
+
+        assertThat(validator.validate(valid().returnUrl("https://example.com/done").build())).isEmpty();
+        assertThat(validator.validate(valid().returnUrl("https://pay.shop.EXAMPLE.com/done").build())).isEmpty();
+        assertThat(violations(validator, valid().returnUrl("https://example.com.evil.net/done").build()))
+                .containsEntry("returnUrl", "host is not allowed");
+        assertThat(violations(validator, valid().returnUrl("https://notexample.com/").build()))
+                .containsEntry("returnUrl", "host is not allowed");
+    }
+
+    private static PaymentSessionRequest.PaymentSessionRequestBuilder valid() {
+        return PaymentSessionRequest.builder()
+                .amountInCents(12_550L)
+                .currency(CurrencyCode.USD)
+                .merchantName("ACME")
+                .merchantTransactionId("order-42_a.1")
+                .description("Order 42")
+                .returnUrl("https://shop.example.com/done");
+    }
+
+    private static Map<String, String> violations(Validator validator, PaymentSessionRequest request) {
+        return validator.validate(request).stream()
+                .collect(Collectors.toMap(violation -> violation.getPropertyPath().toString(),
+                        ConstraintViolation::getMessage));
+    }
+
+    /** A Bean Validation validator that builds the request validator from the given configuration. */
+    private Validator validator(RequestValidationProperties properties, WebhookProperties webhookProperties) {
+        var configuration = Validation.byDefaultProvider().configure();
+        ConstraintValidatorFactory defaults = configuration.getDefaultConstraintValidatorFactory();
+        validatorFactory = configuration.constraintValidatorFactory(new ConstraintValidatorFactory() {
+            @Override
+            public <T extends ConstraintValidator<?, ?>> T getInstance(Class<T> key) {
+                return key == PaymentSessionRequestValidator.class
+                        ? key.cast(new PaymentSessionRequestValidator(properties,
+                                new MerchantRegistry(properties, webhookProperties, new MerchantAccessProperties())))
+                        : defaults.getInstance(key);
+            }
+
+            @Override
+            public void releaseInstance(ConstraintValidator<?, ?> instance) {
+                defaults.releaseInstance(instance);
+            }
+        }).buildValidatorFactory();
+        return validatorFactory.getValidator();
+    }
+}